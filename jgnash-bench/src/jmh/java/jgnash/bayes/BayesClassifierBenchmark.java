@@ -0,0 +1,83 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bayes;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures classification of a transaction description after training with a history of descriptions.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BayesClassifierBenchmark {
+
+    private static final long SEED = 20181018L;
+
+    private static final String[] WORDS = {"grocery", "store", "gas", "station", "electric", "company", "water",
+            "utility", "pharmacy", "hardware", "coffee", "shop", "book", "restaurant", "insurance", "market", "deli",
+            "bakery", "pizza", "cinema", "airline", "hotel", "parking", "toll", "bank", "fee", "interest", "payroll",
+            "deposit", "transfer"};
+
+    private static final int CLASSES = 25;
+
+    /**
+     * Number of training items.
+     */
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private BayesClassifier<Integer> classifier;
+
+    private String item;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(SEED);
+
+        classifier = new BayesClassifier<>(-1);
+
+        for (int i = 0; i < size; i++) {
+            classifier.train(description(random), random.nextInt(CLASSES));
+        }
+
+        item = description(random);
+    }
+
+    private static String description(final Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + ' ' + WORDS[random.nextInt(WORDS.length)] + " #"
+                + random.nextInt(1_000);
+    }
+
+    @Benchmark
+    public Integer classify() {
+        return classifier.classify(item);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.convert.exportantur.ofx.OfxExport;
+import jgnash.convert.importat.BayesImportClassifier;
+import jgnash.convert.importat.GenericImport;
+import jgnash.convert.importat.ofx.OfxBank;
+import jgnash.convert.importat.ofx.OfxImport;
+import jgnash.convert.importat.ofx.OfxV2Parser;
+import jgnash.engine.Account;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures importing an OFX statement the way the import wizard does: parse, match against existing transactions,
+ * classify and add.
+ * <p>
+ * The statement is an export of the most recent months of the checking account and is imported into the savings
+ * account, so most transactions are new.  Each measurement imports into a fresh copy of the ledger.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    private static final int STATEMENT_MONTHS = 3;
+
+    @Param({"BINARY_XSTREAM", "COMPACT_BINARY", "XML", "H2MV_DATABASE", "HSQL_DATABASE"})
+    private DataStoreType type;
+
+    @Param({"10000", "100000"})
+    private int transactions;
+
+    private Path ledger;
+
+    private Path statementDirectory;
+
+    private Path statement;
+
+    private Path copy;
+
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ledger = LedgerFiles.getLedger(type, transactions);
+
+        statementDirectory = Files.createTempDirectory("jgnash-bench");
+        statement = statementDirectory.resolve("statement.ofx");
+
+        final Engine engine = openCopy();
+
+        final LocalDate endDate = LocalDate.of(LedgerFiles.createGenerator(transactions).getEndYear(), 12, 31);
+
+        new OfxExport(engine.getAccountByName(LedgerGenerator.CHECKING_ACCOUNT),
+                endDate.minusMonths(STATEMENT_MONTHS), endDate, statement.toFile()).exportAccount();
+
+        closeCopy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LedgerFiles.deleteDirectory(statementDirectory);
+    }
+
+    @Setup(Level.Invocation)
+    public void openLedger() throws IOException {
+        account = Objects.requireNonNull(openCopy().getAccountByName(LedgerGenerator.SAVINGS_ACCOUNT));
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLedger() throws IOException {
+        closeCopy();
+    }
+
+    private Engine openCopy() throws IOException {
+        copy = LedgerFiles.copyLedger(ledger);
+
+        final Engine engine = EngineFactory.bootLocalEngine(copy.toString(), EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD, type);
+
+        Objects.requireNonNull(engine).awaitTransactions(LocalDate.MIN);
+
+        return engine;
+    }
+
+    private void closeCopy() throws IOException {
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        LedgerFiles.deleteDirectory(copy.getParent());
+    }
+
+    @Benchmark
+    public int importStatement() throws Exception {
+        final OfxBank bank = OfxV2Parser.parse(statement);
+
+        GenericImport.matchTransactions(bank.getTransactions(), account);
+        BayesImportClassifier.classifyTransactions(bank.getTransactions(), account.getSortedTransactionList(),
+                account);
+
+        OfxImport.importTransactions(bank, account);
+
+        return bank.getTransactions().size();
+    }
+}
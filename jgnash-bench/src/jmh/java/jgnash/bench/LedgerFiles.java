@@ -0,0 +1,157 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Stream;
+
+import jgnash.engine.DataStoreType;
+
+/**
+ * Manages the generated ledgers used by the macro benchmarks.
+ * <p>
+ * Generating a large ledger takes much longer than the operations being measured, so each ledger is generated once
+ * and kept in a cache directory for later runs.  The directory defaults to {@code jgnash-bench} within the temporary
+ * directory and may be changed with the {@value #DIRECTORY_PROPERTY} system property.  Each ledger is kept in its own
+ * directory because the relational stores use several files.
+ *
+ * @author Craig Cavanaugh
+ */
+final class LedgerFiles {
+
+    static final String DIRECTORY_PROPERTY = "jgnash.bench.ledgers";
+
+    /**
+     * Written after a ledger has been generated completely.
+     */
+    private static final String COMPLETE_MARKER = "complete";
+
+    private static final String LEDGER_NAME = "ledger";
+
+    private LedgerFiles() {
+        // utility class
+    }
+
+    /**
+     * Creates the generator for a ledger size.  Split and investment transactions scale with the number of
+     * transactions.
+     *
+     * @param transactions number of double entry transactions
+     * @return the generator
+     */
+    static LedgerGenerator createGenerator(final int transactions) {
+        final LedgerGenerator generator = new LedgerGenerator();
+
+        generator.setTransactions(transactions);
+        generator.setSplitTransactions(transactions / 10);
+        generator.setInvestmentTransactions(transactions / 20);
+
+        return generator;
+    }
+
+    /**
+     * Returns a generated ledger, generating it first if it is not cached.
+     *
+     * @param type         storage type
+     * @param transactions number of double entry transactions
+     * @return path to the ledger
+     * @throws IOException if the ledger could not be generated
+     */
+    static synchronized Path getLedger(final DataStoreType type, final int transactions) throws IOException {
+        final LedgerGenerator generator = createGenerator(transactions);
+
+        final Path directory = getCacheDirectory().resolve(type.name() + "-" + transactions + "-"
+                + Integer.toHexString(generator.toString().hashCode()));
+
+        final Path ledger = directory.resolve(LEDGER_NAME + type.getDataStore().getFileExt());
+        final Path marker = directory.resolve(COMPLETE_MARKER);
+
+        if (Files.notExists(marker)) {
+            if (Files.exists(directory)) {
+                deleteDirectory(directory);   // left over from an interrupted generation
+            }
+
+            Files.createDirectories(directory);
+
+            generator.generate(ledger, type);
+
+            Files.createFile(marker);
+        }
+
+        return ledger;
+    }
+
+    /**
+     * Copies a ledger and any accompanying files to a new temporary directory so it may be modified.
+     *
+     * @param ledger ledger to copy
+     * @return path to the copied ledger
+     * @throws IOException if the copy failed
+     */
+    static Path copyLedger(final Path ledger) throws IOException {
+        final Path target = Files.createTempDirectory("jgnash-bench");
+
+        try (final Stream<Path> stream = Files.list(ledger.getParent())) {
+            for (final Path path : (Iterable<Path>) stream::iterator) {
+                if (Files.isRegularFile(path) && !path.getFileName().toString().equals(COMPLETE_MARKER)) {
+                    Files.copy(path, target.resolve(path.getFileName()));
+                }
+            }
+        }
+
+        return target.resolve(ledger.getFileName());
+    }
+
+    /**
+     * Deletes a directory and its content.
+     *
+     * @param directory directory to delete
+     * @throws IOException if a file could not be deleted
+     */
+    static void deleteDirectory(final Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Path getCacheDirectory() {
+        final String directory = System.getProperty(DIRECTORY_PROPERTY);
+
+        if (directory != null) {
+            return Paths.get(directory);
+        }
+
+        return Paths.get(System.getProperty("java.io.tmpdir"), "jgnash-bench");
+    }
+}
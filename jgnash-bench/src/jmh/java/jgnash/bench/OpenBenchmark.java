@@ -0,0 +1,94 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures opening a generated ledger until every transaction is available.  Each measurement opens a fresh copy of
+ * the ledger.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OpenBenchmark {
+
+    @Param({"BINARY_XSTREAM", "COMPACT_BINARY", "XML", "H2MV_DATABASE", "HSQL_DATABASE"})
+    private DataStoreType type;
+
+    @Param({"10000", "100000"})
+    private int transactions;
+
+    private Path ledger;
+
+    private Path copy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ledger = LedgerFiles.getLedger(type, transactions);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyLedger() throws IOException {
+        copy = LedgerFiles.copyLedger(ledger);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLedger() throws IOException {
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        LedgerFiles.deleteDirectory(copy.getParent());
+    }
+
+    @Benchmark
+    public Engine open() throws IOException {
+        final Engine engine = EngineFactory.bootLocalEngine(copy.toString(), EngineFactory.DEFAULT,
+                EngineFactory.EMPTY_PASSWORD, type);
+
+        if (engine != null) {
+            engine.awaitTransactions(LocalDate.MIN);
+        }
+
+        return engine;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jgnash.engine.Account;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A generated ledger that is open as the default engine for the whole trial.  A copy of the cached ledger is opened
+ * so the cache is never modified.
+ *
+ * @author Craig Cavanaugh
+ */
+@State(Scope.Benchmark)
+public class OpenLedger {
+
+    @Param({"BINARY_XSTREAM", "COMPACT_BINARY", "XML", "H2MV_DATABASE", "HSQL_DATABASE"})
+    DataStoreType type;
+
+    @Param({"10000", "100000"})
+    int transactions;
+
+    Engine engine;
+
+    private Path copy;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        copy = LedgerFiles.copyLedger(LedgerFiles.getLedger(type, transactions));
+
+        engine = EngineFactory.bootLocalEngine(copy.toString(), EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                type);
+
+        Objects.requireNonNull(engine);
+
+        // measure with the complete history
+        engine.awaitTransactions(LocalDate.MIN);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        engine = null;
+
+        LedgerFiles.deleteDirectory(copy.getParent());
+    }
+
+    Account getAccount(final String name) {
+        return Objects.requireNonNull(engine.getAccountByName(name));
+    }
+}
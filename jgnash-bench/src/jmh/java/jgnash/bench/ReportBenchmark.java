@@ -0,0 +1,119 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountGroup;
+import jgnash.engine.InvestmentPerformanceSummary;
+import jgnash.engine.budget.Budget;
+import jgnash.engine.budget.BudgetPeriodDescriptor;
+import jgnash.engine.budget.BudgetResultsModel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the calculations behind the reports and views that summarize a whole ledger.  Only the calculations are
+ * measured, the user interface is not involved.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReportBenchmark {
+
+    /**
+     * Monthly income and expense balances for the most recent year, as shown by the crosstab reports.
+     *
+     * @param ledger open ledger
+     * @return balances by account
+     */
+    @Benchmark
+    public Map<Account, List<BigDecimal>> crosstabReport(final OpenLedger ledger) {
+        final int year = LedgerFiles.createGenerator(ledger.transactions).getEndYear();
+
+        final List<LocalDate> startDates = new ArrayList<>();
+        final List<LocalDate> endDates = new ArrayList<>();
+
+        for (int month = 1; month <= 12; month++) {
+            final LocalDate startDate = LocalDate.of(year, month, 1);
+
+            startDates.add(startDate);
+            endDates.add(startDate.withDayOfMonth(startDate.lengthOfMonth()));
+        }
+
+        final List<Account> accounts = new ArrayList<>(ledger.engine.getIncomeAccountList());
+        accounts.addAll(ledger.engine.getExpenseAccountList());
+
+        return ledger.engine.getBalances(accounts, startDates, endDates);
+    }
+
+    /**
+     * Every cell of the budget year view: each account and group for each period and their summaries.
+     *
+     * @param ledger open ledger
+     * @return the populated model
+     */
+    @Benchmark
+    public BudgetResultsModel budgetYearView(final OpenLedger ledger) {
+        final Budget budget = ledger.engine.getBudgetList().get(0);
+
+        final BudgetResultsModel model = new BudgetResultsModel(budget, budget.getWorkingYear(),
+                ledger.engine.getDefaultCurrency(), false);
+
+        for (final BudgetPeriodDescriptor descriptor : model.getDescriptorList()) {
+            for (final Account account : model.getAccounts()) {
+                model.getResults(descriptor, account);
+            }
+
+            for (final AccountGroup group : model.getAccountGroupList()) {
+                model.getResults(descriptor, group);
+            }
+        }
+
+        for (final Account account : model.getAccounts()) {
+            model.getResults(account);
+        }
+
+        for (final AccountGroup group : model.getAccountGroupList()) {
+            model.getResults(group);
+        }
+
+        return model;
+    }
+
+    @Benchmark
+    public InvestmentPerformanceSummary portfolioSummary(final OpenLedger ledger) {
+        return new InvestmentPerformanceSummary(ledger.getAccount(LedgerGenerator.BROKERAGE_ACCOUNT), true);
+    }
+}
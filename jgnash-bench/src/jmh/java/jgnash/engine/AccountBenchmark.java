@@ -0,0 +1,118 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures adding and removing transactions and the balance calculations of an {@code Account}.
+ * <p>
+ * Balances are cached by the account, so the cache is cleared before each balance calculation to measure the
+ * calculation and not the cache.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+    /**
+     * Number of transactions in the measured account.
+     */
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private RootAccount root;
+
+    private Account bankAccount;
+
+    private Account expenseAccount;
+
+    private Transaction extraTransaction;
+
+    private Transaction middleTransaction;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkData.SEED);
+
+        root = new RootAccount(BenchmarkData.createCurrency());
+        bankAccount = BenchmarkData.createAccount(root, AccountType.BANK, "Checking");
+        expenseAccount = BenchmarkData.createAccount(root, AccountType.EXPENSE, "Groceries");
+
+        BenchmarkData.addTransactions(BenchmarkData.createTransactions(expenseAccount, bankAccount, size, random));
+
+        // dated in the middle of the register so the sort has to move it
+        extraTransaction = BenchmarkData.createTransaction(expenseAccount, bankAccount,
+                BenchmarkData.START_DATE.plusDays(size / 2), random);
+
+        middleTransaction = bankAccount.getTransactionAt(size / 2);
+    }
+
+    /**
+     * The account is returned to its original state so each invocation sees the same register size.
+     *
+     * @return result of the removal
+     */
+    @Benchmark
+    public boolean addRemoveTransaction() {
+        bankAccount.addTransaction(extraTransaction);
+        return bankAccount.removeTransaction(extraTransaction);
+    }
+
+    @Benchmark
+    public BigDecimal getBalance() {
+        bankAccount.clearCachedBalances();
+        return bankAccount.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal getCachedBalance() {
+        return bankAccount.getBalance();
+    }
+
+    @Benchmark
+    public BigDecimal getBalanceAtIndex() {
+        return bankAccount.getBalanceAt(size / 2);
+    }
+
+    @Benchmark
+    public BigDecimal getBalanceAtTransaction() {
+        return bankAccount.getBalanceAt(middleTransaction);
+    }
+
+    @Benchmark
+    public BigDecimal getTreeBalance() {
+        bankAccount.clearCachedBalances();
+        expenseAccount.clearCachedBalances();
+
+        return root.getTreeBalance();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds the deterministic datasets shared by the benchmarks.  Objects are created directly without an
+ * {@code Engine} so that only the code under measurement is exercised.
+ *
+ * @author Craig Cavanaugh
+ */
+final class BenchmarkData {
+
+    /**
+     * Fixed seed so every run and every release measures the same data.
+     */
+    static final long SEED = 20181018L;
+
+    static final LocalDate START_DATE = LocalDate.of(2000, 1, 1);
+
+    private static final String[] PAYEES = {"Grocery Store", "Gas Station", "Electric Company", "Water Utility",
+            "Pharmacy", "Hardware Store", "Coffee Shop", "Book Store", "Restaurant", "Insurance Company"};
+
+    private BenchmarkData() {
+        // utility class
+    }
+
+    static CurrencyNode createCurrency() {
+        return DefaultCurrencies.buildNode(Locale.US);
+    }
+
+    static Account createAccount(final Account parent, final AccountType type, final String name) {
+        final Account account = new Account(type, parent.getCurrencyNode());
+        account.setName(name);
+
+        parent.addChild(account);
+
+        return account;
+    }
+
+    static SecurityNode createSecurity(final CurrencyNode currency, final String symbol) {
+        final SecurityNode node = new SecurityNode(currency);
+        node.setSymbol(symbol);
+        node.setScale((byte) 2);
+
+        return node;
+    }
+
+    /**
+     * Creates double entry transactions spread one per day from {@link #START_DATE} with random amounts.
+     *
+     * @param credit credit account
+     * @param debit  debit account
+     * @param count  number of transactions to create
+     * @param random source of amounts
+     * @return transactions in chronological order, not yet added to the accounts
+     */
+    static List<Transaction> createTransactions(final Account credit, final Account debit, final int count,
+                                                final Random random) {
+        final List<Transaction> transactions = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            transactions.add(createTransaction(credit, debit, START_DATE.plusDays(i), random));
+        }
+
+        return transactions;
+    }
+
+    static Transaction createTransaction(final Account credit, final Account debit, final LocalDate date,
+                                         final Random random) {
+        final BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000) + 1, 2);
+
+        return TransactionFactory.generateDoubleEntryTransaction(credit, debit, amount, date, "",
+                PAYEES[random.nextInt(PAYEES.length)], "");
+    }
+
+    /**
+     * Adds transactions to the accounts they reference.  The accounts are sorted once instead of per transaction.
+     *
+     * @param transactions transactions to add
+     */
+    static void addTransactions(final List<Transaction> transactions) {
+        final Map<Account, List<Transaction>> accountMap = new HashMap<>();
+
+        for (final Transaction transaction : transactions) {
+            for (final Account account : transaction.getAccounts()) {
+                accountMap.computeIfAbsent(account, k -> new ArrayList<>()).add(transaction);
+            }
+        }
+
+        accountMap.forEach(Account::addTransactions);
+    }
+
+    /**
+     * Creates security prices following a random walk, one every {@code interval} days from {@link #START_DATE}.
+     *
+     * @param node     security to add the history to
+     * @param count    number of history nodes
+     * @param interval days between history nodes
+     * @param random   source of price changes
+     */
+    static void addSecurityHistory(final SecurityNode node, final int count, final int interval, final Random random) {
+        BigDecimal price = BigDecimal.valueOf(5000, 2);
+
+        for (int i = 0; i < count; i++) {
+            price = price.add(BigDecimal.valueOf(random.nextInt(201) - 100, 2)).max(BigDecimal.ONE);
+
+            node.addHistoryNode(new SecurityHistoryNode(START_DATE.plusDays((long) i * interval), price,
+                    random.nextInt(10_000), price, price));
+        }
+    }
+
+    static String payee(final Random random) {
+        return PAYEES[random.nextInt(PAYEES.length)];
+    }
+
+    static <T> List<T> shuffledCopy(final List<T> list, final Random random) {
+        final List<T> copy = new ArrayList<>(list);
+        Collections.shuffle(copy, random);
+
+        return copy;
+    }
+}
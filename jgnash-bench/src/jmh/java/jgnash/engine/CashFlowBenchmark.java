@@ -0,0 +1,79 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the internal rate of return calculation used by the investment performance summary.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CashFlowBenchmark {
+
+    /**
+     * The cash flows are spread over ten years regardless of their number.
+     */
+    private static final int PERIOD_DAYS = 3650;
+
+    /**
+     * Number of cash flows.
+     */
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private CashFlow cashFlow;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkData.SEED);
+
+        cashFlow = new CashFlow();
+
+        // regular investments followed by a single payout that returns a gain
+        BigDecimal invested = BigDecimal.ZERO;
+
+        for (int i = 0; i < size - 1; i++) {
+            final BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000) + 1_000, 2);
+
+            cashFlow.add(BenchmarkData.START_DATE.plusDays((long) i * PERIOD_DAYS / size), amount.negate());
+            invested = invested.add(amount);
+        }
+
+        cashFlow.add(BenchmarkData.START_DATE.plusDays(PERIOD_DAYS), invested.multiply(new BigDecimal("1.25")));
+    }
+
+    @Benchmark
+    public double internalRateOfReturn() {
+        return cashFlow.internalRateOfReturn();
+    }
+}
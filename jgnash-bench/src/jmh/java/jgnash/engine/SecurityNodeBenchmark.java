@@ -0,0 +1,134 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures security history lookups and market price resolution.
+ * <p>
+ * History is recorded every other day.  Lookups in the middle of the history fall between two history nodes so the
+ * closest node has to be searched for, and {@code Engine.getMarketPrice} also scans the investment transactions.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SecurityNodeBenchmark {
+
+    private static final int HISTORY_INTERVAL = 2;
+
+    /**
+     * Number of investment transactions per history node.
+     */
+    private static final int TRANSACTION_RATIO = 10;
+
+    /**
+     * Number of security history nodes.
+     */
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private CurrencyNode currency;
+
+    private SecurityNode securityNode;
+
+    private List<Transaction> transactions;
+
+    private LocalDate newestDate;
+
+    private LocalDate oldestDate;
+
+    private LocalDate middleDate;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkData.SEED);
+
+        currency = BenchmarkData.createCurrency();
+        securityNode = BenchmarkData.createSecurity(currency, "JGN");
+
+        BenchmarkData.addSecurityHistory(securityNode, size, HISTORY_INTERVAL, random);
+
+        final RootAccount root = new RootAccount(currency);
+        final Account investmentAccount = BenchmarkData.createAccount(root, AccountType.INVEST, "Brokerage");
+        investmentAccount.addSecurity(securityNode);
+
+        final int count = Math.max(1, size / TRANSACTION_RATIO);
+
+        transactions = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            // odd days never match a history node
+            final LocalDate date
+                    = BenchmarkData.START_DATE.plusDays((long) i * HISTORY_INTERVAL * TRANSACTION_RATIO + 1);
+
+            transactions.add(TransactionFactory.generateBuyXTransaction(investmentAccount, investmentAccount,
+                    securityNode, BigDecimal.valueOf(random.nextInt(10_000) + 100, 2), BigDecimal.TEN, BigDecimal.ONE,
+                    date, "", Collections.emptyList()));
+        }
+
+        BenchmarkData.addTransactions(transactions);
+
+        oldestDate = BenchmarkData.START_DATE;
+        newestDate = BenchmarkData.START_DATE.plusDays((long) (size - 1) * HISTORY_INTERVAL);
+        middleDate = BenchmarkData.START_DATE.plusDays((long) size / 2 * HISTORY_INTERVAL + 1);
+    }
+
+    @Benchmark
+    public Optional<SecurityHistoryNode> getHistoryNodeNewest() {
+        return securityNode.getHistoryNode(newestDate);
+    }
+
+    @Benchmark
+    public Optional<SecurityHistoryNode> getHistoryNodeOldest() {
+        return securityNode.getHistoryNode(oldestDate);
+    }
+
+    @Benchmark
+    public Optional<SecurityHistoryNode> getClosestHistoryNode() {
+        return securityNode.getClosestHistoryNode(middleDate);
+    }
+
+    @Benchmark
+    public BigDecimal getMarketPrice() {
+        return securityNode.getMarketPrice(middleDate, currency);
+    }
+
+    @Benchmark
+    public BigDecimal engineGetMarketPrice() {
+        return Engine.getMarketPrice(transactions, securityNode, currency, middleDate);
+    }
+}
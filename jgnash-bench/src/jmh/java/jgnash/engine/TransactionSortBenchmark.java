@@ -0,0 +1,98 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures sorting transactions with {@code Transaction.compareTo}.
+ * <p>
+ * Two orders are measured: a shuffled list, and a sorted list with one transaction appended out of order, which is
+ * how an account resorts its register after a transaction has been added.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class TransactionSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private List<Transaction> shuffled;
+
+    private List<Transaction> appended;
+
+    private List<Transaction> shuffledCopy;
+
+    private List<Transaction> appendedCopy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(BenchmarkData.SEED);
+
+        final RootAccount root = new RootAccount(BenchmarkData.createCurrency());
+        final Account bankAccount = BenchmarkData.createAccount(root, AccountType.BANK, "Checking");
+        final Account expenseAccount = BenchmarkData.createAccount(root, AccountType.EXPENSE, "Groceries");
+
+        final List<Transaction> transactions
+                = BenchmarkData.createTransactions(expenseAccount, bankAccount, size, random);
+
+        shuffled = BenchmarkData.shuffledCopy(transactions, random);
+
+        // move the oldest transaction to the end as if a back dated transaction was just added
+        appended = new ArrayList<>(transactions);
+        Collections.rotate(appended, -1);
+    }
+
+    /**
+     * The copies are restored outside of the measurement because sorting is done in place.
+     */
+    @Setup(Level.Invocation)
+    public void restore() {
+        shuffledCopy = new ArrayList<>(shuffled);
+        appendedCopy = new ArrayList<>(appended);
+    }
+
+    @Benchmark
+    public List<Transaction> sortShuffled() {
+        Collections.sort(shuffledCopy);
+        return shuffledCopy;
+    }
+
+    @Benchmark
+    public List<Transaction> sortAppended() {
+        Collections.sort(appendedCopy);
+        return appendedCopy;
+    }
+}
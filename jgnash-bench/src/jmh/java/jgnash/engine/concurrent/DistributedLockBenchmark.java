@@ -0,0 +1,116 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import jgnash.engine.EngineFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput and latency of the distributed lock server with many simulated local clients.
+ * <p>
+ * Each benchmark thread uses its own connection and repeatedly acquires and releases a mix of read and write locks
+ * over a small set of contended lock ids.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(32)
+public class DistributedLockBenchmark {
+
+    private static final int PORT = 5006;
+
+    /**
+     * One in WRITE_RATIO operations requests a write lock.
+     */
+    private static final int WRITE_RATIO = 5;
+
+    private static final String[] LOCK_IDS = {"account", "transaction", "commodity", "budget"};
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        DistributedLockServer server;
+
+        @Setup(Level.Trial)
+        public void start() {
+            server = new DistributedLockServer(PORT);
+
+            if (!server.startServer(EngineFactory.EMPTY_PASSWORD)) {
+                throw new IllegalStateException("Unable to start the lock server");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            server.stopServer();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        DistributedLockManager manager;
+
+        @Setup(Level.Trial)
+        public void connect(final Server server) {
+            manager = new DistributedLockManager(EngineFactory.LOCALHOST, PORT);
+
+            if (!manager.connectToServer(EngineFactory.EMPTY_PASSWORD)) {
+                throw new IllegalStateException("Unable to connect to the lock server");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() {
+            manager.disconnectFromServer();
+        }
+    }
+
+    @Benchmark
+    public void lockUnlock(final Client client) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        final ReadWriteLock readWriteLock = client.manager.getLock(LOCK_IDS[random.nextInt(LOCK_IDS.length)]);
+        final Lock lock = random.nextInt(WRITE_RATIO) == 0 ? readWriteLock.writeLock() : readWriteLock.readLock();
+
+        lock.lock();
+        lock.unlock();
+    }
+}
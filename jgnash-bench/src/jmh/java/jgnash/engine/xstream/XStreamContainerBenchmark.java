@@ -0,0 +1,99 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.xstream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import jgnash.engine.ExchangeRate;
+import jgnash.engine.StoredObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures object lookup by UUID in the in memory object list of the XStream containers.
+ *
+ * @author Craig Cavanaugh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class XStreamContainerBenchmark {
+
+    private static final long SEED = 20181018L;
+
+    /**
+     * Number of stored objects.
+     */
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private AbstractXStreamContainer container;
+
+    private UUID[] uuids;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        container = new AbstractXStreamContainer(null) {
+            @Override
+            void commit() {
+                // nothing is written
+            }
+        };
+
+        final List<StoredObject> objects = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            objects.add(new ExchangeRate());
+        }
+
+        // filled directly, set(StoredObject) checks every object for a duplicate UUID
+        container.objects.addAll(objects);
+
+        final Random random = new Random(SEED);
+
+        uuids = new UUID[1024];
+
+        for (int i = 0; i < uuids.length; i++) {
+            uuids[i] = objects.get(random.nextInt(size)).getUuid();
+        }
+    }
+
+    /**
+     * Looks up objects at random positions of the list.
+     *
+     * @return the found object
+     */
+    @Benchmark
+    public StoredObject get() {
+        next = (next + 1) & (uuids.length - 1);
+        return container.get(uuids[next]);
+    }
+}
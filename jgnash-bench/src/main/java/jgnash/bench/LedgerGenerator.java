@@ -0,0 +1,791 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import jgnash.engine.Account;
+import jgnash.engine.AccountType;
+import jgnash.engine.CurrencyNode;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.DefaultCurrencies;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.SecurityHistoryNode;
+import jgnash.engine.SecurityNode;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionEntry;
+import jgnash.engine.TransactionFactory;
+import jgnash.engine.budget.Budget;
+import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.budget.BudgetPeriodDescriptor;
+import jgnash.engine.budget.BudgetPeriodDescriptorFactory;
+import jgnash.engine.recurring.MonthlyReminder;
+import jgnash.engine.recurring.Reminder;
+import jgnash.time.Period;
+import jgnash.util.FileUtils;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Generates large, realistic ledgers for benchmarking.
+ * <p>
+ * The generated content only depends on the settings and the seed, so files generated with the same settings are
+ * equivalent and can be compared across releases.  Object identifiers are still assigned randomly by the engine.
+ * <p>
+ * A generator is not thread safe.
+ *
+ * @author Craig Cavanaugh
+ */
+public class LedgerGenerator {
+
+    private static final Logger logger = Logger.getLogger(LedgerGenerator.class.getName());
+
+    public static final String CHECKING_ACCOUNT = "Checking";
+
+    public static final String SAVINGS_ACCOUNT = "Savings";
+
+    public static final String BROKERAGE_ACCOUNT = "Brokerage";
+
+    private static final String BASE_CURRENCY = "USD";
+
+    private static final String[] CURRENCY_CODES = {"EUR", "GBP", "JPY", "CAD", "CHF", "AUD", "SEK", "NZD", "NOK",
+            "DKK"};
+
+    private static final String[] INCOME_NAMES = {"Salary", "Dividends", "Interest", "Bonus", "Gifts Received",
+            "Rental Income"};
+
+    private static final String[] EXPENSE_NAMES = {"Groceries", "Dining", "Fuel", "Electricity", "Water", "Internet",
+            "Phone", "Rent", "Insurance", "Medical", "Pharmacy", "Clothing", "Entertainment", "Travel", "Books",
+            "Gifts", "Charity", "Household", "Auto Service", "Education", "Taxes", "Bank Fees", "Pets", "Hobbies"};
+
+    private static final String[] PAYEES = {"Corner Market", "City Utilities", "Metro Fuel", "Main Street Cafe",
+            "Valley Pharmacy", "Hardware Depot", "Book Nook", "Star Cinema", "Northwind Insurance", "Green Grocer",
+            "Harbor Restaurant", "Town Water", "Online Store", "Pet Supply", "Sports Outlet", "Garden Center"};
+
+    /**
+     * Number of transactions handed to the engine at once.
+     */
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final int PRICE_SCALE = 2;
+
+    private long seed = 1;
+
+    private int endYear = 2018;
+
+    private int years = 10;
+
+    private int accounts = 40;
+
+    private int currencies = 3;
+
+    private int securities = 10;
+
+    private int transactions = 20_000;
+
+    private int splitTransactions = 2_000;
+
+    private int investmentTransactions = 1_000;
+
+    private int budgets = 2;
+
+    private int reminders = 20;
+
+    /* state of a single generation */
+
+    private Random random;
+
+    private Engine engine;
+
+    private LocalDate startDate;
+
+    private int days;
+
+    private CurrencyNode baseCurrency;
+
+    private Account checkingAccount;
+
+    private Account savingsAccount;
+
+    private Account brokerageAccount;
+
+    private Account dividendAccount;
+
+    private final List<Account> foreignAccounts = new ArrayList<>();
+
+    private final List<Account> incomeAccounts = new ArrayList<>();
+
+    private final List<Account> expenseAccounts = new ArrayList<>();
+
+    private final List<SecurityNode> securityNodes = new ArrayList<>();
+
+    /**
+     * Security prices by security and day, days without history carry the previous price.
+     */
+    private BigDecimal[][] prices;
+
+    /**
+     * Monthly exchange rates by foreign account and month.
+     */
+    private BigDecimal[][] exchangeRates;
+
+    /**
+     * Generates a ledger from the command line.
+     *
+     * @param args command line arguments, {@code --help} lists the options
+     */
+    public static void main(final String[] args) {
+        final OptionParser parser = new OptionParser();
+        parser.acceptsAll(asList("h", "help"), "This help").forHelp();
+
+        final OptionSpec<File> fileOption = parser.accepts("file", "File to create").withRequiredArg()
+                .ofType(File.class).required();
+        final OptionSpec<DataStoreType> typeOption = parser.accepts("type", "Data store type")
+                .withRequiredArg().ofType(DataStoreType.class).defaultsTo(DataStoreType.BINARY_XSTREAM);
+
+        final LedgerGenerator generator = new LedgerGenerator();
+
+        final OptionSpec<Long> seedOption = parser.accepts("seed", "Random seed").withRequiredArg()
+                .ofType(Long.class).defaultsTo(generator.seed);
+        final OptionSpec<Integer> endYearOption = parser.accepts("endYear", "Last year of history").withRequiredArg()
+                .ofType(Integer.class).defaultsTo(generator.endYear);
+        final OptionSpec<Integer> yearsOption = parser.accepts("years", "Years of history").withRequiredArg()
+                .ofType(Integer.class).defaultsTo(generator.years);
+        final OptionSpec<Integer> accountsOption = parser.accepts("accounts", "Income and expense accounts")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.accounts);
+        final OptionSpec<Integer> currenciesOption = parser.accepts("currencies", "Currencies")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.currencies);
+        final OptionSpec<Integer> securitiesOption = parser.accepts("securities", "Securities")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.securities);
+        final OptionSpec<Integer> transactionsOption = parser.accepts("transactions", "Double entry transactions")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.transactions);
+        final OptionSpec<Integer> splitsOption = parser.accepts("splits", "Split transactions")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.splitTransactions);
+        final OptionSpec<Integer> investmentsOption = parser.accepts("investments", "Investment transactions")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.investmentTransactions);
+        final OptionSpec<Integer> budgetsOption = parser.accepts("budgets", "Budgets")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.budgets);
+        final OptionSpec<Integer> remindersOption = parser.accepts("reminders", "Reminders")
+                .withRequiredArg().ofType(Integer.class).defaultsTo(generator.reminders);
+
+        try {
+            final OptionSet options = parser.parse(args);
+
+            if (options.has("help")) {
+                parser.printHelpOn(System.out);
+                return;
+            }
+
+            generator.setSeed(options.valueOf(seedOption));
+            generator.setEndYear(options.valueOf(endYearOption));
+            generator.setYears(options.valueOf(yearsOption));
+            generator.setAccounts(options.valueOf(accountsOption));
+            generator.setCurrencies(options.valueOf(currenciesOption));
+            generator.setSecurities(options.valueOf(securitiesOption));
+            generator.setTransactions(options.valueOf(transactionsOption));
+            generator.setSplitTransactions(options.valueOf(splitsOption));
+            generator.setInvestmentTransactions(options.valueOf(investmentsOption));
+            generator.setBudgets(options.valueOf(budgetsOption));
+            generator.setReminders(options.valueOf(remindersOption));
+
+            final DataStoreType type = options.valueOf(typeOption);
+
+            final Path path = Paths.get(FileUtils.stripFileExtension(options.valueOf(fileOption).getAbsolutePath())
+                    + type.getDataStore().getFileExt());
+
+            logger.info("Generating " + path + " with " + generator);
+
+            generator.generate(path, type);
+        } catch (final OptionException | IllegalArgumentException | IOException e) {
+            System.err.println(e.getLocalizedMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates a ledger and saves it to a file.  An existing file is replaced.
+     *
+     * @param path file to create, the extension should match the {@code DataStoreType}
+     * @param type storage type
+     * @throws IOException if the existing file could not be removed
+     */
+    public void generate(final Path path, final DataStoreType type) throws IOException {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(type);
+
+        Files.deleteIfExists(path);
+
+        final String engineName = UUID.randomUUID().toString();
+
+        final Engine newEngine = EngineFactory.bootLocalEngine(path.toString(), engineName,
+                EngineFactory.EMPTY_PASSWORD, type);
+
+        if (newEngine == null) {
+            throw new IOException("Unable to create " + path);
+        }
+
+        try {
+            populate(newEngine);
+        } finally {
+            EngineFactory.closeEngine(engineName);
+        }
+    }
+
+    /**
+     * Adds a generated ledger to an empty engine.
+     *
+     * @param engine engine to populate
+     */
+    public void populate(final Engine engine) {
+        this.engine = Objects.requireNonNull(engine);
+
+        random = new Random(seed);
+        startDate = LocalDate.of(endYear - years + 1, 1, 1);
+        days = (int) ChronoUnit.DAYS.between(startDate, LocalDate.of(endYear + 1, 1, 1));
+
+        final long start = System.currentTimeMillis();
+
+        try {
+            createCurrencies();
+            createAccounts();
+            createSecurities();
+            createTransactions();
+            createSplitTransactions();
+            createInvestmentTransactions();
+            createBudgets();
+            createReminders();
+        } finally {
+            clear();
+        }
+
+        logger.info("Generated a ledger in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void clear() {
+        engine = null;
+        foreignAccounts.clear();
+        incomeAccounts.clear();
+        expenseAccounts.clear();
+        securityNodes.clear();
+        prices = null;
+        exchangeRates = null;
+    }
+
+    private void createCurrencies() {
+        baseCurrency = engine.getCurrency(BASE_CURRENCY);
+
+        if (baseCurrency == null) {
+            baseCurrency = DefaultCurrencies.buildCustomNode(BASE_CURRENCY);
+            engine.addCurrency(baseCurrency);
+        }
+
+        engine.setDefaultCurrency(baseCurrency);
+
+        for (int i = 0; i < Math.min(currencies - 1, CURRENCY_CODES.length); i++) {
+            CurrencyNode node = engine.getCurrency(CURRENCY_CODES[i]);
+
+            if (node == null) {
+                node = DefaultCurrencies.buildCustomNode(CURRENCY_CODES[i]);
+                engine.addCurrency(node);
+            }
+
+            final Account account = new Account(AccountType.BANK, node);
+            account.setName(node.getSymbol() + " Account");
+
+            foreignAccounts.add(account);
+        }
+    }
+
+    private void createAccounts() {
+        final Account root = engine.getRootAccount();
+
+        final Account assets = addAccount(root, AccountType.ASSET, "Assets");
+        checkingAccount = addAccount(assets, AccountType.BANK, CHECKING_ACCOUNT);
+        savingsAccount = addAccount(assets, AccountType.BANK, SAVINGS_ACCOUNT);
+
+        for (final Account account : foreignAccounts) {
+            engine.addAccount(assets, account);
+        }
+
+        brokerageAccount = addAccount(assets, AccountType.INVEST, BROKERAGE_ACCOUNT);
+
+        final Account income = addAccount(root, AccountType.INCOME, "Income");
+        final Account expenses = addAccount(root, AccountType.EXPENSE, "Expenses");
+
+        final int incomeCount = Math.max(2, accounts / 5);
+
+        for (int i = 0; i < incomeCount; i++) {
+            incomeAccounts.add(addAccount(income, AccountType.INCOME, name(INCOME_NAMES, i)));
+        }
+
+        dividendAccount = incomeAccounts.get(1);
+
+        for (int i = 0; i < Math.max(1, accounts - incomeCount); i++) {
+            expenseAccounts.add(addAccount(expenses, AccountType.EXPENSE, name(EXPENSE_NAMES, i)));
+        }
+    }
+
+    private Account addAccount(final Account parent, final AccountType type, final String name) {
+        final Account account = new Account(type, baseCurrency);
+        account.setName(name);
+
+        engine.addAccount(parent, account);
+
+        return account;
+    }
+
+    private static String name(final String[] names, final int index) {
+        if (index < names.length) {
+            return names[index];
+        }
+
+        return names[index % names.length] + " " + (index / names.length + 1);
+    }
+
+    /**
+     * Creates securities with a weekday price history and monthly exchange rates for the foreign currencies.
+     */
+    private void createSecurities() {
+        prices = new BigDecimal[securities][days];
+
+        for (int i = 0; i < securities; i++) {
+            final SecurityNode node = new SecurityNode(baseCurrency);
+            node.setSymbol("SEC" + (i + 1));
+            node.setDescription("Security " + (i + 1));
+            node.setScale((byte) PRICE_SCALE);
+
+            engine.addSecurity(node);
+            securityNodes.add(node);
+
+            double price = 10 + random.nextInt(190);
+
+            for (int day = 0; day < days; day++) {
+                final LocalDate date = startDate.plusDays(day);
+
+                if (isWeekend(date)) {
+                    prices[i][day] = day > 0 ? prices[i][day - 1] : toPrice(price);
+                    continue;
+                }
+
+                price = Math.max(1, price * (1 + random.nextGaussian() * 0.015));
+
+                final BigDecimal value = toPrice(price);
+                prices[i][day] = value;
+
+                engine.addSecurityHistory(node, new SecurityHistoryNode(date, value, random.nextInt(1_000_000),
+                        value, value));
+            }
+        }
+
+        engine.updateAccountSecurities(brokerageAccount, securityNodes);
+
+        final int months = years * 12;
+
+        exchangeRates = new BigDecimal[foreignAccounts.size()][months];
+
+        for (int i = 0; i < foreignAccounts.size(); i++) {
+            final CurrencyNode node = foreignAccounts.get(i).getCurrencyNode();
+
+            double rate = 0.5 + random.nextDouble() * 1.5;
+
+            for (int month = 0; month < months; month++) {
+                rate = rate * (1 + random.nextGaussian() * 0.01);
+
+                exchangeRates[i][month] = BigDecimal.valueOf(rate).setScale(6, RoundingMode.HALF_EVEN);
+                engine.setExchangeRate(baseCurrency, node, exchangeRates[i][month], startDate.plusMonths(month));
+            }
+        }
+    }
+
+    private static BigDecimal toPrice(final double price) {
+        return BigDecimal.valueOf(price).setScale(PRICE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private static boolean isWeekend(final LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    private LocalDate randomDate() {
+        return startDate.plusDays(random.nextInt(days));
+    }
+
+    private BigDecimal randomAmount(final int maxCents) {
+        return BigDecimal.valueOf(random.nextInt(maxCents) + 100, 2);
+    }
+
+    private <T> T randomElement(final List<T> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    /**
+     * Creates a mix of expenses, income, transfers and foreign currency transfers.
+     */
+    private void createTransactions() {
+        final List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < transactions; i++) {
+            final LocalDate date = randomDate();
+            final int kind = random.nextInt(100);
+
+            final Transaction transaction;
+
+            if (kind < 70) {
+                transaction = TransactionFactory.generateDoubleEntryTransaction(randomElement(expenseAccounts),
+                        random.nextInt(4) == 0 ? savingsAccount : checkingAccount, randomAmount(20_000), date, "",
+                        PAYEES[random.nextInt(PAYEES.length)], "");
+            } else if (kind < 85) {
+                transaction = TransactionFactory.generateDoubleEntryTransaction(checkingAccount,
+                        randomElement(incomeAccounts), randomAmount(500_000), date, "", "Employer", "");
+            } else if (kind < 95 || foreignAccounts.isEmpty()) {
+                transaction = TransactionFactory.generateDoubleEntryTransaction(savingsAccount, checkingAccount,
+                        randomAmount(100_000), date, "Transfer", "", "");
+            } else {
+                transaction = createForeignTransfer(date);
+            }
+
+            batch.add(transaction);
+
+            if (batch.size() == BATCH_SIZE) {
+                addTransactions(batch);
+            }
+        }
+
+        addTransactions(batch);
+    }
+
+    private Transaction createForeignTransfer(final LocalDate date) {
+        final int index = random.nextInt(foreignAccounts.size());
+        final Account account = foreignAccounts.get(index);
+
+        final int month = (int) ChronoUnit.MONTHS.between(startDate.withDayOfMonth(1), date.withDayOfMonth(1));
+        final BigDecimal amount = randomAmount(100_000);
+
+        final BigDecimal exchanged = amount.multiply(exchangeRates[index][month])
+                .setScale(account.getCurrencyNode().getScale(), RoundingMode.HALF_EVEN).max(BigDecimal.ONE);
+
+        return TransactionFactory.generateDoubleEntryTransaction(account, checkingAccount, exchanged,
+                amount.negate(), date, "Transfer", "", "");
+    }
+
+    /**
+     * Creates checking account transactions split across several expense accounts.
+     */
+    private void createSplitTransactions() {
+        final List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < splitTransactions; i++) {
+            final Transaction transaction = new Transaction();
+            transaction.setDate(randomDate());
+            transaction.setPayee(PAYEES[random.nextInt(PAYEES.length)]);
+
+            final int entries = 2 + random.nextInt(4);
+
+            for (int j = 0; j < entries; j++) {
+                final TransactionEntry entry = new TransactionEntry();
+                entry.setCreditAccount(randomElement(expenseAccounts));
+                entry.setDebitAccount(checkingAccount);
+                entry.setAmount(randomAmount(10_000));
+                entry.setMemo("Split " + (j + 1));
+
+                transaction.addTransactionEntry(entry);
+            }
+
+            batch.add(transaction);
+
+            if (batch.size() == BATCH_SIZE) {
+                addTransactions(batch);
+            }
+        }
+
+        addTransactions(batch);
+    }
+
+    /**
+     * Creates buy, sell and dividend transactions in date order so sales never exceed the shares held.
+     */
+    private void createInvestmentTransactions() {
+        if (securityNodes.isEmpty()) {
+            return;
+        }
+
+        final List<Integer> transactionDays = new ArrayList<>(investmentTransactions);
+
+        for (int i = 0; i < investmentTransactions; i++) {
+            transactionDays.add(random.nextInt(days));
+        }
+
+        Collections.sort(transactionDays);
+
+        final Map<SecurityNode, BigDecimal> holdings = new HashMap<>();
+        final List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (final int day : transactionDays) {
+            final LocalDate date = startDate.plusDays(day);
+            final int index = random.nextInt(securityNodes.size());
+            final SecurityNode node = securityNodes.get(index);
+            final BigDecimal price = prices[index][day];
+            final BigDecimal held = holdings.getOrDefault(node, BigDecimal.ZERO);
+
+            final int kind = random.nextInt(100);
+
+            if (kind < 20 && held.signum() > 0) {
+                final BigDecimal quantity = held.divide(BigDecimal.valueOf(2), 0, RoundingMode.DOWN)
+                        .max(BigDecimal.ONE);
+
+                batch.add(TransactionFactory.generateSellXTransaction(checkingAccount, brokerageAccount, node,
+                        price, quantity, BigDecimal.ONE, date, "", Collections.emptyList(), Collections.emptyList()));
+
+                holdings.put(node, held.subtract(quantity));
+            } else if (kind < 35 && held.signum() > 0) {
+                final BigDecimal dividend = randomAmount(50_000);
+
+                batch.add(TransactionFactory.generateDividendXTransaction(dividendAccount, brokerageAccount,
+                        checkingAccount, node, dividend, dividend.negate(), dividend, date, ""));
+            } else {
+                final BigDecimal quantity = BigDecimal.valueOf(1 + random.nextInt(100));
+
+                batch.add(TransactionFactory.generateBuyXTransaction(checkingAccount, brokerageAccount, node, price,
+                        quantity, BigDecimal.ONE, date, "", Collections.emptyList()));
+
+                holdings.put(node, held.add(quantity));
+            }
+
+            if (batch.size() == BATCH_SIZE) {
+                addTransactions(batch);
+            }
+        }
+
+        addTransactions(batch);
+    }
+
+    private void addTransactions(final List<Transaction> batch) {
+        if (!batch.isEmpty()) {
+            engine.addTransactions(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Creates monthly budgets for the most recent years with goals for every income and expense account.
+     */
+    private void createBudgets() {
+        final List<Account> budgetAccounts = new ArrayList<>(incomeAccounts);
+        budgetAccounts.addAll(expenseAccounts);
+
+        for (int i = 0; i < budgets; i++) {
+            final int year = endYear - i;
+
+            final Budget budget = new Budget();
+            budget.setName("Budget " + year);
+            budget.setDescription("Generated budget");
+            budget.setBudgetPeriod(Period.MONTHLY);
+            budget.setWorkingYear(year);
+
+            final List<BudgetPeriodDescriptor> descriptors
+                    = BudgetPeriodDescriptorFactory.getDescriptors(year, Period.MONTHLY);
+
+            for (final Account account : budgetAccounts) {
+                final BudgetGoal goal = new BudgetGoal();
+                goal.setBudgetPeriod(Period.MONTHLY);
+
+                final BigDecimal amount = randomAmount(200_000);
+
+                for (final BudgetPeriodDescriptor descriptor : descriptors) {
+                    goal.setGoal(descriptor.getStartPeriod(), descriptor.getEndPeriod(), amount);
+                }
+
+                budget.setBudgetGoal(account, goal);
+            }
+
+            engine.addBudget(budget);
+        }
+    }
+
+    /**
+     * Creates monthly bill reminders paid from the checking account.
+     */
+    private void createReminders() {
+        for (int i = 0; i < reminders; i++) {
+            final String payee = PAYEES[random.nextInt(PAYEES.length)];
+
+            final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(
+                    randomElement(expenseAccounts), checkingAccount, randomAmount(30_000),
+                    LocalDate.of(endYear, 1, 1 + random.nextInt(28)), "", payee, "");
+
+            final Reminder reminder = new MonthlyReminder();
+            reminder.setAccount(checkingAccount);
+            reminder.setDescription(payee);
+            reminder.setStartDate(transaction.getLocalDate());
+            reminder.setIncrement(1);
+            reminder.setTransaction(transaction);
+
+            engine.addReminder(reminder);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(final long seed) {
+        this.seed = seed;
+    }
+
+    public int getEndYear() {
+        return endYear;
+    }
+
+    /**
+     * Sets the last year of the generated history.
+     *
+     * @param endYear last year
+     */
+    public void setEndYear(final int endYear) {
+        this.endYear = endYear;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public void setYears(final int years) {
+        this.years = requirePositive(years);
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Sets the number of income and expense accounts.
+     *
+     * @param accounts number of income and expense accounts
+     */
+    public void setAccounts(final int accounts) {
+        this.accounts = requirePositive(accounts);
+    }
+
+    public int getCurrencies() {
+        return currencies;
+    }
+
+    /**
+     * Sets the number of currencies including the base currency.  Each additional currency receives a bank account.
+     *
+     * @param currencies number of currencies
+     */
+    public void setCurrencies(final int currencies) {
+        this.currencies = requirePositive(currencies);
+    }
+
+    public int getSecurities() {
+        return securities;
+    }
+
+    public void setSecurities(final int securities) {
+        this.securities = requireNonNegative(securities);
+    }
+
+    public int getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(final int transactions) {
+        this.transactions = requireNonNegative(transactions);
+    }
+
+    public int getSplitTransactions() {
+        return splitTransactions;
+    }
+
+    public void setSplitTransactions(final int splitTransactions) {
+        this.splitTransactions = requireNonNegative(splitTransactions);
+    }
+
+    public int getInvestmentTransactions() {
+        return investmentTransactions;
+    }
+
+    public void setInvestmentTransactions(final int investmentTransactions) {
+        this.investmentTransactions = requireNonNegative(investmentTransactions);
+    }
+
+    public int getBudgets() {
+        return budgets;
+    }
+
+    public void setBudgets(final int budgets) {
+        this.budgets = requireNonNegative(budgets);
+    }
+
+    public int getReminders() {
+        return reminders;
+    }
+
+    public void setReminders(final int reminders) {
+        this.reminders = requireNonNegative(reminders);
+    }
+
+    private static int requirePositive(final int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Value must be greater than zero");
+        }
+
+        return value;
+    }
+
+    private static int requireNonNegative(final int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value may not be negative");
+        }
+
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "seed=" + seed + ", endYear=" + endYear + ", years=" + years + ", accounts=" + accounts
+                + ", currencies=" + currencies + ", securities=" + securities + ", transactions=" + transactions
+                + ", splitTransactions=" + splitTransactions + ", investmentTransactions=" + investmentTransactions
+                + ", budgets=" + budgets + ", reminders=" + reminders;
+    }
+}
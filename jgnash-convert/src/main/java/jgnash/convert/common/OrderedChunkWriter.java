@@ -0,0 +1,117 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Formats export rows in parallel chunks and writes the formatted chunks in their original order.
+ * <p>
+ * Only a bounded number of chunks are formatted ahead of the writer so memory use stays flat regardless of the
+ * number of rows being exported.
+ *
+ * @author Craig Cavanaugh
+ */
+public class OrderedChunkWriter {
+
+    /**
+     * Default number of rows formatted by a single task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 2048;
+
+    private static final int MAX_PENDING_CHUNKS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private OrderedChunkWriter() {
+        // Utility class
+    }
+
+    /**
+     * Formats each chunk on the common fork/join pool and writes the results in order.
+     * <p>
+     * Chunks are requested from {@code chunks} only as formatting capacity becomes available, so a lazy
+     * {@code Iterable} is never materialized.
+     *
+     * @param chunks    chunks to format
+     * @param formatter formats an entire chunk
+     * @param writer    destination {@code Writer}
+     * @param <C>       the chunk type
+     * @throws IOException if an I/O error occurs while writing
+     */
+    public static <C> void write(final Iterable<C> chunks, final Function<C, String> formatter, final Writer writer)
+            throws IOException {
+
+        final Deque<CompletableFuture<String>> pending = new ArrayDeque<>();
+
+        try {
+            for (final C chunk : chunks) {
+                if (pending.size() >= MAX_PENDING_CHUNKS) {
+                    writer.write(pending.removeFirst().join());
+                }
+
+                pending.addLast(CompletableFuture.supplyAsync(() -> formatter.apply(chunk)));
+            }
+
+            while (!pending.isEmpty()) {
+                writer.write(pending.removeFirst().join());
+            }
+        } catch (final CompletionException e) {
+            pending.forEach(future -> future.cancel(true));
+
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (final IOException e) {
+            pending.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * Splits a list into sub list views of the specified size.
+     *
+     * @param list      list to split
+     * @param chunkSize maximum size of each chunk
+     * @param <T>       the element type
+     * @return list of chunks
+     */
+    public static <T> List<List<T>> partition(final List<T> list, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+
+        final List<List<T>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(list.size(), i + chunkSize)));
+        }
+
+        return chunks;
+    }
+}
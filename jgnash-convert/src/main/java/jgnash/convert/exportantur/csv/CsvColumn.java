@@ -0,0 +1,143 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.exportantur.csv;
+
+import java.math.BigDecimal;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+
+import jgnash.engine.Account;
+import jgnash.engine.ReconciledState;
+import jgnash.engine.Transaction;
+
+import static java.time.temporal.ChronoField.DAY_OF_MONTH;
+import static java.time.temporal.ChronoField.HOUR_OF_DAY;
+import static java.time.temporal.ChronoField.MINUTE_OF_HOUR;
+import static java.time.temporal.ChronoField.MONTH_OF_YEAR;
+import static java.time.temporal.ChronoField.SECOND_OF_MINUTE;
+import static java.time.temporal.ChronoField.YEAR;
+
+/**
+ * Columns available for CSV export.  The declaration order is the default column order.
+ *
+ * @author Craig Cavanaugh
+ */
+public enum CsvColumn {
+
+    ACCOUNT("Account") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return account.getName();
+        }
+    },
+    NUMBER("Number") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return transaction.getNumber();
+        }
+    },
+    DEBIT("Debit") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            final BigDecimal amount = transaction.getAmount(account);
+            return amount.compareTo(BigDecimal.ZERO) > 0 ? "" : amount.abs().toPlainString();
+        }
+    },
+    CREDIT("Credit") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            final BigDecimal amount = transaction.getAmount(account);
+            return amount.compareTo(BigDecimal.ZERO) < 0 ? "" : amount.abs().toPlainString();
+        }
+    },
+    BALANCE("Balance") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return balance.toPlainString();
+        }
+    },
+    DATE("Date") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return Formatters.DATE_FORMATTER.format(transaction.getLocalDate());
+        }
+    },
+    TIMESTAMP("Timestamp") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return Formatters.TIMESTAMP_FORMATTER.format(transaction.getTimestamp());
+        }
+    },
+    MEMO("Memo") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return transaction.getMemo();
+        }
+    },
+    PAYEE("Payee") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return transaction.getPayee();
+        }
+    },
+    RECONCILED("Reconciled") {
+        @Override
+        String getValue(final Account account, final Transaction transaction, final BigDecimal balance) {
+            return transaction.getReconciled(account) == ReconciledState.NOT_RECONCILED
+                    ? Boolean.FALSE.toString() : Boolean.TRUE.toString();
+        }
+    };
+
+    private final transient String header;
+
+    CsvColumn(final String header) {
+        this.header = header;
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the formatted column value.
+     *
+     * @param account     account being exported
+     * @param transaction transaction being exported
+     * @param balance     running account balance at the transaction
+     * @return formatted value
+     */
+    abstract String getValue(final Account account, final Transaction transaction, final BigDecimal balance);
+
+    /**
+     * Holder for the shared, thread safe formatters.
+     */
+    private static class Formatters {
+        static final DateTimeFormatter DATE_FORMATTER = new DateTimeFormatterBuilder()
+                .appendValue(YEAR, 4)
+                .appendValue(MONTH_OF_YEAR, 2)
+                .appendValue(DAY_OF_MONTH, 2)
+                .toFormatter();
+
+        static final DateTimeFormatter TIMESTAMP_FORMATTER = new DateTimeFormatterBuilder()
+                .appendValue(YEAR, 4).appendLiteral('-').appendValue(MONTH_OF_YEAR, 2)
+                .appendLiteral('-').appendValue(DAY_OF_MONTH, 2).appendLiteral(' ')
+                .appendValue(HOUR_OF_DAY, 2).appendLiteral(':').appendValue(MINUTE_OF_HOUR, 2)
+                .appendLiteral(':').appendValue(SECOND_OF_MINUTE, 2)
+                .toFormatter();
+    }
+}
@@ -21,20 +21,25 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import jgnash.convert.common.OrderedChunkWriter;
 import jgnash.engine.Account;
-import jgnash.engine.ReconciledState;
 import jgnash.engine.Transaction;
 import jgnash.util.FileUtils;
 
@@ -42,75 +47,211 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.QuoteMode;
 
-import static java.time.temporal.ChronoField.*;
-
 /**
- * Primary class for CSV export
+ * Primary class for CSV export.
+ * <p>
+ * Transactions are read from the sorted transaction index of each account and rows are formatted in parallel
+ * chunks while preserving their order in the file.
  *
  * @author Craig Cavanaugh
  */
 public class CsvExport {
 
+    private static final CSVFormat CSV_FORMAT = CSVFormat.EXCEL.withQuoteMode(QuoteMode.ALL);
+
     private CsvExport() {
     }
 
     public static void exportAccount(final Account account, final LocalDate startDate, final LocalDate endDate, final File file) {
         Objects.requireNonNull(account);
+
+        exportAccounts(Collections.singletonList(account), startDate, endDate, Arrays.asList(CsvColumn.values()), file);
+    }
+
+    /**
+     * Exports the transactions of multiple accounts into a single file.
+     *
+     * @param accounts  accounts to export, rows are grouped by account in the supplied order
+     * @param startDate inclusive start date
+     * @param endDate   inclusive end date
+     * @param columns   columns to export in the order they should appear
+     * @param file      destination file, the extension will be forced to "csv"
+     */
+    public static void exportAccounts(final List<Account> accounts, final LocalDate startDate, final LocalDate endDate,
+                                      final List<CsvColumn> columns, final File file) {
+        Objects.requireNonNull(accounts);
         Objects.requireNonNull(startDate);
         Objects.requireNonNull(endDate);
+        Objects.requireNonNull(columns);
         Objects.requireNonNull(file);
 
         // force a correct file extension
         final String fileName = FileUtils.stripFileExtension(file.getAbsolutePath()) + ".csv";
 
-        final CSVFormat csvFormat = CSVFormat.EXCEL.withQuoteMode(QuoteMode.ALL);
-
         try (final OutputStreamWriter outputStreamWriter = new OutputStreamWriter(Files.newOutputStream(Paths.get(fileName)),
                 StandardCharsets.UTF_8);
-             final CSVPrinter writer = new CSVPrinter(new BufferedWriter(outputStreamWriter), csvFormat)) {
+             final Writer writer = new BufferedWriter(outputStreamWriter)) {
 
             outputStreamWriter.write('\ufeff'); // write UTF-8 byte order mark to the file for easier imports
 
-            writer.printRecord("Account", "Number", "Debit", "Credit", "Balance", "Date", "Timestamp",
-                    "Memo", "Payee", "Reconciled");
+            exportAccounts(accounts, startDate, endDate, columns, writer);
+        } catch (final IOException e) {
+            Logger.getLogger(CsvExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Exports the transactions of multiple accounts to a {@code Writer}.
+     *
+     * @param accounts  accounts to export, rows are grouped by account in the supplied order
+     * @param startDate inclusive start date
+     * @param endDate   inclusive end date
+     * @param columns   columns to export in the order they should appear
+     * @param writer    destination {@code Writer}
+     * @throws IOException if an I/O error occurs
+     */
+    public static void exportAccounts(final List<Account> accounts, final LocalDate startDate, final LocalDate endDate,
+                                      final List<CsvColumn> columns, final Writer writer) throws IOException {
+
+        final CSVPrinter headerPrinter = new CSVPrinter(writer, CSV_FORMAT);
+
+        for (final CsvColumn column : columns) {
+            headerPrinter.print(column.getHeader());
+        }
+        headerPrinter.println();
+
+        final boolean calculateBalance = columns.contains(CsvColumn.BALANCE);
 
-            // write the transactions
-            final List<Transaction> transactions = account.getTransactions(startDate, endDate);
+        // chunks are produced as the writer needs them, an account is not read until its rows are reached
+        OrderedChunkWriter.write(() -> new ChunkIterator(accounts, startDate, endDate, calculateBalance),
+                chunk -> formatChunk(chunk, columns), writer);
 
-            final DateTimeFormatter dateTimeFormatter = new DateTimeFormatterBuilder()
-                    .appendValue(YEAR, 4)
-                    .appendValue(MONTH_OF_YEAR, 2)
-                    .appendValue(DAY_OF_MONTH, 2)
-                    .toFormatter();
+        writer.flush();
+    }
 
-            final DateTimeFormatter timestampFormatter = new DateTimeFormatterBuilder()
-                    .appendValue(YEAR, 4).appendLiteral('-').appendValue(MONTH_OF_YEAR, 2)
-                    .appendLiteral('-').appendValue(DAY_OF_MONTH, 2).appendLiteral(' ')
-                    .appendValue(HOUR_OF_DAY, 2).appendLiteral(':').appendValue(MINUTE_OF_HOUR, 2)
-                    .appendLiteral(':').appendValue(SECOND_OF_MINUTE, 2)
-                    .toFormatter();
+    private static String formatChunk(final Chunk chunk, final List<CsvColumn> columns) {
+        final StringBuilder builder = new StringBuilder();
+        final List<String> values = new ArrayList<>(columns.size());
 
-            for (final Transaction transaction : transactions) {
-                final String date = dateTimeFormatter.format(transaction.getLocalDate());
+        final boolean calculateBalance = columns.contains(CsvColumn.BALANCE);
 
-                final String timeStamp = timestampFormatter.format(transaction.getTimestamp());
+        BigDecimal balance = chunk.openingBalance;
 
-                final String credit = transaction.getAmount(account).compareTo(BigDecimal.ZERO) < 0 ? ""
-                        : transaction.getAmount(account).abs().toPlainString();
+        try {
+            final CSVPrinter printer = new CSVPrinter(builder, CSV_FORMAT);
 
-                final String debit = transaction.getAmount(account).compareTo(BigDecimal.ZERO) > 0 ? ""
-                        : transaction.getAmount(account).abs().toPlainString();
+            for (final Transaction transaction : chunk.transactions) {
+                if (calculateBalance) {
+                    balance = balance.add(transaction.getAmount(chunk.account));
+                }
 
-                final String balance = account.getBalanceAt(transaction).toPlainString();
+                values.clear();
 
-                final String reconciled = transaction.getReconciled(account) == ReconciledState.NOT_RECONCILED
-                        ? Boolean.FALSE.toString() : Boolean.TRUE.toString();
+                for (final CsvColumn column : columns) {
+                    values.add(column.getValue(chunk.account, transaction, balance));
+                }
 
-                writer.printRecord(account.getName(), transaction.getNumber(), debit, credit, balance, date, timeStamp,
-                        transaction.getMemo(), transaction.getPayee(), reconciled);
+                printer.printRecord(values);
             }
         } catch (final IOException e) {
-            Logger.getLogger(CsvExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
+            throw new UncheckedIOException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Lazily splits the transactions of each account into chunks, carrying the running balance from one chunk to
+     * the next.
+     */
+    private static class ChunkIterator implements Iterator<Chunk> {
+        private final Iterator<Account> accountIterator;
+
+        private final LocalDate startDate;
+
+        private final LocalDate endDate;
+
+        private final boolean calculateBalance;
+
+        private Account account;
+
+        private List<Transaction> transactions = Collections.emptyList();
+
+        private int index;
+
+        private BigDecimal balance = BigDecimal.ZERO;
+
+        ChunkIterator(final List<Account> accounts, final LocalDate startDate, final LocalDate endDate,
+                      final boolean calculateBalance) {
+            this.accountIterator = accounts.iterator();
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.calculateBalance = calculateBalance;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index >= transactions.size()) {
+                if (!accountIterator.hasNext()) {
+                    return false;
+                }
+                nextAccount(accountIterator.next());
+            }
+            return true;
+        }
+
+        @Override
+        public Chunk next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final List<Transaction> list = transactions.subList(index,
+                    Math.min(transactions.size(), index + OrderedChunkWriter.DEFAULT_CHUNK_SIZE));
+
+            final Chunk chunk = new Chunk(account, list, balance);
+
+            if (calculateBalance) {
+                for (final Transaction transaction : list) {
+                    balance = balance.add(transaction.getAmount(account));
+                }
+            }
+
+            index += list.size();
+
+            return chunk;
+        }
+
+        private void nextAccount(final Account nextAccount) {
+            account = nextAccount;
+            transactions = nextAccount.getTransactions(startDate, endDate);
+            index = 0;
+            balance = BigDecimal.ZERO;
+
+            if (calculateBalance) {
+                final int startIndex = nextAccount.indexOfDate(startDate);
+
+                if (startIndex > 0) {
+                    balance = nextAccount.getBalanceAt(startIndex - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * A contiguous run of transactions from one account and the balance preceding the first transaction.
+     */
+    private static class Chunk {
+        final Account account;
+
+        final List<Transaction> transactions;
+
+        final BigDecimal openingBalance;
+
+        Chunk(final Account account, final List<Transaction> transactions, final BigDecimal openingBalance) {
+            this.account = account;
+            this.transactions = transactions;
+            this.openingBalance = openingBalance;
         }
     }
 }
@@ -20,6 +20,7 @@ package jgnash.convert.exportantur.ofx;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
@@ -27,11 +28,17 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 import jgnash.convert.common.OfxTags;
+import jgnash.convert.common.OrderedChunkWriter;
 import jgnash.engine.Account;
 import jgnash.engine.AccountType;
 import jgnash.engine.InvestmentTransaction;
@@ -42,7 +49,10 @@ import jgnash.util.FileUtils;
 
 /**
  * Primary class for OFX export. The SGML format is used instead of the newer
- * XML to offer the best compatibility with older importers
+ * XML to offer the best compatibility with older importers.
+ * <p>
+ * Multiple accounts may be exported into a single file.  Transactions are read from the sorted transaction index
+ * of each account and formatted in parallel chunks while preserving their order.
  *
  * @author Craig Cavanaugh
  */
@@ -52,9 +62,11 @@ public class OfxExport implements OfxTags {
             "SECURITY:NONE", "ENCODING:USASCII", "CHARSET:1252", "COMPRESSION:NONE", "OLDFILEUID:NONE",
             "NEWFILEUID:NONE"};
 
+    private static final int CHUNK_SIZE = 1024;
+
     private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd");
 
-    private final Account account;
+    private final List<Account> accounts;
 
     private final LocalDate startDate;
 
@@ -62,23 +74,25 @@ public class OfxExport implements OfxTags {
 
     private final File file;
 
-    private IndentedPrintWriter indentedWriter;
-
-    private int indentLevel = 0;
-
     public OfxExport(final Account account, final LocalDate startDate, final LocalDate endDate, final File file) {
-        this.account = account;
+        this(Collections.singletonList(account), startDate, endDate, file);
+    }
+
+    public OfxExport(final List<Account> accounts, final LocalDate startDate, final LocalDate endDate, final File file) {
+        this.accounts = accounts;
         this.startDate = startDate;
         this.endDate = endDate;
         this.file = file;
     }
 
     public void exportAccount() {
-        Objects.requireNonNull(account);
+        Objects.requireNonNull(accounts);
         Objects.requireNonNull(startDate);
         Objects.requireNonNull(endDate);
         Objects.requireNonNull(file);
 
+        accounts.forEach(Objects::requireNonNull);
+
         final LocalDate exportDate = LocalDate.now();
 
         // force a correct file extension
@@ -87,7 +101,7 @@ public class OfxExport implements OfxTags {
         try (final IndentedPrintWriter writer = new IndentedPrintWriter(Files.newBufferedWriter(Paths.get(fileName),
                 Charset.forName("windows-1252")))) {
 
-            indentedWriter = writer;
+            int indentLevel = 0;
 
             // write the required header
             for (String line : OFXHEADER) {
@@ -110,9 +124,53 @@ public class OfxExport implements OfxTags {
             writer.println(wrapClose(SONRS), --indentLevel);
             writer.println(wrapClose(SIGNONMSGSRSV1), --indentLevel);
 
-            writer.println(wrapOpen(getBankingMessageSetAggregate(account)), indentLevel++);
+            // statements of the same type share a message set aggregate
+            final Map<String, List<Account>> messageSets = accounts.stream()
+                    .collect(Collectors.groupingBy(OfxExport::getBankingMessageSetAggregate, LinkedHashMap::new,
+                            Collectors.toList()));
+
+            int transactionUid = 1;
+
+            for (final Map.Entry<String, List<Account>> messageSet : messageSets.entrySet()) {
+                writer.println(wrapOpen(messageSet.getKey()), indentLevel++);
+
+                for (final Account account : messageSet.getValue()) {
+                    new StatementWriter(account, writer, indentLevel).writeStatement(transactionUid++, exportDate);
+                }
+
+                writer.println(wrapClose(messageSet.getKey()), --indentLevel);
+            }
+
+            // finished
+            writer.println(wrapClose(OFX), --indentLevel);
+        } catch (IOException e) {
+            Logger.getLogger(OfxExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the statement response for a single account.  Each instance tracks its own indentation so transaction
+     * chunks may be formatted concurrently.
+     */
+    private class StatementWriter {
+
+        private final Account account;
+
+        private final IndentedPrintWriter indentedWriter;
+
+        private int indentLevel;
+
+        StatementWriter(final Account account, final IndentedPrintWriter indentedWriter, final int indentLevel) {
+            this.account = account;
+            this.indentedWriter = indentedWriter;
+            this.indentLevel = indentLevel;
+        }
+
+        void writeStatement(final int transactionUid, final LocalDate exportDate) throws IOException {
+            final IndentedPrintWriter writer = indentedWriter;
+
             writer.println(wrapOpen(getResponse(account)), indentLevel++);
-            writer.println(wrapOpen(TRNUID) + "1", indentLevel);
+            writer.println(wrapOpen(TRNUID) + transactionUid, indentLevel);
             writer.println(wrapOpen(STATUS), indentLevel++);
             writer.println(wrapOpen(CODE) + "0", indentLevel);
             writer.println(wrapOpen(SEVERITY) + "INFO", indentLevel);
@@ -167,11 +225,7 @@ public class OfxExport implements OfxTags {
             writer.println(wrapOpen(DTEND) + encodeDate(endDate), indentLevel);
 
             // write the transaction list
-            if (account.getAccountType() == AccountType.INVEST || account.getAccountType() == AccountType.MUTUAL) {
-                writeInvestmentTransactions();
-            } else {
-                writeBankTransactions();
-            }
+            writeTransactions();
 
             // end of transaction list
             writer.println(wrapClose(getTransactionList(account)), --indentLevel);
@@ -185,232 +239,284 @@ public class OfxExport implements OfxTags {
             // end of statement response
             writer.println(wrapClose(getStatementResponse(account)), --indentLevel);
             writer.println(wrapClose(getResponse(account)), --indentLevel);
-            writer.println(wrapClose(getBankingMessageSetAggregate(account)), --indentLevel);
-
-            // finished
-            writer.println(wrapClose(OFX), --indentLevel);
-        } catch (IOException e) {
-            Logger.getLogger(OfxExport.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
-    }
 
-    /**
-     * Writes all bank account transactions within the date range
-     */
-    private void writeBankTransactions() {
-        account.getTransactions(startDate, endDate).forEach(this::writeBankTransaction);
-    }
+        /**
+         * Writes all transactions within the date range.  Chunks of transactions are formatted in parallel
+         */
+        private void writeTransactions() throws IOException {
+            final List<Transaction> transactions = account.getTransactions(startDate, endDate);
 
-    /**
-     * Writes all investment account transactions within the date range
-     */
-    private void writeInvestmentTransactions() {
-        for (final Transaction transaction : account.getTransactions(startDate, endDate)) {
-            if (transaction instanceof InvestmentTransaction) {
-                final InvestmentTransaction invTransaction = (InvestmentTransaction) transaction;
-
-                switch (invTransaction.getTransactionType()) {
-                    case ADDSHARE:
-                    case BUYSHARE:
-                        writeBuyStockTransaction(invTransaction);
-                        break;
-                    case REMOVESHARE:
-                    case SELLSHARE:
-                        writeSellStockTransaction(invTransaction);
-                        break;
-                    case DIVIDEND:
-                        writeDividendTransaction(invTransaction);
-                        break;
-                    case REINVESTDIV:
-                        writeReinvestStockTransaction(invTransaction);
-                        break;
-                    default:
-                        break;
+            OrderedChunkWriter.write(OrderedChunkWriter.partition(transactions, CHUNK_SIZE), chunk -> {
+                final StringWriter stringWriter = new StringWriter();
+
+                try (final IndentedPrintWriter chunkWriter = new IndentedPrintWriter(stringWriter)) {
+                    final StatementWriter statementWriter = new StatementWriter(account, chunkWriter, indentLevel);
+
+                    chunk.forEach(statementWriter::writeTransaction);
+                }
+
+                return stringWriter.toString();
+            }, indentedWriter);
+        }
+
+        /**
+         * Writes one transaction
+         *
+         * @param transaction {@code Transaction} to write
+         */
+        private void writeTransaction(final Transaction transaction) {
+            if (account.getAccountType() == AccountType.INVEST || account.getAccountType() == AccountType.MUTUAL) {
+                if (transaction instanceof InvestmentTransaction) {
+                    final InvestmentTransaction invTransaction = (InvestmentTransaction) transaction;
+
+                    switch (invTransaction.getTransactionType()) {
+                        case ADDSHARE:
+                        case BUYSHARE:
+                            writeBuyStockTransaction(invTransaction);
+                            break;
+                        case REMOVESHARE:
+                        case SELLSHARE:
+                            writeSellStockTransaction(invTransaction);
+                            break;
+                        case DIVIDEND:
+                            writeDividendTransaction(invTransaction);
+                            break;
+                        case REINVESTDIV:
+                            writeReinvestStockTransaction(invTransaction);
+                            break;
+                        default:
+                            break;
+                    }
+                } else {    // bank transaction, write it
+                    indentedWriter.println(wrapOpen(INVBANKTRAN), indentLevel++);
+                    writeBankTransaction(transaction);
+                    indentedWriter.println(wrapClose(INVBANKTRAN), --indentLevel);
                 }
-            } else {    // bank transaction, write it
-                indentedWriter.println(wrapOpen(INVBANKTRAN), indentLevel++);
+            } else {
                 writeBankTransaction(transaction);
-                indentedWriter.println(wrapClose(INVBANKTRAN), --indentLevel);
             }
         }
-    }
 
-    /**
-     * Writes one bank transaction
-     *
-     * @param transaction {@code Transaction} to write
-     */
-    private void writeBankTransaction(final Transaction transaction) {
-        indentedWriter.println(wrapOpen(STMTTRN), indentLevel++);
-        indentedWriter.println(wrapOpen(TRNTYPE)
-                + (transaction.getAmount(account).compareTo(BigDecimal.ZERO) >= 1 ? CREDIT : DEBIT), indentLevel);
-
-        indentedWriter.println(wrapOpen(DTPOSTED) + encodeDate(transaction.getLocalDate()), indentLevel);
-        indentedWriter.println(wrapOpen(TRNAMT) + transaction.getAmount(account).toPlainString(), indentLevel);
-        indentedWriter.println(wrapOpen(REFNUM) + transaction.getUuid(), indentLevel);
-        indentedWriter.println(wrapOpen(NAME) + transaction.getPayee(), indentLevel);
-        indentedWriter.println(wrapOpen(MEMO) + transaction.getMemo(), indentLevel);
-
-        // write the check number if applicable
-        if (account.getAccountType() == AccountType.CHECKING && !transaction.getNumber().isEmpty()) {
-            indentedWriter.println(wrapOpen(CHECKNUM) + transaction.getNumber(), indentLevel);
-        }
+        /**
+         * Writes one bank transaction
+         *
+         * @param transaction {@code Transaction} to write
+         */
+        private void writeBankTransaction(final Transaction transaction) {
+            indentedWriter.println(wrapOpen(STMTTRN), indentLevel++);
+            indentedWriter.println(wrapOpen(TRNTYPE)
+                    + (transaction.getAmount(account).compareTo(BigDecimal.ZERO) >= 1 ? CREDIT : DEBIT), indentLevel);
+
+            indentedWriter.println(wrapOpen(DTPOSTED) + encodeDate(transaction.getLocalDate()), indentLevel);
+            indentedWriter.println(wrapOpen(TRNAMT) + transaction.getAmount(account).toPlainString(), indentLevel);
+            indentedWriter.println(wrapOpen(REFNUM) + transaction.getUuid(), indentLevel);
+            indentedWriter.println(wrapOpen(NAME) + transaction.getPayee(), indentLevel);
+            indentedWriter.println(wrapOpen(MEMO) + transaction.getMemo(), indentLevel);
+
+            // write the check number if applicable
+            if (account.getAccountType() == AccountType.CHECKING && !transaction.getNumber().isEmpty()) {
+                indentedWriter.println(wrapOpen(CHECKNUM) + transaction.getNumber(), indentLevel);
+            }
 
-        // write out the banks transaction id if previously imported
-        writeFitID(transaction);
+            // write out the banks transaction id if previously imported
+            writeFitID(transaction);
 
-        // write out the account to
-        if (transaction.getTransactionType() == TransactionType.DOUBLEENTRY) {
-            final Account other = transaction.getTransactionEntries().get(0).getCreditAccount() != account
-                    ? transaction.getTransactionEntries().get(0).getCreditAccount()
-                    : transaction.getTransactionEntries().get(0).getDebitAccount();
+            // write out the account to
+            if (transaction.getTransactionType() == TransactionType.DOUBLEENTRY) {
+                final Account other = transaction.getTransactionEntries().get(0).getCreditAccount() != account
+                        ? transaction.getTransactionEntries().get(0).getCreditAccount()
+                        : transaction.getTransactionEntries().get(0).getDebitAccount();
 
-            if (other != null && other.getAccountNumber() != null && other.getAccountNumber().length() > 0) {
-                if (other.getAccountType() != AccountType.EXPENSE && other.getAccountType() != AccountType.INCOME) {
-                    writeAccountTo(other);
+                if (other != null && other.getAccountNumber() != null && other.getAccountNumber().length() > 0) {
+                    if (other.getAccountType() != AccountType.EXPENSE && other.getAccountType() != AccountType.INCOME) {
+                        writeAccountTo(other);
+                    }
                 }
             }
-        }
 
-        indentedWriter.println(wrapClose(STMTTRN), --indentLevel);
-    }
+            indentedWriter.println(wrapClose(STMTTRN), --indentLevel);
+        }
 
-    private void writeFitID(final Transaction transaction) {
-        // write out the banks transaction id if previously imported
-        if (transaction.getFitid() != null && !transaction.getFitid().isEmpty()) {
-            indentedWriter.println(wrap(FITID, transaction.getFitid()), indentLevel);
-        } else {
-            indentedWriter.println(wrap(FITID, transaction.getUuid().toString()), indentLevel);
+        private void writeFitID(final Transaction transaction) {
+            // write out the banks transaction id if previously imported
+            if (transaction.getFitid() != null && !transaction.getFitid().isEmpty()) {
+                indentedWriter.println(wrap(FITID, transaction.getFitid()), indentLevel);
+            } else {
+                indentedWriter.println(wrap(FITID, transaction.getUuid().toString()), indentLevel);
+            }
         }
-    }
 
-    private void writeSecID(final SecurityNode node) {
+        private void writeSecID(final SecurityNode node) {
 
-        // write security information
-        indentedWriter.println(wrapOpen(SECID), indentLevel++);
+            // write security information
+            indentedWriter.println(wrapOpen(SECID), indentLevel++);
+
+            if (node.getISIN() != null && !node.getISIN().isEmpty()) {
+                indentedWriter.println(wrap(UNIQUEID, node.getISIN()), indentLevel);
+            } else {
+                indentedWriter.println(wrap(UNIQUEID, node.getSymbol()), indentLevel);
+            }
 
-        if (node.getISIN() != null && !node.getISIN().isEmpty()) {
-            indentedWriter.println(wrap(UNIQUEID, node.getISIN()), indentLevel);
-        } else {
-            indentedWriter.println(wrap(UNIQUEID, node.getSymbol()), indentLevel);
+            indentedWriter.println(wrap(UNIQUEIDTYPE, "CUSIP"), indentLevel);
+            indentedWriter.println(wrapClose(SECID), --indentLevel);
         }
 
-        indentedWriter.println(wrap(UNIQUEIDTYPE, "CUSIP"), indentLevel);
-        indentedWriter.println(wrapClose(SECID), --indentLevel);
-    }
+        private void writeBuyStockTransaction(final InvestmentTransaction transaction) {
+            indentedWriter.println(wrapOpen(BUYSTOCK), indentLevel++);
+            indentedWriter.println(wrapOpen(INVBUY), indentLevel++);
 
-    private void writeBuyStockTransaction(final InvestmentTransaction transaction) {
-        indentedWriter.println(wrapOpen(BUYSTOCK), indentLevel++);
-        indentedWriter.println(wrapOpen(INVBUY), indentLevel++);
+            indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
 
-        indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
+            // write the FITID
+            writeFitID(transaction);
 
-        // write the FITID
-        writeFitID(transaction);
+            indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
 
-        indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
 
-        indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
+            // write security information
+            writeSecID(transaction.getSecurityNode());
 
-        // write security information
-        writeSecID(transaction.getSecurityNode());
+            indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).toPlainString()), indentLevel);
+            indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
+            indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
 
-        indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).toPlainString()), indentLevel);
-        indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
-        indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
+            indentedWriter.println(wrapClose(INVBUY), --indentLevel);
+            indentedWriter.println(wrap(BUYTYPE, "BUY"), indentLevel);
+            indentedWriter.println(wrapClose(BUYSTOCK), --indentLevel);
+        }
 
-        indentedWriter.println(wrapClose(INVBUY), --indentLevel);
-        indentedWriter.println(wrap(BUYTYPE, "BUY"), indentLevel);
-        indentedWriter.println(wrapClose(BUYSTOCK), --indentLevel);
-    }
+        private void writeSellStockTransaction(final InvestmentTransaction transaction) {
+            indentedWriter.println(wrapOpen(SELLSTOCK), indentLevel++);
+            indentedWriter.println(wrapOpen(INVSELL), indentLevel++);
 
-    private void writeSellStockTransaction(final InvestmentTransaction transaction) {
-        indentedWriter.println(wrapOpen(SELLSTOCK), indentLevel++);
-        indentedWriter.println(wrapOpen(INVSELL), indentLevel++);
+            indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
 
-        indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
+            // write the FITID
+            writeFitID(transaction);
 
-        // write the FITID
-        writeFitID(transaction);
+            indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
 
-        indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
+            // write security information
+            writeSecID(transaction.getSecurityNode());
 
-        // write security information
-        writeSecID(transaction.getSecurityNode());
+            indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).toPlainString()), indentLevel);
+            indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
+            indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
 
-        indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).toPlainString()), indentLevel);
-        indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
-        indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
+            indentedWriter.println(wrapClose(INVSELL), --indentLevel);
+            indentedWriter.println(wrap(SELLTYPE, "SELL"), indentLevel);
+            indentedWriter.println(wrapClose(SELLSTOCK), --indentLevel);
+        }
 
-        indentedWriter.println(wrapClose(INVSELL), --indentLevel);
-        indentedWriter.println(wrap(SELLTYPE, "SELL"), indentLevel);
-        indentedWriter.println(wrapClose(SELLSTOCK), --indentLevel);
-    }
+        /**
+         * Reinvested transaction is a two part process.
+         * Need to show Income into cash and then the reinvestment from cash
+         *
+         * @param transaction transaction to write
+         */
+        private void writeReinvestStockTransaction(final InvestmentTransaction transaction) {
 
-    /**
-     * Reinvested transaction is a two part process.
-     * Need to show Income into cash and then the reinvestment from cash
-     *
-     * @param transaction transaction to write
-     */
-    private void writeReinvestStockTransaction(final InvestmentTransaction transaction) {
+            // Part one, show dividend income to cash
+            writeDividendTransaction(transaction);
 
-        // Part one, show dividend income to cash
-        writeDividendTransaction(transaction);
+            // Part two, show reinvest from cash
+            indentedWriter.println(wrapOpen(REINVEST), indentLevel++);
 
-        // Part two, show reinvest from cash
-        indentedWriter.println(wrapOpen(REINVEST), indentLevel++);
+            indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
 
-        indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
+            // write the FITID
+            writeFitID(transaction);
 
-        // write the FITID
-        writeFitID(transaction);
+            indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(MEMO, "Distribution reinvestment: " + transaction.getSecurityNode().getSymbol()), indentLevel);
+            indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
 
-        indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(MEMO, "Distribution reinvestment: " + transaction.getSecurityNode().getSymbol()), indentLevel);
-        indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
+            // write security information
+            writeSecID(transaction.getSecurityNode());
+            indentedWriter.println(wrap(INCOMETYPE, "DIV"), indentLevel);
+            indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).abs().negate().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
 
-        // write security information
-        writeSecID(transaction.getSecurityNode());
-        indentedWriter.println(wrap(INCOMETYPE, "DIV"), indentLevel);
-        indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).abs().negate().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
+            indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
+            indentedWriter.println(wrapClose(REINVEST), --indentLevel);
+        }
 
-        indentedWriter.println(wrap(UNITS, transaction.getQuantity().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(UNITPRICE, transaction.getPrice().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(COMMISSION, transaction.getFees().toPlainString()), indentLevel);
-        indentedWriter.println(wrapClose(REINVEST), --indentLevel);
-    }
+        private void writeDividendTransaction(final InvestmentTransaction transaction) {
+            indentedWriter.println(wrapOpen(INCOME), indentLevel++);
+
+            indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
+            writeFitID(transaction);  // write the FITID
+
+            indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
+            indentedWriter.println(wrap(MEMO, "Dividend: " + transaction.getSecurityNode().getSymbol()), indentLevel);
+            indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
+
+            // write security information
+            writeSecID(transaction.getSecurityNode());
+
+            indentedWriter.println(wrap(INCOMETYPE, "DIV"), indentLevel);
+            indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).abs().toPlainString()), indentLevel);
+            indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
+            indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
+            indentedWriter.println(wrapClose(INCOME), --indentLevel);
+        }
+
+        private void writeAccountTo(Account account) {
+            // write account identification
+            indentedWriter.println(wrapOpen(getAccountToAggregate(account)), indentLevel++);
 
-    private void writeDividendTransaction(final InvestmentTransaction transaction) {
-        indentedWriter.println(wrapOpen(INCOME), indentLevel++);
+            switch (account.getAccountType()) {
+                case INVEST:
+                case MUTUAL:
+                    indentedWriter.println(wrapOpen(BROKERID), indentLevel); //  required for investment accounts, but jGnash does not manage a broker ID, normally a web URL
+                    break;
+                default:
+                    indentedWriter.println(wrapOpen(BANKID) + account.getBankId(), indentLevel); // savings and checking only
+                    break;
+            }
 
-        indentedWriter.println(wrapOpen(INVTRAN), indentLevel++);
-        writeFitID(transaction);  // write the FITID
+            indentedWriter.println(wrapOpen(ACCTID) + account.getAccountNumber(), indentLevel);
 
-        indentedWriter.println(wrap(DTTRADE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(DTSETTLE, encodeDate(transaction.getLocalDate())), indentLevel);
-        indentedWriter.println(wrap(MEMO, "Dividend: " + transaction.getSecurityNode().getSymbol()), indentLevel);
-        indentedWriter.println(wrapClose(INVTRAN), --indentLevel);
+            // write the required account type
+            switch (account.getAccountType()) {
+                case CHECKING:
+                    indentedWriter.println(wrapOpen(ACCTTYPE) + CHECKING, indentLevel);
+                    break;
+                case ASSET:
+                case BANK:
+                case CASH:
+                    indentedWriter.println(wrapOpen(ACCTTYPE) + SAVINGS, indentLevel);
+                    break;
+                case CREDIT:
+                case LIABILITY:
+                    indentedWriter.println(wrapOpen(ACCTTYPE) + CREDITLINE, indentLevel);
+                    break;
+                case SIMPLEINVEST:
+                case MONEYMKRT:
+                    indentedWriter.println(wrapOpen(ACCTTYPE) + MONEYMRKT, indentLevel);
+                    break;
+                default:
+                    break;
+            }
 
-        // write security information
-        writeSecID(transaction.getSecurityNode());
+            indentedWriter.println(wrapClose(getAccountToAggregate(account)), --indentLevel);
 
-        indentedWriter.println(wrap(INCOMETYPE, "DIV"), indentLevel);
-        indentedWriter.println(wrap(TOTAL, transaction.getTotal(account).abs().toPlainString()), indentLevel);
-        indentedWriter.println(wrap(SUBACCTSEC, "CASH"), indentLevel);
-        indentedWriter.println(wrap(SUBACCTFUND, "CASH"), indentLevel);
-        indentedWriter.println(wrapClose(INCOME), --indentLevel);
+        }
     }
 
     private String encodeDate(final LocalDate date) {
@@ -429,48 +535,6 @@ public class OfxExport implements OfxTags {
         return wrapOpen(element) + text + wrapClose(element);
     }
 
-    private void writeAccountTo(Account account) {
-        // write account identification
-        indentedWriter.println(wrapOpen(getAccountToAggregate(account)), indentLevel++);
-
-        switch (account.getAccountType()) {
-            case INVEST:
-            case MUTUAL:
-                indentedWriter.println(wrapOpen(BROKERID), indentLevel); //  required for investment accounts, but jGnash does not manage a broker ID, normally a web URL
-                break;
-            default:
-                indentedWriter.println(wrapOpen(BANKID) + account.getBankId(), indentLevel); // savings and checking only
-                break;
-        }
-
-        indentedWriter.println(wrapOpen(ACCTID) + account.getAccountNumber(), indentLevel);
-
-        // write the required account type
-        switch (account.getAccountType()) {
-            case CHECKING:
-                indentedWriter.println(wrapOpen(ACCTTYPE) + CHECKING, indentLevel);
-                break;
-            case ASSET:
-            case BANK:
-            case CASH:
-                indentedWriter.println(wrapOpen(ACCTTYPE) + SAVINGS, indentLevel);
-                break;
-            case CREDIT:
-            case LIABILITY:
-                indentedWriter.println(wrapOpen(ACCTTYPE) + CREDITLINE, indentLevel);
-                break;
-            case SIMPLEINVEST:
-            case MONEYMKRT:
-                indentedWriter.println(wrapOpen(ACCTTYPE) + MONEYMRKT, indentLevel);
-                break;
-            default:
-                break;
-        }
-
-        indentedWriter.println(wrapClose(getAccountToAggregate(account)), --indentLevel);
-
-    }
-
     private static String getBankingMessageSetAggregate(final Account account) {
         switch (account.getAccountType()) {
             case ASSET:
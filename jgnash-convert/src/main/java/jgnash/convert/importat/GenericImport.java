@@ -18,6 +18,7 @@
 package jgnash.convert.importat;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -46,14 +47,23 @@ public class GenericImport {
     private GenericImport() {
     }
 
-    public static void importTransactions(@NotNull final List<? extends ImportTransaction> transactions,
-                                          @NotNull final Account baseAccount) {
+    /**
+     * Imports the new and unmatched transactions into the engine with a single operation.
+     *
+     * @param transactions imported transactions
+     * @param baseAccount  account the transactions are imported into
+     * @return the number of transactions stored by the engine
+     */
+    public static int importTransactions(@NotNull final List<? extends ImportTransaction> transactions,
+                                         @NotNull final Account baseAccount) {
         Objects.requireNonNull(transactions);
         Objects.requireNonNull(baseAccount);
 
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
         Objects.requireNonNull(engine);
 
+        final List<Transaction> newTransactions = new ArrayList<>();
+
         for (final ImportTransaction tran : transactions) {
             Objects.requireNonNull(tran.getAccount());
 
@@ -85,13 +95,20 @@ public class GenericImport {
                     }
                 }
 
-                // add the new transaction
+                // collect the new transaction
                 if (transaction != null) {
                     transaction.setFitid(tran.getFITID());
-                    engine.addTransaction(transaction);
+                    newTransactions.add(transaction);
                 }
             }
         }
+
+        // add all new transactions with a single engine operation
+        if (!newTransactions.isEmpty()) {
+            return engine.addTransactions(newTransactions);
+        }
+
+        return 0;
     }
 
     /**
@@ -0,0 +1,98 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.convert.exportantur.csv;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvExportTest extends AbstractEngineTest {
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("csvExportTest.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+    }
+
+    @Test
+    void testProjectionAndRunningBalance() throws Exception {
+        final LocalDate today = LocalDate.now();
+
+        final List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 4; i >= 0; i--) {
+            transactions.add(TransactionFactory.generateSingleEntryTransaction(usdBankAccount, BigDecimal.TEN,
+                    today.minusDays(i), "Memo " + i, "Payee", ""));
+        }
+
+        assertEquals(5, e.addTransactions(transactions));
+
+        final StringWriter writer = new StringWriter();
+
+        CsvExport.exportAccounts(Collections.singletonList(usdBankAccount), today.minusDays(2), today,
+                Arrays.asList(CsvColumn.MEMO, CsvColumn.BALANCE), writer);
+
+        final String[] lines = writer.toString().split("\r\n");
+
+        assertEquals(4, lines.length);
+        assertEquals("\"Memo\",\"Balance\"", lines[0]);
+        assertEquals("\"Memo 2\",\"30\"", lines[1]);
+        assertEquals("\"Memo 1\",\"40\"", lines[2]);
+        assertEquals("\"Memo 0\",\"50\"", lines[3]);
+    }
+
+    @Test
+    void testMultipleAccounts() throws Exception {
+        final LocalDate today = LocalDate.now();
+
+        e.addTransaction(TransactionFactory.generateSingleEntryTransaction(usdBankAccount, BigDecimal.ONE, today,
+                "Bank", "", ""));
+        e.addTransaction(TransactionFactory.generateSingleEntryTransaction(checkingAccount, BigDecimal.ONE, today,
+                "Checking", "", ""));
+
+        final StringWriter writer = new StringWriter();
+
+        CsvExport.exportAccounts(Arrays.asList(usdBankAccount, checkingAccount), today, today,
+                Collections.singletonList(CsvColumn.ACCOUNT), writer);
+
+        final String[] lines = writer.toString().split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertEquals("\"" + usdBankAccount.getName() + "\"", lines[1]);
+        assertEquals("\"" + checkingAccount.getName() + "\"", lines[2]);
+    }
+}
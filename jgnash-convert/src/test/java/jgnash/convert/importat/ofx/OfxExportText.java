@@ -29,9 +29,14 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -81,4 +86,64 @@ public class OfxExportText extends AbstractEngineTest {
 
         Files.delete(path);
     }
+
+    @Test
+    void testMultipleAccountExport() throws Exception {
+
+        // enough transactions to span more than one formatting chunk
+        final int count = 1500;
+
+        final List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            transactions.add(TransactionFactory.generateSingleEntryTransaction(usdBankAccount, BigDecimal.ONE,
+                    LocalDate.now().minusDays(count - i), "Memo " + i, "Payee", ""));
+        }
+
+        transactions.add(TransactionFactory.generateDoubleEntryTransaction(checkingAccount, usdBankAccount,
+                BigDecimal.TEN, LocalDate.now(), "Transfer Test", "Transfer", ""));
+
+        assertEquals(count + 1, e.addTransactions(transactions));
+
+        final LocalDate startDate = LocalDate.now().minusDays(count + 1);
+        final LocalDate endDate = LocalDate.now().plusDays(1);
+
+        Path path = Files.createTempFile("j", ".ofx");
+
+        OfxExport ofxExport = new OfxExport(Arrays.asList(usdBankAccount, checkingAccount), startDate, endDate,
+                path.toFile());
+
+        ofxExport.exportAccount();
+
+        final List<String> lines = Files.readAllLines(path, Charset.forName("windows-1252")).stream()
+                .map(String::trim).collect(Collectors.toList());
+
+        // both statements share a single banking message set
+        assertEquals(1, countTag(lines, "<BANKMSGSRSV1>"));
+        assertEquals(2, countTag(lines, "<STMTTRNRS>"));
+
+        final int split = lines.indexOf("</STMTTRNRS>");
+        final List<String> first = lines.subList(0, split);
+        final List<String> second = lines.subList(split + 1, lines.size());
+
+        assertTrue(first.contains("<TRNUID>1"));
+        assertTrue(first.contains("<ACCTID>10001-A01"));
+        assertEquals(count + 1, countTag(first, "<STMTTRN>"));
+
+        assertTrue(second.contains("<TRNUID>2"));
+        assertTrue(second.contains("<ACCTID>10001-C01"));
+        assertEquals(1, countTag(second, "<STMTTRN>"));
+
+        // chunks are written in the sorted order of the account
+        final List<String> expected = usdBankAccount.getTransactions(startDate, endDate).stream()
+                .map(transaction -> "<REFNUM>" + transaction.getUuid()).collect(Collectors.toList());
+
+        assertEquals(expected, first.stream().filter(line -> line.startsWith("<REFNUM>")).collect(Collectors.toList()));
+
+        Files.delete(path);
+    }
+
+    private static long countTag(final List<String> lines, final String tag) {
+        return lines.stream().filter(line -> line.startsWith(tag)).count();
+    }
 }
@@ -20,6 +20,7 @@ package jgnash.engine;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -31,7 +32,7 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -54,9 +55,12 @@ import javax.persistence.OrderBy;
 import javax.persistence.PostLoad;
 import javax.persistence.Transient;
 
-import jgnash.time.DateUtils;
+import jgnash.engine.concurrent.LockDiagnostics;
+import jgnash.engine.metrics.Counter;
+import jgnash.engine.metrics.Metrics;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
+import jgnash.util.StartupTimeline;
 
 /**
  * Account object.  The {@code Account} object is mutable.  Changes should be made using the {@code Engine} to
@@ -99,6 +103,14 @@ public class Account extends StoredObject implements Comparable<Account> {
 
     private static final Logger logger = Logger.getLogger(Account.class.getName());
 
+    private static final Counter balanceCacheHits = Metrics.counter("account.balanceCache.hits");
+
+    private static final Counter balanceCacheMisses = Metrics.counter("account.balanceCache.misses");
+
+    static {
+        Metrics.hitRatio("account.balanceCache.hitRatio", balanceCacheHits, balanceCacheMisses);
+    }
+
     /**
      * String delimiter for reported account structure.
      */
@@ -108,11 +120,12 @@ public class Account extends StoredObject implements Comparable<Account> {
     Account parentAccount;
 
     /**
-     * List of transactions for this account.
+     * List of transactions for this account.  The JPA engine initializes the collection at startup unless lazy
+     * transaction loading is enabled.  Use {@link #getTransactionSet()} so a lazy collection is read by the data store.
      */
     @JoinTable
     @OrderBy("date, number, timestamp")
-    @ManyToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
+    @ManyToMany(cascade = {CascadeType.ALL}, fetch = FetchType.LAZY)
     final Set<Transaction> transactions = new HashSet<>();
 
     /**
@@ -152,7 +165,7 @@ public class Account extends StoredObject implements Comparable<Account> {
      */
     @OrderBy("name")
     @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
-    private final Set<Account> children = new HashSet<>();
+    final Set<Account> children = new HashSet<>();
 
     /**
      * Cached list of sorted transactions that is not persisted. This prevents concurrency issues when using a JPA backend
@@ -160,6 +173,14 @@ public class Account extends StoredObject implements Comparable<Account> {
     @Transient
     private transient List<Transaction> cachedSortedTransactionList;
 
+    /**
+     * Reads the transactions through the data store before they are first used.  The entity manager of a JPA data
+     * store is not thread safe, so a lazy collection must not be initialized by the thread that happens to touch it.
+     * {@code null} once the transactions are resident.
+     */
+    @Transient
+    private transient volatile Consumer<Account> transactionLoader;
+
 
     /**
      * Cached list of sorted accounts this is not persisted.  This prevents concurrency issues when using a JPA backend
@@ -207,7 +228,7 @@ public class Account extends StoredObject implements Comparable<Account> {
      */
     @ElementCollection
     @Column(columnDefinition = "varchar(8192)")
-    private final Map<String, String> attributes = new HashMap<>(); // maps from attribute name to value
+    final Map<String, String> attributes = new HashMap<>(); // maps from attribute name to value
 
     private transient ReadWriteLock transactionLock;
 
@@ -225,10 +246,7 @@ public class Account extends StoredObject implements Comparable<Account> {
      * <b>Do not use to create account new instance</b>
      */
     public Account() {
-        transactionLock = new ReentrantReadWriteLock(true);
-        childLock = new ReentrantReadWriteLock(true);
-        securitiesLock = new ReentrantReadWriteLock(true);
-        attributesLock = new ReentrantReadWriteLock(true);
+        createLocks();
 
         // CopyOnWrite is used as an alternative to defensive copies
         cachedSortedChildren = new ArrayList<>();
@@ -244,6 +262,16 @@ public class Account extends StoredObject implements Comparable<Account> {
         setCurrencyNode(node);
     }
 
+    /**
+     * Creates the locks of the account.  The locks are instrumented when lock diagnostics are enabled.
+     */
+    private void createLocks() {
+        transactionLock = LockDiagnostics.createLock(() -> "Account " + name + " transactions", true);
+        childLock = LockDiagnostics.createLock(() -> "Account " + name + " children", true);
+        securitiesLock = LockDiagnostics.createLock(() -> "Account " + name + " securities", true);
+        attributesLock = LockDiagnostics.createLock(() -> "Account " + name + " attributes", true);
+    }
+
     private static String getAccountSeparator() {
         return accountSeparator;
     }
@@ -271,6 +299,19 @@ public class Account extends StoredObject implements Comparable<Account> {
         reconciledBalance = null;
     }
 
+    /**
+     * Clear the cached reconciled balance after the reconciled state of a transaction has been changed in place.
+     */
+    void clearCachedReconciledBalance() {
+        transactionLock.writeLock().lock();
+
+        try {
+            reconciledBalance = null;
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Adds account transaction in chronological order.
      *
@@ -291,7 +332,7 @@ public class Account extends StoredObject implements Comparable<Account> {
 
             if (!contains(tran)) {
 
-                transactions.add(tran);
+                getTransactionSet().add(tran);
 
                 /* The cached list may already contain the transaction if it has not been initialized yet */
                 if (!getCachedSortedTransactionList().contains(tran)) {
@@ -313,6 +354,47 @@ public class Account extends StoredObject implements Comparable<Account> {
         }
     }
 
+    /**
+     * Adds a collection of transactions in chronological order.  The sorted transaction cache is only resorted once
+     * regardless of the number of transactions added.
+     *
+     * @param trans the {@code Transactions} to be added
+     * @return the number of transactions that were added, transactions already attached to this account are skipped
+     */
+    int addTransactions(final Collection<Transaction> trans) {
+        if (placeHolder) {
+            logger.severe("Tried to add transactions to a place holder account");
+            return 0;
+        }
+
+        transactionLock.writeLock().lock();
+
+        try {
+            int count = 0;
+
+            final List<Transaction> sortedList = getCachedSortedTransactionList();
+
+            for (final Transaction tran : trans) {
+                if (getTransactionSet().add(tran)) {
+                    sortedList.add(tran);
+                    count++;
+                } else {
+                    logger.log(Level.SEVERE, "Account: {0}({1}){2}Already have transaction ID: {3}",
+                            new Object[]{getName(), hashCode(), System.lineSeparator(), tran.hashCode()});
+                }
+            }
+
+            if (count > 0) {
+                Collections.sort(sortedList);
+                clearCachedBalances();
+            }
+
+            return count;
+        } finally {
+            transactionLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Removes the specified transaction from this account.
      *
@@ -327,7 +409,7 @@ public class Account extends StoredObject implements Comparable<Account> {
             boolean result = false;
 
             if (contains(tran)) {
-                transactions.remove(tran);
+                getTransactionSet().remove(tran);
                 getCachedSortedTransactionList().remove(tran);
                 clearCachedBalances();
 
@@ -353,7 +435,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         transactionLock.readLock().lock();
 
         try {
-            return transactions.contains(tran);
+            return getTransactionSet().contains(tran);
         } finally {
             transactionLock.readLock().unlock();
         }
@@ -418,7 +500,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         transactionLock.readLock().lock();
 
         try {
-            return transactions.size();
+            return getTransactionSet().size();
         } finally {
             transactionLock.readLock().unlock();
         }
@@ -437,7 +519,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         try {
             int number = 0;
 
-            for (final Transaction tran : transactions) {
+            for (final Transaction tran : getTransactionSet()) {
                 if (numberPattern.matcher(tran.getNumber()).matches()) {
                     try {
                         number = Math.max(number, Integer.parseInt(tran.getNumber()));
@@ -633,8 +715,11 @@ public class Account extends StoredObject implements Comparable<Account> {
 
         try {
             if (accountBalance != null) {
+                balanceCacheHits.increment();
                 return accountBalance;
             }
+
+            balanceCacheMisses.increment();
             return accountBalance = getProxy().getBalance();
         } finally {
             transactionLock.readLock().unlock();
@@ -711,9 +796,12 @@ public class Account extends StoredObject implements Comparable<Account> {
 
         try {
             if (reconciledBalance != null) {
+                balanceCacheHits.increment();
                 return reconciledBalance;
             }
 
+            balanceCacheMisses.increment();
+
             return reconciledBalance = getProxy().getReconciledBalance();
         } finally {
             transactionLock.readLock().unlock();
@@ -724,7 +812,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         return adjustForExchangeRate(getReconciledBalance(), node);
     }
 
-    private BigDecimal adjustForExchangeRate(final BigDecimal amount, final CurrencyNode node) {
+    BigDecimal adjustForExchangeRate(final BigDecimal amount, final CurrencyNode node) {
         if (node.equals(getCurrencyNode())) { // child has the same commodity type
             return amount;
         }
@@ -1060,14 +1148,50 @@ public class Account extends StoredObject implements Comparable<Account> {
         transactionLock.readLock().lock();
 
         try {
-            return transactions.parallelStream().filter(transaction
-                    -> DateUtils.after(transaction.getLocalDate(), startDate)
-                    && DateUtils.before(transaction.getLocalDate(), endDate)).sorted().collect(Collectors.toList());
+            final List<Transaction> sortedList = getCachedSortedTransactionList();
+
+            return new ArrayList<>(sortedList.subList(indexOfDate(sortedList, startDate),
+                    indexOfDate(sortedList, endDate.plusDays(1))));
         } finally {
             transactionLock.readLock().unlock();
         }
     }
 
+    /**
+     * Returns the index of the first transaction in the sorted transaction list that occurs on or after the
+     * supplied date.  The sorted list is searched with a binary search so the transactions are not filtered or
+     * resorted.
+     *
+     * @param date the date to search for
+     * @return index of the first transaction on or after the date, the transaction count if none are found
+     */
+    public int indexOfDate(final LocalDate date) {
+        transactionLock.readLock().lock();
+
+        try {
+            return indexOfDate(getCachedSortedTransactionList(), date);
+        } finally {
+            transactionLock.readLock().unlock();
+        }
+    }
+
+    private static int indexOfDate(final List<Transaction> sortedList, final LocalDate date) {
+        int low = 0;
+        int high = sortedList.size();
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+
+            if (sortedList.get(mid).getLocalDate().isBefore(date)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
     /**
      * Returns the commodity node for this account
      *
@@ -1349,7 +1473,7 @@ public class Account extends StoredObject implements Comparable<Account> {
         securitiesLock.readLock().lock();
 
         try {
-            return transactions.parallelStream().filter(t -> t instanceof InvestmentTransaction).map(t ->
+            return getTransactionSet().parallelStream().filter(t -> t instanceof InvestmentTransaction).map(t ->
                     ((InvestmentTransaction) t).getSecurityNode()).collect(Collectors.toCollection(TreeSet::new));
         } finally {
             securitiesLock.readLock().unlock();
@@ -1487,6 +1611,36 @@ public class Account extends StoredObject implements Comparable<Account> {
         }
     }
 
+    /**
+     * Sets the loader used to read a lazily mapped transaction collection the first time it is needed.
+     *
+     * @param transactionLoader loader, {@code null} if the transactions are resident
+     */
+    void setTransactionLoader(@Nullable final Consumer<Account> transactionLoader) {
+        this.transactionLoader = transactionLoader;
+    }
+
+    /**
+     * Returns the persisted set of transactions.  The set is first read through the data store if it has not been
+     * loaded yet.
+     *
+     * @return the transactions of this account
+     */
+    Set<Transaction> getTransactionSet() {
+        if (transactionLoader != null) {
+            synchronized (transactions) {
+                final Consumer<Account> loader = transactionLoader;
+
+                if (loader != null) {
+                    loader.accept(this);
+                    transactionLoader = null;
+                }
+            }
+        }
+
+        return transactions;
+    }
+
     /**
      * Provides access to a cached and sorted list of transactions. Direct access to the list
      * is for internal use only.
@@ -1498,8 +1652,10 @@ public class Account extends StoredObject implements Comparable<Account> {
 
         // Lazy initialization
         if (cachedSortedTransactionList == null) {
-            cachedSortedTransactionList = new ArrayList<>(transactions);
-            Collections.sort(cachedSortedTransactionList);
+            try (final StartupTimeline.Phase ignored = StartupTimeline.accumulate("Account sort transactions")) {
+                cachedSortedTransactionList = new ArrayList<>(getTransactionSet());
+                Collections.sort(cachedSortedTransactionList);
+            }
         }
 
         return cachedSortedTransactionList;
@@ -1517,13 +1673,12 @@ public class Account extends StoredObject implements Comparable<Account> {
 
     @PostLoad
     private void postLoad() {
-        transactionLock = new ReentrantReadWriteLock(true);
-        childLock = new ReentrantReadWriteLock(true);
-        securitiesLock = new ReentrantReadWriteLock(true);
-        attributesLock = new ReentrantReadWriteLock(true);
+        try (final StartupTimeline.Phase ignored = StartupTimeline.accumulate("Account postLoad")) {
+            createLocks();
 
-        cachedSortedChildren = new ArrayList<>(children);
-        Collections.sort(cachedSortedChildren); // JPA will be naturally sorted, but XML files will not
+            cachedSortedChildren = new ArrayList<>(children);
+            Collections.sort(cachedSortedChildren); // JPA will be naturally sorted, but XML files will not
+        }
     }
 
     /**
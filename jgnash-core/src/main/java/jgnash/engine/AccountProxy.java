@@ -125,7 +125,7 @@ class AccountProxy {
         try {
             BigDecimal balance = BigDecimal.ZERO;
 
-            if (!account.transactions.isEmpty()) {
+            if (!account.getTransactionSet().isEmpty()) {
                 balance = getBalance(account.getSortedTransactionList().get(0).getLocalDate(), date);
             }
 
@@ -37,6 +37,8 @@ public class AttachmentUtils {
 
     private static final String ATTACHMENT_BASE = "attachments";
 
+    private static final String ATTACHMENT_CACHE_BASE = "attachment-cache";
+
     /**
      * Utility class.
      */
@@ -88,4 +90,21 @@ public class AttachmentUtils {
     public static Path getAttachmentPath() {
         return getAttachmentDirectory(Paths.get(EngineFactory.getActiveDatabase()));
     }
+
+    /**
+     * Returns the directory for locally cached attachments of a remote server.  The directory is kept between
+     * sessions.
+     *
+     * @param host remote host
+     * @param port remote port
+     * @return directory for cached attachments
+     */
+    public static Path getAttachmentCacheDirectory(@NotNull final String host, final int port) {
+        Objects.requireNonNull(host);
+
+        final Path base = Paths.get(EngineFactory.getDefaultDatabase()).getParent();
+
+        return Paths.get(base + FileUtils.SEPARATOR + ATTACHMENT_CACHE_BASE + FileUtils.SEPARATOR
+                + host.replaceAll("[^A-Za-z0-9.-]", "_") + "_" + port);
+    }
 }
@@ -0,0 +1,1449 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+import jgnash.engine.budget.Budget;
+import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.recurring.DailyReminder;
+import jgnash.engine.recurring.MonthlyReminder;
+import jgnash.engine.recurring.OneTimeReminder;
+import jgnash.engine.recurring.Reminder;
+import jgnash.engine.recurring.ReminderAccessor;
+import jgnash.engine.recurring.WeeklyReminder;
+import jgnash.engine.recurring.YearlyReminder;
+import jgnash.time.Period;
+
+/**
+ * Hand written codec for the compact binary file format.
+ * <p>
+ * A file is a fixed header, a table of enum constant names, a table holding the type and {@code UUID} of every
+ * object, and then the records of the objects in table order.  References are written as indexes into the object
+ * table, so every object is created before the first record is read and no reference bookkeeping or reflection is
+ * needed.  Enum constants are written as indexes into the enum table and resolved by name when read, so reordering
+ * the constants of an enum does not invalidate existing files.
+ * <p>
+ * The records are split into independent, length prefixed segments: commodities, accounts, the transactions of
+ * each year, budgets and reminders.  A segment only decodes the objects in its own range of the object table and
+ * references to other segments resolve through the shared table, so segments are encoded and decoded in parallel on
+ * the common fork/join pool.  Version 1 files hold a single unsegmented run of records and are still readable.
+ * <p>
+ * The objects written are the same as for the XStream based files: the configuration, commodities, exchange rates,
+ * the account tree with its transactions, budgets and reminders.  Objects marked for removal and trash are skipped.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class CompactBinaryCodec {
+
+    /**
+     * Version of the record layout.  Files with a newer version are rejected.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    /**
+     * File signature.  The line ending and EOF characters expose files damaged by text mode transfers.
+     */
+    public static final byte[] MAGIC = {'j', 'G', 'n', 'B', 'I', 'N', '\r', '\n', 0x1A};
+
+    // Object types.  Values are part of the file format and must not change.
+    private static final int CONFIG = 1;
+    private static final int CURRENCY = 2;
+    private static final int SECURITY = 3;
+    private static final int EXCHANGE_RATE = 4;
+    private static final int ROOT_ACCOUNT = 5;
+    private static final int ACCOUNT = 6;
+    private static final int TRANSACTION = 7;
+    private static final int INVESTMENT_TRANSACTION = 8;
+    private static final int BUDGET = 9;
+    private static final int DAILY_REMINDER = 10;
+    private static final int WEEKLY_REMINDER = 11;
+    private static final int MONTHLY_REMINDER = 12;
+    private static final int YEARLY_REMINDER = 13;
+    private static final int ONE_TIME_REMINDER = 14;
+
+    // Segment kinds.  Values are part of the file format and must not change.
+    private static final int END_OF_SEGMENTS = 0;
+    private static final int COMMODITY_SEGMENT = 1;
+    private static final int ACCOUNT_SEGMENT = 2;
+    private static final int TRANSACTION_SEGMENT = 3;
+    private static final int BUDGET_SEGMENT = 4;
+    private static final int REMINDER_SEGMENT = 5;
+
+    /**
+     * Years with more transactions than this are split into several segments to balance the decoding work.
+     */
+    private static final int MAX_SEGMENT_SIZE = 8192;
+
+    // Transaction entry types.  Values are part of the file format and must not change.
+    private static final int ENTRY = 0;
+    private static final int ENTRY_ADD = 1;
+    private static final int ENTRY_BUY = 2;
+    private static final int ENTRY_DIVIDEND = 3;
+    private static final int ENTRY_MERGE = 4;
+    private static final int ENTRY_REINVEST_DIVIDEND = 5;
+    private static final int ENTRY_REMOVE = 6;
+    private static final int ENTRY_RETURN_OF_CAPITAL = 7;
+    private static final int ENTRY_SELL = 8;
+    private static final int ENTRY_SPLIT = 9;
+
+    // Account flags
+    private static final int PLACE_HOLDER = 1;
+    private static final int LOCKED = 1 << 1;
+    private static final int VISIBLE = 1 << 2;
+    private static final int EXCLUDED_FROM_BUDGET = 1 << 3;
+
+    // Budget flags
+    private static final int ASSET_ACCOUNTS = 1;
+    private static final int INCOME_ACCOUNTS = 1 << 1;
+    private static final int EXPENSE_ACCOUNTS = 1 << 2;
+    private static final int LIABILITY_ACCOUNTS = 1 << 3;
+
+    // Reminder flags
+    private static final int AUTO_CREATE = 1;
+    private static final int ENABLED = 1 << 1;
+
+    /**
+     * Enums in the order their tables are written.
+     */
+    private static final List<Class<? extends Enum<?>>> ENUMS = Collections.unmodifiableList(Arrays.asList(
+            AccountType.class, QuoteSource.class, SecurityHistoryEventType.class, TransactionTag.class,
+            ReconciledState.class, Period.class));
+
+    private CompactBinaryCodec() {
+        // Utility class
+    }
+
+    /**
+     * Writes the objects that make up a file.  Objects marked for removal are not written.
+     *
+     * @param objects all {@code StoredObject}s of the file
+     * @param channel destination channel, not closed by this method
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(final Collection<StoredObject> objects, final WritableByteChannel channel)
+            throws IOException {
+        final Layout layout = new Layout(objects);
+
+        final Map<StoredObject, Integer> index = new IdentityHashMap<>(layout.table.size() * 2);
+
+        for (int i = 0; i < layout.table.size(); i++) {
+            index.put(layout.table.get(i), i);
+        }
+
+        // encode the segments in parallel while the header is written
+        final List<CompletableFuture<byte[]>> encoded = new ArrayList<>(layout.segments.size());
+
+        for (final Segment segment : layout.segments) {
+            encoded.add(CompletableFuture.supplyAsync(() -> encode(layout.table.subList(segment.from,
+                    segment.from + segment.count), index)));
+        }
+
+        try (final CompactBinaryOutput out = new CompactBinaryOutput(channel)) {
+            out.writeBytes(MAGIC);
+            out.writeVarInt(FORMAT_VERSION);
+
+            for (final Class<? extends Enum<?>> type : ENUMS) {
+                final Enum<?>[] constants = type.getEnumConstants();
+
+                out.writeVarInt(constants.length);
+
+                for (final Enum<?> constant : constants) {
+                    out.writeString(constant.name());
+                }
+            }
+
+            out.writeVarInt(layout.table.size());
+
+            for (final StoredObject object : layout.table) {
+                out.writeByte(typeOf(object));
+                out.writeUuid(object.getUuid());
+            }
+
+            for (int i = 0; i < layout.segments.size(); i++) {
+                final Segment segment = layout.segments.get(i);
+                final byte[] bytes = join(encoded.get(i));
+
+                out.writeByte(segment.kind);
+                out.writeSignedVarInt(segment.key);
+                out.writeVarInt(segment.from);
+                out.writeVarInt(segment.count);
+                out.writeVarInt(bytes.length);
+                out.writeBytes(bytes);
+            }
+
+            out.writeByte(END_OF_SEGMENTS);
+        } finally {
+            encoded.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Reads the objects of a file.
+     *
+     * @param channel source channel, not closed by this method
+     * @return every {@code StoredObject} in the file
+     * @throws IOException if an I/O error occurs or the file is not valid
+     */
+    public static List<StoredObject> read(final ReadableByteChannel channel) throws IOException {
+        return readProgressively(channel, Integer.MIN_VALUE).getObjects();
+    }
+
+    /**
+     * Reads a file but leaves the transactions of the years before {@code firstYear} undecoded.  The file is read
+     * completely, only the decoding of the older transactions is deferred until requested through the returned
+     * {@code ProgressiveRead}.
+     *
+     * @param channel   source channel, not closed by this method
+     * @param firstYear first year with transactions that are decoded right away
+     * @return the decoded objects and the transactions that are still pending
+     * @throws IOException if an I/O error occurs or the file is not valid
+     */
+    public static ProgressiveRead readProgressively(final ReadableByteChannel channel, final int firstYear)
+            throws IOException {
+        final CompactBinaryInput in = new CompactBinaryInput(channel);
+
+        for (final byte b : MAGIC) {
+            if (in.readByte() != (b & 0xFF)) {
+                throw new StreamCorruptedException("Not a compact binary file");
+            }
+        }
+
+        final int version = in.readVarInt();
+
+        if (version > FORMAT_VERSION) {
+            throw new StreamCorruptedException("Unsupported format version: " + version);
+        }
+
+        final Map<Class<?>, Enum<?>[]> enumTables = new HashMap<>();
+
+        for (final Class<? extends Enum<?>> type : ENUMS) {
+            enumTables.put(type, readEnumTable(in, type));
+        }
+
+        final StoredObject[] table = new StoredObject[in.readCount()];
+
+        for (int i = 0; i < table.length; i++) {
+            table[i] = newInstance(in.readByte());
+            table[i].setUuid(in.readUuid());
+        }
+
+        final ProgressiveRead progressiveRead = new ProgressiveRead(table, enumTables);
+
+        if (version == 1) {
+            new Reader(in, table, enumTables).readRecords(0, table.length);
+        } else {
+            progressiveRead.readSegments(in, firstYear);
+        }
+
+        // rebuild the transient state, as XStream does with readResolve
+        for (final StoredObject object : table) {
+            if (object instanceof Account) {
+                ((Account) object).readResolve();
+            } else if (object instanceof SecurityNode) {
+                ((SecurityNode) object).readResolve();
+            } else if (object instanceof ExchangeRate) {
+                ((ExchangeRate) object).readResolve();
+            } else if (object instanceof Config) {
+                ((Config) object).readResolve();
+            }
+        }
+
+        return progressiveRead;
+    }
+
+    /**
+     * Decodes a group of segments on the common fork/join pool and waits for all of them.
+     */
+    private static void decodeSegments(final List<Segment> segments, final Map<Segment, byte[]> bytes,
+                                       final StoredObject[] table, final Map<Class<?>, Enum<?>[]> enumTables)
+            throws IOException {
+        final List<CompletableFuture<Void>> decoded = new ArrayList<>(segments.size());
+
+        try {
+            for (final Segment segment : segments) {
+                decoded.add(decodeAsync(segment, bytes.get(segment), table, enumTables));
+            }
+
+            for (final CompletableFuture<Void> future : decoded) {
+                join(future);
+            }
+        } finally {
+            decoded.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static CompletableFuture<Void> decodeAsync(final Segment segment, final byte[] bytes,
+                                                       final StoredObject[] table,
+                                                       final Map<Class<?>, Enum<?>[]> enumTables) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                new Reader(new CompactBinaryInput(bytes), table, enumTables).readRecords(segment.from, segment.count);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Result of reading a file with part of the transactions left undecoded.
+     * <p>
+     * Pending transactions are decoded one year at a time, newest year first.  Pending transactions are detached from
+     * their accounts until their year is decoded and attached again.  Methods that decode or attach transactions are
+     * synchronized, callers that also change the loaded objects must coordinate with their own locks.
+     */
+    public static final class ProgressiveRead {
+
+        private final StoredObject[] table;
+
+        private final Map<Class<?>, Enum<?>[]> enumTables;
+
+        /**
+         * Pending transaction segments by year, newest year first.
+         */
+        private final NavigableMap<Integer, List<Segment>> pendingYears = new TreeMap<>(Comparator.reverseOrder());
+
+        private final Map<Segment, byte[]> pendingBytes = new HashMap<>();
+
+        private final BitSet pending = new BitSet();
+
+        private volatile LocalDate loadedFrom = LocalDate.MIN;
+
+        private ProgressiveRead(final StoredObject[] table, final Map<Class<?>, Enum<?>[]> enumTables) {
+            this.table = table;
+            this.enumTables = enumTables;
+        }
+
+        /**
+         * Reads the segments and decodes each resident one on the common fork/join pool as soon as its bytes are
+         * available.  Decoding a segment only changes the objects within its own range of the object table.
+         */
+        private void readSegments(final CompactBinaryInput in, final int firstYear) throws IOException {
+            final List<CompletableFuture<Void>> decoded = new ArrayList<>();
+
+            try {
+                for (int kind = in.readByte(); kind != END_OF_SEGMENTS; kind = in.readByte()) {
+                    final int key = in.readSignedVarInt();
+                    final int from = in.readCount(table.length);
+                    final int count = in.readCount(table.length - from);
+                    final byte[] bytes = new byte[in.readCount()];
+
+                    in.readBytes(bytes);
+
+                    final Segment segment = new Segment(kind, key, from, count);
+
+                    if (kind == TRANSACTION_SEGMENT && key < firstYear) {
+                        pendingYears.computeIfAbsent(key, year -> new ArrayList<>()).add(segment);
+                        pendingBytes.put(segment, bytes);
+                        pending.set(from, from + count);
+                    } else {
+                        decoded.add(decodeAsync(segment, bytes, table, enumTables));
+                    }
+                }
+
+                for (final CompletableFuture<Void> future : decoded) {
+                    join(future);
+                }
+            } finally {
+                decoded.forEach(future -> future.cancel(true));
+            }
+
+            if (!pendingYears.isEmpty()) {
+                loadedFrom = LocalDate.of(firstYear, Month.JANUARY, 1);
+
+                // account records list every transaction, detach the pending ones
+                final Set<StoredObject> detached = Collections.newSetFromMap(new IdentityHashMap<>());
+
+                pending.stream().forEach(i -> detached.add(table[i]));
+
+                for (final StoredObject object : table) {
+                    if (object instanceof Account) {
+                        ((Account) object).transactions.removeIf(detached::contains);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the decoded objects.  Pending transactions are not included.
+         *
+         * @return list of the decoded objects
+         */
+        public List<StoredObject> getObjects() {
+            final List<StoredObject> objects = new ArrayList<>(table.length - pending.cardinality());
+
+            for (int i = 0; i < table.length; i++) {
+                if (!pending.get(i)) {
+                    objects.add(table[i]);
+                }
+            }
+
+            return objects;
+        }
+
+        /**
+         * Returns the date from which every transaction is decoded and attached.
+         *
+         * @return the earliest date with complete transactions, {@link LocalDate#MIN} when nothing is pending
+         */
+        public LocalDate getLoadedFrom() {
+            return loadedFrom;
+        }
+
+        public synchronized boolean hasPending() {
+            return !pendingYears.isEmpty();
+        }
+
+        /**
+         * Decodes the newest pending year.  The transactions are not attached to their accounts.
+         *
+         * @return the decoded transactions, an empty list if nothing is pending
+         * @throws IOException if the transactions could not be decoded
+         * @see #attach(List)
+         */
+        public synchronized List<Transaction> decodeNext() throws IOException {
+            final Map.Entry<Integer, List<Segment>> year = pendingYears.firstEntry();
+
+            if (year == null) {
+                return Collections.emptyList();
+            }
+
+            decodeSegments(year.getValue(), pendingBytes, table, enumTables);
+
+            final List<Transaction> transactions = new ArrayList<>();
+
+            for (final Segment segment : year.getValue()) {
+                for (int i = segment.from; i < segment.from + segment.count; i++) {
+                    transactions.add((Transaction) table[i]);
+                }
+
+                pendingBytes.remove(segment);
+            }
+
+            return transactions;
+        }
+
+        /**
+         * Attaches the transactions returned by {@link #decodeNext()} to their accounts and advances the loaded date.
+         *
+         * @param transactions the decoded transactions
+         */
+        public synchronized void attach(final List<Transaction> transactions) {
+            if (transactions.isEmpty()) {
+                return;
+            }
+
+            final Map<Account, List<Transaction>> accountMap = new HashMap<>();
+
+            for (final Transaction transaction : transactions) {
+                for (final Account account : transaction.getAccounts()) {
+                    accountMap.computeIfAbsent(account, a -> new ArrayList<>()).add(transaction);
+                }
+            }
+
+            accountMap.forEach(Account::addTransactions);
+
+            final int year = transactions.get(0).date.getYear();
+
+            for (final Segment segment : pendingYears.remove(year)) {
+                pending.clear(segment.from, segment.from + segment.count);
+            }
+
+            loadedFrom = pendingYears.isEmpty() ? LocalDate.MIN : LocalDate.of(year, Month.JANUARY, 1);
+        }
+    }
+
+    private static byte[] encode(final List<StoredObject> objects, final Map<StoredObject, Integer> index) {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        try (final CompactBinaryOutput out = new CompactBinaryOutput(Channels.newChannel(stream))) {
+            new Writer(out, index).writeRecords(objects);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return stream.toByteArray();
+    }
+
+    /**
+     * Waits for a segment task and rethrows its failure.
+     */
+    private static <T> T join(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> Enum<?>[] readEnumTable(final CompactBinaryInput in,
+                                                               final Class<? extends Enum<?>> type)
+            throws IOException {
+        final Enum<?>[] constants = new Enum<?>[in.readCount()];
+
+        for (int i = 0; i < constants.length; i++) {
+            final String name = in.readString();
+
+            try {
+                constants[i] = Enum.valueOf((Class<E>) type, name);
+            } catch (final IllegalArgumentException | NullPointerException e) {
+                constants[i] = null;    // only an error if the constant is used
+            }
+        }
+
+        return constants;
+    }
+
+    /**
+     * A range of the object table that is encoded and decoded independently.
+     */
+    private static final class Segment {
+
+        final int kind;
+
+        /**
+         * Identifies the segment within its kind, the year for transactions.
+         */
+        final int key;
+
+        final int from;
+
+        final int count;
+
+        Segment(final int kind, final int key, final int from, final int count) {
+            this.kind = kind;
+            this.key = key;
+            this.from = from;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Builds the object table and its segments by walking from the root objects the same way the XStream files are
+     * written.
+     */
+    private static final class Layout {
+
+        final List<StoredObject> table;
+
+        final List<Segment> segments = new ArrayList<>();
+
+        private final Set<StoredObject> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Layout(final Collection<StoredObject> objects) {
+            table = new ArrayList<>(objects.size());
+
+            final List<StoredObject> roots = new ArrayList<>();
+
+            for (final StoredObject object : objects) {
+                if (!object.isMarkedForRemoval() && (object instanceof Config || object instanceof CommodityNode
+                        || object instanceof ExchangeRate || object instanceof RootAccount
+                        || object instanceof Budget || object instanceof Reminder)) {
+                    roots.add(object);
+                }
+            }
+
+            // commodities and the config first so the first records read are the ones most others refer to
+            final List<StoredObject> commodities = new ArrayList<>();
+
+            roots.stream().filter(o -> o instanceof Config).forEach(commodities::add);
+            roots.stream().filter(o -> o instanceof CurrencyNode).forEach(commodities::add);
+            roots.stream().filter(o -> o instanceof SecurityNode).forEach(commodities::add);
+            roots.stream().filter(o -> o instanceof ExchangeRate).forEach(commodities::add);
+
+            addSegments(COMMODITY_SEGMENT, 0, commodities);
+
+            final List<Account> accounts = new ArrayList<>();
+
+            roots.stream().filter(o -> o instanceof RootAccount).forEach(o -> addAccountTree(accounts, (Account) o));
+
+            addSegments(ACCOUNT_SEGMENT, 0, accounts);
+
+            final Map<Integer, List<Transaction>> years = new TreeMap<>();
+
+            for (final Account account : accounts) {
+                for (final Transaction transaction : account.transactions) {
+                    years.computeIfAbsent(transaction.date.getYear(), year -> new ArrayList<>()).add(transaction);
+                }
+            }
+
+            years.forEach((year, transactions) -> addSegments(TRANSACTION_SEGMENT, year, transactions));
+
+            final List<StoredObject> budgets = new ArrayList<>();
+
+            roots.stream().filter(o -> o instanceof Budget).forEach(budgets::add);
+
+            addSegments(BUDGET_SEGMENT, 0, budgets);
+
+            final List<StoredObject> reminders = new ArrayList<>();
+
+            roots.stream().filter(o -> o instanceof Reminder).forEach(reminders::add);
+
+            // reminder transactions are templates and do not belong to an account
+            roots.stream().filter(o -> o instanceof Reminder).map(o -> ((Reminder) o).getTransaction())
+                    .forEach(reminders::add);
+
+            addSegments(REMINDER_SEGMENT, 0, reminders);
+        }
+
+        private void addAccountTree(final List<Account> accounts, final Account account) {
+            accounts.add(account);
+
+            for (final Account child : account.children) {
+                addAccountTree(accounts, child);
+            }
+        }
+
+        private void addSegments(final int kind, final int key, final List<? extends StoredObject> objects) {
+            int from = table.size();
+
+            for (final StoredObject object : objects) {
+                if (object != null && seen.add(object)) {
+                    table.add(object);
+
+                    if (table.size() - from == MAX_SEGMENT_SIZE) {
+                        segments.add(new Segment(kind, key, from, MAX_SEGMENT_SIZE));
+                        from = table.size();
+                    }
+                }
+            }
+
+            if (table.size() > from) {
+                segments.add(new Segment(kind, key, from, table.size() - from));
+            }
+        }
+    }
+
+    private static int typeOf(final StoredObject object) {
+        if (object instanceof Config) {
+            return CONFIG;
+        } else if (object instanceof CurrencyNode) {
+            return CURRENCY;
+        } else if (object instanceof SecurityNode) {
+            return SECURITY;
+        } else if (object instanceof ExchangeRate) {
+            return EXCHANGE_RATE;
+        } else if (object instanceof RootAccount) {
+            return ROOT_ACCOUNT;
+        } else if (object instanceof Account) {
+            return ACCOUNT;
+        } else if (object instanceof InvestmentTransaction) {
+            return INVESTMENT_TRANSACTION;
+        } else if (object instanceof Transaction) {
+            return TRANSACTION;
+        } else if (object instanceof Budget) {
+            return BUDGET;
+        } else if (object instanceof DailyReminder) {
+            return DAILY_REMINDER;
+        } else if (object instanceof WeeklyReminder) {
+            return WEEKLY_REMINDER;
+        } else if (object instanceof MonthlyReminder) {
+            return MONTHLY_REMINDER;
+        } else if (object instanceof YearlyReminder) {
+            return YEARLY_REMINDER;
+        } else if (object instanceof OneTimeReminder) {
+            return ONE_TIME_REMINDER;
+        }
+
+        throw new IllegalArgumentException("Unsupported type: " + object.getClass().getName());
+    }
+
+    private static StoredObject newInstance(final int type) throws StreamCorruptedException {
+        switch (type) {
+            case CONFIG:
+                return new Config();
+            case CURRENCY:
+                return new CurrencyNode();
+            case SECURITY:
+                return new SecurityNode();
+            case EXCHANGE_RATE:
+                return new ExchangeRate();
+            case ROOT_ACCOUNT:
+                return new RootAccount();
+            case ACCOUNT:
+                return new Account();
+            case TRANSACTION:
+                return new Transaction();
+            case INVESTMENT_TRANSACTION:
+                return new InvestmentTransaction();
+            case BUDGET:
+                return new Budget();
+            case DAILY_REMINDER:
+                return new DailyReminder();
+            case WEEKLY_REMINDER:
+                return new WeeklyReminder();
+            case MONTHLY_REMINDER:
+                return new MonthlyReminder();
+            case YEARLY_REMINDER:
+                return new YearlyReminder();
+            case ONE_TIME_REMINDER:
+                return new OneTimeReminder();
+            default:
+                throw new StreamCorruptedException("Unknown object type: " + type);
+        }
+    }
+
+    private static int entryTypeOf(final TransactionEntry entry) {
+        if (entry instanceof TransactionEntryAddX) {
+            return ENTRY_ADD;
+        } else if (entry instanceof TransactionEntryBuyX) {
+            return ENTRY_BUY;
+        } else if (entry instanceof TransactionEntryDividendX) {
+            return ENTRY_DIVIDEND;
+        } else if (entry instanceof TransactionEntryMergeX) {
+            return ENTRY_MERGE;
+        } else if (entry instanceof TransactionEntryReinvestDivX) {
+            return ENTRY_REINVEST_DIVIDEND;
+        } else if (entry instanceof TransactionEntryRemoveX) {
+            return ENTRY_REMOVE;
+        } else if (entry instanceof TransactionEntryRocX) {
+            return ENTRY_RETURN_OF_CAPITAL;
+        } else if (entry instanceof TransactionEntrySellX) {
+            return ENTRY_SELL;
+        } else if (entry instanceof TransactionEntrySplitX) {
+            return ENTRY_SPLIT;
+        } else if (entry.getClass() == TransactionEntry.class) {
+            return ENTRY;
+        }
+
+        throw new IllegalArgumentException("Unsupported type: " + entry.getClass().getName());
+    }
+
+    private static TransactionEntry newEntry(final int type) throws StreamCorruptedException {
+        switch (type) {
+            case ENTRY:
+                return new TransactionEntry();
+            case ENTRY_ADD:
+                return new TransactionEntryAddX();
+            case ENTRY_BUY:
+                return new TransactionEntryBuyX();
+            case ENTRY_DIVIDEND:
+                return new TransactionEntryDividendX();
+            case ENTRY_MERGE:
+                return new TransactionEntryMergeX();
+            case ENTRY_REINVEST_DIVIDEND:
+                return new TransactionEntryReinvestDivX();
+            case ENTRY_REMOVE:
+                return new TransactionEntryRemoveX();
+            case ENTRY_RETURN_OF_CAPITAL:
+                return new TransactionEntryRocX();
+            case ENTRY_SELL:
+                return new TransactionEntrySellX();
+            case ENTRY_SPLIT:
+                return new TransactionEntrySplitX();
+            default:
+                throw new StreamCorruptedException("Unknown transaction entry type: " + type);
+        }
+    }
+
+    /**
+     * Encodes records against a shared object index.
+     */
+    private static final class Writer {
+
+        private final CompactBinaryOutput out;
+
+        private final Map<StoredObject, Integer> index;
+
+        Writer(final CompactBinaryOutput out, final Map<StoredObject, Integer> index) {
+            this.out = out;
+            this.index = index;
+        }
+
+        void writeRecords(final List<StoredObject> objects) throws IOException {
+            for (final StoredObject object : objects) {
+                if (object instanceof Config) {
+                    writeConfig((Config) object);
+                } else if (object instanceof CommodityNode) {
+                    writeCommodity((CommodityNode) object);
+                } else if (object instanceof ExchangeRate) {
+                    writeExchangeRate((ExchangeRate) object);
+                } else if (object instanceof Account) {
+                    writeAccount((Account) object);
+                } else if (object instanceof Transaction) {
+                    writeTransaction((Transaction) object);
+                } else if (object instanceof Budget) {
+                    writeBudget((Budget) object);
+                } else if (object instanceof Reminder) {
+                    writeReminder((Reminder) object);
+                }
+            }
+        }
+
+        private void writeReference(final StoredObject object) throws IOException {
+            if (object == null) {
+                out.writeVarInt(0);
+            } else {
+                final Integer i = index.get(object);
+
+                if (i == null) {
+                    Logger.getLogger(CompactBinaryCodec.class.getName())
+                            .warning("Dropped a reference to an unreachable object: " + object.getUuid());
+                    out.writeVarInt(0);
+                } else {
+                    out.writeVarInt(i + 1);
+                }
+            }
+        }
+
+        private void writeReferences(final Collection<? extends StoredObject> objects) throws IOException {
+            out.writeVarInt(objects.size());
+
+            for (final StoredObject object : objects) {
+                writeReference(object);
+            }
+        }
+
+        private void writeEnum(final Enum<?> constant) throws IOException {
+            out.writeVarInt(constant == null ? 0 : constant.ordinal() + 1);
+        }
+
+        private void writeStrings(final Collection<String> strings) throws IOException {
+            out.writeVarInt(strings.size());
+
+            for (final String string : strings) {
+                out.writeString(string);
+            }
+        }
+
+        private void writeMap(final Map<String, String> map) throws IOException {
+            out.writeVarInt(map.size());
+
+            for (final Map.Entry<String, String> entry : map.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeString(entry.getValue());
+            }
+        }
+
+        private void writeConfig(final Config config) throws IOException {
+            writeReference(config.getDefaultCurrency());
+            out.writeString(config.accountSeparator);
+            out.writeString(config.fileFormat);
+            writeStrings(config.transactionNumberItems);
+            writeStrings(config.customTransactionTags);
+            writeMap(config.preferences);
+        }
+
+        private void writeCommodity(final CommodityNode node) throws IOException {
+            out.writeString(node.getSymbol());
+            out.writeByte(node.getScale());
+            out.writeString(node.getDescription());
+
+            if (node instanceof SecurityNode) {
+                final SecurityNode securityNode = (SecurityNode) node;
+
+                // prefix and suffix are taken from the reported currency
+                writeReference(securityNode.getReportedCurrencyNode());
+                writeEnum(securityNode.getQuoteSource());
+                out.writeString(securityNode.getISIN());
+
+                final List<SecurityHistoryNode> historyNodes = securityNode.getHistoryNodes();
+
+                out.writeVarInt(historyNodes.size());
+
+                for (final SecurityHistoryNode historyNode : historyNodes) {
+                    out.writeDate(historyNode.getLocalDate());
+                    out.writeDecimal(historyNode.getPrice());
+                    out.writeDecimal(historyNode.getHigh());
+                    out.writeDecimal(historyNode.getLow());
+                    out.writeSignedVarLong(historyNode.getVolume());
+                }
+
+                final Set<SecurityHistoryEvent> events = securityNode.getHistoryEvents();
+
+                out.writeVarInt(events.size());
+
+                for (final SecurityHistoryEvent event : events) {
+                    writeEnum(event.getType());
+                    out.writeDate(event.getDate());
+                    out.writeDecimal(event.getValue());
+                }
+            } else {
+                out.writeString(node.getPrefix());
+                out.writeString(node.getSuffix());
+            }
+        }
+
+        private void writeExchangeRate(final ExchangeRate rate) throws IOException {
+            out.writeString(rate.rateId);
+
+            final List<ExchangeRateHistoryNode> history = rate.getHistory();
+
+            out.writeVarInt(history.size());
+
+            for (final ExchangeRateHistoryNode node : history) {
+                out.writeDate(node.getLocalDate());
+                out.writeDecimal(node.getRate());
+            }
+        }
+
+        private void writeAccount(final Account account) throws IOException {
+            int flags = 0;
+
+            if (account.isPlaceHolder()) {
+                flags |= PLACE_HOLDER;
+            }
+
+            if (account.isLocked()) {
+                flags |= LOCKED;
+            }
+
+            if (account.isVisible()) {
+                flags |= VISIBLE;
+            }
+
+            if (account.isExcludedFromBudget()) {
+                flags |= EXCLUDED_FROM_BUDGET;
+            }
+
+            writeEnum(account.getAccountType());
+            out.writeByte(flags);
+            out.writeString(account.getName());
+            out.writeString(account.getDescription());
+            out.writeString(account.getNotes());
+            writeReference(account.getCurrencyNode());
+            writeReference(account.parentAccount);
+            out.writeString(account.getAccountNumber());
+            out.writeString(account.getBankId());
+            out.writeSignedVarInt(account.getAccountCode());
+
+            writeReferences(account.children);
+            writeReferences(account.getSecurities());
+            writeMap(account.attributes);
+
+            final AmortizeObject amortizeObject = account.getAmortizeObject();
+
+            out.writeBoolean(amortizeObject != null);
+
+            if (amortizeObject != null) {
+                writeReference(amortizeObject.getInterestAccount());
+                writeReference(amortizeObject.getBankAccount());
+                writeReference(amortizeObject.getFeesAccount());
+                out.writeSignedVarInt(amortizeObject.getPaymentPeriods());
+                out.writeSignedVarInt(amortizeObject.getLength());
+                out.writeSignedVarInt(amortizeObject.getInterestPeriods());
+                out.writeDecimal(amortizeObject.getRate());
+                out.writeDecimal(amortizeObject.getPrincipal());
+                out.writeDecimal(amortizeObject.getFees());
+                out.writeString(amortizeObject.getPayee());
+                out.writeString(amortizeObject.getMemo());
+                out.writeDate(amortizeObject.getDate());
+                out.writeBoolean(amortizeObject.getUseDailyRate());
+                out.writeDecimal(amortizeObject.getDaysPerYear());
+            }
+
+            writeReferences(account.transactions);
+        }
+
+        private void writeTransaction(final Transaction transaction) throws IOException {
+            out.writeDate(transaction.date);
+            out.writeSignedVarLong(transaction.timestamp);
+            out.writeString(transaction.getNumber());
+            out.writeString(transaction.getPayee());
+            out.writeString(transaction.getFitid());
+            out.writeString(transaction.getAttachment());
+            out.writeString(transaction.getTransactionMemo());
+
+            out.writeVarInt(transaction.transactionEntries.size());
+
+            for (final TransactionEntry entry : transaction.transactionEntries) {
+                out.writeByte(entryTypeOf(entry));
+                writeEnum(entry.getTransactionTag());
+                writeReference(entry.getDebitAccount());
+                writeReference(entry.getCreditAccount());
+                out.writeDecimal(entry.getCreditAmount());
+                out.writeDecimal(entry.getDebitAmount());
+                writeEnum(entry.getCreditReconciled());
+                writeEnum(entry.getDebitReconciled());
+                out.writeString(entry.getMemo());
+                out.writeString(entry.customTags);
+
+                if (entry instanceof AbstractInvestmentTransactionEntry) {
+                    final AbstractInvestmentTransactionEntry investmentEntry
+                            = (AbstractInvestmentTransactionEntry) entry;
+
+                    writeReference(investmentEntry.getSecurityNode());
+                    out.writeDecimal(investmentEntry.getPrice());
+                    out.writeDecimal(investmentEntry.getQuantity());
+                }
+            }
+        }
+
+        private void writeBudget(final Budget budget) throws IOException {
+            int flags = 0;
+
+            if (budget.areAssetAccountsIncluded()) {
+                flags |= ASSET_ACCOUNTS;
+            }
+
+            if (budget.areIncomeAccountsIncluded()) {
+                flags |= INCOME_ACCOUNTS;
+            }
+
+            if (budget.areExpenseAccountsIncluded()) {
+                flags |= EXPENSE_ACCOUNTS;
+            }
+
+            if (budget.areLiabilityAccountsIncluded()) {
+                flags |= LIABILITY_ACCOUNTS;
+            }
+
+            out.writeString(budget.getName());
+            out.writeString(budget.getDescription());
+            writeEnum(budget.getBudgetPeriod());
+            out.writeByte(flags);
+
+            final Map<String, BudgetGoal> goals = budget.getAccountGoals();
+
+            out.writeVarInt(goals.size());
+
+            for (final Map.Entry<String, BudgetGoal> entry : goals.entrySet()) {
+                out.writeString(entry.getKey());
+                writeEnum(entry.getValue().getBudgetPeriod());
+
+                final BigDecimal[] values = entry.getValue().getGoals();
+
+                out.writeVarInt(values.length);
+
+                for (final BigDecimal value : values) {
+                    out.writeDecimal(value);
+                }
+            }
+        }
+
+        private void writeReminder(final Reminder reminder) throws IOException {
+            int flags = 0;
+
+            if (reminder.isAutoCreate()) {
+                flags |= AUTO_CREATE;
+            }
+
+            if (reminder.isEnabled()) {
+                flags |= ENABLED;
+            }
+
+            out.writeByte(flags);
+            out.writeSignedVarInt(reminder.getDaysAdvance());
+            out.writeString(reminder.getDescription());
+            out.writeDate(reminder.getEndDate());
+            out.writeSignedVarInt(reminder.getIncrement());
+            out.writeDate(reminder.getLastDate());
+            out.writeString(reminder.getNotes());
+            out.writeDate(reminder.getStartDate());
+            writeReference(reminder.getAccount());
+            writeReference(reminder.getTransaction());
+
+            if (reminder instanceof MonthlyReminder) {
+                out.writeSignedVarInt(((MonthlyReminder) reminder).getType());
+            }
+        }
+    }
+
+    /**
+     * Decodes records against a shared object table.
+     */
+    private static final class Reader {
+
+        private final CompactBinaryInput in;
+
+        private final StoredObject[] table;
+
+        private final Map<Class<?>, Enum<?>[]> enumTables;
+
+        Reader(final CompactBinaryInput in, final StoredObject[] table, final Map<Class<?>, Enum<?>[]> enumTables) {
+            this.in = in;
+            this.table = table;
+            this.enumTables = enumTables;
+        }
+
+        void readRecords(final int from, final int count) throws IOException {
+            for (int i = from; i < from + count; i++) {
+                final StoredObject object = table[i];
+
+                if (object instanceof Config) {
+                    readConfig((Config) object);
+                } else if (object instanceof CommodityNode) {
+                    readCommodity((CommodityNode) object);
+                } else if (object instanceof ExchangeRate) {
+                    readExchangeRate((ExchangeRate) object);
+                } else if (object instanceof Account) {
+                    readAccount((Account) object);
+                } else if (object instanceof Transaction) {
+                    readTransaction((Transaction) object);
+                } else if (object instanceof Budget) {
+                    readBudget((Budget) object);
+                } else if (object instanceof Reminder) {
+                    readReminder((Reminder) object);
+                }
+            }
+        }
+
+        private <E extends Enum<E>> E readEnum(final Class<E> type) throws IOException {
+            final int i = in.readVarInt();
+
+            if (i == 0) {
+                return null;
+            }
+
+            final Enum<?>[] constants = enumTables.get(type);
+
+            if (i > constants.length || constants[i - 1] == null) {
+                throw new StreamCorruptedException("Unknown " + type.getSimpleName() + " constant: " + i);
+            }
+
+            return type.cast(constants[i - 1]);
+        }
+
+        private StoredObject readReference() throws IOException {
+            final int i = in.readVarInt();
+
+            if (i == 0) {
+                return null;
+            }
+
+            if (i > table.length) {
+                throw new StreamCorruptedException("Invalid reference: " + i);
+            }
+
+            return table[i - 1];
+        }
+
+        private <T extends StoredObject> T readReference(final Class<T> type) throws IOException {
+            final StoredObject object = readReference();
+
+            if (object != null && !type.isInstance(object)) {
+                throw new StreamCorruptedException("Expected " + type.getSimpleName() + " but found "
+                        + object.getClass().getSimpleName());
+            }
+
+            return type.cast(object);
+        }
+
+        private <T extends StoredObject> void readReferences(final Class<T> type, final Collection<T> collection)
+                throws IOException {
+            final int count = in.readCount();
+
+            for (int i = 0; i < count; i++) {
+                final T object = readReference(type);
+
+                if (object != null) {
+                    collection.add(object);
+                }
+            }
+        }
+
+        private void readStrings(final Collection<String> strings) throws IOException {
+            final int count = in.readCount();
+
+            for (int i = 0; i < count; i++) {
+                strings.add(in.readString());
+            }
+        }
+
+        private Map<String, String> readMap() throws IOException {
+            final int count = in.readCount();
+            final Map<String, String> map = new HashMap<>();
+
+            for (int i = 0; i < count; i++) {
+                map.put(in.readString(), in.readString());
+            }
+
+            return map;
+        }
+
+        private void readConfig(final Config config) throws IOException {
+            config.setDefaultCurrency(readReference(CurrencyNode.class));
+            config.accountSeparator = in.readString();
+            config.fileFormat = in.readString();
+            readStrings(config.transactionNumberItems);
+            readStrings(config.customTransactionTags);
+            config.preferences.putAll(readMap());
+        }
+
+        private void readCommodity(final CommodityNode node) throws IOException {
+            node.setSymbol(in.readString());
+            node.setScale((byte) in.readByte());
+            node.setDescription(in.readString());
+
+            if (node instanceof SecurityNode) {
+                final SecurityNode securityNode = (SecurityNode) node;
+
+                securityNode.setReportedCurrencyNode(readReference(CurrencyNode.class));
+                securityNode.setQuoteSource(readEnum(QuoteSource.class));
+                securityNode.setISIN(in.readString());
+
+                final int historyCount = in.readCount();
+
+                for (int i = 0; i < historyCount; i++) {
+                    final LocalDate date = in.readDate();
+                    final BigDecimal price = in.readDecimal();
+                    final BigDecimal high = in.readDecimal();
+                    final BigDecimal low = in.readDecimal();
+
+                    securityNode.historyNodes.add(new SecurityHistoryNode(date, price, in.readSignedVarLong(), high,
+                            low));
+                }
+
+                final int eventCount = in.readCount();
+
+                for (int i = 0; i < eventCount; i++) {
+                    final SecurityHistoryEventType type = readEnum(SecurityHistoryEventType.class);
+
+                    securityNode.addSecurityHistoryEvent(new SecurityHistoryEvent(type, in.readDate(),
+                            in.readDecimal()));
+                }
+            } else {
+                node.setPrefix(in.readString());
+                node.setSuffix(in.readString());
+            }
+        }
+
+        private void readExchangeRate(final ExchangeRate rate) throws IOException {
+            rate.rateId = in.readString();
+
+            final int count = in.readCount();
+
+            for (int i = 0; i < count; i++) {
+                rate.addHistoryNode(new ExchangeRateHistoryNode(in.readDate(), in.readDecimal()));
+            }
+        }
+
+        private void readAccount(final Account account) throws IOException {
+            account.setAccountType(readEnum(AccountType.class));
+
+            final int flags = in.readByte();
+
+            account.setPlaceHolder((flags & PLACE_HOLDER) != 0);
+            account.setLocked((flags & LOCKED) != 0);
+            account.setVisible((flags & VISIBLE) != 0);
+            account.setExcludedFromBudget((flags & EXCLUDED_FROM_BUDGET) != 0);
+
+            final String name = in.readString();
+
+            if (name != null) {
+                account.setName(name);
+            }
+
+            account.setDescription(in.readString());
+            account.setNotes(in.readString());
+
+            final CurrencyNode currencyNode = readReference(CurrencyNode.class);
+
+            if (currencyNode != null) {
+                account.setCurrencyNode(currencyNode);
+            }
+
+            account.parentAccount = readReference(Account.class);
+            account.setAccountNumber(in.readString());
+            account.setBankId(in.readString());
+            account.setAccountCode(in.readSignedVarInt());
+
+            readReferences(Account.class, account.children);
+
+            final List<SecurityNode> securities = new ArrayList<>();
+            readReferences(SecurityNode.class, securities);
+            securities.forEach(account::addSecurity);
+
+            account.attributes.putAll(readMap());
+
+            if (in.readBoolean()) {
+                final AmortizeObject amortizeObject = new AmortizeObject();
+
+                amortizeObject.setInterestAccount(readReference(Account.class));
+                amortizeObject.setBankAccount(readReference(Account.class));
+                amortizeObject.setFeesAccount(readReference(Account.class));
+                amortizeObject.setPaymentPeriods(in.readSignedVarInt());
+                amortizeObject.setLength(in.readSignedVarInt());
+                amortizeObject.setInterestPeriods(in.readSignedVarInt());
+                amortizeObject.setRate(in.readDecimal());
+                amortizeObject.setPrincipal(in.readDecimal());
+                amortizeObject.setFees(in.readDecimal());
+                amortizeObject.setPayee(in.readString());
+                amortizeObject.setMemo(in.readString());
+                amortizeObject.setDate(in.readDate());
+                amortizeObject.setUseDailyRate(in.readBoolean());
+                amortizeObject.setDaysPerYear(in.readDecimal());
+
+                account.setAmortizeObject(amortizeObject);
+            }
+
+            readReferences(Transaction.class, account.transactions);
+        }
+
+        private void readTransaction(final Transaction transaction) throws IOException {
+            transaction.date = in.readDate();
+            transaction.timestamp = in.readSignedVarLong();
+            transaction.setNumber(in.readString());
+            transaction.setPayee(in.readString());
+            transaction.setFitid(in.readString());
+            transaction.setAttachment(in.readString());
+            transaction.setMemo(in.readString());
+
+            final int count = in.readCount();
+
+            for (int i = 0; i < count; i++) {
+                final TransactionEntry entry = newEntry(in.readByte());
+
+                final TransactionTag tag = readEnum(TransactionTag.class);
+
+                if (tag != null) {
+                    entry.setTransactionTag(tag);
+                }
+
+                entry.setDebitAccount(readReference(Account.class));
+                entry.setCreditAccount(readReference(Account.class));
+                entry.setCreditAmount(in.readDecimal());
+                entry.setDebitAmount(in.readDecimal());
+
+                final ReconciledState creditReconciled = readEnum(ReconciledState.class);
+                final ReconciledState debitReconciled = readEnum(ReconciledState.class);
+
+                if (creditReconciled != null) {
+                    entry.setCreditReconciled(creditReconciled);
+                }
+
+                if (debitReconciled != null) {
+                    entry.setDebitReconciled(debitReconciled);
+                }
+
+                entry.setMemo(in.readString());
+                entry.customTags = in.readString();
+
+                if (entry instanceof AbstractInvestmentTransactionEntry) {
+                    final AbstractInvestmentTransactionEntry investmentEntry
+                            = (AbstractInvestmentTransactionEntry) entry;
+
+                    investmentEntry.setSecurityNode(readReference(SecurityNode.class));
+                    investmentEntry.setPrice(in.readDecimal());
+                    investmentEntry.setQuantity(in.readDecimal());
+                }
+
+                transaction.transactionEntries.add(entry);
+            }
+        }
+
+        private void readBudget(final Budget budget) throws IOException {
+            final String name = in.readString();
+
+            if (name != null && !name.isEmpty()) {
+                budget.setName(name);
+            }
+
+            final String description = in.readString();
+
+            if (description != null) {
+                budget.setDescription(description);
+            }
+
+            budget.setBudgetPeriod(readEnum(Period.class));
+
+            final int flags = in.readByte();
+
+            budget.setAssetAccountsIncluded((flags & ASSET_ACCOUNTS) != 0);
+            budget.setIncomeAccountsIncluded((flags & INCOME_ACCOUNTS) != 0);
+            budget.setExpenseAccountsIncluded((flags & EXPENSE_ACCOUNTS) != 0);
+            budget.setLiabilityAccountsIncluded((flags & LIABILITY_ACCOUNTS) != 0);
+
+            final int count = in.readCount();
+
+            for (int i = 0; i < count; i++) {
+                final String accountUuid = in.readString();
+
+                final BudgetGoal goal = new BudgetGoal();
+                goal.setBudgetPeriod(readEnum(Period.class));
+
+                final BigDecimal[] values = goal.getGoals();
+                final int length = in.readCount();
+
+                for (int j = 0; j < length; j++) {
+                    final BigDecimal value = in.readDecimal();
+
+                    if (j < values.length && value != null) {
+                        values[j] = value;
+                    }
+                }
+
+                goal.setGoals(values);
+                budget.setBudgetGoal(accountUuid, goal);
+            }
+        }
+
+        private void readReminder(final Reminder reminder) throws IOException {
+            final int flags = in.readByte();
+
+            reminder.setAutoCreate((flags & AUTO_CREATE) != 0);
+            reminder.setEnabled((flags & ENABLED) != 0);
+            reminder.setDaysAdvance(in.readSignedVarInt());
+            reminder.setDescription(in.readString());
+            reminder.setEndDate(in.readDate());
+            reminder.setIncrement(in.readSignedVarInt());
+
+            final LocalDate lastDate = in.readDate();
+
+            if (lastDate != null) {
+                ReminderAccessor.setLastDate(reminder, lastDate);
+            }
+
+            reminder.setNotes(in.readString());
+
+            final LocalDate startDate = in.readDate();
+
+            if (startDate != null) {
+                reminder.setStartDate(startDate);
+            }
+
+            reminder.setAccount(readReference(Account.class));
+            reminder.setTransaction(readReference(Transaction.class));
+
+            if (reminder instanceof MonthlyReminder) {
+                ((MonthlyReminder) reminder).setType(in.readSignedVarInt());
+            }
+        }
+    }
+}
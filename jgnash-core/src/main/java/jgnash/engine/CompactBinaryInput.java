@@ -0,0 +1,290 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Buffered reader of the primitive encodings used by the compact binary file format.
+ *
+ * @author Craig Cavanaugh
+ * @see CompactBinaryOutput
+ */
+final class CompactBinaryInput {
+
+    /**
+     * Longest accepted unscaled value of a decimal in bytes.
+     */
+    private static final int MAX_DECIMAL_LENGTH = 1024;
+
+    /**
+     * Largest array that may be allocated.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final ReadableByteChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private final byte[] array;
+
+    /**
+     * Bytes not yet read from the channel, negative if the channel length is unknown.
+     */
+    private long channelRemaining;
+
+    CompactBinaryInput(final ReadableByteChannel channel) throws IOException {
+        this(channel, CompactBinaryOutput.DEFAULT_BUFFER_SIZE);
+    }
+
+    CompactBinaryInput(final ReadableByteChannel channel, final int bufferSize) throws IOException {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        buffer.flip();  // start empty
+
+        array = buffer.array();
+
+        if (channel instanceof SeekableByteChannel) {
+            final SeekableByteChannel seekableByteChannel = (SeekableByteChannel) channel;
+            channelRemaining = Math.max(0, seekableByteChannel.size() - seekableByteChannel.position());
+        } else {
+            channelRemaining = -1;
+        }
+    }
+
+    /**
+     * Creates a reader for data that is already in memory.
+     *
+     * @param bytes data to read
+     */
+    CompactBinaryInput(final byte[] bytes) {
+        channel = null;
+        buffer = ByteBuffer.wrap(bytes);
+        array = bytes;
+        channelRemaining = 0;
+    }
+
+    /**
+     * Makes at least the requested number of bytes available in the buffer.
+     *
+     * @param length required number of bytes, may not exceed the buffer capacity
+     * @throws IOException if the end of the channel is reached first
+     */
+    private void ensure(final int length) throws IOException {
+        if (buffer.remaining() < length) {
+            if (channel == null) {
+                throw new EOFException();
+            }
+
+            buffer.compact();
+
+            while (buffer.position() < length) {
+                final int read = channel.read(buffer);
+
+                if (read < 0) {
+                    throw new EOFException();
+                }
+
+                if (channelRemaining > 0) {
+                    channelRemaining = Math.max(0, channelRemaining - read);
+                }
+            }
+
+            buffer.flip();
+        }
+    }
+
+    int readByte() throws IOException {
+        ensure(1);
+        return buffer.get() & 0xFF;
+    }
+
+    boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    void readBytes(final byte[] bytes) throws IOException {
+        int offset = 0;
+
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                ensure(1);
+            }
+
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+
+            buffer.get(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    int readVarInt() throws IOException {
+        final long value = readVarLong();
+
+        if (value > 0xFFFFFFFFL) {
+            throw new StreamCorruptedException("Integer out of range");
+        }
+
+        return (int) value;
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readByte();
+
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new StreamCorruptedException("Malformed variable length integer");
+    }
+
+    long readSignedVarLong() throws IOException {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readSignedVarInt() throws IOException {
+        return (int) readSignedVarLong();
+    }
+
+    /**
+     * Returns the number of bytes left to read.
+     *
+     * @return remaining bytes, {@link Long#MAX_VALUE} if the length of the channel is not known
+     */
+    long remaining() {
+        return channelRemaining < 0 ? Long.MAX_VALUE : buffer.remaining() + channelRemaining;
+    }
+
+    /**
+     * Reads the count of the elements that follow.  Every element is encoded with at least one byte, so a count
+     * larger than the remaining bytes can only come from a damaged file and is rejected before anything is
+     * allocated for it.
+     *
+     * @return the count
+     * @throws IOException if the count is out of range
+     */
+    int readCount() throws IOException {
+        final int count = readCount(MAX_ARRAY_LENGTH);
+
+        if (count > remaining()) {
+            throw new StreamCorruptedException("Count exceeds the remaining data: " + count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Reads a count and verifies it is not larger than the supplied limit.  Guards against allocating huge
+     * collections from a damaged file.
+     *
+     * @param limit maximum acceptable count
+     * @return the count
+     * @throws IOException if the count is out of range
+     */
+    int readCount(final int limit) throws IOException {
+        final int count = readVarInt();
+
+        if (count < 0 || count > limit) {
+            throw new StreamCorruptedException("Count out of range: " + count);
+        }
+
+        return count;
+    }
+
+    String readString() throws IOException {
+        final int header = readVarInt();
+
+        if (header == 0) {
+            return null;
+        }
+
+        final int length = header - 1;
+
+        if (length < 0) {
+            throw new StreamCorruptedException("Invalid string length");
+        }
+
+        if (length <= buffer.capacity()) {
+            ensure(length);
+
+            final String value = new String(array, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+
+            return value;
+        }
+
+        final byte[] bytes = new byte[length];
+        readBytes(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    BigDecimal readDecimal() throws IOException {
+        final long header = readVarLong();
+
+        if (header == 0) {
+            return null;
+        }
+
+        final long zigZagScale = (header - 1) >>> 1;
+        final int scale = (int) ((zigZagScale >>> 1) ^ -(zigZagScale & 1));
+
+        if (((header - 1) & 1) != 0) {
+            final byte[] bytes = new byte[readCount(MAX_DECIMAL_LENGTH)];
+            readBytes(bytes);
+
+            return new BigDecimal(new BigInteger(bytes), scale);
+        }
+
+        return BigDecimal.valueOf(readSignedVarLong(), scale);
+    }
+
+    LocalDate readDate() throws IOException {
+        final long header = readVarLong();
+
+        if (header == 0) {
+            return null;
+        }
+
+        final long zigZag = header - 1;
+
+        return LocalDate.ofEpochDay((zigZag >>> 1) ^ -(zigZag & 1));
+    }
+
+    UUID readUuid() throws IOException {
+        ensure(16);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Buffered writer of the primitive encodings used by the compact binary file format.
+ * <p>
+ * Integers are written as variable length quantities with signed values zig-zag encoded so small magnitudes take
+ * a single byte.  Strings, decimals, dates and references reserve zero for {@code null}.
+ *
+ * @author Craig Cavanaugh
+ * @see CompactBinaryInput
+ */
+final class CompactBinaryOutput implements Closeable {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+
+    private final ByteBuffer buffer;
+
+    CompactBinaryOutput(final WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    CompactBinaryOutput(final WritableByteChannel channel, final int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    private void ensure(final int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    void writeByte(final int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void writeBoolean(final boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeBytes(final byte[] bytes) throws IOException {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    private void writeBytes(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length <= buffer.capacity()) {
+            ensure(length);
+            buffer.put(bytes, offset, length);
+        } else {
+            flush();
+
+            final ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+        }
+    }
+
+    /**
+     * Writes an unsigned variable length integer.
+     *
+     * @param value value to write, treated as unsigned
+     * @throws IOException if an I/O error occurs
+     */
+    void writeVarInt(final int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes an unsigned variable length long.
+     *
+     * @param value value to write, treated as unsigned
+     * @throws IOException if an I/O error occurs
+     */
+    void writeVarLong(final long value) throws IOException {
+        ensure(10);
+
+        long v = value;
+
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+
+        buffer.put((byte) v);
+    }
+
+    void writeSignedVarLong(final long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeSignedVarInt(final int value) throws IOException {
+        writeSignedVarLong(value);
+    }
+
+    void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+
+        final int length = value.length();
+
+        // fast path, most strings are plain ASCII and encode one byte per char
+        boolean ascii = true;
+
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+
+        if (ascii && length <= buffer.capacity() - 5) {
+            writeVarInt(length + 1);
+            ensure(length);
+
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Writes a decimal as its scale and unscaled value.  Unscaled values that do not fit a long are written as
+     * two's complement bytes.
+     *
+     * @param value value to write, may be {@code null}
+     * @throws IOException if an I/O error occurs
+     */
+    void writeDecimal(final BigDecimal value) throws IOException {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        final int scale = value.scale();
+        final BigInteger unscaled = value.unscaledValue();
+        final boolean large = unscaled.bitLength() > 63;
+
+        // header is the zig-zag scale shifted left by one with the low bit flagging a large unscaled value
+        writeVarLong(((((long) scale << 1) ^ (scale >> 31)) << 1 | (large ? 1 : 0)) + 1);
+
+        if (large) {
+            final byte[] bytes = unscaled.toByteArray();
+
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        } else {
+            writeSignedVarLong(unscaled.longValue());
+        }
+    }
+
+    void writeDate(final LocalDate date) throws IOException {
+        if (date == null) {
+            writeVarLong(0);
+        } else {
+            final long epochDay = date.toEpochDay();
+            writeVarLong(((epochDay << 1) ^ (epochDay >> 63)) + 1);
+        }
+    }
+
+    void writeUuid(final UUID uuid) throws IOException {
+        ensure(16);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Flushes the buffer.  The channel is owned by the caller and is not closed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -60,12 +60,12 @@ public class Config extends StoredObject {
     @ManyToOne(cascade = CascadeType.PERSIST)
     private CurrencyNode defaultCurrency;
 
-    private String accountSeparator = ":";
+    String accountSeparator = ":";
 
     /**
      * Current file format
      */
-    private String fileFormat = Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION;
+    String fileFormat = Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION;
 
     private transient ReadWriteLock preferencesLock;
 
@@ -73,14 +73,13 @@ public class Config extends StoredObject {
      * Contains a list a items to display in the transaction number combo.
      */
     @ElementCollection
-    private final List<String> transactionNumberItems = new ArrayList<>();
+    final List<String> transactionNumberItems = new ArrayList<>();
 
     /**
      * Contains a list of custom transaction tags a user may apply.
      */
     @ElementCollection
-    @SuppressWarnings("unused")
-    private Set<String> customTransactionTags = new HashSet<>();
+    Set<String> customTransactionTags = new HashSet<>();
 
     /**
      * {@code Map} for file based operation preferences.
@@ -91,7 +90,7 @@ public class Config extends StoredObject {
      */
     @ElementCollection
     @Column(columnDefinition = "varchar(8192)")
-    private final Map<String, String> preferences = new HashMap<>();
+    final Map<String, String> preferences = new HashMap<>();
 
     public Config() {
         preferencesLock = new ReentrantReadWriteLock(true);
@@ -21,6 +21,7 @@ import jgnash.engine.jpa.JpaH2DataStore;
 import jgnash.engine.jpa.JpaH2MvDataStore;
 import jgnash.engine.jpa.JpaHsqlDataStore;
 import jgnash.engine.xstream.BinaryXStreamDataStore;
+import jgnash.engine.xstream.CompactBinaryDataStore;
 import jgnash.engine.xstream.XMLDataStore;
 import jgnash.resource.util.ResourceUtils;
 
@@ -39,6 +40,10 @@ public enum DataStoreType {
             ResourceUtils.getString("DataStoreType.Bxds"),
             false,
             BinaryXStreamDataStore.class),
+    COMPACT_BINARY(
+            ResourceUtils.getString("DataStoreType.Jgb"),
+            false,
+            CompactBinaryDataStore.class),
     H2_DATABASE (
             ResourceUtils.getString("DataStoreType.H2") + " (1.3)",
             true,
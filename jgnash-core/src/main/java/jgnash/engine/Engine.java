@@ -27,8 +27,11 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -36,6 +39,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -53,20 +57,26 @@ import java.util.stream.Collectors;
 import jgnash.engine.attachment.AttachmentManager;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.concurrent.LockGroup;
 import jgnash.engine.concurrent.LockManager;
+import jgnash.engine.concurrent.LockMode;
 import jgnash.engine.dao.AccountDAO;
+import jgnash.engine.dao.AggregationDAO;
 import jgnash.engine.dao.BudgetDAO;
 import jgnash.engine.dao.CommodityDAO;
 import jgnash.engine.dao.ConfigDAO;
 import jgnash.engine.dao.EngineDAO;
 import jgnash.engine.dao.RecurringDAO;
 import jgnash.engine.dao.TransactionDAO;
+import jgnash.engine.dao.TransactionHydrator;
 import jgnash.engine.dao.TrashDAO;
 import jgnash.engine.message.ChannelEvent;
 import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
 import jgnash.engine.message.MessageProperty;
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 import jgnash.engine.recurring.MonthlyReminder;
 import jgnash.engine.recurring.PendingReminder;
 import jgnash.engine.recurring.RecurringIterator;
@@ -78,6 +88,7 @@ import jgnash.util.CollectionUtils;
 import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
+import jgnash.util.StartupTimeline;
 import jgnash.resource.util.ResourceUtils;
 
 /**
@@ -99,9 +110,11 @@ public class Engine {
 
     public static final float CURRENT_VERSION = CURRENT_MAJOR_VERSION + (CURRENT_MINOR_VERSION / 100f);
 
-    // Lock name
+    // Lock names
     private static final String BIG_LOCK = "bigLock";
 
+    private static final String COMMODITY_LOCK = "commodityLock";
+
     private static final Logger logger = Logger.getLogger(Engine.class.getName());
 
     private static final long MAXIMUM_TRASH_AGE = 2L * 60L * 1000L; // 2 minutes
@@ -120,6 +133,14 @@ public class Engine {
 
     private static final String COMMODITY = "Commodity ";
 
+    private static final LatencyHistogram addTransactionTime = Metrics.histogram("engine.addTransaction");
+
+    private static final LatencyHistogram addTransactionsTime = Metrics.histogram("engine.addTransactions");
+
+    private static final LatencyHistogram removeTransactionTime = Metrics.histogram("engine.removeTransaction");
+
+    private static final LatencyHistogram reconcileTransactionsTime = Metrics.histogram("engine.reconcileTransactions");
+
     static {
         logger.setLevel(Level.ALL);
     }
@@ -131,6 +152,8 @@ public class Engine {
      */
     private final ReentrantReadWriteLock dataLock;
 
+    private final LockManager lockManager;
+
     private final AtomicInteger backGroundCounter = new AtomicInteger();
     /**
      * Named identifier for this engine instance.
@@ -151,6 +174,21 @@ public class Engine {
      */
     private final ScheduledThreadPoolExecutor backgroundExecutorService;
 
+    /**
+     * Loads the older transactions after a progressive boot, {@code null} if every transaction was loaded up front.
+     */
+    private final TransactionHydrator transactionHydrator;
+
+    /**
+     * Requests waiting for the transaction history to be loaded back to a date.  Guarded by itself.
+     */
+    private final Map<CompletableFuture<Void>, LocalDate> transactionHistoryRequests = new HashMap<>();
+
+    /**
+     * Cause of a failed background load, the transaction history then remains incomplete.
+     */
+    private volatile IOException transactionHistoryFailure;
+
     /**
      * All engine instances will share the same message bus.
      */
@@ -180,18 +218,37 @@ public class Engine {
         this.name = name;
 
         // Generate lock
+        this.lockManager = lockManager;
         dataLock = lockManager.getLock(BIG_LOCK);
 
         messageBus = MessageBus.getInstance(name);
 
-        initialize();
+        transactionHydrator = eDAO.getTransactionHydrator();
+
+        // lazily mapped transactions must only be read by the data store
+        final TransactionDAO transactionDAO = eDAO.getTransactionDAO();
+
+        for (final Account account : eDAO.getAccountDAO().getAccountList()) {
+            account.setTransactionLoader(transactionDAO::initializeTransactions);
+        }
+
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Engine initialize")) {
+            initialize();
+        }
 
-        checkAndCorrect();
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Engine checkAndCorrect")) {
+            checkAndCorrect();
+        }
 
         backgroundExecutorService = new ScheduledThreadPoolExecutor(1, new DefaultDaemonThreadFactory());
         backgroundExecutorService.setRemoveOnCancelPolicy(true);
         backgroundExecutorService.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
 
+        // load the remaining transactions first, the other background tasks depend on a complete history
+        if (transactionHydrator != null) {
+            backgroundExecutorService.execute(this::hydrateTransactions);
+        }
+
         // run trash cleanup every 5 minutes 45 seconds after startup
         backgroundExecutorService.scheduleWithFixedDelay(() -> {
             if (!Thread.currentThread().isInterrupted()) {
@@ -199,6 +256,13 @@ public class Engine {
             }
         }, 45, 5L * 60L, TimeUnit.SECONDS);
 
+        // collect unreferenced attachments every hour 2 minutes after startup
+        backgroundExecutorService.scheduleWithFixedDelay(() -> {
+            if (!Thread.currentThread().isInterrupted()) {
+                collectAttachmentGarbage();
+            }
+        }, 2L * 60L, 60L * 60L, TimeUnit.SECONDS);
+
         // Engine needs to be registered before the update factories can find it.  Push the check to the background executor
         backgroundExecutorService.schedule(() -> {
             if (UpdateFactory.getUpdateOnStartup()) {
@@ -452,9 +516,22 @@ public class Engine {
         try {
             // Transaction timestamps were updated for release 2.25
             if (getConfig().getMinorFileFormatVersion() < 25) {
+                try {
+                    awaitTransactions(LocalDate.MIN);
+                } catch (final IOException e) {
+                    logSevere("Transactions could not be loaded, the file format was not upgraded");
+                    return;
+                }
+
+                // the managed transactions are collected from the accounts, the DAO may return detached copies
+                final Set<Transaction> transactions = new HashSet<>();
+
+                for (final Account account : getAccountList()) {
+                    transactions.addAll(account.getSortedTransactionList());
+                }
 
                 // Update transactions in chunks of 200
-                CollectionUtils.partition(getTransactions(), 200).forEach(eDAO::bulkUpdate);
+                CollectionUtils.partition(new ArrayList<>(transactions), 200).forEach(eDAO::bulkUpdate);
             }
 
             // update the file version if it is not current
@@ -470,6 +547,21 @@ public class Engine {
         }
     }
 
+    /**
+     * Acquires the data and commodity write locks as a group.  A distributed lock manager acquires both with a
+     * single request to the lock server.
+     *
+     * @return the acquired group of locks
+     */
+    private LockGroup lockCommodities() {
+        final Map<String, LockMode> locks = new HashMap<>();
+
+        locks.put(BIG_LOCK, LockMode.WRITE);
+        locks.put(COMMODITY_LOCK, LockMode.WRITE);
+
+        return lockManager.lockAll(locks);
+    }
+
     private void clearObsoleteExchangeRates() {
         getCommodityDAO().getExchangeRates().stream()
                 .filter(rate -> getBaseCurrencies(rate.getRateId()).length == 0)
@@ -477,15 +569,154 @@ public class Engine {
     }
 
     private void removeExchangeRate(final ExchangeRate rate) {
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             for (final ExchangeRateHistoryNode node : rate.getHistory()) {
                 removeExchangeRateHistory(rate, node);
             }
             moveObjectToTrash(rate);
+        }
+    }
+
+    /**
+     * Loads the remaining transactions on the background executor.  Loading stops early when the engine shuts down,
+     * the data store loads the rest itself before it is written.
+     */
+    private void hydrateTransactions() {
+        try {
+            while (!Thread.currentThread().isInterrupted() && !backgroundExecutorService.isShutdown()
+                    && transactionHydrator.hydrateNext()) {
+                completeTransactionHistoryRequests();
+            }
+        } catch (final IOException e) {
+            transactionHistoryFailure = e;
+            logger.log(Level.SEVERE, "Older transactions could not be loaded", e);
         } finally {
-            dataLock.writeLock().unlock();
+            // waiters are released even if loading stopped early, they would never complete otherwise
+            releaseTransactionHistoryRequests();
+        }
+
+        if (isTransactionHistoryLoaded()) {
+            logInfo("All transactions have been loaded");
+            messageBus.fireEvent(new Message(MessageChannel.SYSTEM, ChannelEvent.TRANSACTIONS_LOADED, this));
+        }
+    }
+
+    private void completeTransactionHistoryRequests() {
+        synchronized (transactionHistoryRequests) {
+            transactionHistoryRequests.entrySet().removeIf(entry -> {
+                if (isTransactionHistoryLoaded(entry.getValue())) {
+                    entry.getKey().complete(null);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Completes every waiting request once background loading has ended.  Requests for history that is still
+     * incomplete fail with the cause of the failure, or are cancelled if loading was stopped by a shutdown.
+     */
+    private void releaseTransactionHistoryRequests() {
+        synchronized (transactionHistoryRequests) {
+            transactionHistoryRequests.forEach((future, startDate) -> completeTransactionHistoryRequest(future,
+                    startDate));
+            transactionHistoryRequests.clear();
+        }
+    }
+
+    private void completeTransactionHistoryRequest(final CompletableFuture<Void> future, final LocalDate startDate) {
+        if (isTransactionHistoryLoaded(startDate)) {
+            future.complete(null);
+        } else if (transactionHistoryFailure != null) {
+            future.completeExceptionally(transactionHistoryFailure);
+        } else {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Determines if every transaction has been loaded.  This is only {@code false} for a short while after a file
+     * has been opened with progressive loading.  Until then, queries only return transactions from
+     * {@link #getTransactionHistoryStartDate()} onward.
+     *
+     * @return {@code true} if every transaction is available
+     * @see ChannelEvent#TRANSACTIONS_LOADED
+     */
+    public boolean isTransactionHistoryLoaded() {
+        return isTransactionHistoryLoaded(LocalDate.MIN);
+    }
+
+    private boolean isTransactionHistoryLoaded(final LocalDate startDate) {
+        return transactionHydrator == null || !transactionHydrator.getHydratedFrom().isAfter(startDate);
+    }
+
+    /**
+     * Determines if older transactions are still being loaded in the background.  Views that depend on the complete
+     * history, like registers and balances, should wait with {@link #whenTransactionsLoaded(LocalDate)} while this
+     * is {@code true} instead of showing partial results.
+     *
+     * @return {@code true} while the history is incomplete and still being loaded
+     */
+    public boolean isTransactionHistoryLoading() {
+        return !isTransactionHistoryLoaded() && transactionHistoryFailure == null
+                && (backgroundExecutorService == null || !backgroundExecutorService.isShutdown());
+    }
+
+    /**
+     * Returns the date from which every transaction is available.
+     *
+     * @return the earliest complete date, {@link LocalDate#MIN} if every transaction is available
+     */
+    public LocalDate getTransactionHistoryStartDate() {
+        return transactionHydrator == null ? LocalDate.MIN : transactionHydrator.getHydratedFrom();
+    }
+
+    /**
+     * Returns a future that completes once every transaction from the start date onward has been loaded.  The future
+     * completes exceptionally if the transactions could not be loaded and is cancelled if loading was stopped by a
+     * shutdown.
+     *
+     * @param startDate earliest date of interest
+     * @return a future that completes on the background executor, or an already completed future
+     */
+    public CompletableFuture<Void> whenTransactionsLoaded(final LocalDate startDate) {
+        Objects.requireNonNull(startDate);
+
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        synchronized (transactionHistoryRequests) {
+            if (isTransactionHistoryLoading()) {
+                transactionHistoryRequests.put(future, startDate);
+            } else {
+                completeTransactionHistoryRequest(future, startDate);
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Loads every transaction from the start date onward on the calling thread if the background executor has not
+     * done so yet.  The engine locks are not used while loading, but this may still take a while for a large file and
+     * should not be called from the UI thread.
+     *
+     * @param startDate earliest date of interest
+     * @throws IOException if the older transactions could not be loaded
+     */
+    public void awaitTransactions(final LocalDate startDate) throws IOException {
+        Objects.requireNonNull(startDate);
+
+        try {
+            while (!isTransactionHistoryLoaded(startDate) && transactionHydrator.hydrateNext()) {
+                completeTransactionHistoryRequests();
+            }
+        } finally {
+            completeTransactionHistoryRequests();
+        }
+
+        if (!isTransactionHistoryLoaded(startDate) && transactionHistoryFailure != null) {
+            throw transactionHistoryFailure;
         }
     }
 
@@ -717,6 +948,8 @@ public class Engine {
     }
 
     public void processPendingReminders(final Collection<PendingReminder> pendingReminders) {
+        final List<Transaction> transactions = new ArrayList<>();
+
         pendingReminders.stream().filter(PendingReminder::isApproved).forEach(pending -> {
             final Reminder reminder = pending.getReminder();
 
@@ -725,7 +958,7 @@ public class Engine {
 
                 // Update to the commit date (commit date can be modified)
                 t.setDate(pending.getCommitDate());
-                addTransaction(t);
+                transactions.add(t);
             }
             // update the last fired date... date returned from the iterator
             reminder.setLastDate(); // mark as complete
@@ -733,6 +966,11 @@ public class Engine {
                 logSevere(rb.getString("Message.Error.ReminderUpdate"));
             }
         });
+
+        // the transactions are stored as a single unit of work
+        if (!transactions.isEmpty()) {
+            addTransactions(transactions);
+        }
     }
 
     public <T extends StoredObject> T getStoredObjectByUuid(final Class<T> tClass, final UUID uuid) {
@@ -744,10 +982,13 @@ public class Engine {
      * {@code StoredObjects} marked for removal and {@code TrashObjects} are filtered from the collection.
      *
      * @return {@code Collection} of {@code StoredObjects}
+     * @throws IOException if transactions that were not loaded yet could not be loaded
      * @see Collection
      * @see StoredObjectComparator
      */
-    public Collection<StoredObject> getStoredObjects() {
+    public Collection<StoredObject> getStoredObjects() throws IOException {
+        awaitTransactions(LocalDate.MIN);   // a partial collection would be written by an export
+
         dataLock.readLock().lock();
 
         try {
@@ -812,9 +1053,7 @@ public class Engine {
      * @return {@code true} if the add it successful
      */
     public boolean addCurrency(final CurrencyNode node) {
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             boolean status = isCommodityNodeValid(node);
 
             if (status) {
@@ -842,8 +1081,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -866,9 +1103,7 @@ public class Engine {
      * @return {@code true} if the add it successful
      */
     public boolean addSecurity(final SecurityNode node) {
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             boolean status = isCommodityNodeValid(node);
 
             if (status) {
@@ -894,8 +1129,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -908,9 +1141,7 @@ public class Engine {
      * @return <tt>true</tt> if successful
      */
     public boolean addSecurityHistory(@NotNull final SecurityNode node, @NotNull final SecurityHistoryNode hNode) {
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             // Remove old history of the same date if it exists
             if (node.contains(hNode.getLocalDate())) {
                 if (!removeSecurityHistory(node, hNode.getLocalDate())) {
@@ -938,8 +1169,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -952,9 +1181,7 @@ public class Engine {
      * @return <tt>true</tt> if successful
      */
     public boolean addSecurityHistoryEvent(@NotNull final SecurityNode node, @NotNull final SecurityHistoryEvent historyEvent) {
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
 
             // Remove old history event if it exists, equality is used to work around hibernate optimizations
             // A defensive copy of the old events is used to prevent concurrent modification errors
@@ -980,8 +1207,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -1200,9 +1425,7 @@ public class Engine {
     public boolean removeCommodity(final CurrencyNode node) {
         boolean status = true;
 
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             if (isCommodityNodeUsed(node)) {
                 status = false;
             } else {
@@ -1220,18 +1443,13 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
     public boolean removeSecurity(final SecurityNode node) {
         boolean status = true;
 
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             if (isCommodityNodeUsed(node)) {
                 status = false;
             } else {
@@ -1257,9 +1475,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -1271,11 +1486,9 @@ public class Engine {
      * @return {@code true} if a {@code SecurityHistoryNode} was found and removed
      */
     public boolean removeSecurityHistory(@NotNull final SecurityNode node, @NotNull final LocalDate date) {
-        dataLock.writeLock().lock();
-
         boolean status = false;
 
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             final Optional<SecurityHistoryNode> optional = node.getHistoryNode(date);
 
             if (optional.isPresent()) {
@@ -1302,8 +1515,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -1315,11 +1526,9 @@ public class Engine {
      * @return {@code true} if the {@code SecurityHistoryEvent} was found and removed
      */
     public boolean removeSecurityHistoryEvent(@NotNull final SecurityNode node, @NotNull final SecurityHistoryEvent historyEvent) {
-        dataLock.writeLock().lock();
-
         boolean status;
 
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             status = node.removeSecurityHistoryEvent(historyEvent);
 
             if (status) {   // removal was a success, make sure we cleanup properly
@@ -1340,8 +1549,6 @@ public class Engine {
             messageBus.fireEvent(message);
 
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -1441,9 +1648,7 @@ public class Engine {
             removeExchangeRateHistory(exchangeRate, exchangeRate.getHistory(localDate));
         }
 
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             // create the new history node
             ExchangeRateHistoryNode historyNode;
 
@@ -1470,16 +1675,12 @@ public class Engine {
             message.setObject(MessageProperty.EXCHANGE_RATE, exchangeRate);
 
             messageBus.fireEvent(message);
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
     public void removeExchangeRateHistory(final ExchangeRate exchangeRate, final ExchangeRateHistoryNode history) {
 
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             final Message message;
 
             boolean result = false;
@@ -1499,8 +1700,6 @@ public class Engine {
 
             message.setObject(MessageProperty.EXCHANGE_RATE, exchangeRate);
             messageBus.fireEvent(message);
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -1519,9 +1718,7 @@ public class Engine {
             throw new EngineException("node were the same");
         }
 
-        dataLock.writeLock().lock();
-
-        try {
+        try (final LockGroup ignored = lockCommodities()) {
             boolean status;
 
             if (oldNode.getClass().equals(templateNode.getClass())) {
@@ -1569,8 +1766,6 @@ public class Engine {
 
             messageBus.fireEvent(message);
             return status;
-        } finally {
-            dataLock.writeLock().unlock();
         }
     }
 
@@ -2058,8 +2253,25 @@ public class Engine {
         return attachmentManager.getAttachment(attachment);
     }
 
-    public boolean addAttachment(final Path path, final boolean copy) {
-        boolean result = false;
+    /**
+     * Requests attachments to be retrieved in the background if they are held remotely.  Registers use this for the
+     * transactions that are visible.
+     *
+     * @param attachments attachment references
+     */
+    public void prefetchAttachments(final Collection<String> attachments) {
+        attachmentManager.prefetchAttachments(attachments);
+    }
+
+    /**
+     * Adds an attachment.  Attachments are stored by content so identical files are only stored once.
+     *
+     * @param path Path to the attachment to add
+     * @param copy true if only copying the file
+     * @return the attachment reference to be assigned to a {@code Transaction}, {@code null} if not successful
+     */
+    public String addAttachment(final Path path, final boolean copy) {
+        String result = null;
 
         try {
             result = attachmentManager.addAttachment(path, copy);
@@ -2070,10 +2282,33 @@ public class Engine {
         return result;
     }
 
+    /**
+     * Removes an attachment.  Content that is still referenced by another transaction is kept.
+     *
+     * @param attachment attachment reference
+     * @return true if successful or if the attachment is still referenced
+     */
     public boolean removeAttachment(final String attachment) {
+        if (getAttachmentReferences().contains(attachment)) {
+            return true;
+        }
+
         return attachmentManager.removeAttachment(attachment);
     }
 
+    /**
+     * Returns the attachment references that are held by transactions.
+     *
+     * @return Set of attachment references
+     */
+    public Set<String> getAttachmentReferences() {
+        return getTransactionsWithAttachments().stream().map(Transaction::getAttachment).collect(Collectors.toSet());
+    }
+
+    private void collectAttachmentGarbage() {
+        attachmentManager.collectGarbage(getAttachmentReferences());
+    }
+
     /**
      * Sets the amortize object of an account.
      *
@@ -2473,6 +2708,7 @@ public class Engine {
     }
 
     public boolean addTransaction(final Transaction transaction) {
+        final long start = Metrics.startTime();
 
         dataLock.writeLock().lock();
 
@@ -2490,21 +2726,7 @@ public class Engine {
 
                 /* If successful, extract and enter a default exchange rate for the transaction date if a rate has not been set */
                 if (result) {
-                    // no rate for the date has been set
-                    transaction.getTransactionEntries().stream()
-                            .filter(TransactionEntry::isMultiCurrency)
-                            .forEach(entry -> {
-                                final ExchangeRate rate = getExchangeRate(entry.getDebitAccount().getCurrencyNode(),
-                                        entry.getCreditAccount().getCurrencyNode());
-
-                                if (rate.getRate(transaction.getLocalDate()).equals(BigDecimal.ZERO)) { // no rate for the date has been set
-                                    final BigDecimal exchangeRate = entry.getDebitAmount().abs()
-                                            .divide(entry.getCreditAmount().abs(), MathConstants.mathContext);
-
-                                    setExchangeRate(entry.getCreditAccount().getCurrencyNode(), entry.getDebitAccount()
-                                            .getCurrencyNode(), exchangeRate, transaction.getLocalDate());
-                                }
-                            });
+                    extractDefaultExchangeRates(transaction);
                 }
             }
 
@@ -2513,10 +2735,114 @@ public class Engine {
             return result;
         } finally {
             dataLock.writeLock().unlock();
+            addTransactionTime.recordSince(start);
+        }
+    }
+
+    /**
+     * Opens a message batch scope for the calling thread.  Messages fired by the engine on the calling thread before
+     * the scope is closed are delivered to listeners as a single batch.
+     * <p>
+     * Intended for use with try-with-resources when performing many related operations.
+     *
+     * @return the scope to close
+     * @see MessageBus#openBatch()
+     */
+    public MessageBus.BatchScope openMessageBatch() {
+        return messageBus.openBatch();
+    }
+
+    /**
+     * Adds a collection of transactions within a single lock scope and a single DAO commit.  This is intended for
+     * bulk imports where adding transactions one at a time would force each affected account to resort and the
+     * data store to commit for every transaction.
+     * <p>
+     * Invalid transactions are skipped and reported with a {@code TRANSACTION_ADD_FAILED} event.
+     *
+     * @param transactions transactions to add
+     * @return the number of transactions that were added
+     */
+    public int addTransactions(@NotNull final Collection<Transaction> transactions) {
+        Objects.requireNonNull(transactions);
+
+        final long start = Metrics.startTime();
+
+        dataLock.writeLock().lock();
+
+        // deliver the resulting messages as a single batch
+        try (final MessageBus.BatchScope ignored = openMessageBatch()) {
+            final List<Transaction> validTransactions = new ArrayList<>();
+            final Set<UUID> batchIds = new HashSet<>();
+
+            for (final Transaction transaction : transactions) {
+                if (batchIds.add(transaction.getUuid()) && isTransactionValid(transaction)) {
+                    validTransactions.add(transaction);
+                } else {
+                    postTransactionAdd(transaction, false);
+                }
+            }
+
+            if (validTransactions.isEmpty()) {
+                return 0;
+            }
+
+            /* Group by account so each account only needs to resort once */
+            final Map<Account, List<Transaction>> accountMap = new HashMap<>();
+
+            for (final Transaction transaction : validTransactions) {
+                for (final Account account : transaction.getAccounts()) {
+                    accountMap.computeIfAbsent(account, k -> new ArrayList<>()).add(transaction);
+                }
+            }
+
+            accountMap.forEach((account, list) -> {
+                if (account.addTransactions(list) != list.size()) {
+                    logSevere("Failed to add the Transaction");
+                }
+            });
+
+            final boolean result = getTransactionDAO().addTransactions(validTransactions);
+
+            logInfo(rb.getString("Message.TransactionAdd"));
+
+            for (final Transaction transaction : validTransactions) {
+                if (result) {
+                    extractDefaultExchangeRates(transaction);
+                }
+                postTransactionAdd(transaction, result);
+            }
+
+            return result ? validTransactions.size() : 0;
+        } finally {
+            dataLock.writeLock().unlock();
+            addTransactionsTime.recordSince(start);
         }
     }
 
+    /**
+     * Extract and enter a default exchange rate for the transaction date if a rate has not been set.
+     *
+     * @param transaction multi-currency transaction to extract rates from
+     */
+    private void extractDefaultExchangeRates(final Transaction transaction) {
+        transaction.getTransactionEntries().stream()
+                .filter(TransactionEntry::isMultiCurrency)
+                .forEach(entry -> {
+                    final ExchangeRate rate = getExchangeRate(entry.getDebitAccount().getCurrencyNode(),
+                            entry.getCreditAccount().getCurrencyNode());
+
+                    if (rate.getRate(transaction.getLocalDate()).equals(BigDecimal.ZERO)) { // no rate for the date has been set
+                        final BigDecimal exchangeRate = entry.getDebitAmount().abs()
+                                .divide(entry.getCreditAmount().abs(), MathConstants.mathContext);
+
+                        setExchangeRate(entry.getCreditAccount().getCurrencyNode(), entry.getDebitAccount()
+                                .getCurrencyNode(), exchangeRate, transaction.getLocalDate());
+                    }
+                });
+    }
+
     public boolean removeTransaction(final Transaction transaction) {
+        final long start = Metrics.startTime();
 
         dataLock.writeLock().lock();
 
@@ -2547,6 +2873,7 @@ public class Engine {
             return result;
         } finally {
             dataLock.writeLock().unlock();
+            removeTransactionTime.recordSince(start);
         }
     }
 
@@ -2556,22 +2883,109 @@ public class Engine {
      * @param transaction transaction to change
      * @param account     account to change state for
      * @param state       new reconciled state
+     * @see #setTransactionsReconciled(Account, Map)
      */
     public void setTransactionReconciled(final Transaction transaction, final Account account, final ReconciledState state) {
-        dataLock.writeLock().lock(); // hold a write lock to ensure nothing slips in between the remove and add
+        setTransactionsReconciled(account, Collections.singletonMap(transaction, state));
+    }
 
-        try {
-            final Transaction newTransaction = (Transaction) transaction.clone();
+    /**
+     * Changes the reconciled state of a collection of transactions within a single lock scope and a single DAO
+     * commit.  The transaction entries are updated in place, so the transactions are not removed and added again.
+     * <p>
+     * A single {@code TRANSACTION_RECONCILED} event is posted for each affected account.  Transactions that reference
+     * a locked account are skipped.
+     *
+     * @param account account to change state for
+     * @param states  new reconciled state of each transaction
+     * @return the number of transactions that were changed
+     */
+    public int setTransactionsReconciled(@NotNull final Account account,
+                                         @NotNull final Map<Transaction, ReconciledState> states) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(states);
+
+        final long start = Metrics.startTime();
+
+        dataLock.writeLock().lock();
+
+        // deliver the resulting messages as a single batch
+        try (final MessageBus.BatchScope ignored = openMessageBatch()) {
 
-            ReconcileManager.reconcileTransaction(account, newTransaction, state);
+            // original credit and debit states of each changed entry in case the update fails, entries are compared
+            // by identity because their equality includes the reconciled state
+            final Map<TransactionEntry, ReconciledState[]> changedEntries = new IdentityHashMap<>();
+            final Set<Account> accounts = new HashSet<>();
 
-            if (removeTransaction(transaction)) {
-                addTransaction(newTransaction);
+            int count = 0;
+
+            for (final Map.Entry<Transaction, ReconciledState> entry : states.entrySet()) {
+                final Transaction transaction = entry.getKey();
+
+                if (transaction.getAccounts().stream().anyMatch(Account::isLocked)) {
+                    logWarning(rb.getString("Message.TransactionModifyLocked"));
+                    continue;
+                }
+
+                final List<TransactionEntry> entries = transaction.getTransactionEntries();
+                final List<ReconciledState[]> previous = new ArrayList<>(entries.size());
+
+                for (final TransactionEntry transactionEntry : entries) {
+                    previous.add(new ReconciledState[]{transactionEntry.getCreditReconciled(),
+                            transactionEntry.getDebitReconciled()});
+                }
+
+                ReconcileManager.reconcileTransaction(account, transaction, entry.getValue());
+
+                boolean changed = false;
+
+                for (int i = 0; i < entries.size(); i++) {
+                    final TransactionEntry transactionEntry = entries.get(i);
+                    final ReconciledState[] state = previous.get(i);
+
+                    if (state[0] != transactionEntry.getCreditReconciled()
+                            || state[1] != transactionEntry.getDebitReconciled()) {
+                        changedEntries.put(transactionEntry, state);
+                        changed = true;
+                    }
+                }
+
+                if (changed) {
+                    accounts.addAll(transaction.getAccounts());
+                    count++;
+                }
             }
-        } catch (final CloneNotSupportedException e) {
-            logger.log(Level.SEVERE, "Failed to reconcile the Transaction", e);
+
+            if (changedEntries.isEmpty()) {
+                return 0;
+            }
+
+            if (!getTransactionDAO().updateReconciledStates(changedEntries.keySet())) {
+                logSevere("Failed to reconcile the Transaction");
+
+                // restore the original state so memory matches the data store
+                changedEntries.forEach((transactionEntry, state) -> {
+                    transactionEntry.setCreditReconciled(state[0]);
+                    transactionEntry.setDebitReconciled(state[1]);
+                });
+
+                return 0;
+            }
+
+            for (final Account a : accounts) {
+                a.clearCachedReconciledBalance();
+
+                final Message message = new Message(MessageChannel.TRANSACTION, ChannelEvent.TRANSACTION_RECONCILED,
+                        this);
+                message.setObject(MessageProperty.ACCOUNT, a);
+
+                messageBus.fireEvent(message);
+            }
+
+            return count;
         } finally {
             dataLock.writeLock().unlock();
+            reconcileTransactionsTime.recordSince(start);
         }
     }
 
@@ -2605,6 +3019,9 @@ public class Engine {
 
     /**
      * Get all transactions.
+     * <p>
+     * The transactions may be detached copies.  Use {@link #getTransactionByUuid(UUID)} to obtain a transaction
+     * before it is modified or removed.
      *
      * @return List of transactions that may be altered without concern of side effects
      */
@@ -2613,7 +3030,7 @@ public class Engine {
     }
 
     /**
-     * Returns a list of transactions with external links.
+     * Returns a list of transactions with external links.  The transactions may be detached copies.
      *
      * @return List of transactions that may be altered without concern of side effects
      */
@@ -2621,6 +3038,79 @@ public class Engine {
         return getTransactionDAO().getTransactionsWithAttachments();
     }
 
+    /**
+     * Returns the balance change of each account for a series of inclusive date ranges.  When the data store can
+     * compute sums itself the transactions are not read, otherwise the balances are computed from the loaded
+     * transactions.  Investment accounts are always computed from their transactions because their balance includes
+     * the cash effect of security transactions.
+     *
+     * @param accounts   accounts to compute balances for
+     * @param startDates start date of each range
+     * @param endDates   end date of each range
+     * @return a list of balances for each account, one per range, in the commodity of the account
+     */
+    public Map<Account, List<BigDecimal>> getBalances(final Collection<Account> accounts,
+                                                      final List<LocalDate> startDates,
+                                                      final List<LocalDate> endDates) {
+        if (startDates.size() != endDates.size()) {
+            throw new IllegalArgumentException("startDates and endDates must be the same size");
+        }
+
+        final Map<Account, List<BigDecimal>> balances = new HashMap<>();
+        final List<Account> aggregated = new ArrayList<>();
+
+        final AggregationDAO aggregationDAO = eDAO.getAggregationDAO();
+
+        for (final Account account : accounts) {
+            if (aggregationDAO != null && !account.memberOf(AccountGroup.INVEST)) {
+                aggregated.add(account);
+            } else {
+                final List<BigDecimal> list = new ArrayList<>(startDates.size());
+
+                for (int i = 0; i < startDates.size(); i++) {
+                    list.add(account.getBalance(startDates.get(i), endDates.get(i)));
+                }
+
+                balances.put(account, list);
+            }
+        }
+
+        if (!aggregated.isEmpty()) {
+            balances.putAll(aggregationDAO.getAccountSums(aggregated, startDates, endDates));
+        }
+
+        return balances;
+    }
+
+    /**
+     * Returns the balance change of each account for a series of inclusive date ranges converted to a reporting
+     * currency with the last known exchange rate.
+     *
+     * @param accounts   accounts to compute balances for
+     * @param startDates start date of each range
+     * @param endDates   end date of each range
+     * @param node       currency to report the balances in
+     * @return a list of balances for each account, one per range, in the reporting currency
+     * @see #getBalances(Collection, List, List)
+     */
+    public Map<Account, List<BigDecimal>> getBalances(final Collection<Account> accounts,
+                                                      final List<LocalDate> startDates,
+                                                      final List<LocalDate> endDates, final CurrencyNode node) {
+        final Map<Account, List<BigDecimal>> balances = getBalances(accounts, startDates, endDates);
+
+        for (final Map.Entry<Account, List<BigDecimal>> entry : balances.entrySet()) {
+            final List<BigDecimal> list = new ArrayList<>(entry.getValue().size());
+
+            for (final BigDecimal balance : entry.getValue()) {
+                list.add(entry.getKey().adjustForExchangeRate(balance, node));
+            }
+
+            entry.setValue(list);
+        }
+
+        return balances;
+    }
+
     public Transaction getTransactionByUuid(final UUID uuid) {
         return getTransactionDAO().getTransactionByUuid(uuid);
     }
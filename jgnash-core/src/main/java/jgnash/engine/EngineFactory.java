@@ -43,6 +43,7 @@ import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
 import jgnash.engine.xstream.BinaryXStreamDataStore;
+import jgnash.engine.xstream.CompactBinaryDataStore;
 import jgnash.engine.xstream.XMLDataStore;
 import jgnash.resource.util.OS;
 import jgnash.resource.util.ResourceUtils;
@@ -78,6 +79,10 @@ public class EngineFactory {
 
     private static final String OPEN_LAST = "OpenLast";
 
+    private static final String LAZY_TRANSACTIONS = "LazyTransactions";
+
+    private static final String PROGRESSIVE_BOOT = "ProgressiveBoot";
+
     /**
      * Default directory for jGnash data. To be located in the default user
      * directory
@@ -90,6 +95,11 @@ public class EngineFactory {
 
     private static final Map<String, DataStore> dataStoreMap = new HashMap<>();
 
+    /**
+     * Set by clients whose views wait for older transactions.  The progressive boot preference is ignored otherwise.
+     */
+    private static volatile boolean progressiveBootSupported;
+
     private EngineFactory() {
     }
 
@@ -139,33 +149,36 @@ public class EngineFactory {
         final Engine oldEngine = engineMap.get(engineName);
         final DataStore oldDataStore = dataStoreMap.get(engineName);
 
-        exportCompressedXML(oldDataStore.getFileName(), oldEngine.getStoredObjects());
+        try {
+            exportCompressedXML(oldDataStore.getFileName(), oldEngine.getStoredObjects());
+        } catch (final IOException e) {
+            Logger.getLogger(EngineFactory.class.getName()).log(Level.SEVERE,
+                    "Transactions could not be loaded, the backup was not created", e);
+        }
     }
 
     public static void exportCompressedXML(final String fileName, final Collection<StoredObject> objects) {
         final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyyMMdd-HHmm");
 
-        final DataStore xmlDataStore = new XMLDataStore();
-
-        Path xmlFile = Paths.get(FileUtils.stripFileExtension(fileName) + "-" + dateTimeFormatter.format(LocalDateTime.now())
-                + xmlDataStore.getFileExt());
-
-        // push the intermediary file to the temporary directory
-        xmlFile = Paths.get(System.getProperty("java.io.tmpdir") + xmlFile.getFileSystem().getSeparator()
-                + xmlFile.getFileName().toString());
+        final String baseName = FileUtils.stripFileExtension(fileName) + "-"
+                + dateTimeFormatter.format(LocalDateTime.now());
 
-        xmlDataStore.saveAs(xmlFile, objects);
+        final Path zipFile = Paths.get(baseName + ".zip");
 
-        Path zipFile = Paths.get(FileUtils.stripFileExtension(fileName) + "-" + dateTimeFormatter.format(LocalDateTime.now())
-                + ".zip");
-
-        FileUtils.compressFile(xmlFile, zipFile);
+        // the XML file within the zip file does not include the path
+        final String entryName = Paths.get(baseName + new XMLDataStore().getFileExt()).getFileName().toString();
 
         try {
-            Files.delete(xmlFile);
-        } catch (final IOException e) {
+            XMLDataStore.saveAsCompressed(zipFile, entryName, objects);
+        } catch (final IOException | RuntimeException e) {
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            logger.log(Level.WARNING, "Was not able to delete the temporary file: {0}", xmlFile);
+
+            // do not leave an incomplete backup behind
+            try {
+                Files.deleteIfExists(zipFile);
+            } catch (final IOException ex) {
+                logger.log(Level.WARNING, "Was not able to delete the incomplete file: {0}", zipFile);
+            }
         }
     }
 
@@ -274,7 +287,11 @@ public class EngineFactory {
 
         final DataStore dataStore = type.getDataStore();
 
-        final Engine engine = dataStore.getLocalEngine(fileName, engineName, password);
+        final Engine engine;
+
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Open " + type.name() + " file")) {
+            engine = dataStore.getLocalEngine(fileName, engineName, password);
+        }
 
         if (engine != null) {
             logger.info(ResourceUtils.getString("Message.EngineStart"));
@@ -361,6 +378,8 @@ public class EngineFactory {
                 return DataStoreType.XML;
             case BinaryXStream:
                 return DataStoreType.BINARY_XSTREAM;
+            case CompactBinary:
+                return DataStoreType.COMPACT_BINARY;
             case h2:
                 return DataStoreType.H2_DATABASE;
             case h2mv:
@@ -390,6 +409,9 @@ public class EngineFactory {
             case BinaryXStream:
                 version = BinaryXStreamDataStore.getFileVersion(file);
                 break;
+            case CompactBinary:
+                version = CompactBinaryDataStore.getFileVersion(file);
+                break;
             case h2:
             case h2mv:
             case hsql:
@@ -491,6 +513,63 @@ public class EngineFactory {
         return pref.getBoolean(OPEN_LAST, true);
     }
 
+    /**
+     * Enables lazy loading of transactions for JPA databases.  Accounts and commodities are still loaded when the
+     * database is opened, but the transactions of an account are not read until they are needed.
+     *
+     * @param lazy {@code true} to enable lazy loading, takes effect the next time a database is opened
+     */
+    public static synchronized void setLazyTransactionLoading(final boolean lazy) {
+        final Preferences pref = Preferences.userNodeForPackage(EngineFactory.class);
+
+        pref.putBoolean(LAZY_TRANSACTIONS, lazy);
+    }
+
+    public static synchronized boolean isLazyTransactionLoading() {
+        final Preferences pref = Preferences.userNodeForPackage(EngineFactory.class);
+
+        return pref.getBoolean(LAZY_TRANSACTIONS, false);
+    }
+
+    /**
+     * Enables progressive loading of local files.  Only the recent transactions are loaded before the file is opened,
+     * older transactions are loaded in the background afterwards.  Only compact binary files support this.
+     *
+     * @param progressive {@code true} to enable progressive loading, takes effect the next time a file is opened
+     */
+    public static synchronized void setProgressiveBoot(final boolean progressive) {
+        final Preferences pref = Preferences.userNodeForPackage(EngineFactory.class);
+
+        pref.putBoolean(PROGRESSIVE_BOOT, progressive);
+    }
+
+    public static synchronized boolean isProgressiveBoot() {
+        final Preferences pref = Preferences.userNodeForPackage(EngineFactory.class);
+
+        return pref.getBoolean(PROGRESSIVE_BOOT, false);
+    }
+
+    /**
+     * Declares that the client waits for older transactions with
+     * {@link Engine#whenTransactionsLoaded(java.time.LocalDate)} before it shows registers, balances and reports.
+     * Files are only opened progressively when the client supports it and the preference is enabled.
+     *
+     * @param supported {@code true} if the client supports progressive loading
+     * @see #setProgressiveBoot(boolean)
+     */
+    public static void setProgressiveBootSupported(final boolean supported) {
+        progressiveBootSupported = supported;
+    }
+
+    /**
+     * Determines if the next local file should be opened progressively.
+     *
+     * @return {@code true} if enabled by the user and supported by the client
+     */
+    public static boolean useProgressiveBoot() {
+        return progressiveBootSupported && isProgressiveBoot();
+    }
+
     /**
      * Saves the active database as a new file/format
      *
@@ -57,7 +57,7 @@ public class ExchangeRate extends StoredObject {
     /**
      * Identifier for the ExchangeRate object.
      */
-    private String rateId;
+    String rateId;
 
     /**
      * ReadWrite lock.
@@ -100,7 +100,7 @@ class InvestmentAccountProxy extends AccountProxy {
         l.lock();
 
         try {
-            return !account.transactions.isEmpty()
+            return !account.getTransactionSet().isEmpty()
                     ? getCashBalance(account.getSortedTransactionList().get(0).getLocalDate(), end) : BigDecimal.ZERO;
         } finally {
             l.unlock();
@@ -32,6 +32,11 @@ import java.util.Objects;
 public class RecTransaction implements Comparable<RecTransaction> {
     private ReconciledState reconciledState;
 
+    /**
+     * The last reconciled state known to be stored in the engine
+     */
+    private ReconciledState persistedState;
+
     private final Transaction transaction;
 
     public RecTransaction(@NotNull final Transaction transaction, @NotNull final ReconciledState reconciledState) {
@@ -40,6 +45,7 @@ public class RecTransaction implements Comparable<RecTransaction> {
 
         this.transaction = transaction;
         this.reconciledState = reconciledState;
+        this.persistedState = reconciledState;
     }
 
     public LocalDate getDate() {
@@ -62,6 +68,24 @@ public class RecTransaction implements Comparable<RecTransaction> {
         this.reconciledState = reconciledState;
     }
 
+    /**
+     * Picks up a reconciled state changed in the engine since this decorator was created. A state toggled locally
+     * is kept unless the engine state has changed underneath it.
+     *
+     * @param account account the transaction is being reconciled against
+     * @return {@code true} if the reconciled state was updated
+     */
+    public boolean refreshReconciledState(final Account account) {
+        final ReconciledState state = getTransaction().getReconciled(account);
+
+        if (state != persistedState) {
+            persistedState = state;
+            reconciledState = state;
+            return true;
+        }
+        return false;
+    }
+
     public BigDecimal getAmount(final Account a) {
         if (getTransaction() instanceof InvestmentTransaction && a.memberOf(AccountGroup.INVEST)) {
             return ((InvestmentTransaction) getTransaction()).getMarketValue(getTransaction().getLocalDate())
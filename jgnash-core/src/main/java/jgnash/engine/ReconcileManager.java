@@ -20,7 +20,9 @@ package jgnash.engine;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -161,25 +163,37 @@ public class ReconcileManager {
         }
     }
 
+    /**
+     * Applies the reconciled state of a list of transactions to an account.  The changes are made as a single batch.
+     *
+     * @param account         account being reconciled
+     * @param list            transactions and their reconciled state
+     * @param reconciledState state to apply to transactions that are not flagged as not reconciled
+     * @see Engine#setTransactionsReconciled(Account, Map)
+     */
     public static void reconcileTransactions(final Account account, final List<RecTransaction> list,
                                              final ReconciledState reconciledState) {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
         Objects.requireNonNull(engine);
 
-        // create a copy of the list to prevent concurrent modification errors
-        final List<RecTransaction> transactions = new ArrayList<>(list);
-
-        // Set to the requested reconcile state, ignore if no change is detected
-        transactions.parallelStream().filter(transaction -> transaction.getReconciledState()
-                != transaction.getTransaction().getReconciled(account)).forEach(recTransaction -> {
+        final Map<Transaction, ReconciledState> states = new LinkedHashMap<>();
 
-            // Set to the requested reconcile state
-            if (recTransaction.getReconciledState() != ReconciledState.NOT_RECONCILED) {
-                engine.setTransactionReconciled(recTransaction.getTransaction(), account, reconciledState);
-            } else { // must have been reconciled or cleared
-                engine.setTransactionReconciled(recTransaction.getTransaction(), account, recTransaction.getReconciledState());
+        // create a copy of the list to prevent concurrent modification errors
+        for (final RecTransaction recTransaction : new ArrayList<>(list)) {
+
+            // Set to the requested reconcile state, ignore if no change is detected
+            if (recTransaction.getReconciledState() != recTransaction.getTransaction().getReconciled(account)) {
+                if (recTransaction.getReconciledState() != ReconciledState.NOT_RECONCILED) {
+                    states.put(recTransaction.getTransaction(), reconciledState);
+                } else { // must have been reconciled or cleared
+                    states.put(recTransaction.getTransaction(), recTransaction.getReconciledState());
+                }
             }
-        });
+        }
+
+        if (!states.isEmpty()) {
+            engine.setTransactionsReconciled(account, states);
+        }
     }
 
     /**
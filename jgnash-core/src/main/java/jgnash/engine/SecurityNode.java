@@ -66,7 +66,7 @@ public class SecurityNode extends CommodityNode {
 
     @JoinTable
     @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
-    private Set<SecurityHistoryNode> historyNodes = new HashSet<>();
+    Set<SecurityHistoryNode> historyNodes = new HashSet<>();
 
     @JoinTable
     @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
@@ -69,11 +69,11 @@ public abstract class StoredObject implements Cloneable, Serializable {
     }
 
     /**
-     * Setter for the uuid.  Used for reflection purposes only
+     * Setter for the uuid.  Used for reflection and file decoding purposes only
      *
      * @param uuid uuid to assign the object
      */
-    private void setUuid(final UUID uuid) {
+    void setUuid(final UUID uuid) {
         this.uuid = uuid;
     }
 
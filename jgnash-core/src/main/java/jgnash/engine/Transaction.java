@@ -37,6 +37,7 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinTable;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
@@ -52,7 +53,8 @@ import jgnash.util.Nullable;
  */
 @SuppressWarnings("JpaDataSourceORMInspection")
 @Entity
-@Table(name = "TRANSACT") // cannot use "Transaction" as the table name or it causes an SQL error!!!!
+@Table(name = "TRANSACT", indexes = @Index(name = "TRANSACT_DATE_IDX", columnList = "date, markedForRemoval"))
+// cannot use "Transaction" as the table name or it causes an SQL error!!!!
 public class Transaction extends StoredObject implements Comparable<Transaction> {
 
     private static final transient String EMPTY = "";
@@ -113,10 +115,10 @@ public class Transaction extends StoredObject implements Comparable<Transaction>
     private transient LocalDateTime timeStampDate;
 
     /**
-     * Transaction entries.
+     * Transaction entries.  Fetched with the transaction by the JPA engine queries.
      */
     @JoinTable
-    @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.EAGER)
+    @OneToMany(cascade = {CascadeType.ALL}, fetch = FetchType.LAZY)
     Set<TransactionEntry> transactionEntries = new HashSet<>();
 
     /**
@@ -27,8 +27,10 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Collection;
@@ -48,6 +50,8 @@ import java.util.Objects;
  * @author Craig Cavanaugh
  */
 @Entity
+@Table(indexes = {@Index(name = "ENTRY_CREDIT_IDX", columnList = "creditAccount_uuid, creditAmount"),
+        @Index(name = "ENTRY_DEBIT_IDX", columnList = "debitAccount_uuid, debitAmount")})
 @SequenceGenerator(name = "sequence", allocationSize = 10)
 public class TransactionEntry implements Comparable<TransactionEntry>, Cloneable, Serializable {
 
@@ -104,7 +108,7 @@ public class TransactionEntry implements Comparable<TransactionEntry>, Cloneable
      * Field for user defined tags.
      */
     @Column(columnDefinition = "VARCHAR(2048)")
-    private String customTags;
+    String customTags;
 
     /**
      * Public constructor.
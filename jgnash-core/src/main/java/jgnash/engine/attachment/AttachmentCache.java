@@ -0,0 +1,314 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.attachment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import jgnash.engine.metrics.Counter;
+import jgnash.engine.metrics.Metrics;
+
+/**
+ * Persistent, size bounded cache of attachments downloaded from a server.
+ * <p>
+ * Entries are held in a content addressed {@code AttachmentStore} and evicted in least recently used order once the
+ * cache exceeds its maximum size.  The modification time of a cached file is used as its access stamp, so the usage
+ * order survives a restart.  Content references are validated against their digest the first time they are used in a
+ * session.  Legacy attachments referenced by file name can not be validated and are only kept for a single session.
+ *
+ * @author Craig Cavanaugh
+ */
+public class AttachmentCache {
+
+    private static final Logger logger = Logger.getLogger(AttachmentCache.class.getName());
+
+    /**
+     * Default maximum size of the cache in bytes.
+     */
+    static final long DEFAULT_MAXIMUM_SIZE = 256L * 1024L * 1024L;
+
+    private static final int SHARD_DEPTH = 3;
+
+    private static final Counter hitCounter = Metrics.counter("attachmentCache.hits");
+
+    private static final Counter missCounter = Metrics.counter("attachmentCache.misses");
+
+    private static final Counter evictionCounter = Metrics.counter("attachmentCache.evictions");
+
+    private static final Counter prefetchCounter = Metrics.counter("attachmentCache.prefetches");
+
+    static {
+        Metrics.hitRatio("attachmentCache.hitRatio", hitCounter, missCounter);
+    }
+
+    private final AttachmentStore store;
+
+    private final long maximumSize;
+
+    /**
+     * Size of each cached entry in access order.  Guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    /**
+     * Entries that have been validated during this session.
+     */
+    private final Set<String> validated = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a cache and loads any entries from a previous session.
+     *
+     * @param directory   cache directory
+     * @param maximumSize maximum size of the cache in bytes
+     */
+    AttachmentCache(final Path directory, final long maximumSize) {
+        this.store = new AttachmentStore(directory);
+        this.maximumSize = maximumSize;
+
+        load(directory);
+    }
+
+    AttachmentStore getStore() {
+        return store;
+    }
+
+    private void load(final Path directory) {
+        final List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>();
+
+        try (final Stream<Path> stream = Files.walk(directory, SHARD_DEPTH)) {
+            for (final Path path : (Iterable<Path>) stream::iterator) {
+                final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+
+                final String name = path.getFileName().toString();
+
+                if (AttachmentStore.isReference(name)) {
+                    files.add(new AbstractMap.SimpleImmutableEntry<>(path, attributes));
+                } else if (!name.endsWith(AttachmentStore.PART_SUFFIX)) {    // partial files are kept for a resume
+                    Files.delete(path);
+                }
+            }
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        files.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+
+        synchronized (this) {
+            for (final Map.Entry<Path, BasicFileAttributes> entry : files) {
+                entries.put(entry.getKey().getFileName().toString(), entry.getValue().size());
+                size += entry.getValue().size();
+            }
+
+            evict();
+        }
+
+        logger.log(Level.INFO, "Loaded {0} cached attachments", files.size());
+    }
+
+    /**
+     * Returns the path of a cached attachment and records a cache hit or miss.
+     * <p>
+     * Another thread may evict the entry after it has been validated.  The entry is checked again while holding the
+     * lock that guards eviction, and an evicted entry is reported as a miss so the attachment is fetched again.  The
+     * returned entry is then the most recently used and is the last to be evicted.
+     *
+     * @param attachment attachment reference
+     * @return the path of the cached attachment or {@code null} if it is not cached
+     */
+    Path get(final String attachment) {
+        if (contains(attachment)) {
+            final Path path = store.getPath(attachment);
+
+            synchronized (this) {
+                if (entries.get(attachment) != null && Files.isRegularFile(path)) {
+                    store.touch(attachment);
+                    hitCounter.increment();
+
+                    return path;
+                }
+            }
+        }
+
+        missCounter.increment();
+        return null;
+    }
+
+    /**
+     * Determines if an attachment is cached without recording a cache hit or miss.
+     *
+     * @param attachment attachment reference
+     * @return {@code true} if the attachment is cached and valid
+     */
+    boolean contains(final String attachment) {
+        synchronized (this) {
+            if (entries.get(attachment) == null) {    // also updates the access order
+                return false;
+            }
+        }
+
+        final Path path = store.getPath(attachment);
+
+        if (Files.isRegularFile(path) && validate(attachment, path)) {
+            return true;
+        }
+
+        remove(attachment);
+        return false;
+    }
+
+    private boolean validate(final String attachment, final Path path) {
+        if (validated.contains(attachment)) {
+            return true;
+        }
+
+        try {
+            if (AttachmentStore.isReference(attachment) && AttachmentStore.getReference(path).equals(attachment)) {
+                validated.add(attachment);
+                return true;
+            }
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+
+        logger.log(Level.WARNING, "Invalid cached attachment: {0}", attachment);
+        return false;
+    }
+
+    /**
+     * Adds an attachment that has been placed in the cache store.  The content has already been verified.
+     *
+     * @param attachment attachment reference
+     */
+    void put(final String attachment) {
+        try {
+            final long length = Files.size(store.getPath(attachment));
+
+            validated.add(attachment);
+
+            synchronized (this) {
+                final Long previous = entries.put(attachment, length);
+
+                size += length - (previous != null ? previous : 0);
+                evict();
+            }
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Records an attachment that was retrieved ahead of use.
+     *
+     * @param attachment attachment reference
+     */
+    void putPrefetched(final String attachment) {
+        prefetchCounter.increment();
+        put(attachment);
+    }
+
+    void remove(final String attachment) {
+        synchronized (this) {
+            final Long length = entries.remove(attachment);
+
+            if (length != null) {
+                size -= length;
+            }
+        }
+
+        validated.remove(attachment);
+        store.remove(attachment);
+    }
+
+    /**
+     * Removes cached attachments that are no longer referenced.
+     *
+     * @param references attachment references that are still in use
+     */
+    void collectGarbage(final Collection<String> references) {
+        store.collectGarbage(references);
+
+        synchronized (this) {
+            final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                final Map.Entry<String, Long> entry = iterator.next();
+
+                if (Files.notExists(store.getPath(entry.getKey()))) {
+                    size -= entry.getValue();
+                    validated.remove(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits.  The most recent entry is always kept.
+     */
+    private void evict() {
+        assert Thread.holdsLock(this);
+
+        final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+
+        while (size > maximumSize && entries.size() > 1 && iterator.hasNext()) {
+            final Map.Entry<String, Long> eldest = iterator.next();
+
+            iterator.remove();
+            size -= eldest.getValue();
+            validated.remove(eldest.getKey());
+            store.remove(eldest.getKey());
+
+            evictionCounter.increment();
+        }
+    }
+
+    /**
+     * Returns the current size of the cache.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Attachment cache: %d entries, %d KB", entries.size(), getSize() / 1024);
+    }
+}
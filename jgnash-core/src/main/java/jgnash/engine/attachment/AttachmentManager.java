@@ -19,17 +19,45 @@ package jgnash.engine.attachment;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.concurrent.Future;
 
 /**
  * Interface for handling attachments.
+ * <p>
+ * Attachments are stored by content.  The reference returned when adding an attachment is the name a
+ * {@code Transaction} should hold.
  *
  * @author Craig Cavanaugh
+ * @see AttachmentStore
  */
 public interface AttachmentManager {
-    boolean addAttachment(Path path, boolean copy) throws IOException;
+
+    /**
+     * Add a file attachment.
+     *
+     * @param path Path to the attachment to add
+     * @param copy true if only copying the file
+     * @return the attachment reference, {@code null} if the attachment could not be added
+     * @throws IOException thrown if a file system or network error occurs
+     */
+    String addAttachment(Path path, boolean copy) throws IOException;
 
     boolean removeAttachment(String attachment);
 
     Future<Path> getAttachment(String attachment);
+
+    /**
+     * Hint that attachments are likely to be requested soon.
+     *
+     * @param attachments attachment references
+     */
+    void prefetchAttachments(Collection<String> attachments);
+
+    /**
+     * Removes stored attachments that are no longer referenced.
+     *
+     * @param references attachment references that are still in use
+     */
+    void collectGarbage(Collection<String> references);
 }
@@ -0,0 +1,313 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.attachment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import jgnash.util.NotNull;
+
+/**
+ * Content addressed storage for attachments.
+ * <p>
+ * An attachment is stored under a reference made of the SHA-256 digest of its content followed by the original file
+ * extension.  Files are sharded into two levels of subdirectories using the leading characters of the digest, so
+ * identical files are stored once and file names can not collide.  The reference is what a {@code Transaction} holds.
+ * <p>
+ * Attachments added before the store existed are referenced by their plain file name and are still resolved in the
+ * base directory.  Those are never garbage collected.
+ *
+ * @author Craig Cavanaugh
+ */
+public class AttachmentStore {
+
+    private static final Logger logger = Logger.getLogger(AttachmentStore.class.getName());
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final int DIGEST_LENGTH = 64;
+
+    private static final int SHARD_LENGTH = 2;
+
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("[0-9a-f]{" + DIGEST_LENGTH + "}(\\.[A-Za-z0-9]+)?");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Suffix of incomplete files.
+     */
+    static final String PART_SUFFIX = ".part";
+
+    /**
+     * Unreferenced content younger than this is kept so a file added ahead of the transaction that references it is
+     * not collected.
+     */
+    private static final Duration GRACE_PERIOD = Duration.ofHours(1);
+
+    private final Path baseDirectory;
+
+    public AttachmentStore(@NotNull final Path baseDirectory) {
+        Objects.requireNonNull(baseDirectory);
+
+        this.baseDirectory = baseDirectory;
+    }
+
+    /**
+     * Determines if an attachment name is a content reference.
+     *
+     * @param attachment attachment name
+     * @return {@code true} if the attachment is stored by content
+     */
+    public static boolean isReference(final String attachment) {
+        return attachment != null && REFERENCE_PATTERN.matcher(attachment).matches();
+    }
+
+    /**
+     * Computes the content reference for a file.
+     *
+     * @param path file to compute the reference for
+     * @return the content reference
+     * @throws IOException thrown if the file could not be read
+     */
+    public static String getReference(final Path path) throws IOException {
+        final MessageDigest digest = createDigest();
+
+        try (final InputStream inputStream = Files.newInputStream(path)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            int bytesRead;
+
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(toHex(digest.digest()));
+
+        final String fileName = path.getFileName().toString();
+        final int index = fileName.lastIndexOf('.');
+
+        if (index >= 0 && isReference(builder + fileName.substring(index))) {
+            builder.append(fileName.substring(index).toLowerCase(Locale.ROOT));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns the path of an attachment.  The file may not exist.
+     *
+     * @param attachment content reference or legacy file name
+     * @return the path of the attachment
+     */
+    public Path getPath(final String attachment) {
+        if (isReference(attachment)) {
+            return baseDirectory.resolve(attachment.substring(0, SHARD_LENGTH))
+                    .resolve(attachment.substring(SHARD_LENGTH, SHARD_LENGTH * 2)).resolve(attachment);
+        }
+
+        return baseDirectory.resolve(attachment);
+    }
+
+    /**
+     * Determines if the content of an attachment is already held by the store.  Legacy file names are never
+     * considered to be held because their content is unknown.
+     *
+     * @param attachment attachment name
+     * @return {@code true} if the content is held
+     */
+    public boolean contains(final String attachment) {
+        return isReference(attachment) && Files.isRegularFile(getPath(attachment));
+    }
+
+    /**
+     * Adds a file to the store.  If identical content is already held, the file is not copied again.
+     *
+     * @param path file to add
+     * @param move {@code true} if the source file should be removed
+     * @return the content reference for the file
+     * @throws IOException thrown if a file system error occurs
+     */
+    public String add(final Path path, final boolean move) throws IOException {
+        final String reference = getReference(path);
+        final Path target = getPath(reference);
+
+        if (Files.exists(target)) {
+            touch(reference);
+        } else {
+            Files.createDirectories(target.getParent());
+
+            // copy to a temporary file first so a partial copy is never visible under the reference
+            final Path temp = Files.createTempFile(target.getParent(), reference, PART_SUFFIX);
+
+            try {
+                Files.copy(path, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final FileAlreadyExistsException e) {
+                Files.deleteIfExists(temp);     // added concurrently
+            } catch (final IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        if (move) {
+            Files.delete(path);
+        }
+
+        return reference;
+    }
+
+    /**
+     * Updates the modification time of stored content so it is not collected during the grace period.
+     *
+     * @param attachment attachment name
+     */
+    public void touch(final String attachment) {
+        try {
+            Files.setLastModifiedTime(getPath(attachment), FileTime.from(Instant.now()));
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+
+    /**
+     * Removes an attachment from the store.
+     *
+     * @param attachment attachment name
+     * @return {@code true} if the attachment was removed
+     */
+    public boolean remove(final String attachment) {
+        try {
+            return Files.deleteIfExists(getPath(attachment));
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes stored content that is no longer referenced and stale partial files.
+     *
+     * @param references content references that are still in use
+     * @return the number of removed files
+     */
+    public int collectGarbage(final Collection<String> references) {
+        int count = 0;
+
+        if (!Files.isDirectory(baseDirectory)) {
+            return count;
+        }
+
+        final FileTime expired = FileTime.from(Instant.now().minus(GRACE_PERIOD));
+
+        try (final DirectoryStream<Path> shards = Files.newDirectoryStream(baseDirectory, AttachmentStore::isShard)) {
+            for (final Path shard : shards) {
+                try (final DirectoryStream<Path> subShards = Files.newDirectoryStream(shard, AttachmentStore::isShard)) {
+                    for (final Path subShard : subShards) {
+                        count += collectGarbage(subShard, references, expired);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        if (count > 0) {
+            logger.log(Level.INFO, "Removed {0} unreferenced attachments", count);
+        }
+
+        return count;
+    }
+
+    private static int collectGarbage(final Path directory, final Collection<String> references, final FileTime expired)
+            throws IOException {
+        int count = 0;
+
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+
+                if ((isReference(name) && references.contains(name))
+                        || Files.getLastModifiedTime(file).compareTo(expired) > 0) {
+                    continue;
+                }
+
+                if (isReference(name) || name.endsWith(PART_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private static boolean isShard(final Path path) {
+        final String name = path.getFileName().toString();
+
+        return Files.isDirectory(path) && name.length() == SHARD_LENGTH && name.chars().allMatch(c ->
+                Character.digit(c, 16) >= 0 && !Character.isUpperCase(c));
+    }
+
+    /**
+     * Determines if a digest of received content matches a content reference.
+     *
+     * @param reference content reference
+     * @param digest    digest that has been updated with the complete content
+     * @return {@code true} if the content matches the reference
+     */
+    static boolean matches(final String reference, final MessageDigest digest) {
+        return reference.startsWith(toHex(digest.digest()));
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (final byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return builder.toString();
+    }
+
+    static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -24,45 +24,53 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.base64.Base64Decoder;
-import io.netty.handler.codec.base64.Base64Encoder;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.stream.ChunkedWriteHandler;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jgnash.net.ConnectionFactory;
 import jgnash.util.EncryptionManager;
 
-import static jgnash.engine.attachment.NettyTransferHandler.*;
-
 /**
  * Client for sending and receiving files.
+ * <p>
+ * Several connections are opened with the server and each transfer is assigned to the connection with the fewest
+ * pending transfers, so multiple files are transferred in parallel.
  *
  * @author Craig Cavanaugh
  */
 class AttachmentTransferClient {
     private static final Logger logger = Logger.getLogger(AttachmentTransferClient.class.getName());
 
-    private final Path tempDirectory;
+    /**
+     * Number of connections and therefore the number of files that may be transferred in parallel.
+     */
+    private static final int CONNECTION_COUNT = 4;
+
+    private final AttachmentStore cache;
 
     private NioEventLoopGroup eventLoopGroup;
 
-    private Channel channel;
+    private final List<Connection> connections = new ArrayList<>();
 
-    private NettyTransferHandler transferHandler;
+    /**
+     * Files being downloaded, by name.  Concurrent requests for the same file share a single transfer.
+     */
+    private final Map<String, CompletableFuture<Path>> downloads = new ConcurrentHashMap<>();
 
     private EncryptionManager encryptionManager = null;
 
-    AttachmentTransferClient(final Path tempPath) {
-        tempDirectory = tempPath;
+    AttachmentTransferClient(final AttachmentStore cache) {
+        this.cache = cache;
     }
 
     /**
@@ -83,19 +91,25 @@ class AttachmentTransferClient {
 
         final Bootstrap bootstrap = new Bootstrap();
 
-        eventLoopGroup = new NioEventLoopGroup();
-
-        transferHandler = new NettyTransferHandler(tempDirectory, encryptionManager);
+        eventLoopGroup = new NioEventLoopGroup(CONNECTION_COUNT);
 
         bootstrap.group(eventLoopGroup)
                 .channel(NioSocketChannel.class)
-                .handler(new Initializer())
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ConnectionFactory.getConnectionTimeout() * 1000)
                 .option(ChannelOption.SO_KEEPALIVE, true);
 
         try {
-            // Start the connection attempt.
-            channel = bootstrap.connect(host, port).sync().channel();
+            // Start the connection attempts.
+            for (int i = 0; i < CONNECTION_COUNT; i++) {
+                final NettyTransferHandler transferHandler = new NettyTransferHandler(cache, encryptionManager);
+
+                final Channel channel = bootstrap.clone().handler(new Initializer(transferHandler))
+                        .connect(host, port).sync().channel();
+
+                synchronized (connections) {
+                    connections.add(new Connection(channel, transferHandler));
+                }
+            }
 
             result = true;
             logger.info("Connection made with File Transfer Server");
@@ -108,37 +122,61 @@ class AttachmentTransferClient {
         return result;
     }
 
-    private String encrypt(final String message) {
-        if (encryptionManager != null) {
-            return encryptionManager.encrypt(message);
-        }
-        return message;
-    }
+    /**
+     * Requests a file from the server.
+     *
+     * @param attachment the attachment to request
+     * @return the future completes with the path of the received file in the temporary location
+     */
+    CompletableFuture<Path> requestFile(final String attachment) {
+        final String name = Paths.get(attachment).getFileName().toString();
 
-    void requestFile(final Path file) {
-        try {
-            channel.writeAndFlush(encrypt(FILE_REQUEST + file) + EOL_DELIMITER).sync();
-        } catch (final InterruptedException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            Thread.currentThread().interrupt();
+        final CompletableFuture<Path> future = new CompletableFuture<>();
+        final CompletableFuture<Path> existing = downloads.putIfAbsent(name, future);
+
+        if (existing != null) {
+            return existing;
         }
+
+        final Connection connection = getConnection();
+
+        connection.transferHandler.requestFile(connection.channel, name).whenComplete((path, cause) -> {
+            downloads.remove(name, future);
+
+            if (cause != null) {
+                future.completeExceptionally(cause);
+            } else {
+                future.complete(path);
+            }
+        });
+
+        return future;
     }
 
     void deleteFile(final String attachment) {
-        try {
-            channel.writeAndFlush(encrypt(DELETE + Paths.get(attachment).getFileName()) + EOL_DELIMITER).sync();
-        } catch (final InterruptedException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            Thread.currentThread().interrupt();
-        }
+        final Connection connection = getConnection();
+
+        connection.transferHandler.deleteFile(connection.channel, attachment);
     }
 
-    Future<Void> sendFile(final Path file) {
-        if (transferHandler != null) {
-            return transferHandler.sendFile(channel, file.toString());
-        }
+    /**
+     * Sends a file to the server.
+     *
+     * @param file the file to send
+     * @return the future completes once the server has received the complete file
+     */
+    CompletableFuture<Path> sendFile(final Path file) {
+        final Connection connection = getConnection();
+
+        return connection.transferHandler.sendFile(connection.channel, file);
+    }
 
-        return null;
+    private Connection getConnection() {
+        synchronized (connections) {
+            return connections.stream()
+                    .min(Comparator.comparingInt(connection -> connection.transferHandler.getPendingCount()))
+                    .orElseThrow(() -> new IllegalStateException("Not connected to the File Transfer Server"));
+        }
     }
 
     /**
@@ -146,37 +184,48 @@ class AttachmentTransferClient {
      */
     void disconnectFromServer() {
 
-        try {
-            channel.close().sync();
-        } catch (InterruptedException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            Thread.currentThread().interrupt();
+        synchronized (connections) {
+            try {
+                for (final Connection connection : connections) {
+                    connection.channel.close().sync();
+                }
+            } catch (InterruptedException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                Thread.currentThread().interrupt();
+            }
+
+            connections.clear();
         }
 
         eventLoopGroup.shutdownGracefully();
 
         eventLoopGroup = null;
-        channel = null;
 
         logger.info("Disconnected from the File Transfer Server");
     }
 
-    private class Initializer extends ChannelInitializer<SocketChannel> {
+    private static class Connection {
+        final Channel channel;
 
-        @Override
-        public void initChannel(final SocketChannel ch) {
+        final NettyTransferHandler transferHandler;
 
-            ch.pipeline().addLast(
-                    new DelimiterBasedFrameDecoder(((TRANSFER_BUFFER_SIZE + 2) / 3) * 4 + PATH_MAX,
-                            true, Delimiters.lineDelimiter()),
+        Connection(final Channel channel, final NettyTransferHandler transferHandler) {
+            this.channel = channel;
+            this.transferHandler = transferHandler;
+        }
+    }
+
+    private static class Initializer extends ChannelInitializer<SocketChannel> {
 
-                    new StringEncoder(CharsetUtil.UTF_8),
-                    new StringDecoder(CharsetUtil.UTF_8),
+        private final NettyTransferHandler transferHandler;
 
-                    new Base64Encoder(),
-                    new Base64Decoder(),
+        Initializer(final NettyTransferHandler transferHandler) {
+            this.transferHandler = transferHandler;
+        }
 
-                    transferHandler);
+        @Override
+        public void initChannel(final SocketChannel ch) {
+            ch.pipeline().addLast(new ChunkedWriteHandler(), transferHandler);
         }
     }
 }
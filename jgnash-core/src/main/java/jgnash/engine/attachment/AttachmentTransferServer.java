@@ -28,26 +28,21 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.base64.Base64Decoder;
-import io.netty.handler.codec.base64.Base64Encoder;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.concurrent.GlobalEventExecutor;
 
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jgnash.util.EncryptionManager;
 
-import static jgnash.engine.attachment.NettyTransferHandler.PATH_MAX;
-import static jgnash.engine.attachment.NettyTransferHandler.TRANSFER_BUFFER_SIZE;
-
 /**
  * File server for attachments.
+ * <p>
+ * Each connection is served by its own {@code NettyTransferHandler} and connections are spread across the event loop
+ * threads, so clients may transfer several files in parallel by opening multiple connections.
  *
  * @author Craig Cavanaugh
  */
@@ -61,13 +56,13 @@ public class AttachmentTransferServer {
 
     private final ChannelGroup channelGroup = new DefaultChannelGroup("file-server", GlobalEventExecutor.INSTANCE);
 
-    private final Path attachmentPath;
+    private final AttachmentStore store;
 
     private EncryptionManager encryptionManager = null;
 
     public AttachmentTransferServer(final int port, final Path attachmentPath) {
         this.port = port;
-        this.attachmentPath = attachmentPath;
+        this.store = new AttachmentStore(attachmentPath);
     }
 
     public boolean startServer(final char[] password) {
@@ -89,17 +84,7 @@ public class AttachmentTransferServer {
                         @Override
                         public void initChannel(final SocketChannel ch) {
 
-                            ch.pipeline().addLast(
-                                    new DelimiterBasedFrameDecoder(((TRANSFER_BUFFER_SIZE + 2) / 3) * 4 + PATH_MAX,
-                                            true, Delimiters.lineDelimiter()),
-
-                                    new StringEncoder(CharsetUtil.UTF_8),
-                                    new StringDecoder(CharsetUtil.UTF_8),
-
-                                    new Base64Encoder(),
-                                    new Base64Decoder(),
-
-                                    new ServerTransferHandler());
+                            ch.pipeline().addLast(new ChunkedWriteHandler(), new ServerTransferHandler());
                         }
                     });
 
@@ -132,10 +117,19 @@ public class AttachmentTransferServer {
         }
     }
 
+    /**
+     * Removes stored attachments that are no longer referenced.
+     *
+     * @param references attachment references that are still in use
+     */
+    public void collectGarbage(final Collection<String> references) {
+        store.collectGarbage(references);
+    }
+
     private final class ServerTransferHandler extends NettyTransferHandler {
 
         ServerTransferHandler() {
-            super(attachmentPath, encryptionManager);
+            super(store, encryptionManager);
         }
 
         @Override
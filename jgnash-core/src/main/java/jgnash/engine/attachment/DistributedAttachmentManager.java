@@ -18,147 +18,223 @@
 package jgnash.engine.attachment;
 
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
-import java.time.Duration;
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import jgnash.util.FileUtils;
+import jgnash.engine.AttachmentUtils;
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 import jgnash.resource.util.OS;
+import jgnash.util.DefaultDaemonThreadFactory;
 
 /**
  * Attachment handler for a remote database.
+ * <p>
+ * Attachments are kept in a persistent local {@code AttachmentCache}.  Content the cache already holds is never
+ * requested again, and the server skips the upload of content it already holds.  Attachments for the visible part of a
+ * register may be prefetched in the background.
  *
  * @author Craig Cavanaugh
  */
 public class DistributedAttachmentManager implements AttachmentManager {
 
-    private static final String TEMP_ATTACHMENT_PATH = "jGnashTemp-";
+    private static final Logger logger = Logger.getLogger(DistributedAttachmentManager.class.getName());
 
-    private static final int TRANSFER_TIMEOUT = 5000;
+    /**
+     * Maximum number of queued prefetch requests.  The oldest requests are dropped first because they belong to rows
+     * that have likely been scrolled away.  Queued duplicates are harmless, the cache is checked before a request.
+     */
+    private static final int PREFETCH_QUEUE_SIZE = 64;
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private static final LatencyHistogram addTime = Metrics.histogram("attachment.add");
+
+    /**
+     * Time to retrieve an attachment from the server, prefetches included.
+     */
+    private static final LatencyHistogram transferTime = Metrics.histogram("attachment.transfer");
 
     private final String host;
 
     private final int port;
 
-    /**
-     * Path to temporary attachment cache location.
-     */
-    private Path tempAttachmentPath;
+    private AttachmentCache cache;
 
     private AttachmentTransferClient fileClient;
 
+    private final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(PREFETCH_QUEUE_SIZE), new DefaultDaemonThreadFactory(),
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+
     public DistributedAttachmentManager(final String host, final int port) {
         this.host = host;
         this.port = port;
 
-        try {
-            if (!OS.isSystemWindows()) {
-                final EnumSet<PosixFilePermission> permissions = EnumSet.of(PosixFilePermission.OWNER_READ,
-                        PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE,
-                        PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_WRITE);
-
-                final FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(permissions);
+        final Path cachePath = AttachmentUtils.getAttachmentCacheDirectory(host, port);
 
-                tempAttachmentPath = Files.createTempDirectory(TEMP_ATTACHMENT_PATH, attr);
-            } else {    // windows cannot handle posix permissions
-                tempAttachmentPath = Files.createTempDirectory(TEMP_ATTACHMENT_PATH);
+        try {
+            if (Files.notExists(cachePath)) {
+                if (!OS.isSystemWindows()) {
+                    final EnumSet<PosixFilePermission> permissions = EnumSet.of(PosixFilePermission.OWNER_READ,
+                            PosixFilePermission.OWNER_WRITE, PosixFilePermission.OWNER_EXECUTE,
+                            PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_WRITE);
+
+                    final FileAttribute<Set<PosixFilePermission>> attr
+                            = PosixFilePermissions.asFileAttribute(permissions);
+
+                    Files.createDirectories(cachePath, attr);
+                } else {    // windows cannot handle posix permissions
+                    Files.createDirectories(cachePath);
+                }
             }
 
-            fileClient = new AttachmentTransferClient(tempAttachmentPath);
+            cache = new AttachmentCache(cachePath, AttachmentCache.DEFAULT_MAXIMUM_SIZE);
+            fileClient = new AttachmentTransferClient(cache.getStore());
         } catch (final IOException e) {
-            Logger.getLogger(DistributedAttachmentManager.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
     }
 
     /**
      * Add a file attachment.
-     * When moving a file, it must be copied and then deleted.  Moves can not be done atomically across file systems
-     * which is a high probability.
+     * The file is first placed in the local cache under its content reference and then sent to the server from the
+     * cache.  When moving a file, it must be copied and then deleted.  Moves can not be done atomically across file
+     * systems which is a high probability.
      *
      * @param path Path to the attachment to add
      * @param copy true if only copying the file
-     * @return true if successful
+     * @return the attachment reference, {@code null} if the transfer failed
      * @throws IOException thrown if a network error occurs
      */
     @Override
-    public boolean addAttachment(final Path path, final boolean copy) throws IOException {
+    public String addAttachment(final Path path, final boolean copy) throws IOException {
+        final long start = Metrics.startTime();
 
-        boolean result = false;
+        try {
+            return sendAttachment(path, copy);
+        } finally {
+            addTime.recordSince(start);
+        }
+    }
 
-        // Transfer the file to the remote location
-        final Future<Void> future = fileClient.sendFile(path);
+    private String sendAttachment(final Path path, final boolean copy) throws IOException {
+        final String reference = cache.getStore().add(path, false);
 
-        // Determine the cache location the file needs to go to so it does not have to be requested
-        final Path newPath = Paths.get(tempAttachmentPath + FileUtils.SEPARATOR + path.getFileName());
+        cache.put(reference);
 
-        if (future != null) {   // if null, path was not valid
-            try {
-                future.get();  // wait for the transfer to complete
-            } catch (final InterruptedException | ExecutionException e) {
-                Logger.getLogger(DistributedAttachmentManager.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
-            }
+        // Transfer the file to the remote location
+        final Future<Path> future = fileClient.sendFile(cache.getStore().getPath(reference));
 
-            // Copy or move the file
-            if (copy) {
-                Files.copy(path, newPath, StandardCopyOption.REPLACE_EXISTING);
-            } else {
-                Files.copy(path, newPath, StandardCopyOption.REPLACE_EXISTING);
-                Files.delete(path);
-            }
+        try {
+            future.get();  // wait for the transfer to complete
+        } catch (final InterruptedException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final ExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            return null;
+        }
 
-            result = true;
+        // Remove the source only after the server holds the file
+        if (!copy) {
+            Files.delete(path);
         }
 
-        return result;
+        return reference;
     }
 
     @Override
     public boolean removeAttachment(final String attachment) {
+        cache.remove(attachment);
         fileClient.deleteFile(attachment);
         return true;
     }
 
     @Override
     public Future<Path> getAttachment(final String attachment) {
+        final Path path = cache.get(attachment);
 
-        return executorService.submit(() -> {
-            Path path = Paths.get(tempAttachmentPath + FileUtils.SEPARATOR + Paths.get(attachment).getFileName());
+        if (path != null) {
+            return CompletableFuture.completedFuture(path);
+        }
 
-            if (Files.notExists(path)) {
-                fileClient.requestFile(Paths.get(attachment));  // Request the file and place in a a temp location
+        final long start = Metrics.startTime();
 
-                final LocalDateTime start = LocalDateTime.now();
+        // Request the file and place in the cache.  A failed transfer results in a null path.
+        return fileClient.requestFile(attachment).handle((received, cause) -> {
+            transferTime.recordSince(start);
 
-                while (Duration.between(start, LocalDateTime.now()).toMillis() < TRANSFER_TIMEOUT) {
-                    if (Files.exists(path)) {
-                        break;
-                    }
-                }
+            if (cause != null) {
+                logger.log(Level.WARNING, cause.getLocalizedMessage(), cause);
+                return null;
             }
 
-            if (Files.notExists(path)) {
-                path = null;
+            cache.put(attachment);
+            return received;
+        });
+    }
+
+    /**
+     * Retrieves attachments in the background that are not cached yet.
+     *
+     * @param attachments attachment references that are likely to be requested soon
+     */
+    @Override
+    public void prefetchAttachments(final Collection<String> attachments) {
+        // the cache is checked on the prefetch thread because validation may read the file
+        for (final String attachment : attachments) {
+            prefetchExecutor.execute(() -> prefetch(attachment));
+        }
+    }
+
+    private void prefetch(final String attachment) {
+        try {
+            if (!cache.contains(attachment)) {
+                final long start = Metrics.startTime();
+
+                fileClient.requestFile(attachment).get();
+                transferTime.recordSince(start);
+
+                cache.putPrefetched(attachment);
             }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logger.log(Level.FINE, e.getLocalizedMessage(), e);
+        }
+    }
 
-            return path;
-        });
+    /**
+     * Only the local cache is collected.  The server collects its own store.
+     *
+     * @param references attachment references that are still in use
+     */
+    @Override
+    public void collectGarbage(final Collection<String> references) {
+        cache.collectGarbage(references);
+    }
+
+    /**
+     * Returns the local attachment cache.
+     *
+     * @return the attachment cache
+     */
+    public AttachmentCache getCache() {
+        return cache;
     }
 
     public boolean connectToServer(final char[] password) {
@@ -166,17 +242,10 @@ public class DistributedAttachmentManager implements AttachmentManager {
     }
 
     public void disconnectFromServer() {
-        fileClient.disconnectFromServer();
+        prefetchExecutor.shutdownNow();
 
-        // Cleanup before exit
-        try (final DirectoryStream<Path> ds = Files.newDirectoryStream(tempAttachmentPath)) {
-            for (final Path p : ds) {
-                Files.delete(p);
-            }
+        fileClient.disconnectFromServer();
 
-            Files.delete(tempAttachmentPath);
-        } catch (final IOException e) {
-            Logger.getLogger(DistributedAttachmentManager.class.getName()).log(Level.SEVERE, e.getLocalizedMessage(), e);
-        }
+        logger.info(cache.toString());
     }
 }
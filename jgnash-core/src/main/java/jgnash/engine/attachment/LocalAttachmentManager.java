@@ -18,16 +18,14 @@
 package jgnash.engine.attachment;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import jgnash.engine.AttachmentUtils;
-import jgnash.engine.EngineFactory;
-import jgnash.util.FileUtils;
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 
 import static jgnash.util.LogUtil.logSevere;
 
@@ -38,7 +36,7 @@ import static jgnash.util.LogUtil.logSevere;
  */
 public class LocalAttachmentManager implements AttachmentManager {
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private static final LatencyHistogram addTime = Metrics.histogram("attachment.add");
 
     /**
      * Add a file attachment.
@@ -47,56 +45,52 @@ public class LocalAttachmentManager implements AttachmentManager {
      *
      * @param path Path to the attachment to add
      * @param copy true if only copying the file
-     * @return true if successful
+     * @return the attachment reference
      * @throws IOException thrown if a filesystem error occurs
      */
     @Override
-    public boolean addAttachment(final Path path, final boolean copy) throws IOException {
+    public String addAttachment(final Path path, final boolean copy) throws IOException {
+        final long start = Metrics.startTime();
 
-        boolean result = false;
-
-        Path baseFile = Paths.get(EngineFactory.getActiveDatabase());
-
-        if (AttachmentUtils.createAttachmentDirectory(baseFile)) {  // create if needed
-
-            Path newPath = Paths.get(AttachmentUtils.getAttachmentPath() + FileUtils.SEPARATOR + path.getFileName());
-
-            try {
-                if (copy) {
-                    Files.copy(path, newPath);
-                } else {
-                    Files.copy(path, newPath);
-                    Files.delete(path);
-                }
-                result = true;
-            } catch (final IOException e) {
-                logSevere(LocalAttachmentManager.class, e);
-                throw new IOException(e);
-            }
+        try {
+            return getStore().add(path, !copy);
+        } catch (final IOException e) {
+            logSevere(LocalAttachmentManager.class, e);
+            throw new IOException(e);
+        } finally {
+            addTime.recordSince(start);
         }
-
-        return result;
     }
 
     @Override
     public boolean removeAttachment(final String attachment) {
-        boolean result = false;
-
-        Path path = Paths.get(AttachmentUtils.getAttachmentPath() + FileUtils.SEPARATOR + attachment);
+        return getStore().remove(attachment);
+    }
 
-        try {
-            Files.delete(path);
-            result = true;
-        } catch (final IOException e) {
-            logSevere(LocalAttachmentManager.class, e);
-        }
+    @Override
+    public Future<Path> getAttachment(final String attachment) {
+        return CompletableFuture.completedFuture(getStore().getPath(attachment));
+    }
 
-        return result;
+    /**
+     * Local attachments are always available, nothing needs to be retrieved.
+     *
+     * @param attachments attachment references
+     */
+    @Override
+    public void prefetchAttachments(final Collection<String> attachments) {
+        // nothing to do
     }
 
     @Override
-    public Future<Path> getAttachment(final String attachment) {
-        return executorService.submit(() ->
-                Paths.get(AttachmentUtils.getAttachmentPath() + FileUtils.SEPARATOR + attachment));
+    public void collectGarbage(final Collection<String> references) {
+        getStore().collectGarbage(references);
+    }
+
+    /**
+     * The attachment path follows the active database, so the store is not cached.
+     */
+    private static AttachmentStore getStore() {
+        return new AttachmentStore(AttachmentUtils.getAttachmentPath());
     }
 }
@@ -17,258 +17,685 @@
  */
 package jgnash.engine.attachment;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.Base64;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import jgnash.engine.AttachmentUtils;
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+
 import jgnash.util.EncryptionManager;
-import jgnash.util.FileUtils;
 import jgnash.util.Nullable;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.stream.ChunkedStream;
 
 /**
  * Handles the details of bi-directional transfer of files between a client and server.
+ * <p>
+ * Control messages are sent as length prefixed frames holding a frame type byte followed by the frame body.  If an
+ * {@code EncryptionManager} is used, the body is encrypted as a single block.  A {@code FILE_STARTS} frame is followed
+ * by the raw file content, which is not framed.  Unencrypted content is written as a {@code FileRegion} so it is
+ * transferred directly from the file system.  Encrypted content is streamed through an AES-CTR cipher initialized
+ * with a random IV for every transfer, so the encrypted content has the same length as the file.
+ * <p>
+ * The receiving side decides where a transfer starts.  Content is received into a {@code .part} file and the length of
+ * an existing partial file is requested as the starting offset, so an interrupted transfer is resumed instead of
+ * restarted.
+ * <p>
+ * A handler serves a single connection and a connection carries one file at a time in each direction.  Concurrent
+ * transfers are made over multiple connections.
  *
  * @author Craig Cavanaugh
  */
-@ChannelHandler.Sharable
-class NettyTransferHandler extends SimpleChannelInboundHandler<String> {
-
-    static final String FILE_REQUEST = "<FILE_REQUEST>";
+class NettyTransferHandler extends ByteToMessageDecoder {
 
-    static final String DELETE = "<DELETE>";
+    /**
+     * Requests a file: name, offset.
+     */
+    private static final byte FILE_REQUEST = 1;
 
-    static final String EOL_DELIMITER = "\r\n";
+    /**
+     * Offers a file to the remote side which replies with a {@code FILE_REQUEST}: name, length.
+     */
+    private static final byte FILE_OFFER = 2;
 
-    private static final String FILE_STARTS = "<FILE_STARTS>";
+    /**
+     * Precedes the file content: name, offset, length, iv.
+     */
+    private static final byte FILE_STARTS = 3;
 
-    private static final String FILE_ENDS = "<FILE_ENDS>";
+    /**
+     * Acknowledges a completed file: name.
+     */
+    private static final byte FILE_RECEIVED = 4;
 
-    private static final String FILE_CHUNK = "<FILE_CHUNK>";
+    /**
+     * Requests removal of a file: name.
+     */
+    private static final byte DELETE = 5;
 
-    private static final String ERROR = "<ERROR>";
+    /**
+     * Reports a failed request: name, message.
+     */
+    private static final byte ERROR = 6;
 
     private static final Logger logger = Logger.getLogger(NettyTransferHandler.class.getName());
 
-    static final int TRANSFER_BUFFER_SIZE = 1024; // too large can break netty... bug?
+    static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
 
     static final int PATH_MAX = 4096;
 
-    private final Map<String, Attachment> fileMap = new ConcurrentHashMap<>();
+    private static final int MAX_FRAME_LENGTH = PATH_MAX * 4;
 
-    private final Path attachmentPath;
+    private static final int LENGTH_FIELD_LENGTH = 4;
+
+    /**
+     * Files offered to the remote side, by name.
+     */
+    private final Map<String, Path> outgoing = new ConcurrentHashMap<>();
+
+    /**
+     * Futures for requested and offered files, by name.
+     */
+    private final Map<String, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+    private final AttachmentStore store;
 
     private final EncryptionManager encryptionManager;
 
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * File content being received.  Only accessed from the event loop.
+     */
+    private Transfer transfer;
+
     /**
-     * Netty Handler.  The specified path may be a temporary location for clients or a persistent location for servers.
+     * Netty Handler.  The specified store may be a temporary cache for clients or a persistent location for servers.
      *
-     * @param attachmentPath Path for attachments.
+     * @param store store for attachments.
      * @param encryptionManager encryption manager instance
      */
-    NettyTransferHandler(final Path attachmentPath, @Nullable final EncryptionManager encryptionManager) {
-        Objects.requireNonNull(attachmentPath);
+    NettyTransferHandler(final AttachmentStore store, @Nullable final EncryptionManager encryptionManager) {
+        Objects.requireNonNull(store);
 
-        this.attachmentPath = attachmentPath;
+        this.store = store;
         this.encryptionManager = encryptionManager;
     }
 
+    /**
+     * Requests a file from the remote side.
+     *
+     * @param channel  Channel to request the file through
+     * @param fileName the file name
+     * @return the future completes with the path of the received file
+     */
+    CompletableFuture<Path> requestFile(final Channel channel, final String fileName) {
+        final String name = getName(fileName);
+
+        final CompletableFuture<Path> future = new CompletableFuture<>();
+        final CompletableFuture<Path> existing = pending.putIfAbsent(name, future);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        final long offset = getPartialLength(name);
+
+        writeFrame(channel, name, FILE_REQUEST, out -> {
+            out.writeUTF(name);
+            out.writeLong(offset);
+        });
+
+        return future;
+    }
+
+    /**
+     * Sends a file across the channel.
+     *
+     * @param channel Channel to send file through
+     * @param path    the file to send
+     * @return the future completes with the sent path once the remote side has received the complete file
+     */
+    CompletableFuture<Path> sendFile(final Channel channel, final Path path) {
+        final CompletableFuture<Path> future = new CompletableFuture<>();
+
+        final long length;
+
+        try {
+            if (Files.isDirectory(path)) {
+                throw new IOException("Not a file: " + path);
+            }
+            length = Files.size(path);
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        final String name = path.getFileName().toString();
+
+        final CompletableFuture<Path> existing = pending.putIfAbsent(name, future);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        outgoing.put(name, path);
+
+        writeFrame(channel, name, FILE_OFFER, out -> {
+            out.writeUTF(name);
+            out.writeLong(length);
+        });
+
+        return future;
+    }
+
+    /**
+     * Requests removal of a file by the remote side.
+     *
+     * @param channel  Channel to send the request through
+     * @param fileName the file name
+     */
+    void deleteFile(final Channel channel, final String fileName) {
+        final String name = getName(fileName);
+
+        writeFrame(channel, name, DELETE, out -> out.writeUTF(name));
+    }
+
+    /**
+     * Returns the number of files being transferred.
+     *
+     * @return number of incomplete requested and offered files
+     */
+    int getPendingCount() {
+        return pending.size();
+    }
+
     @Override
-    public void channelRead0(final ChannelHandlerContext ctx, final String msg) {
+    protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out) {
+        try {
+            if (transfer != null) {
+                final int length = (int) Math.min(in.readableBytes(), transfer.remaining);
+
+                transfer.write(in, length);
+
+                if (transfer.remaining == 0) {
+                    completeTransfer(ctx);
+                }
+                return;
+            }
+
+            if (in.readableBytes() < LENGTH_FIELD_LENGTH) {
+                return;
+            }
+
+            final int frameLength = in.getInt(in.readerIndex());
+
+            if (frameLength < 1 || frameLength > MAX_FRAME_LENGTH) {
+                throw new IOException("Invalid frame length: " + frameLength);
+            }
+
+            if (in.readableBytes() < LENGTH_FIELD_LENGTH + frameLength) {
+                return;
+            }
+
+            in.skipBytes(LENGTH_FIELD_LENGTH);
+
+            final byte type = in.readByte();
+            final byte[] body = new byte[frameLength - 1];
+
+            in.readBytes(body);
+
+            final byte[] plainBody = encryptionManager != null ? encryptionManager.decrypt(body) : body;
+
+            if (plainBody == null) {
+                throw new IOException("Unable to decrypt the frame");
+            }
 
-        final String plainMessage;
+            processFrame(ctx, type, new DataInputStream(new ByteArrayInputStream(plainBody)));
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
 
-        if (encryptionManager != null) {
-            plainMessage = encryptionManager.decrypt(msg);
-        } else {
-            plainMessage = msg;
+            in.skipBytes(in.readableBytes());
+            closeTransfer();
+            ctx.close();
         }
+    }
+
+    private void processFrame(final ChannelHandlerContext ctx, final byte type, final DataInputStream in)
+            throws IOException {
+
+        switch (type) {
+            case FILE_REQUEST:
+                sendContent(ctx.channel(), getName(in.readUTF()), in.readLong());
+                break;
+            case FILE_OFFER: {
+                final String name = getName(in.readUTF());
+                final long length = in.readLong();
+
+                // identical content is already held, skip the transfer
+                if (store.contains(name)) {
+                    store.touch(name);
+                    writeFrame(ctx.channel(), name, FILE_RECEIVED, out -> out.writeUTF(name));
+                    break;
+                }
+
+                final long partialLength = getPartialLength(name);
+
+                // a partial file larger than the offered file is stale
+                final long offset = partialLength <= length ? partialLength : 0;
 
-        if (plainMessage.startsWith(FILE_REQUEST)) {
-            sendFile(ctx, attachmentPath + FileUtils.SEPARATOR + plainMessage.substring(FILE_REQUEST.length()));
-        } else if (plainMessage.startsWith(FILE_STARTS)) {
-            openOutputStream(plainMessage.substring(FILE_STARTS.length()));
-        } else if (plainMessage.startsWith(FILE_CHUNK)) {
-            writeOutputStream(plainMessage.substring(FILE_CHUNK.length()));
-        } else if (plainMessage.startsWith(FILE_ENDS)) {
-            closeOutputStream(plainMessage.substring(FILE_ENDS.length()));
-        } else if (plainMessage.startsWith(DELETE)) {
-            deleteFile(plainMessage.substring(FILE_ENDS.length()));
+                writeFrame(ctx.channel(), name, FILE_REQUEST, out -> {
+                    out.writeUTF(name);
+                    out.writeLong(offset);
+                });
+                break;
+            }
+            case FILE_STARTS: {
+                final String name = getName(in.readUTF());
+                final long offset = in.readLong();
+                final long length = in.readLong();
+                final byte[] iv = new byte[in.readShort()];
+
+                in.readFully(iv);
+                openTransfer(ctx, name, offset, length, iv);
+                break;
+            }
+            case FILE_RECEIVED: {
+                final String name = getName(in.readUTF());
+                final Path path = outgoing.remove(name);
+
+                if (path != null) {
+                    complete(name, path);
+                }
+                break;
+            }
+            case DELETE:
+                deleteFile(getName(in.readUTF()));
+                break;
+            case ERROR: {
+                final String name = getName(in.readUTF());
+                final String message = in.readUTF();
+
+                logger.warning(message);
+                outgoing.remove(name);
+                fail(name, new IOException(message));
+                break;
+            }
+            default:
+                logger.log(Level.WARNING, "Unknown frame type: {0}", type);
         }
     }
 
+    /**
+     * Removes a file on request of the remote side.
+     * <p>
+     * Identical attachments share a single content addressed file, so a stored reference may still be used by
+     * another transaction or client.  Those files are left to the garbage collection of the store, which checks the
+     * attachment references first.  Legacy attachments are never shared and are removed immediately.
+     *
+     * @param fileName the file name
+     */
     private void deleteFile(final String fileName) {
-        Path path = Paths.get(attachmentPath + FileUtils.SEPARATOR + fileName);
+        if (AttachmentStore.isReference(fileName)) {
+            logger.log(Level.FINE, "Removal of {0} is left to garbage collection", fileName);
+            return;
+        }
 
-        if (Files.exists(path)) {
-            try {
-                Files.delete(path);
-            } catch (final IOException e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            }
+        final Path path = store.getPath(fileName);
+
+        try {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(getPartPath(fileName));
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
     }
 
     @Override
-    public void channelInactive(final ChannelHandlerContext ctx) {
-        for (Attachment object : fileMap.values()) {
-            try {
-                object.outputStream.close();
-            } catch (IOException e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            }
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        closeTransfer();    // the partial file is kept so the transfer may be resumed
+
+        for (final String name : pending.keySet()) {
+            fail(name, new ClosedChannelException());
         }
+        outgoing.clear();
 
-        ctx.fireChannelInactive();    // forward to the next handler in the pipeline
+        super.channelInactive(ctx);    // forward to the next handler in the pipeline
     }
 
     @Override
-    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
-        super.exceptionCaught(ctx, cause);
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
         logger.log(Level.WARNING, "Unexpected exception from downstream.", cause);
         ctx.close();
     }
 
-    private String encrypt(final String message) {
-        if (encryptionManager != null) {
-            return encryptionManager.encrypt(message);
+    /**
+     * Writes a control frame.  A failed write fails the pending future for the file.
+     */
+    private void writeFrame(final Channel channel, final String name, final byte type, final FrameWriter writer) {
+        try (final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+             final DataOutputStream out = new DataOutputStream(byteStream)) {
+
+            writer.write(out);
+            out.flush();
+
+            final byte[] body = encryptionManager != null
+                    ? encryptionManager.encrypt(byteStream.toByteArray()) : byteStream.toByteArray();
+
+            if (body == null) {
+                throw new IOException("Unable to encrypt the frame");
+            }
+
+            final ByteBuf frame = channel.alloc().buffer(LENGTH_FIELD_LENGTH + 1 + body.length);
+
+            frame.writeInt(1 + body.length);
+            frame.writeByte(type);
+            frame.writeBytes(body);
+
+            channel.writeAndFlush(frame).addListener(future -> {
+                if (!future.isSuccess()) {
+                    logger.log(Level.SEVERE, future.cause().getLocalizedMessage(), future.cause());
+                    fail(name, future.cause());
+                }
+            });
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            fail(name, e);
         }
-        return message;
     }
 
     /**
-     * Sends a file across the channel. The Fu
-     * @param channel  Channel to send file through
-     * @param fileName the file name
-     * @return the future of the potentially asynchronous send is returned. A null value is returned if fileName is a path.
+     * Writes a {@code FILE_STARTS} frame followed by the file content.  Both are written from the event loop so no
+     * other frame can be written between them.
      */
-    Future<Void> sendFile(final Channel channel, final String fileName) {
-        Future<Void> future = null;
+    private void sendContent(final Channel channel, final String name, final long offset) throws IOException {
+        Path path = outgoing.get(name);
 
-        Path path = Paths.get(fileName);
+        if (path == null) {
+            path = store.getPath(name);
+        }
 
-        if (Files.exists(path)) {
+        if (!Files.isRegularFile(path)) {
+            final String message = "File not found: " + path;
 
-            if (Files.isDirectory(path)) {
-                channel.writeAndFlush(encrypt(ERROR + "Not a file: " + path) + EOL_DELIMITER);
-                return null;
+            logger.warning(message);
+            writeFrame(channel, name, ERROR, out -> {
+                out.writeUTF(name);
+                out.writeUTF(message);
+            });
+            return;
+        }
+
+        final FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            final long length = fileChannel.size();
+            final long start = offset >= 0 && offset <= length ? offset : 0;
+
+            final byte[] iv = new byte[encryptionManager != null ? EncryptionManager.STREAM_IV_LENGTH : 0];
+            random.nextBytes(iv);
+
+            writeFrame(channel, name, FILE_STARTS, out -> {
+                out.writeUTF(name);
+                out.writeLong(start);
+                out.writeLong(length);
+                out.writeShort(iv.length);
+                out.write(iv);
+            });
+
+            if (start == length) {
+                fileChannel.close();
+            } else if (encryptionManager == null) {
+                channel.writeAndFlush(new DefaultFileRegion(fileChannel, start, length - start));
+            } else {
+                fileChannel.position(start);
+
+                channel.writeAndFlush(new ChunkedStream(new CipherInputStream(Channels.newInputStream(fileChannel),
+                        encryptionManager.createStreamCipher(Cipher.ENCRYPT_MODE, iv)), TRANSFER_BUFFER_SIZE));
             }
+        } catch (final IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
 
-            try (final InputStream inputStream = Files.newInputStream(path)) {
-                channel.writeAndFlush(encrypt(FILE_STARTS + path.getFileName() + ":" + Files.size(path)) + EOL_DELIMITER);
+    private void openTransfer(final ChannelHandlerContext ctx, final String name, final long offset, final long length,
+                              final byte[] iv) throws IOException {
 
-                byte[] bytes = new byte[TRANSFER_BUFFER_SIZE];  // leave room for base 64 expansion
+        final Path partPath = getPartPath(name);
 
-                int bytesRead;
+        // Lazy creation of the attachment path if needed
+        Files.createDirectories(partPath.getParent());
 
-                while ((bytesRead = inputStream.read(bytes)) != -1) {
-                    if (bytesRead > 0) {
-                        channel.write(encrypt(FILE_CHUNK + path.getFileName() + ':' +
-                                Base64.getEncoder().encodeToString(Arrays.copyOfRange(bytes, 0, bytesRead)))
-                                + EOL_DELIMITER);
-                    }
-                }
-                future = channel.writeAndFlush(encrypt(FILE_ENDS + path.getFileName()) + EOL_DELIMITER).sync();
+        final FileChannel fileChannel = FileChannel.open(partPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
 
-            } catch (IOException | InterruptedException e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-                Thread.currentThread().interrupt();
-            }
-        } else {
-            try {
-                future = channel.writeAndFlush(encrypt(ERROR + "File not found: " + path) + EOL_DELIMITER).sync();
-            } catch (final InterruptedException e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-                Thread.currentThread().interrupt();
-            }
-            logger.log(Level.WARNING, "File not found: {0}", path);
+        if (offset < 0 || offset > length || fileChannel.size() < offset) {
+            fileChannel.close();
+            throw new IOException("Invalid transfer offset for " + name + ": " + offset);
         }
 
-        return future;
-    }
+        fileChannel.truncate(offset);
+        fileChannel.position(offset);
+
+        final Cipher cipher = encryptionManager != null
+                ? encryptionManager.createStreamCipher(Cipher.DECRYPT_MODE, iv) : null;
+
+        // content references are verified as the content is received
+        final MessageDigest digest = AttachmentStore.isReference(name) ? AttachmentStore.createDigest() : null;
 
-    private void sendFile(final ChannelHandlerContext ctx, final String msg) {
-        sendFile(ctx.channel(), msg);
+        transfer = new Transfer(name, partPath, fileChannel, length, cipher, digest);
+
+        if (transfer.remaining == 0) {
+            completeTransfer(ctx);
+        }
     }
 
-    private void closeOutputStream(final String msg) {
-        Attachment attachment = fileMap.get(msg);
+    private void completeTransfer(final ChannelHandlerContext ctx) throws IOException {
+        final Transfer completed = transfer;
+        transfer = null;
 
-        try {
-            attachment.outputStream.close();
-            fileMap.remove(msg);
-        } catch (final IOException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        completed.close();
+
+        if (Files.size(completed.partPath) != completed.length) {
+            rejectTransfer(ctx, completed, "Invalid file length: " + completed.name);
+            return;
         }
 
-        if (attachment.path.toFile().length() != attachment.fileSize) {
-            logger.severe("Invalid file length");
+        if (completed.digest != null && !AttachmentStore.matches(completed.name, completed.digest)) {
+            rejectTransfer(ctx, completed, "Received content does not match: " + completed.name);
+            return;
         }
-    }
 
-    private void writeOutputStream(final String msg) {
-        String[] msgParts = msg.split(":");
+        final Path path = store.getPath(completed.name);
 
-        Attachment attachment = fileMap.get(msgParts[0]);
+        Files.move(completed.partPath, path, StandardCopyOption.REPLACE_EXISTING);
 
-        if (attachment != null) {
+        writeFrame(ctx.channel(), completed.name, FILE_RECEIVED, out -> out.writeUTF(completed.name));
+
+        complete(completed.name, path);
+    }
+
+    /**
+     * Discards a received file that failed verification and reports the error to the sender.
+     */
+    private void rejectTransfer(final ChannelHandlerContext ctx, final Transfer rejected, final String message)
+            throws IOException {
+        logger.severe(message);
+        Files.delete(rejected.partPath);
+
+        writeFrame(ctx.channel(), rejected.name, ERROR, out -> {
+            out.writeUTF(rejected.name);
+            out.writeUTF(message);
+        });
+        fail(rejected.name, new IOException(message));
+    }
+
+    private void closeTransfer() {
+        if (transfer != null) {
             try {
-                attachment.outputStream.write(Base64.getDecoder().decode(msgParts[1]));
+                transfer.close();
             } catch (final IOException e) {
                 logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
             }
+
+            fail(transfer.name, new IOException("Incomplete transfer: " + transfer.name));
+            transfer = null;
         }
     }
 
-    private void openOutputStream(final String msg) {
-        String[] msgParts = msg.split(":");
+    private void complete(final String name, final Path path) {
+        final CompletableFuture<Path> future = pending.remove(name);
 
-        final String fileName = msgParts[0];
-        final long fileLength = Long.parseLong(msgParts[1]);
+        if (future != null) {
+            future.complete(path);
+        }
+    }
 
-        final Path filePath = Paths.get(attachmentPath + FileUtils.SEPARATOR + fileName);
+    private void fail(final String name, final Throwable cause) {
+        final CompletableFuture<Path> future = pending.remove(name);
 
-        // Lazy creation of the attachment path if needed
-        if (!AttachmentUtils.createAttachmentDirectory(attachmentPath)) {
-            logger.severe("Unable to find or create the attachment directory");
-            return;
+        if (future != null) {
+            outgoing.remove(name);
+            future.completeExceptionally(cause);
         }
+    }
+
+    private Path getPartPath(final String name) {
+        final Path path = store.getPath(name);
+
+        return path.resolveSibling(path.getFileName() + AttachmentStore.PART_SUFFIX);
+    }
+
+    private long getPartialLength(final String name) {
+        final Path partPath = getPartPath(name);
 
         try {
-            fileMap.put(fileName, new Attachment(filePath, fileLength));
-        } catch (IOException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            if (Files.exists(partPath)) {
+                return Files.size(partPath);
+            }
+        } catch (final IOException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
         }
+
+        return 0;
     }
 
-    private static class Attachment {
-        final Path path;
+    /**
+     * Only the file name is used so a remote request can not reach outside of the attachment path.
+     */
+    private static String getName(final String fileName) {
+        final Path name = Paths.get(fileName).getFileName();
+
+        return name != null ? name.toString() : "";
+    }
+
+    @FunctionalInterface
+    private interface FrameWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
 
-        final OutputStream outputStream;
+    private static class Transfer {
+        final String name;
 
-        final long fileSize;
+        final Path partPath;
 
-        private Attachment(final Path path, long fileSize) throws IOException {
-            this.path = path;
-            outputStream = Files.newOutputStream(path);
+        final FileChannel fileChannel;
+
+        final long length;
+
+        final Cipher cipher;
+
+        final MessageDigest digest;
+
+        long remaining;
+
+        private Transfer(final String name, final Path partPath, final FileChannel fileChannel, final long length,
+                         @Nullable final Cipher cipher, @Nullable final MessageDigest digest) throws IOException {
+            this.name = name;
+            this.partPath = partPath;
+            this.fileChannel = fileChannel;
+            this.length = length;
+            this.cipher = cipher;
+            this.digest = digest;
+
+            final long offset = fileChannel.position();
+
+            remaining = length - offset;
+
+            // a resumed transfer must include the partial content in the digest
+            if (digest != null && offset > 0) {
+                final ByteBuffer buffer = ByteBuffer.allocate(TRANSFER_BUFFER_SIZE);
+
+                for (long position = 0; position < offset; ) {
+                    buffer.clear().limit((int) Math.min(buffer.capacity(), offset - position));
+
+                    final int bytesRead = fileChannel.read(buffer, position);
+
+                    if (bytesRead < 0) {
+                        throw new IOException("Unexpected end of " + partPath);
+                    }
+
+                    buffer.flip();
+                    digest.update(buffer);
+                    position += bytesRead;
+                }
+            }
+        }
+
+        void write(final ByteBuf in, final int count) throws IOException {
+            final ByteBuffer buffer;
+
+            if (cipher == null) {
+                buffer = in.nioBuffer(in.readerIndex(), count);
+                in.skipBytes(count);
+            } else {
+                final byte[] bytes = new byte[count];
+
+                in.readBytes(bytes);
+                buffer = ByteBuffer.wrap(cipher.update(bytes));
+            }
+
+            if (digest != null) {
+                digest.update(buffer.duplicate());
+            }
+
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+
+            remaining -= count;
+        }
 
-            this.fileSize = fileSize;
+        void close() throws IOException {
+            fileChannel.close();
         }
     }
 }
@@ -18,6 +18,7 @@
 package jgnash.engine.budget;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -121,6 +122,29 @@ public class Budget extends StoredObject implements Comparable<Budget>, Cloneabl
         accountGoals.put(account.getUuid().toString(), budgetGoal);
     }
 
+    /**
+     * Returns the goals of all accounts keyed by the account {@code UUID} string.
+     *
+     * @return unmodifiable map of goals
+     */
+    public Map<String, BudgetGoal> getAccountGoals() {
+        return Collections.unmodifiableMap(accountGoals);
+    }
+
+    /**
+     * Sets the goals for an account given the account {@code UUID} string.  Used when decoding a file where the
+     * account may not be resolved yet.
+     *
+     * @param accountUuid account {@code UUID} string
+     * @param budgetGoal  budget goals
+     */
+    public void setBudgetGoal(final String accountUuid, final BudgetGoal budgetGoal) {
+        Objects.requireNonNull(accountUuid);
+        Objects.requireNonNull(budgetGoal);
+
+        accountGoals.put(accountUuid, budgetGoal);
+    }
+
     public void removeBudgetGoal(final Account account) {
         Objects.requireNonNull(account);
 
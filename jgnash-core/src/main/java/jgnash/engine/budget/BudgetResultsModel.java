@@ -41,7 +41,10 @@ import jgnash.engine.EngineFactory;
 import jgnash.engine.MathConstants;
 import jgnash.engine.RootAccount;
 import jgnash.engine.Transaction;
+import jgnash.engine.message.BatchMessageListener;
+import jgnash.engine.message.ChannelEvent;
 import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBatch;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
 import jgnash.engine.message.MessageListener;
@@ -53,7 +56,7 @@ import jgnash.engine.message.MessageProxy;
  *
  * @author Craig Cavanaugh
  */
-public class BudgetResultsModel implements MessageListener {
+public class BudgetResultsModel implements BatchMessageListener {
 
     private Set<Account> accounts = new HashSet<>();
 
@@ -665,22 +668,30 @@ public class BudgetResultsModel implements MessageListener {
     }
 
     private void processTransactionEvent(final Message message) {
-        final Transaction transaction = message.getObject(MessageProperty.TRANSACTION);
+        final Set<Account> accountSet = new HashSet<>();
 
-        descriptorList.stream().filter(descriptor -> descriptor.isBetween(transaction.getLocalDate()))
-                .forEach(descriptor -> {
-                    final Set<Account> accountSet = new HashSet<>();
+        collectTransactionAccounts(message, accountSet);
 
-                    for (Account account : transaction.getAccounts()) {
-                        accountSet.addAll(account.getAncestors());
-                    }
+        accountSet.forEach(this::clearCached);
+    }
 
-                    accountSet.forEach(this::clearCached);
-                });
+    /**
+     * Collects the accounts and ancestors affected by a transaction message if it falls within the budget periods.
+     *
+     * @param message    transaction message
+     * @param accountSet set to add the affected accounts to
+     */
+    private void collectTransactionAccounts(final Message message, final Set<Account> accountSet) {
+        final Transaction transaction = message.getObject(MessageProperty.TRANSACTION);
+
+        if (descriptorList.stream().anyMatch(descriptor -> descriptor.isBetween(transaction.getLocalDate()))) {
+            for (final Account account : transaction.getAccounts()) {
+                accountSet.addAll(account.getAncestors());
+            }
+        }
     }
 
-    @Override
-    public void messagePosted(final Message message) {
+    private void processMessage(final Message message) {
         switch (message.getEvent()) {
             case ACCOUNT_ADD:
             case ACCOUNT_MODIFY:
@@ -702,7 +713,36 @@ public class BudgetResultsModel implements MessageListener {
                 break;
             default:
         }
+    }
+
+    @Override
+    public void messagePosted(final Message message) {
+        processMessage(message);
 
         proxy.forwardMessage(message);
     }
+
+    /**
+     * Transaction messages within the batch are merged so the cached results of each affected account are only
+     * cleared once.
+     *
+     * @param batch batch of messages
+     */
+    @Override
+    public void messagesPosted(final MessageBatch batch) {
+        final Set<Account> accountSet = new HashSet<>();
+
+        for (final Message message : batch) {
+            if (message.getEvent() == ChannelEvent.TRANSACTION_ADD
+                    || message.getEvent() == ChannelEvent.TRANSACTION_REMOVE) {
+                collectTransactionAccounts(message, accountSet);
+            } else {
+                processMessage(message);
+            }
+        }
+
+        accountSet.forEach(this::clearCached);
+
+        proxy.forwardBatch(batch);
+    }
 }
@@ -36,26 +36,41 @@ import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 import jgnash.net.ConnectionFactory;
+import jgnash.util.EncodeDecode;
 import jgnash.util.EncryptionManager;
 import jgnash.util.NotNull;
 
 /**
  * Lock manager for distributed engine instances.
+ * <p>
+ * Read locks are served from a lease held with the lock server on behalf of all local threads.  Once a lease has
+ * been granted, further read locks only require local synchronization until the lease expires or the server revokes
+ * it for a waiting writer.  The lease is returned to the server when the last local reader unlocks.
  *
  * @author Craig Cavanaugh
  */
@@ -95,6 +110,23 @@ public class DistributedLockManager implements LockManager {
      */
     private static final String uuid = UUID.randomUUID().toString();
 
+    /**
+     * Remote thread id used for leases held by this instance.
+     */
+    private final String leaseThreadId = uuid + "-lease-" + UUID.randomUUID();
+
+    /**
+     * Maximum time a lease may be used for new readers before it must be renewed.
+     */
+    private static final long LEASE_PERIOD = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<String, Lease> leaseMap = new ConcurrentHashMap<>();
+
+    /**
+     * Round trip time of requests to the lock server.
+     */
+    private static final LatencyHistogram requestTime = Metrics.histogram("lockManager.remoteRequest");
+
     static {
         logger.setLevel(Level.INFO);
     }
@@ -176,6 +208,51 @@ public class DistributedLockManager implements LockManager {
         return lockMap.computeIfAbsent(lockId, k -> new DistributedReadWriteLock(lockId));
     }
 
+    /**
+     * Acquires a group of locks with a single request to the lock server.  The server acquires the locks in lock id
+     * order and responds once all are held.  The local locks are then acquired in the same order.  Closing the group
+     * again has no effect.
+     *
+     * @param locks map of lock ids and the mode each lock is required in
+     * @return the acquired group of locks
+     */
+    @Override
+    public LockGroup lockAll(final Map<String, LockMode> locks) {
+        final SortedMap<String, LockMode> sortedLocks = new TreeMap<>(locks);
+
+        final String lockIds = EncodeDecode.encodeStringCollection(sortedLocks.keySet(),
+                DistributedLockServer.GROUP_DELIMITER);
+
+        final String lockTypes = EncodeDecode.encodeStringCollection(sortedLocks.values().stream()
+                .map(LockMode::name).collect(Collectors.toList()), DistributedLockServer.GROUP_DELIMITER);
+
+        changeLockState(lockIds, lockTypes, DistributedLockServer.LOCK_ALL);
+
+        final List<DistributedReadWriteLock> acquired = new ArrayList<>();
+
+        for (final Map.Entry<String, LockMode> entry : sortedLocks.entrySet()) {
+            final DistributedReadWriteLock lock = (DistributedReadWriteLock) getLock(entry.getKey());
+            lock.lockLocally(entry.getValue());
+            acquired.add(lock);
+        }
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        return () -> {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+
+            final List<LockMode> modes = new ArrayList<>(sortedLocks.values());
+
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlockLocally(modes.get(i));
+            }
+
+            changeLockState(lockIds, lockTypes, DistributedLockServer.UNLOCK_ALL);
+        };
+    }
+
     private CountDownLatch getLatch(final String lockMessage) {
         latchLock.lock();
 
@@ -195,9 +272,15 @@ public class DistributedLockManager implements LockManager {
     }
 
     private void changeLockState(final String lockId, final String type, final String lockState) {
-        final String threadId = uuid + '-' + Thread.currentThread().getId();
+        changeLockState(lockId, type, lockState, uuid + '-' + Thread.currentThread().getId());
+    }
+
+    private void changeLockState(final String lockId, final String type, final String lockState,
+                                 final String threadId) {
         final String lockMessage = MessageFormat.format(PATTERN, lockState, lockId, threadId, type);
 
+        final long start = Metrics.startTime();
+
         final CountDownLatch responseLatch = getLatch(lockMessage);
 
         //noinspection SynchronizationOnLocalVariableOrMethodParameter
@@ -236,6 +319,8 @@ public class DistributedLockManager implements LockManager {
                 logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
             }
         }
+
+        requestTime.recordSince(start);
     }
 
     private void processMessage(final String lockMessage) {
@@ -250,6 +335,18 @@ public class DistributedLockManager implements LockManager {
 
         //logger.info(plainMessage);
 
+        // a writer is waiting on a lease held by this instance
+        if (plainMessage.startsWith(DistributedLockServer.REVOKE + ',')) {
+            final String[] strings = EncodeDecode.decodeStringCollection(plainMessage).toArray(new String[4]);
+
+            final Lease lease = leaseMap.get(strings[1]);
+
+            if (lease != null) {
+                lease.revoke();
+            }
+            return;
+        }
+
         /* lock_action, lock_id, thread_id, lock_type */
         // unlock,account,3456384756384563,read
         // lock,account,3456384756384563,write
@@ -305,6 +402,137 @@ public class DistributedLockManager implements LockManager {
         }
     }
 
+    /**
+     * Read lease for a single lock id shared by all local threads.
+     */
+    private class Lease {
+
+        private final String lockId;
+
+        private LeaseState state = LeaseState.NONE;
+
+        private int holders;
+
+        private boolean revoked;
+
+        private long expires;
+
+        Lease(final String lockId) {
+            this.lockId = lockId;
+        }
+
+        /**
+         * Adds a local reader to the lease, acquiring the lease from the server if required.
+         *
+         * @param reentrant {@code true} if the calling thread already holds the lease.  A reentrant hold is always
+         *                  accepted, otherwise a revoked lease could not be released
+         * @return {@code true} if the reader holds the lease, {@code false} if the lease is in use but may not accept
+         * new readers and the caller must lock with the server directly
+         */
+        boolean hold(final boolean reentrant) {
+            final boolean acquire;
+
+            synchronized (this) {
+                while (true) {
+                    if (state == LeaseState.HELD) {
+                        if (reentrant || (!revoked && System.nanoTime() - expires < 0)) {
+                            holders++;
+                            return true;
+                        } else if (holders > 0) {
+                            return false;
+                        }
+
+                        // idle and no longer usable, return it and acquire a fresh lease
+                        state = LeaseState.RELEASING;
+                        acquire = false;
+                        break;
+                    } else if (state == LeaseState.NONE) {
+                        state = LeaseState.ACQUIRING;
+                        revoked = false;
+                        acquire = true;
+                        break;
+                    }
+
+                    try {
+                        wait(); // another thread is acquiring or releasing the lease
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+
+            if (!acquire) {
+                release();
+                return hold(false);
+            }
+
+            changeLockState(lockId, DistributedLockServer.LOCK_TYPE_LEASE, DistributedLockServer.LOCK, leaseThreadId);
+
+            synchronized (this) {
+                state = LeaseState.HELD;
+                expires = System.nanoTime() + LEASE_PERIOD;
+                holders++;
+                notifyAll();
+            }
+
+            return true;
+        }
+
+        /**
+         * Removes a local reader from the lease.  The lease is returned to the server if it has been revoked or has
+         * expired and this is the last reader.
+         */
+        void unhold() {
+            synchronized (this) {
+                holders--;
+
+                if (holders > 0 || (!revoked && System.nanoTime() - expires < 0)) {
+                    return;
+                }
+
+                state = LeaseState.RELEASING;
+            }
+
+            release();
+        }
+
+        /**
+         * Called when the server requests the lease back.
+         */
+        void revoke() {
+            synchronized (this) {
+                revoked = true;
+
+                if (state != LeaseState.HELD || holders > 0) {
+                    return; // released by the last reader
+                }
+
+                state = LeaseState.RELEASING;
+            }
+
+            // do not block the message thread waiting for the acknowledgment
+            executorService.submit(this::release);
+        }
+
+        private void release() {
+            changeLockState(lockId, DistributedLockServer.LOCK_TYPE_LEASE, DistributedLockServer.UNLOCK,
+                    leaseThreadId);
+
+            synchronized (this) {
+                state = LeaseState.NONE;
+                notifyAll();
+            }
+        }
+    }
+
+    private enum LeaseState {
+        NONE,
+        ACQUIRING,
+        HELD,
+        RELEASING
+    }
+
     private class DistributedReadWriteLock extends ReentrantReadWriteLock {
 
         private final String lockId;
@@ -313,6 +541,36 @@ public class DistributedLockManager implements LockManager {
 
         private final DistributedReadWriteLock.WriteLock writeLock;
 
+        private final LatencyHistogram readWaitTime;
+
+        private final LatencyHistogram writeWaitTime;
+
+        /**
+         * Tracks whether each read lock held by a thread was served by the lease.
+         */
+        private final ThreadLocal<Deque<Boolean>> leaseHolds = ThreadLocal.withInitial(ArrayDeque::new);
+
+        /**
+         * Acquires the local lock only.  Used after the server has granted a lock group.
+         *
+         * @param mode lock mode
+         */
+        void lockLocally(final LockMode mode) {
+            if (mode == LockMode.WRITE) {
+                writeLock.lockLocally();
+            } else {
+                readLock.lockLocally();
+            }
+        }
+
+        void unlockLocally(final LockMode mode) {
+            if (mode == LockMode.WRITE) {
+                writeLock.unlockLocally();
+            } else {
+                readLock.unlockLocally();
+            }
+        }
+
         DistributedReadWriteLock(final String lockId) {
             super();
 
@@ -320,6 +578,9 @@ public class DistributedLockManager implements LockManager {
 
             readLock = new DistributedReadWriteLock.ReadLock(this);
             writeLock = new DistributedReadWriteLock.WriteLock(this);
+
+            readWaitTime = Metrics.histogram("lock." + lockId + ".readWait");
+            writeWaitTime = Metrics.histogram("lock." + lockId + ".writeWait");
         }
 
         @Override
@@ -342,13 +603,58 @@ public class DistributedLockManager implements LockManager {
 
             @Override
             public void lock() {
-                DistributedLockManager.this.lock(lockId, DistributedLockServer.LOCK_TYPE_READ);
+                final long start = Metrics.startTime();
+
+                final Deque<Boolean> holds = leaseHolds.get();
+                final boolean leased;
+
+                if (!holds.isEmpty()) {   // nested read locks reuse the existing mode
+                    leased = holds.peek() && leaseMap.get(lockId).hold(true);
+                } else {
+                    // a thread holding the write lock must downgrade with the server directly
+                    leased = !isWriteLockedByCurrentThread() && leaseMap.computeIfAbsent(lockId, Lease::new)
+                            .hold(false);
+                }
+
+                if (!leased) {
+                    DistributedLockManager.this.lock(lockId, DistributedLockServer.LOCK_TYPE_READ);
+                }
+
+                holds.push(leased);
                 super.lock();
+
+                readWaitTime.recordSince(start);
             }
 
             @Override
             public void unlock() {
-                DistributedLockManager.this.unlock(lockId, DistributedLockServer.LOCK_TYPE_READ);
+                final Boolean leased = leaseHolds.get().poll();
+
+                if (leased == null) {
+                    throw new IllegalMonitorStateException("Thread does not hold a read lock for: " + lockId);
+                }
+
+                super.unlock();
+
+                if (leased) {
+                    leaseMap.get(lockId).unhold();
+                } else {
+                    DistributedLockManager.this.unlock(lockId, DistributedLockServer.LOCK_TYPE_READ);
+                }
+            }
+
+            /**
+             * Acquires the local read lock for a lock group.  The group already holds the read lock on the server, so
+             * a non-leased hold is recorded to send nested read locks to the server as reentrant requests instead of
+             * requesting a lease that could queue behind a waiting writer.
+             */
+            void lockLocally() {
+                leaseHolds.get().push(Boolean.FALSE);
+                super.lock();
+            }
+
+            void unlockLocally() {
+                leaseHolds.get().poll();
                 super.unlock();
             }
         }
@@ -361,8 +667,12 @@ public class DistributedLockManager implements LockManager {
 
             @Override
             public void lock() {
+                final long start = Metrics.startTime();
+
                 DistributedLockManager.this.lock(lockId, DistributedLockServer.LOCK_TYPE_WRITE);
                 super.lock();
+
+                writeWaitTime.recordSince(start);
             }
 
             @Override
@@ -370,6 +680,14 @@ public class DistributedLockManager implements LockManager {
                 DistributedLockManager.this.unlock(lockId, DistributedLockServer.LOCK_TYPE_WRITE);
                 super.unlock();
             }
+
+            void lockLocally() {
+                super.lock();
+            }
+
+            void unlockLocally() {
+                super.unlock();
+            }
         }
     }
 }
@@ -19,6 +19,7 @@ package jgnash.engine.concurrent;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -38,11 +39,18 @@ import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.GlobalEventExecutor;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,6 +59,18 @@ import jgnash.util.EncryptionManager;
 
 /**
  * Distributed Lock Server.
+ * <p>
+ * Lock requests never block.  Each lock is a small state machine holding the current owners and a FIFO queue of
+ * waiting requests.  A request that can not be granted immediately is queued and acknowledged later when a release
+ * allows it to be granted.  Acknowledgments are written asynchronously.
+ * <p>
+ * A lock manager may hold a read lease on behalf of all of its local threads.  A lease is granted like a read lock,
+ * but when a writer is queued behind it the server sends a revoke message and the lock manager releases the lease as
+ * soon as its local readers are done.
+ * <p>
+ * A group of locks may be requested with a single message.  The server acquires the locks in lock id order on
+ * behalf of the client and acknowledges the request once all of them are held, so overlapping groups can not
+ * deadlock and the client only waits for a single response.  The group is released in bulk with a single message.
  *
  * @author Craig Cavanaugh
  */
@@ -58,17 +78,15 @@ public class DistributedLockServer {
 
     private static final Logger logger = Logger.getLogger(DistributedLockServer.class.getName());
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
-
     private final ChannelGroup channelGroup = new DefaultChannelGroup("lock-server", GlobalEventExecutor.INSTANCE);
 
     private NioEventLoopGroup eventLoopGroup;
 
     private final int port;
 
-    private final Map<String, ReadWriteLock> lockMap = new HashMap<>();
+    private final Map<String, LockState> lockMap = new ConcurrentHashMap<>();
 
-    private final Map<ChannelHandlerContext, String> handlerContextMap = new HashMap<>();
+    private final Map<ChannelHandlerContext, String> handlerContextMap = new ConcurrentHashMap<>();
 
     static final String LOCK = "lock";
 
@@ -78,6 +96,19 @@ public class DistributedLockServer {
 
     static final String LOCK_TYPE_WRITE = "WRITE";
 
+    static final String LOCK_TYPE_LEASE = "LEASE";
+
+    static final String REVOKE = "revoke";
+
+    static final String LOCK_ALL = "lockall";
+
+    static final String UNLOCK_ALL = "unlockall";
+
+    /**
+     * Delimiter for the lock ids and lock types of a group request.
+     */
+    static final char GROUP_DELIMITER = ';';
+
     private static final String EOL_DELIMITER = "\r\n";
 
     private EncryptionManager encryptionManager = null;
@@ -121,49 +152,112 @@ public class DistributedLockServer {
         final String remoteThread = strings[2];
         final String lockType = strings[3];
 
-        final ReadWriteLock lock = getLock(lockId);
+        if (LOCK_ALL.equals(action) || UNLOCK_ALL.equals(action)) {
+            processGroup(ctx, message, action, lockId, remoteThread, lockType);
+            return;
+        }
+
+        final LockState lock = getLock(lockId);
+        final Request request = new Request(ctx, message, lockId, remoteThread, LOCK_TYPE_WRITE.equals(lockType),
+                LOCK_TYPE_LEASE.equals(lockType), null);
+
+        switch (action) {
+            case LOCK:
+                // granted requests are acknowledged, otherwise acknowledgement is deferred until granted
+                acknowledge(lock.request(request));
+                break;
+            case UNLOCK:
+                try {
+                    final List<Request> granted = lock.release(request);
+
+                    acknowledge(Collections.singletonList(request));
+                    acknowledge(granted);
+                } catch (final IllegalMonitorStateException e) {
+                    logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                    acknowledge(Collections.singletonList(request));    // do not leave the client waiting
+                }
+                break;
+            default:
+                logger.log(Level.SEVERE, "Unknown lock action: {0}", action);
+        }
+    }
 
-        try {
+    private void processGroup(final ChannelHandlerContext ctx, final String message, final String action,
+                              final String lockIds, final String remoteThread, final String lockTypes) {
+
+        final List<String> ids = new ArrayList<>(EncodeDecode.decodeStringCollection(lockIds, GROUP_DELIMITER));
+        final List<String> types = new ArrayList<>(EncodeDecode.decodeStringCollection(lockTypes, GROUP_DELIMITER));
 
-            // request a lock or unlock.  This may block
-            switch (action) {
-                case LOCK:
-                    switch (lockType) {
-                        case LOCK_TYPE_READ:
-                            lock.lockForRead(remoteThread);
-                            break;
-                        case LOCK_TYPE_WRITE:
-                            lock.lockForWrite(remoteThread);
-                            break;
-                        default:
-                            break;
-                    }
-                    break;
-                case UNLOCK:
-                    switch (lockType) {
-                        case LOCK_TYPE_READ:
-                            lock.unlockRead(remoteThread);
-                            break;
-                        case LOCK_TYPE_WRITE:
-                            lock.unlockWrite(remoteThread);
-                            break;
-                        default:
-                            break;
-                    }
-                    break;
+        final GroupRequest group = new GroupRequest(ctx, message, remoteThread, ids, types);
+
+        if (LOCK_ALL.equals(action)) {
+            continueGroup(group);
+        } else {
+            // release in reverse order
+            for (int i = ids.size() - 1; i >= 0; i--) {
+                try {
+                    acknowledge(getLock(ids.get(i)).release(group.createRequest(i)));
+                } catch (final IllegalMonitorStateException e) {
+                    logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                }
             }
 
-            // return the message as an acknowledgment lock state has changed
-            if (ctx.channel().isOpen()) {
-                ctx.writeAndFlush(encrypt(message) + EOL_DELIMITER).sync();
+            acknowledge(Collections.singletonList(group.toRequest()));
+        }
+    }
+
+    /**
+     * Requests the remaining locks of a group in order.  Processing stops at the first lock that can not be granted
+     * and resumes when that lock is granted.
+     *
+     * @param group lock group
+     */
+    private void continueGroup(final GroupRequest group) {
+        while (group.index < group.lockIds.size()) {
+            final Request request = group.createRequest(group.index++);
+            final List<Request> messages = new ArrayList<>(getLock(request.lockId).request(request));
+
+            final boolean granted = messages.remove(request);
+
+            acknowledge(messages);  // lease revocations
+
+            if (!granted) {
+                return;
+            }
+        }
+
+        acknowledge(Collections.singletonList(group.toRequest()));
+    }
+
+    /**
+     * Returns each message as an acknowledgment the lock state has changed.  The write is not waited on.
+     * <p>
+     * A granted request that belongs to a lock group continues the group instead.
+     *
+     * @param requests requests to acknowledge or lease revocations to send
+     */
+    private void acknowledge(final List<Request> requests) {
+        for (final Request request : requests) {
+            if (request.group != null) {
+                continueGroup(request.group);
+            } else if (request.ctx.channel().isOpen()) {
+                request.ctx.writeAndFlush(encrypt(request.message) + EOL_DELIMITER)
+                        .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
             }
-        } catch (final Exception e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
     }
 
-    private ReadWriteLock getLock(final String lockId) {
-        return lockMap.computeIfAbsent(lockId, k -> new ReadWriteLock(lockId));
+    private LockState getLock(final String lockId) {
+        return lockMap.computeIfAbsent(lockId, LockState::new);
+    }
+
+    /**
+     * Returns the number of requests waiting to be granted across all locks.
+     *
+     * @return number of waiting requests
+     */
+    public int getWaitingCount() {
+        return lockMap.values().stream().mapToInt(LockState::getWaitingCount).sum();
     }
 
     public boolean startServer(final char[] password) {
@@ -182,7 +276,8 @@ public class DistributedLockServer {
             bootstrap.group(eventLoopGroup)
                     .channel(NioServerSocketChannel.class)
                     .childHandler(new Initializer())
-                    .childOption(ChannelOption.SO_KEEPALIVE, true);
+                    .childOption(ChannelOption.SO_KEEPALIVE, true)
+                    .childOption(ChannelOption.TCP_NODELAY, true);
 
             final ChannelFuture future = bootstrap.bind(port);
             future.sync();
@@ -204,7 +299,6 @@ public class DistributedLockServer {
     public void stopServer() {
         try {
             channelGroup.close().sync();
-            executorService.shutdown();
             eventLoopGroup.shutdownGracefully();
 
             eventLoopGroup = null;
@@ -215,7 +309,6 @@ public class DistributedLockServer {
         }
     }
 
-
     @ChannelHandler.Sharable
     private class ServerHandler extends ChannelInboundHandlerAdapter {
 
@@ -230,34 +323,27 @@ public class DistributedLockServer {
         public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
             logger.log(Level.INFO, "Remote connection {0} closed", ctx.channel().remoteAddress().toString());
 
-            final String uuid = handlerContextMap.get(ctx);
+            final String uuid = handlerContextMap.remove(ctx);
 
-            // Search through the lock map and remove any stale locks
+            // Search through the lock map and remove any stale locks and waiting requests
             if (uuid != null) {
-                for (ReadWriteLock readWriteLock : lockMap.values()) {  // look at every lock
-
-                    // if the remoteThread starts with the uuid, request a cleanup
-                    // cleanup a stale lock
-                    readWriteLock.readingThreads.keySet().stream().filter(remoteThread ->
-                            remoteThread.startsWith(uuid)).forEach(readWriteLock::cleanupStaleThread);
-
-                    if (readWriteLock.hasWriteThread(uuid)) {
-                        readWriteLock.cleanupStaleWriteThread();
-                    }
+                for (final LockState lockState : lockMap.values()) {
+                    acknowledge(lockState.cleanupStaleThreads(uuid, ctx));
                 }
             }
 
-            handlerContextMap.remove(ctx);
             channelGroup.remove(ctx.channel());
             super.channelInactive(ctx);
         }
 
         @Override
         public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
-            executorService.submit(() -> {
+            try {
+                // processing does not block, so it is safe to handle within the event loop
                 processMessage(ctx, msg.toString());
+            } finally {
                 ReferenceCountUtil.release(msg);
-            });
+            }
         }
 
         @Override
@@ -286,11 +372,92 @@ public class DistributedLockServer {
     }
 
     /**
-     * Reentrant Read Write lock.
+     * A lock request from a remote thread.
+     */
+    private static class Request {
+        final ChannelHandlerContext ctx;
+
+        /**
+         * Original message, returned as the acknowledgement.
+         */
+        final String message;
+
+        final String lockId;
+
+        final String remoteThread;
+
+        final boolean write;
+
+        final boolean lease;
+
+        /**
+         * Lock group the request is part of, may be {@code null}.
+         */
+        final GroupRequest group;
+
+        Request(final ChannelHandlerContext ctx, final String message, final String lockId, final String remoteThread,
+                final boolean write, final boolean lease, final GroupRequest group) {
+            this.ctx = ctx;
+            this.message = message;
+            this.lockId = lockId;
+            this.remoteThread = remoteThread;
+            this.write = write;
+            this.lease = lease;
+            this.group = group;
+        }
+    }
+
+    /**
+     * A request for a group of locks.  Lock ids are sorted by the client.
+     */
+    private static class GroupRequest {
+        final ChannelHandlerContext ctx;
+
+        final String message;
+
+        final String remoteThread;
+
+        final List<String> lockIds;
+
+        final List<String> lockTypes;
+
+        /**
+         * Index of the next lock to request.
+         */
+        int index;
+
+        GroupRequest(final ChannelHandlerContext ctx, final String message, final String remoteThread,
+                     final List<String> lockIds, final List<String> lockTypes) {
+            this.ctx = ctx;
+            this.message = message;
+            this.remoteThread = remoteThread;
+            this.lockIds = lockIds;
+            this.lockTypes = lockTypes;
+        }
+
+        Request createRequest(final int i) {
+            return new Request(ctx, message, lockIds.get(i), remoteThread, LOCK_TYPE_WRITE.equals(lockTypes.get(i)),
+                    false, this);
+        }
+
+        /**
+         * Returns a request used to acknowledge the whole group.
+         *
+         * @return acknowledgement request
+         */
+        Request toRequest() {
+            return new Request(ctx, message, null, remoteThread, false, false, null);
+        }
+    }
+
+    /**
+     * Reentrant read write lock state machine.
      * <p>
-     * A unique integer must be supplied to identify the thread instead of the current thread.
+     * A unique string must be supplied to identify the thread instead of the current thread.  Methods never wait,
+     * instead they return the requests that have been granted as a result of the state change.  Waiting requests
+     * are granted in FIFO order, a queued writer blocks readers that arrive after it.
      */
-    private static class ReadWriteLock {
+    private static class LockState {
 
         private final String id;
 
@@ -299,149 +466,201 @@ public class DistributedLockServer {
          * <p>
          * uuid-integer
          */
-        private final Map<String, Integer> readingThreads = new ConcurrentHashMap<>();
+        private final Map<String, Integer> readingThreads = new HashMap<>();
+
+        private final Deque<Request> waiting = new ArrayDeque<>();
+
+        /**
+         * Read leases that have been granted, the value is the grant request.
+         */
+        private final Map<String, Request> leases = new HashMap<>();
+
+        /**
+         * Leases a revoke message has already been sent for.
+         */
+        private final Set<String> revokedLeases = new HashSet<>();
 
         private int writeAccesses = 0;
-        private int writeRequests = 0;
+
         private String writingThread = null;
 
-        private ReadWriteLock(final String id) {
+        private LockState(final String id) {
             this.id = id;
         }
 
-        synchronized boolean hasWriteThread(final String id) {
-            boolean result = false;
+        synchronized int getWaitingCount() {
+            return waiting.size();
+        }
 
-            if (writingThread != null) {
-                result = writingThread.startsWith(id);
+        /**
+         * Requests a lock.
+         *
+         * @param request lock request
+         * @return list containing the request if granted immediately, otherwise any lease revocations
+         */
+        synchronized List<Request> request(final Request request) {
+            final boolean reentrant = request.remoteThread.equals(writingThread)
+                    || (!request.write && readingThreads.containsKey(request.remoteThread));
+
+            // reentrant requests jump the queue to prevent a self deadlock
+            if ((reentrant || waiting.isEmpty()) && canGrant(request)) {
+                grant(request);
+                return Collections.singletonList(request);
             }
 
-            return result;
+            waiting.addLast(request);
+
+            return revokeLeases();
         }
 
-        synchronized void cleanupStaleThread(final String remoteThread) {
-            if (readingThreads.containsKey(remoteThread)) {
-                unlockRead(remoteThread);
-                logger.log(Level.WARNING, "Removed a stale read lock for: {0}", id);
+        /**
+         * Releases a lock.
+         *
+         * @param request unlock request
+         * @return waiting requests that have been granted and any lease revocations
+         */
+        synchronized List<Request> release(final Request request) {
+            if (request.write) {
+                unlockWrite(request.remoteThread);
+            } else {
+                unlockRead(request.remoteThread);
             }
 
-            if (writingThread != null && writingThread.equals(remoteThread)) {
-                unlockWrite(remoteThread);
-                logger.log(Level.WARNING, "Removed a stale write lock for: {0}", id);
+            if (request.lease && !readingThreads.containsKey(request.remoteThread)) {
+                leases.remove(request.remoteThread);
+                revokedLeases.remove(request.remoteThread);
             }
+
+            final List<Request> messages = grantWaiting();
+            messages.addAll(revokeLeases());
+
+            return messages;
         }
 
-        synchronized void cleanupStaleWriteThread() {
-            if (readingThreads.containsKey(writingThread)) {
-                unlockRead( writingThread);
+        /**
+         * Removes locks held and requests queued by a disconnected lock manager.
+         *
+         * @param uuid lock manager uuid
+         * @param ctx  context of the closed channel
+         * @return waiting requests that have been granted
+         */
+        synchronized List<Request> cleanupStaleThreads(final String uuid, final ChannelHandlerContext ctx) {
+            if (readingThreads.keySet().removeIf(remoteThread -> remoteThread.startsWith(uuid))) {
                 logger.log(Level.WARNING, "Removed a stale read lock for: {0}", id);
             }
 
-            if (writingThread != null) {
-                unlockWrite( writingThread);
+            if (writingThread != null && writingThread.startsWith(uuid)) {
+                writingThread = null;
+                writeAccesses = 0;
                 logger.log(Level.WARNING, "Removed a stale write lock for: {0}", id);
             }
-        }
-
-        synchronized void lockForRead(final String remoteThread) throws InterruptedException {
 
-            while (!canGrantReadAccess(remoteThread)) {
-                wait();
-            }
+            leases.keySet().removeIf(remoteThread -> !readingThreads.containsKey(remoteThread));
+            revokedLeases.retainAll(leases.keySet());
 
-            readingThreads.put(remoteThread, (getReadHoldCount(remoteThread) + 1));
-        }
+            waiting.removeIf(request -> request.ctx == ctx);
 
-        synchronized void lockForWrite(final String remoteThread) throws InterruptedException {
-            writeRequests++;
+            final List<Request> messages = grantWaiting();
+            messages.addAll(revokeLeases());
 
-            while (!canGrantWriteAccess(remoteThread)) {
-                wait();
-            }
-
-            writeRequests--;
-            writeAccesses++;   // bump, if greater than 1, then the lock is reentrant
-            writingThread = remoteThread;
+            return messages;
         }
 
-        synchronized void unlockRead(final String remoteThread) {
-
-            if (!isReadLockedByCurrentThread(remoteThread)) {
-                throw new IllegalMonitorStateException("Remote Thread: " + remoteThread + " does not hold a read lock for: " + id);
+        /**
+         * Creates revoke messages for granted leases if a writer is waiting.  A lease is only revoked once.
+         *
+         * @return revoke messages to send
+         */
+        private List<Request> revokeLeases() {
+            if (leases.isEmpty() || waiting.stream().noneMatch(request -> request.write)) {
+                return new ArrayList<>();
             }
 
-            int holdCount = getReadHoldCount(remoteThread);
+            final List<Request> revocations = new ArrayList<>();
 
-            if (holdCount == 1) {
-                readingThreads.remove(remoteThread);
-            } else {
-                readingThreads.put(remoteThread, (holdCount - 1));
+            for (final Request lease : leases.values()) {
+                if (revokedLeases.add(lease.remoteThread)) {
+                    final String message = EncodeDecode.encodeStringCollection(Arrays.asList(REVOKE, id,
+                            lease.remoteThread, LOCK_TYPE_LEASE));
+
+                    revocations.add(new Request(lease.ctx, message, id, lease.remoteThread, false, true, null));
+                }
             }
 
-            notifyAll();
+            return revocations;
         }
 
-        synchronized void unlockWrite(final String remoteThread) {
+        private List<Request> grantWaiting() {
+            final List<Request> granted = new ArrayList<>();
 
-            if (!isWriteLockedByCurrentThread(remoteThread)) {
-                throw new IllegalMonitorStateException("Remote Thread: " + remoteThread + " does not hold the write lock for: " + id);
-            }
+            final Iterator<Request> iterator = waiting.iterator();
 
-            writeAccesses--;
+            while (iterator.hasNext()) {
+                final Request request = iterator.next();
 
-            if (writeAccesses == 0) {
-                writingThread = null;
+                if (!canGrant(request)) {
+                    break;  // preserve FIFO order
+                }
+
+                iterator.remove();
+                grant(request);
+                granted.add(request);
             }
 
-            notifyAll();
+            return granted;
         }
 
-        private synchronized boolean canGrantReadAccess(final String remoteThread) {
-
-            if (isWriteLockedByCurrentThread(remoteThread)) { // lock down grade is allowed
-                return true;
-            }
-
-            if (writingThread != null) {
-                return false;
-            }
-            if (isReadLockedByCurrentThread(remoteThread)) {
-                return true;
+        private boolean canGrant(final Request request) {
+            if (request.write) {
+                if (!readingThreads.isEmpty()) {
+                    return false;
+                }
+                return writingThread == null || writingThread.equals(request.remoteThread); // reentrant write
             }
 
-            return writeRequests <= 0;
+            // lock down grade is allowed
+            return writingThread == null || writingThread.equals(request.remoteThread);
         }
 
-        private synchronized boolean canGrantWriteAccess(final String remoteThread) {
+        private void grant(final Request request) {
+            if (request.write) {
+                writeAccesses++;   // bump, if greater than 1, then the lock is reentrant
+                writingThread = request.remoteThread;
+            } else {
+                readingThreads.merge(request.remoteThread, 1, Integer::sum);
 
-            if (!readingThreads.isEmpty()) {
-                return false;
-            }
-            if (writingThread == null) {
-                return true;
+                if (request.lease) {
+                    leases.putIfAbsent(request.remoteThread, request);
+                }
             }
-            return isWriteLockedByCurrentThread(remoteThread); // reentrant write
         }
 
-        private synchronized int getReadHoldCount(final String remoteThread) {
-            final Integer accessCount = readingThreads.get(remoteThread);
+        private void unlockRead(final String remoteThread) {
+            final Integer holdCount = readingThreads.get(remoteThread);
 
-            if (accessCount == null) {
-                return 0;
+            if (holdCount == null) {
+                throw new IllegalMonitorStateException("Remote Thread: " + remoteThread
+                        + " does not hold a read lock for: " + id);
             }
 
-            return accessCount;
+            if (holdCount == 1) {
+                readingThreads.remove(remoteThread);
+            } else {
+                readingThreads.put(remoteThread, holdCount - 1);
+            }
         }
 
-        private synchronized boolean isReadLockedByCurrentThread(final String remoteThread) {
-            return readingThreads.get(remoteThread) != null;
-        }
+        private void unlockWrite(final String remoteThread) {
+            if (writingThread == null || !writingThread.equals(remoteThread)) {
+                throw new IllegalMonitorStateException("Remote Thread: " + remoteThread
+                        + " does not hold the write lock for: " + id);
+            }
 
-        private synchronized boolean isWriteLockedByCurrentThread(final String remoteThread) {
-            if (writingThread != null) {
-                return writingThread.equals(remoteThread);
+            writeAccesses--;
+
+            if (writeAccesses == 0) {
+                writingThread = null;
             }
-            return false;
         }
     }
 }
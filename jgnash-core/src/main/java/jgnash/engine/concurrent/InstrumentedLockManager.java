@@ -0,0 +1,44 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock manager for local engine instances that hands out instrumented locks.
+ *
+ * @author Craig Cavanaugh
+ * @see LockDiagnostics
+ */
+public class InstrumentedLockManager extends LocalLockManager {
+
+    /**
+     * Wait times of these locks are reported by {@link LockDiagnostics} instead of the engine metrics.
+     *
+     * @param lockId id of the lock
+     * @return a new instrumented lock
+     */
+    @Override
+    ReentrantReadWriteLock createLock(final String lockId) {
+        final InstrumentedReadWriteLock lock = new InstrumentedReadWriteLock(() -> "Engine " + lockId, false);
+
+        LockDiagnostics.register(lock);
+
+        return lock;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import jgnash.util.NotNull;
+
+/**
+ * A {@code ReentrantReadWriteLock} that records how long threads wait for it and how long they hold it.
+ * <p>
+ * An acquisition is contended if the lock could not be granted immediately.  The fast path honors the fairness
+ * setting of the lock.  Holds that exceed {@link LockDiagnostics#LONG_HOLD_THRESHOLD} are reported to
+ * {@link LockDiagnostics} with the stack of the holding thread.  Only {@code lock()} and {@code unlock()} are
+ * instrumented, which is all the engine uses.
+ *
+ * @author Craig Cavanaugh
+ */
+final class InstrumentedReadWriteLock extends ReentrantReadWriteLock {
+
+    private final Supplier<String> name;
+
+    private final InstrumentedReadWriteLock.ReadLock readLock;
+
+    private final InstrumentedReadWriteLock.WriteLock writeLock;
+
+    private final LongAdder acquisitions = new LongAdder();
+
+    private final LongAdder contendedAcquisitions = new LongAdder();
+
+    private final LongAdder totalWait = new LongAdder();
+
+    private final AtomicLong maxWait = new AtomicLong();
+
+    private final LongAdder totalHold = new LongAdder();
+
+    private final AtomicLong maxHold = new AtomicLong();
+
+    /**
+     * Acquisition time of each thread holding the read lock.
+     */
+    private final Map<Thread, Long> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Acquisition time of the write lock, only accessed by the owner.
+     */
+    private long writeStart;
+
+    InstrumentedReadWriteLock(final Supplier<String> name, final boolean fair) {
+        super(fair);
+
+        this.name = name;
+
+        readLock = new InstrumentedReadWriteLock.ReadLock(this);
+        writeLock = new InstrumentedReadWriteLock.WriteLock(this);
+    }
+
+    @Override
+    @NotNull
+    public ReentrantReadWriteLock.ReadLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    @NotNull
+    public ReentrantReadWriteLock.WriteLock writeLock() {
+        return writeLock;
+    }
+
+    String getName() {
+        return name.get();
+    }
+
+    /**
+     * Returns the thread that holds the write lock.
+     *
+     * @return the owning thread, {@code null} if the write lock is not held
+     */
+    Thread getWriter() {
+        return getOwner();
+    }
+
+    /**
+     * Returns the time the write lock has been held.
+     *
+     * @return time in nanoseconds, 0 if not held
+     */
+    long getWriteHoldTime() {
+        return isWriteLocked() ? System.nanoTime() - writeStart : 0;
+    }
+
+    /**
+     * Returns the threads holding the read lock and the time they acquired it.
+     *
+     * @return map of threads and acquisition times
+     */
+    Map<Thread, Long> getReaders() {
+        return new HashMap<>(readers);
+    }
+
+    LockStatistics getStatistics() {
+        return new LockStatistics(getName(), acquisitions.sum(), contendedAcquisitions.sum(), totalWait.sum(),
+                maxWait.get(), totalHold.sum(), maxHold.get(), getQueueLength());
+    }
+
+    void reset() {
+        acquisitions.reset();
+        contendedAcquisitions.reset();
+        totalWait.reset();
+        maxWait.set(0);
+        totalHold.reset();
+        maxHold.set(0);
+    }
+
+    /**
+     * Acquires a lock, recording whether the caller had to wait.
+     *
+     * @param lock the read or write lock
+     */
+    private void acquire(final InstrumentedLock lock) {
+        acquisitions.increment();
+
+        boolean acquired;
+
+        try {
+            acquired = lock.tryLockNow();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            final long start = System.nanoTime();
+
+            lock.lockUninstrumented();
+
+            final long wait = System.nanoTime() - start;
+
+            contendedAcquisitions.increment();
+            totalWait.add(wait);
+            maxWait.accumulateAndGet(wait, Math::max);
+        }
+    }
+
+    private void recordHold(final String mode, final long start) {
+        final long hold = System.nanoTime() - start;
+
+        totalHold.add(hold);
+        maxHold.accumulateAndGet(hold, Math::max);
+
+        if (hold > LockDiagnostics.LONG_HOLD_THRESHOLD) {
+            LockDiagnostics.recordLongHold(new LongHold(getName(), mode, Thread.currentThread().getName(), hold,
+                    Thread.currentThread().getStackTrace()));
+        }
+    }
+
+    /**
+     * Common operations of the instrumented read and write locks.
+     */
+    private interface InstrumentedLock {
+
+        boolean tryLockNow() throws InterruptedException;
+
+        void lockUninstrumented();
+    }
+
+    class ReadLock extends ReentrantReadWriteLock.ReadLock implements InstrumentedLock {
+
+        ReadLock(final ReentrantReadWriteLock lock) {
+            super(lock);
+        }
+
+        @Override
+        public void lock() {
+            acquire(this);
+
+            if (getReadHoldCount() == 1) {
+                readers.put(Thread.currentThread(), System.nanoTime());
+            }
+        }
+
+        @Override
+        public void unlock() {
+            final Long start = getReadHoldCount() == 1 ? readers.remove(Thread.currentThread()) : null;
+
+            super.unlock();
+
+            if (start != null) {
+                recordHold("read", start);
+            }
+        }
+
+        @Override
+        public boolean tryLockNow() throws InterruptedException {
+            return super.tryLock(0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void lockUninstrumented() {
+            super.lock();
+        }
+    }
+
+    class WriteLock extends ReentrantReadWriteLock.WriteLock implements InstrumentedLock {
+
+        WriteLock(final ReentrantReadWriteLock lock) {
+            super(lock);
+        }
+
+        @Override
+        public void lock() {
+            acquire(this);
+
+            if (getWriteHoldCount() == 1) {
+                writeStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void unlock() {
+            final boolean last = getWriteHoldCount() == 1;
+            final long start = writeStart;
+
+            super.unlock();
+
+            if (last) {
+                recordHold("write", start);
+            }
+        }
+
+        @Override
+        public boolean tryLockNow() throws InterruptedException {
+            return super.tryLock(0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void lockUninstrumented() {
+            super.lock();
+        }
+    }
+}
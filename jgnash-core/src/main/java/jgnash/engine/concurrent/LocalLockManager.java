@@ -21,8 +21,14 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
+import jgnash.util.NotNull;
+
 /**
  * Lock manager for local engine instances.
+ * <p>
+ * The time spent waiting to acquire each lock is recorded in the engine {@link Metrics}.
  *
  * @author Craig Cavanaugh
  */
@@ -31,6 +37,72 @@ public class LocalLockManager implements LockManager {
 
     @Override
     public ReentrantReadWriteLock getLock(final String lockId) {
-        return lockMap.computeIfAbsent(lockId, k -> new ReentrantReadWriteLock());
+        return lockMap.computeIfAbsent(lockId, this::createLock);
+    }
+
+    ReentrantReadWriteLock createLock(final String lockId) {
+        return new MeteredReadWriteLock(lockId);
+    }
+
+    private static class MeteredReadWriteLock extends ReentrantReadWriteLock {
+
+        private final MeteredReadWriteLock.ReadLock readLock;
+
+        private final MeteredReadWriteLock.WriteLock writeLock;
+
+        MeteredReadWriteLock(final String lockId) {
+            super();
+
+            readLock = new MeteredReadWriteLock.ReadLock(this, Metrics.histogram("lock." + lockId + ".readWait"));
+            writeLock = new MeteredReadWriteLock.WriteLock(this, Metrics.histogram("lock." + lockId + ".writeWait"));
+        }
+
+        @Override
+        @NotNull
+        public ReentrantReadWriteLock.ReadLock readLock() {
+            return readLock;
+        }
+
+        @Override
+        @NotNull
+        public ReentrantReadWriteLock.WriteLock writeLock() {
+            return writeLock;
+        }
+
+        static class ReadLock extends ReentrantReadWriteLock.ReadLock {
+
+            private final LatencyHistogram waitTime;
+
+            ReadLock(final ReentrantReadWriteLock lock, final LatencyHistogram waitTime) {
+                super(lock);
+                this.waitTime = waitTime;
+            }
+
+            @Override
+            public void lock() {
+                final long start = Metrics.startTime();
+
+                super.lock();
+                waitTime.recordSince(start);
+            }
+        }
+
+        static class WriteLock extends ReentrantReadWriteLock.WriteLock {
+
+            private final LatencyHistogram waitTime;
+
+            WriteLock(final ReentrantReadWriteLock lock, final LatencyHistogram waitTime) {
+                super(lock);
+                this.waitTime = waitTime;
+            }
+
+            @Override
+            public void lock() {
+                final long start = Metrics.startTime();
+
+                super.lock();
+                waitTime.recordSince(start);
+            }
+        }
     }
 }
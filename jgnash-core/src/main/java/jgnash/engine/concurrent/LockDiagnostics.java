@@ -0,0 +1,249 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lock contention diagnostics.
+ * <p>
+ * When enabled, the engine lock and the account locks are created as instrumented locks that record acquisition
+ * wait times, hold times and the threads currently holding them.  Locks held for longer than
+ * {@link #LONG_HOLD_THRESHOLD} are logged and retained with the stack of the call site.  Diagnostics are disabled by
+ * default and must be enabled before a file is opened, either with the {@value #ENABLED_PROPERTY} system property
+ * or {@link #setEnabled(boolean)}.  Locks created while disabled are plain locks with no overhead.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class LockDiagnostics {
+
+    private static final Logger logger = Logger.getLogger(LockDiagnostics.class.getName());
+
+    public static final String ENABLED_PROPERTY = "jgnash.lockDiagnostics";
+
+    /**
+     * Hold time in nanoseconds after which a hold is reported.
+     */
+    public static final long LONG_HOLD_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * Number of long holds retained.
+     */
+    private static final int MAX_LONG_HOLDS = 50;
+
+    /**
+     * Default number of locks included in a report.
+     */
+    private static final int REPORT_LOCK_COUNT = 10;
+
+    /**
+     * Instrumented locks are weakly held so the locks of discarded accounts may be collected.
+     */
+    private static final Map<InstrumentedReadWriteLock, Boolean> locks
+            = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Most recent long holds, guarded by itself.
+     */
+    private static final Deque<LongHold> longHolds = new ArrayDeque<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private LockDiagnostics() {
+        // utility class
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables diagnostics.  Only locks created afterwards are affected.
+     *
+     * @param enable {@code true} to instrument new locks
+     */
+    public static void setEnabled(final boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * Creates a read write lock, instrumented if diagnostics are enabled.
+     *
+     * @param name supplies the name used in reports, evaluated only when a report is created
+     * @param fair {@code true} for a fair ordering policy
+     * @return a new lock
+     */
+    public static ReentrantReadWriteLock createLock(final Supplier<String> name, final boolean fair) {
+        if (!enabled) {
+            return new ReentrantReadWriteLock(fair);
+        }
+
+        final InstrumentedReadWriteLock lock = new InstrumentedReadWriteLock(name, fair);
+        register(lock);
+
+        return lock;
+    }
+
+    static void register(final InstrumentedReadWriteLock lock) {
+        locks.put(lock, Boolean.TRUE);
+    }
+
+    /**
+     * Creates the lock manager for a local engine, instrumented if diagnostics are enabled.
+     *
+     * @return a new lock manager
+     */
+    public static LockManager createLocalLockManager() {
+        return enabled ? new InstrumentedLockManager() : new LocalLockManager();
+    }
+
+    static void recordLongHold(final LongHold hold) {
+        logger.log(Level.WARNING, hold.toString());
+
+        synchronized (longHolds) {
+            if (longHolds.size() == MAX_LONG_HOLDS) {
+                longHolds.removeLast();
+            }
+
+            longHolds.addFirst(hold);
+        }
+    }
+
+    private static List<InstrumentedReadWriteLock> getLocks() {
+        synchronized (locks) {
+            return new ArrayList<>(locks.keySet());
+        }
+    }
+
+    /**
+     * Returns the locks with the longest total wait time.
+     *
+     * @param limit maximum number of locks to return
+     * @return statistics of the most contended locks, most contended first
+     */
+    public static List<LockStatistics> getTopContendedLocks(final int limit) {
+        final List<LockStatistics> statistics = new ArrayList<>();
+
+        for (final InstrumentedReadWriteLock lock : getLocks()) {
+            final LockStatistics lockStatistics = lock.getStatistics();
+
+            if (lockStatistics.getContendedAcquisitions() > 0) {
+                statistics.add(lockStatistics);
+            }
+        }
+
+        statistics.sort(Comparator.comparingLong((LockStatistics s) -> s.getTotalWait(TimeUnit.NANOSECONDS))
+                .reversed());
+
+        return statistics.subList(0, Math.min(limit, statistics.size()));
+    }
+
+    /**
+     * Returns the most recent long holds.
+     *
+     * @return long holds, most recent first
+     */
+    public static List<LongHold> getLongHolds() {
+        synchronized (longHolds) {
+            return new ArrayList<>(longHolds);
+        }
+    }
+
+    /**
+     * Describes the locks that are currently held and the threads holding them.
+     *
+     * @return one line per held lock, empty if no instrumented lock is held
+     */
+    public static List<String> getHeldLocks() {
+        final List<String> held = new ArrayList<>();
+        final long now = System.nanoTime();
+
+        for (final InstrumentedReadWriteLock lock : getLocks()) {
+            final Thread writer = lock.getWriter();
+
+            if (writer != null) {
+                held.add(String.format(Locale.ROOT, "%s write lock held by %s for %d ms, %d waiting",
+                        lock.getName(), writer.getName(), TimeUnit.NANOSECONDS.toMillis(lock.getWriteHoldTime()),
+                        lock.getQueueLength()));
+            }
+
+            lock.getReaders().forEach((thread, start) -> held.add(String.format(Locale.ROOT,
+                    "%s read lock held by %s for %d ms, %d waiting", lock.getName(), thread.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(now - start), lock.getQueueLength())));
+        }
+
+        return held;
+    }
+
+    /**
+     * Returns a report of the held locks, the most contended locks and the recent long holds.
+     *
+     * @return the report
+     */
+    public static String getReport() {
+        final String lineSeparator = System.lineSeparator();
+
+        if (!enabled && getLocks().isEmpty()) {
+            return "Lock diagnostics are disabled, start with -D" + ENABLED_PROPERTY + "=true" + lineSeparator;
+        }
+
+        final StringBuilder builder = new StringBuilder("Held locks:").append(lineSeparator);
+
+        for (final String held : getHeldLocks()) {
+            builder.append("  ").append(held).append(lineSeparator);
+        }
+
+        builder.append("Most contended locks:").append(lineSeparator);
+
+        for (final LockStatistics statistics : getTopContendedLocks(REPORT_LOCK_COUNT)) {
+            builder.append("  ").append(statistics).append(lineSeparator);
+        }
+
+        builder.append("Recent long holds:").append(lineSeparator);
+
+        for (final LongHold hold : getLongHolds()) {
+            builder.append("  ").append(hold).append(lineSeparator);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Clears the statistics of all locks and the recorded long holds.
+     */
+    public static void reset() {
+        getLocks().forEach(InstrumentedReadWriteLock::reset);
+
+        synchronized (longHolds) {
+            longHolds.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+/**
+ * A group of locks acquired together by {@link LockManager#lockAll(java.util.Map)}.
+ * <p>
+ * Closing the group releases all of the locks.  Intended for use with try-with-resources.
+ *
+ * @author Craig Cavanaugh
+ */
+@FunctionalInterface
+public interface LockGroup extends AutoCloseable {
+
+    /**
+     * Releases all locks in the group.
+     */
+    @Override
+    void close();
+}
@@ -17,6 +17,12 @@
  */
 package jgnash.engine.concurrent;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -38,4 +44,43 @@ public interface LockManager {
      */
     ReentrantReadWriteLock getLock(final String lockId);
 
+    /**
+     * Acquires a group of locks.
+     * <p>
+     * Locks are always acquired in lock id order so concurrent callers requesting overlapping groups can not
+     * deadlock.  They are released in reverse order when the returned group is closed, closing the group again has
+     * no effect.
+     *
+     * @param locks map of lock ids and the mode each lock is required in
+     * @return the acquired group of locks
+     */
+    default LockGroup lockAll(final Map<String, LockMode> locks) {
+        final List<Lock> acquired = new ArrayList<>();
+
+        try {
+            for (final Map.Entry<String, LockMode> entry : new TreeMap<>(locks).entrySet()) {
+                final ReentrantReadWriteLock readWriteLock = getLock(entry.getKey());
+                final Lock lock = entry.getValue() == LockMode.WRITE ? readWriteLock.writeLock()
+                        : readWriteLock.readLock();
+
+                lock.lock();
+                acquired.add(lock);
+            }
+        } catch (final RuntimeException e) {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+            throw e;
+        }
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                for (int i = acquired.size() - 1; i >= 0; i--) {
+                    acquired.get(i).unlock();
+                }
+            }
+        };
+    }
 }
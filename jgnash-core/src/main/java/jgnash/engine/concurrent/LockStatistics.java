@@ -0,0 +1,123 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the statistics of an instrumented lock.
+ *
+ * @author Craig Cavanaugh
+ * @see LockDiagnostics
+ */
+public final class LockStatistics {
+
+    private static final double NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+
+    private final long acquisitions;
+
+    private final long contendedAcquisitions;
+
+    private final long totalWait;
+
+    private final long maxWait;
+
+    private final long totalHold;
+
+    private final long maxHold;
+
+    private final int queueLength;
+
+    LockStatistics(final String name, final long acquisitions, final long contendedAcquisitions,
+                   final long totalWait, final long maxWait, final long totalHold, final long maxHold,
+                   final int queueLength) {
+        this.name = name;
+        this.acquisitions = acquisitions;
+        this.contendedAcquisitions = contendedAcquisitions;
+        this.totalWait = totalWait;
+        this.maxWait = maxWait;
+        this.totalHold = totalHold;
+        this.maxHold = maxHold;
+        this.queueLength = queueLength;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /**
+     * Returns the number of acquisitions that had to wait for the lock.
+     *
+     * @return number of contended acquisitions
+     */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /**
+     * Returns the total time threads waited for the lock.
+     *
+     * @param unit time unit of the result
+     * @return total wait time
+     */
+    public long getTotalWait(final TimeUnit unit) {
+        return unit.convert(totalWait, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxWait(final TimeUnit unit) {
+        return unit.convert(maxWait, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the total time the lock was held.  Concurrent read holds are each counted.
+     *
+     * @param unit time unit of the result
+     * @return total hold time
+     */
+    public long getTotalHold(final TimeUnit unit) {
+        return unit.convert(totalHold, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxHold(final TimeUnit unit) {
+        return unit.convert(maxHold, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of threads that were waiting for the lock when the snapshot was taken.
+     *
+     * @return estimated number of waiting threads
+     */
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: %d acquisitions, %d contended, wait total %.1f ms max %.1f ms, "
+                        + "hold total %.1f ms max %.1f ms, %d waiting", name, acquisitions, contendedAcquisitions,
+                totalWait / NANOS_PER_MILLISECOND, maxWait / NANOS_PER_MILLISECOND,
+                totalHold / NANOS_PER_MILLISECOND, maxHold / NANOS_PER_MILLISECOND, queueLength);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lock that was held for longer than {@link LockDiagnostics#LONG_HOLD_THRESHOLD}.
+ *
+ * @author Craig Cavanaugh
+ * @see LockDiagnostics
+ */
+public final class LongHold {
+
+    /**
+     * Number of stack frames retained from the call site.
+     */
+    private static final int MAX_FRAMES = 12;
+
+    private final String lockName;
+
+    private final String mode;
+
+    private final String threadName;
+
+    private final long holdTime;
+
+    private final StackTraceElement[] stackTrace;
+
+    LongHold(final String lockName, final String mode, final String threadName, final long holdTime,
+             final StackTraceElement[] stackTrace) {
+        this.lockName = lockName;
+        this.mode = mode;
+        this.threadName = threadName;
+        this.holdTime = holdTime;
+        this.stackTrace = trim(stackTrace);
+    }
+
+    /**
+     * Removes the frames of the diagnostics and of the lock implementation so the stack starts at the call site.
+     *
+     * @param stackTrace stack captured when the lock was released
+     * @return stack starting at the call site
+     */
+    private static StackTraceElement[] trim(final StackTraceElement[] stackTrace) {
+        int start = 0;
+
+        while (start < stackTrace.length && isLockFrame(stackTrace[start])) {
+            start++;
+        }
+
+        return Arrays.copyOfRange(stackTrace, start, Math.min(stackTrace.length, start + MAX_FRAMES));
+    }
+
+    private static boolean isLockFrame(final StackTraceElement element) {
+        final String className = element.getClassName();
+
+        return className.startsWith("java.lang.Thread") || className.startsWith("java.util.concurrent.locks.")
+                || className.startsWith(InstrumentedReadWriteLock.class.getName());
+    }
+
+    public String getLockName() {
+        return lockName;
+    }
+
+    /**
+     * Returns the lock mode.
+     *
+     * @return "read" or "write"
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getHoldTime(final TimeUnit unit) {
+        return unit.convert(holdTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the method that released the lock.  Locks are released in a finally block of the method that acquired
+     * them, so this is also the acquiring method.
+     *
+     * @return the call site, {@code null} if unknown
+     */
+    public StackTraceElement getCallSite() {
+        return stackTrace.length > 0 ? stackTrace[0] : null;
+    }
+
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(String.format(Locale.ROOT, "%s %s lock held %d ms by %s",
+                lockName, mode, getHoldTime(TimeUnit.MILLISECONDS), threadName));
+
+        for (final StackTraceElement element : stackTrace) {
+            builder.append(System.lineSeparator()).append("    at ").append(element);
+        }
+
+        return builder.toString();
+    }
+}
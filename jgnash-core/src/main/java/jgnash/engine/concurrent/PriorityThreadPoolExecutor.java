@@ -28,10 +28,16 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
+
 /**
  * Decorator around a {@code ThreadPoolExecutor} that provides execution priority.
  *
  * Callables with the same priority level are FIFO'd.
+ * <p>
+ * A named executor records the time tasks wait in the queue, the time they run and the queue depth in the engine
+ * {@link Metrics}.
  *
  * @author Craig Cavanaugh
  */
@@ -41,7 +47,31 @@ public class PriorityThreadPoolExecutor {
 
     private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
 
+    private final LatencyHistogram waitTime;
+
+    private final LatencyHistogram runTime;
+
+    /**
+     * Creates an executor that records metrics.
+     *
+     * @param name          metrics name of the executor
+     * @param threadFactory thread factory
+     */
+    public PriorityThreadPoolExecutor(final String name, final ThreadFactory threadFactory) {
+        this(threadFactory, Metrics.histogram(name + ".wait"), Metrics.histogram(name + ".run"));
+
+        Metrics.gauge(name + ".queueDepth", queue::size);
+    }
+
     public PriorityThreadPoolExecutor(ThreadFactory threadFactory) {
+        this(threadFactory, null, null);
+    }
+
+    private PriorityThreadPoolExecutor(final ThreadFactory threadFactory, final LatencyHistogram waitTime,
+                                       final LatencyHistogram runTime) {
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+
         threadPoolExecutor = new ThreadPoolExecutor(1, 1, Long.MAX_VALUE, TimeUnit.DAYS,
                 queue, threadFactory) {
 
@@ -60,6 +90,8 @@ public class PriorityThreadPoolExecutor {
     }
 
     private  <T> Future<T> submit(final Callable<T> callable, final Priority priority) {
+        final long submitted = Metrics.startTime();
+
         return threadPoolExecutor.submit(new PriorityCallable<T>() {
             @Override
             public Priority getPriority() {
@@ -68,7 +100,19 @@ public class PriorityThreadPoolExecutor {
 
             @Override
             public T call() throws Exception {
-                return callable.call();
+                if (waitTime == null) {
+                    return callable.call();
+                }
+
+                waitTime.recordSince(submitted);
+
+                final long start = Metrics.startTime();
+
+                try {
+                    return callable.call();
+                } finally {
+                    runTime.recordSince(start);
+                }
             }
         });
     }
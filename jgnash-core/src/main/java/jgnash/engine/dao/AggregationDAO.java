@@ -0,0 +1,48 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.dao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import jgnash.engine.Account;
+
+/**
+ * Aggregation DAO Interface.  Computes account sums within the data store so the transactions do not need to be
+ * loaded.
+ *
+ * @author Craig Cavanaugh
+ */
+public interface AggregationDAO {
+
+    /**
+     * Sums the credit and debit amounts of the transaction entries of each account for a series of inclusive date
+     * ranges.  The amounts are summed as {@code Transaction.getAmount(Account)} would, so the result for a range is
+     * the balance change of the account within the range.
+     *
+     * @param accounts   accounts to sum
+     * @param startDates start date of each range
+     * @param endDates   end date of each range
+     * @return a list of sums for each account, one per range, in the commodity of the account
+     */
+    Map<Account, List<BigDecimal>> getAccountSums(Collection<Account> accounts, List<LocalDate> startDates,
+                                                  List<LocalDate> endDates);
+}
@@ -42,6 +42,24 @@ public interface EngineDAO extends DAO {
 
     TrashDAO getTrashDAO();
 
+    /**
+     * Returns the aggregation DAO if the data store is able to compute sums itself.
+     *
+     * @return the aggregation DAO, {@code null} if sums must be computed from the loaded transactions
+     */
+    default AggregationDAO getAggregationDAO() {
+        return null;
+    }
+
+    /**
+     * Returns the hydrator for transactions that were not loaded when the data store was opened.
+     *
+     * @return the transaction hydrator, {@code null} if every transaction was loaded up front
+     */
+    default TransactionHydrator getTransactionHydrator() {
+        return null;
+    }
+
     List<StoredObject> getStoredObjects();
 
     /*<T extends StoredObject> List<T> getStoredObjects(Class<T> tClass);*/
@@ -17,10 +17,13 @@
  */
 package jgnash.engine.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
+import jgnash.engine.Account;
 import jgnash.engine.Transaction;
+import jgnash.engine.TransactionEntry;
 
 /**
  * Transaction DAO Interface.
@@ -38,15 +41,38 @@ public interface TransactionDAO {
 
     boolean addTransaction(Transaction transaction);
 
+    /**
+     * Adds a collection of transactions as a single unit of work.
+     *
+     * @param transactions transactions to add
+     * @return {@code true} if successful
+     */
+    boolean addTransactions(Collection<Transaction> transactions);
+
     Transaction getTransactionByUuid(final UUID uuid);
 
+    /**
+     * Ensures the transactions of an account are resident.  Data stores that load transactions lazily read them with
+     * their own thread because the underlying connection is not thread safe.
+     *
+     * @param account account to initialize
+     */
+    void initializeTransactions(Account account);
+
     boolean removeTransaction(Transaction transaction);
 
+    /**
+     * Persists transaction entries whose reconciled state has been changed in place as a single unit of work.
+     *
+     * @param entries changed transaction entries
+     * @return {@code true} if successful
+     */
+    boolean updateReconciledStates(Collection<TransactionEntry> entries);
+
     /**
      * Returns a list of transactions with external links.
      *
      * @return List of transactions
      */
     List<Transaction> getTransactionsWithAttachments();
-
 }
\ No newline at end of file
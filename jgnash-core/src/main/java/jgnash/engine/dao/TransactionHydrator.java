@@ -0,0 +1,48 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.dao;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Loads the older transactions of a data store that was opened progressively.
+ * <p>
+ * The engine calls {@link #hydrateNext()} from a background thread until it returns {@code false}.  Each call
+ * attaches another group of older transactions to their accounts.  Implementations must be thread safe, because a
+ * data store may also finish hydration itself, for example before it writes a file.
+ *
+ * @author Craig Cavanaugh
+ */
+public interface TransactionHydrator {
+
+    /**
+     * Returns the date from which every transaction is loaded.
+     *
+     * @return the earliest date with complete transactions, {@link LocalDate#MIN} once all transactions are loaded
+     */
+    LocalDate getHydratedFrom();
+
+    /**
+     * Loads and attaches the next group of older transactions.
+     *
+     * @return {@code true} if more transactions remain to be loaded
+     * @throws IOException if the transactions could not be decoded
+     */
+    boolean hydrateNext() throws IOException;
+}
@@ -17,28 +17,46 @@
  */
 package jgnash.engine.jpa;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.FlushModeType;
 import javax.persistence.NoResultException;
 
 import jgnash.engine.StoredObject;
+import jgnash.engine.Transaction;
 import jgnash.engine.concurrent.PriorityThreadPoolExecutor;
 import jgnash.engine.dao.AbstractDAO;
 import jgnash.engine.dao.DAO;
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 import jgnash.util.DefaultDaemonThreadFactory;
 
 import static jgnash.util.LogUtil.logSevere;
 
 /**
  * Abstract JPA DAO.  Provides basic framework to work with the {@link EntityManager} in a thread safe manner.
+ * <p>
+ * Writes and anything that returns managed objects go through the shared {@code EntityManager} one at a time.  Read
+ * only queries that return values or detached entities may instead be run concurrently with
+ * {@link #read(Function, Object)} on separate {@code EntityManager}s that draw connections from the same pool.
  *
  * @author Craig Cavanaugh
  */
@@ -49,17 +67,59 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
      */
     static final ReentrantLock emLock = new ReentrantLock();
 
+    /**
+     * Metrics name of the entity manager executor.
+     */
+    private static final String EXECUTOR_METRICS = "jpa.executor";
+
+    private static final LatencyHistogram readTime = Metrics.histogram("jpa.read");
+
+    /**
+     * Prevents DISTINCT from being passed to the database when it is only needed to remove duplicate fetch join
+     * results.
+     */
+    static final String PASS_DISTINCT_THROUGH = "hibernate.query.passDistinctThrough";
+
+    /**
+     * Maximum number of identifiers bound to a single IN clause.
+     */
+    private static final int MAX_IN_PARAMETERS = 1000;
+
     /**
      * This ExecutorService is to be used whenever the entity manager is
      * accessed because the EntityManager is not thread safe, but we want to return from some methods without blocking
      */
-    static PriorityThreadPoolExecutor executorService = new PriorityThreadPoolExecutor(new DefaultDaemonThreadFactory());
+    static PriorityThreadPoolExecutor executorService = new PriorityThreadPoolExecutor(EXECUTOR_METRICS,
+            new DefaultDaemonThreadFactory());
+
+    /**
+     * Number of concurrent read only queries.  Kept below the connection pool size so the shared entity manager can
+     * always obtain a connection.
+     */
+    private static final int READER_COUNT = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Read only queries are executed by this pool.  Each thread owns a private {@link EntityManager}.
+     */
+    private static ExecutorService readExecutorService = createReadExecutor();
+
+    private static final ThreadLocal<EntityManager> readManager = new ThreadLocal<>();
+
+    /**
+     * All open read only entity managers so they may be closed at shutdown.
+     */
+    private static final Set<EntityManager> readManagers = ConcurrentHashMap.newKeySet();
 
     /**
      * Entity manager reference.
      */
     final EntityManager em;
 
+    /**
+     * Factory of the shared entity manager, used to create the read only entity managers.
+     */
+    private final EntityManagerFactory factory;
+
     /**
      * Remote connection if {@code true}.
      */
@@ -70,6 +130,11 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
 
         this.isRemote = isRemote;
         em = entityManager;
+        factory = entityManager.getEntityManagerFactory();
+    }
+
+    private static ExecutorService createReadExecutor() {
+        return Executors.newFixedThreadPool(READER_COUNT, new DefaultDaemonThreadFactory());
     }
 
     static void shutDownExecutor() {
@@ -79,11 +144,18 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
 
         try {
             executorService.shutdown();
+            readExecutorService.shutdown();
 
             executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            readExecutorService.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            // the pool threads are gone, close their entity managers before the factory is closed
+            readManagers.forEach(EntityManager::close);
+            readManagers.clear();
 
-            // Regenerate the executor service
-            executorService = new PriorityThreadPoolExecutor();
+            // Regenerate the executor services
+            executorService = new PriorityThreadPoolExecutor(EXECUTOR_METRICS, Executors.defaultThreadFactory());
+            readExecutorService = createReadExecutor();
 
         } catch (final InterruptedException e) {
             logSevere(AbstractJpaDAO.class, e);
@@ -93,6 +165,141 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
         }
     }
 
+    /**
+     * Executes a read only query concurrently with other reads.  The query is given a private {@link EntityManager}
+     * that is cleared afterwards, so any entities returned are detached and their lazy associations must be fetched
+     * by the query.  Committed writes are visible to the query, writes still in progress are not.
+     *
+     * @param query        query to execute
+     * @param defaultValue value to return if the query fails
+     * @param <T>          the type of the result
+     * @return the query result
+     */
+    <T> T read(final Function<EntityManager, T> query, final T defaultValue) {
+        final long start = Metrics.startTime();
+
+        try {
+            final Future<T> future = readExecutorService.submit(() -> {
+                final EntityManager entityManager = getReadManager();
+
+                try {
+                    return query.apply(entityManager);
+                } finally {
+                    entityManager.clear();
+                }
+            });
+
+            return future.get();   // block and return
+        } catch (final InterruptedException e) {
+            logSevere(AbstractJpaDAO.class, e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logSevere(AbstractJpaDAO.class, e);
+        } finally {
+            readTime.recordSince(start);
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Returns the read only {@code EntityManager} of the current read thread.
+     *
+     * @return read only {@code EntityManager}
+     */
+    private EntityManager getReadManager() {
+        EntityManager entityManager = readManager.get();
+
+        if (entityManager == null || !entityManager.isOpen() || entityManager.getEntityManagerFactory() != factory) {
+            if (entityManager != null && entityManager.isOpen()) {
+                entityManager.close();
+            }
+            readManagers.remove(entityManager);
+
+            entityManager = factory.createEntityManager();
+            entityManager.setFlushMode(FlushModeType.COMMIT);  // never written to, skip dirty checks before queries
+
+            readManager.set(entityManager);
+            readManagers.add(entityManager);
+        }
+
+        return entityManager;
+    }
+
+    /**
+     * Maps identifiers returned by a read only query to the objects managed by the shared {@link EntityManager}.
+     * Objects that no longer exist are skipped.
+     *
+     * @param tClass the object class
+     * @param uuids  identifiers to map
+     * @param <T>    the object type
+     * @return managed objects in the order of the identifiers
+     */
+    <T extends StoredObject> List<T> resolve(final Class<T> tClass, final List<UUID> uuids) {
+        return resolve(tClass, uuids, "SELECT o FROM " + tClass.getSimpleName() + " o");
+    }
+
+    /**
+     * Maps identifiers returned by a read only query to the objects managed by the shared {@link EntityManager}.  This
+     * is only needed when the caller may change the objects, detached results from {@link #read(Function, Object)}
+     * are cheaper otherwise.  The objects are loaded with one query per {@value #MAX_IN_PARAMETERS} identifiers
+     * instead of one find per identifier.  Objects that no longer exist are skipped.
+     *
+     * @param tClass the object class
+     * @param uuids  identifiers to map
+     * @param select JPQL select and from clause using the alias {@code o}, may include fetch joins
+     * @param <T>    the object type
+     * @return managed objects in the order of the identifiers
+     */
+    <T extends StoredObject> List<T> resolve(final Class<T> tClass, final List<UUID> uuids, final String select) {
+        final List<T> list = new ArrayList<>(uuids.size());
+
+        if (uuids.isEmpty()) {
+            return list;
+        }
+
+        try {
+            final Future<Void> future = executorService.submit(() -> {
+                emLock.lock();
+
+                try {
+                    final Map<UUID, T> objects = new HashMap<>();
+
+                    for (int i = 0; i < uuids.size(); i += MAX_IN_PARAMETERS) {
+                        final List<UUID> batch = uuids.subList(i, Math.min(i + MAX_IN_PARAMETERS, uuids.size()));
+
+                        for (final T object : em.createQuery(select + " WHERE o.uuid IN :uuids", tClass)
+                                .setParameter("uuids", batch).setHint(PASS_DISTINCT_THROUGH, false)
+                                .getResultList()) {
+                            objects.put(object.getUuid(), object);
+                        }
+                    }
+
+                    for (final UUID uuid : uuids) {
+                        final T object = objects.get(uuid);
+
+                        if (object != null) {
+                            list.add(object);
+                        }
+                    }
+
+                    return null;
+                } finally {
+                    emLock.unlock();
+                }
+            });
+
+            future.get();   // block
+        } catch (final InterruptedException e) {
+            logSevere(AbstractJpaDAO.class, e);
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            logSevere(AbstractJpaDAO.class, e);
+        }
+
+        return list;
+    }
+
     /**
      * Merge / Update the object in place.
      *
@@ -170,7 +377,14 @@ abstract class AbstractJpaDAO extends AbstractDAO implements DAO {
                 emLock.lock();
 
                 try {
-                    return em.find(tClass, uuid);
+                    final T result = em.find(tClass, uuid);
+
+                    // a lazy collection must be initialized while the entity manager is held
+                    if (result instanceof Transaction) {
+                        ((Transaction) result).size();
+                    }
+
+                    return result;
                 } finally {
                     emLock.unlock();
                 }
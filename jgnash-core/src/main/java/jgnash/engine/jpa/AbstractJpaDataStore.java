@@ -41,7 +41,7 @@ import jgnash.engine.StoredObject;
 import jgnash.engine.attachment.DistributedAttachmentManager;
 import jgnash.engine.attachment.LocalAttachmentManager;
 import jgnash.engine.concurrent.DistributedLockManager;
-import jgnash.engine.concurrent.LocalLockManager;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.util.FileUtils;
 
 /**
@@ -169,7 +169,7 @@ abstract class AbstractJpaDataStore implements DataStore {
                     em = factory.createEntityManager();
 
                     logger.info("Created local JPA container and engine");
-                    engine = new Engine(new JpaEngineDAO(em, false), new LocalLockManager(),
+                    engine = new Engine(new JpaEngineDAO(em, false), LockDiagnostics.createLocalLockManager(),
                             new LocalAttachmentManager(), engineName);
 
                     this.fileName = fileName;
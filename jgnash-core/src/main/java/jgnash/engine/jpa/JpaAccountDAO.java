@@ -18,6 +18,7 @@
 package jgnash.engine.jpa;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -25,7 +26,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -166,31 +166,19 @@ class JpaAccountDAO extends AbstractJpaDAO implements AccountDAO {
         return merge(account) != null;
     }
 
-    private List<Account> getAccountList(final AccountType type) {
-        List<Account> accountList = Collections.emptyList();
-
-        try {
-            final Future<List<Account>> future = executorService.submit(() -> {
-                emLock.lock();
-
-                try {
-                    final String queryString
-                            = "SELECT a FROM Account a WHERE a.accountType = :type AND a.markedForRemoval = false";
-                    final TypedQuery<Account> query = em.createQuery(queryString, Account.class);
-                    query.setParameter("type", type);
-
-                    return new ArrayList<>(query.getResultList());
-                } finally {
-                    emLock.unlock();
-                }
-            });
-
-            accountList = future.get();
-        } catch (final InterruptedException | ExecutionException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-        }
+    /**
+     * Returns the active accounts of the given types.  The query runs concurrently with other reads and the results
+     * are resolved to the managed accounts.
+     *
+     * @param types account types
+     * @return managed accounts
+     */
+    private List<Account> getAccountList(final Collection<AccountType> types) {
+        final List<UUID> uuids = read(entityManager -> entityManager.createQuery("SELECT a.uuid FROM Account a"
+                + " WHERE a.accountType IN :types AND a.markedForRemoval = false", UUID.class)
+                .setParameter("types", types).getResultList(), Collections.emptyList());
 
-        return accountList;
+        return resolve(Account.class, uuids);
     }
 
     /*
@@ -198,7 +186,7 @@ class JpaAccountDAO extends AbstractJpaDAO implements AccountDAO {
      */
     @Override
     public List<Account> getIncomeAccountList() {
-        return getAccountList(AccountType.INCOME);
+        return getAccountList(Collections.singleton(AccountType.INCOME));
     }
 
     /*
@@ -206,7 +194,7 @@ class JpaAccountDAO extends AbstractJpaDAO implements AccountDAO {
      */
     @Override
     public List<Account> getExpenseAccountList() {
-        return getAccountList(AccountType.EXPENSE);
+        return getAccountList(Collections.singleton(AccountType.EXPENSE));
     }
 
     /*
@@ -214,17 +202,7 @@ class JpaAccountDAO extends AbstractJpaDAO implements AccountDAO {
      */
     @Override
     public List<Account> getInvestmentAccountList() {
-        emLock.lock();
-
-        try {
-            final TypedQuery<Account> q = em.createQuery("SELECT a FROM Account a WHERE a.markedForRemoval = false",
-                    Account.class);
-
-            return q.getResultList().parallelStream().filter(a -> a.memberOf(AccountGroup.INVEST))
-                    .collect(Collectors.toList());
-        } finally {
-            emLock.unlock();
-        }
+        return getAccountList(AccountType.getAccountTypes(AccountGroup.INVEST));
     }
 
     /*
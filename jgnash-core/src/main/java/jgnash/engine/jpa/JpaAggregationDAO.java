@@ -0,0 +1,122 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.jpa;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import jgnash.engine.Account;
+import jgnash.engine.dao.AggregationDAO;
+
+/**
+ * JPA Aggregation DAO.
+ * <p>
+ * Sums are computed by the database with {@code GROUP BY} queries on the read only entity managers, so the
+ * transactions of an account do not need to be loaded.
+ *
+ * @author Craig Cavanaugh
+ */
+class JpaAggregationDAO extends AbstractJpaDAO implements AggregationDAO {
+
+    /**
+     * Daily sums over the full date range; the days are folded into the requested periods so each side of the
+     * entry needs only one query regardless of the number of periods.
+     */
+    private static final String CREDIT_SUMS = "SELECT e.creditAccount.uuid, t.date, SUM(e.creditAmount)"
+            + " FROM Transaction t JOIN t.transactionEntries e WHERE t.markedForRemoval = false"
+            + " AND t.date BETWEEN :startDate AND :endDate AND e.creditAccount.uuid IN :accounts"
+            + " GROUP BY e.creditAccount.uuid, t.date";
+
+    /**
+     * An entry with the same credit and debit account is counted once, as {@code TransactionEntry.getAmount} does.
+     */
+    private static final String DEBIT_SUMS = "SELECT e.debitAccount.uuid, t.date, SUM(e.debitAmount)"
+            + " FROM Transaction t JOIN t.transactionEntries e WHERE t.markedForRemoval = false"
+            + " AND t.date BETWEEN :startDate AND :endDate AND e.debitAccount.uuid IN :accounts"
+            + " AND e.debitAccount <> e.creditAccount GROUP BY e.debitAccount.uuid, t.date";
+
+    JpaAggregationDAO(final EntityManager entityManager, final boolean isRemote) {
+        super(entityManager, isRemote);
+    }
+
+    @Override
+    public Map<Account, List<BigDecimal>> getAccountSums(final Collection<Account> accounts,
+                                                         final List<LocalDate> startDates,
+                                                         final List<LocalDate> endDates) {
+        if (startDates.size() != endDates.size()) {
+            throw new IllegalArgumentException("startDates and endDates must be the same size");
+        }
+
+        final Map<UUID, List<BigDecimal>> sums = new HashMap<>();
+
+        for (final Account account : accounts) {
+            sums.put(account.getUuid(), new ArrayList<>(Collections.nCopies(startDates.size(), BigDecimal.ZERO)));
+        }
+
+        if (!sums.isEmpty() && !startDates.isEmpty()) {
+            final List<UUID> uuids = new ArrayList<>(sums.keySet());
+
+            final LocalDate startDate = Collections.min(startDates);
+            final LocalDate endDate = Collections.max(endDates);
+
+            for (final String query : new String[]{CREDIT_SUMS, DEBIT_SUMS}) {
+                final List<Object[]> rows = read(entityManager -> {
+                    final TypedQuery<Object[]> q = entityManager.createQuery(query, Object[].class);
+
+                    q.setParameter("accounts", uuids);
+                    q.setParameter("startDate", startDate);
+                    q.setParameter("endDate", endDate);
+
+                    return q.getResultList();
+                }, Collections.emptyList());
+
+                for (final Object[] row : rows) {
+                    if (row[2] != null) {
+                        final List<BigDecimal> list = sums.get((UUID) row[0]);
+                        final LocalDate date = (LocalDate) row[1];
+
+                        // periods may overlap, so a day is added to every period containing it
+                        for (int i = 0; i < startDates.size(); i++) {
+                            if (!date.isBefore(startDates.get(i)) && !date.isAfter(endDates.get(i))) {
+                                list.set(i, list.get(i).add((BigDecimal) row[2]));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        final Map<Account, List<BigDecimal>> result = new HashMap<>();
+
+        for (final Account account : accounts) {
+            result.put(account, sums.get(account.getUuid()));
+        }
+
+        return result;
+    }
+}
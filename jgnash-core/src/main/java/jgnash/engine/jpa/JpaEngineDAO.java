@@ -29,8 +29,12 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 
+import jgnash.engine.Account;
+import jgnash.engine.EngineFactory;
 import jgnash.engine.StoredObject;
+import jgnash.engine.Transaction;
 import jgnash.engine.dao.AccountDAO;
+import jgnash.engine.dao.AggregationDAO;
 import jgnash.engine.dao.BudgetDAO;
 import jgnash.engine.dao.CommodityDAO;
 import jgnash.engine.dao.ConfigDAO;
@@ -43,6 +47,9 @@ import static jgnash.util.LogUtil.logSevere;
 
 /**
  * Engine DAO.
+ * <p>
+ * Accounts and commodities are always loaded when the database is opened.  Transactions are read with them unless
+ * lazy transaction loading is enabled, in which case an account's transactions are read when first needed.
  *
  * @author Craig Cavanaugh
  */
@@ -62,8 +69,18 @@ class JpaEngineDAO extends AbstractJpaDAO implements EngineDAO {
 
     private TrashDAO trashDAO;
 
+    private AggregationDAO aggregationDAO;
+
+    private final boolean lazyTransactions;
+
     JpaEngineDAO(final EntityManager entityManager, final boolean isRemote) {
         super(entityManager, isRemote);
+
+        lazyTransactions = EngineFactory.isLazyTransactionLoading();
+
+        if (!lazyTransactions) {
+            ((JpaTransactionDAO) getTransactionDAO()).initializeTransactions();
+        }
     }
 
     @Override
@@ -119,7 +136,7 @@ class JpaEngineDAO extends AbstractJpaDAO implements EngineDAO {
     @Override
     public synchronized TransactionDAO getTransactionDAO() {
         if (transactionDAO == null) {
-            transactionDAO = new JpaTransactionDAO(em, isRemote);
+            transactionDAO = new JpaTransactionDAO(em, isRemote, lazyTransactions);
         }
         return transactionDAO;
     }
@@ -132,6 +149,14 @@ class JpaEngineDAO extends AbstractJpaDAO implements EngineDAO {
         return trashDAO;
     }
 
+    @Override
+    public synchronized AggregationDAO getAggregationDAO() {
+        if (aggregationDAO == null) {
+            aggregationDAO = new JpaAggregationDAO(em, isRemote);
+        }
+        return aggregationDAO;
+    }
+
     @Override
     public List<StoredObject> getStoredObjects() {
         List<StoredObject> list = Collections.emptyList();
@@ -203,6 +228,14 @@ class JpaEngineDAO extends AbstractJpaDAO implements EngineDAO {
 
                 try {
                     em.refresh(object);
+
+                    // refreshed collections are read again lazily, initialize them while the entity manager is held
+                    if (object instanceof Account) {
+                        ((JpaTransactionDAO) getTransactionDAO()).fetchTransactions((Account) object);
+                    } else if (object instanceof Transaction) {
+                        ((Transaction) object).size();
+                    }
+
                     return null;
                 } finally {
                     emLock.unlock();
@@ -215,27 +248,14 @@ class JpaEngineDAO extends AbstractJpaDAO implements EngineDAO {
         }
     }
 
+    /**
+     * Persists the objects as a single database transaction.  The resulting updates are sent in JDBC batches.
+     *
+     * @param objectList objects to update
+     */
     @Override
     public void bulkUpdate(final List<? extends StoredObject> objectList) {
-        try {
-            final Future<Void> future = executorService.submit(() -> {
-                emLock.lock();
-
-                try {
-                    em.getTransaction().begin();
-                    objectList.forEach(em::persist);
-                    em.getTransaction().commit();
-
-                    return null;
-                } finally {
-                    emLock.unlock();
-                }
-            });
-
-            future.get();   // block
-        } catch (final InterruptedException | ExecutionException e) {
-            logSevere(JpaEngineDAO.class, e);
-        }
+        persist(objectList.toArray());
     }
 
     @Override
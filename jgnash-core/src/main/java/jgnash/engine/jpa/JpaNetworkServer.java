@@ -50,6 +50,7 @@ import jgnash.engine.message.MessageBusServer;
 import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.FileMagic;
 import jgnash.util.FileUtils;
+import jgnash.util.StartupTimeline;
 
 /**
  * JPA network server.
@@ -70,6 +71,11 @@ public class JpaNetworkServer {
 
     private static final int BACKUP_PERIOD = 2;
 
+    /**
+     * Period in hours between removal of unreferenced attachments.
+     */
+    private static final int ATTACHMENT_GC_PERIOD = 1;
+
     private volatile boolean dirty = false;
 
     private EntityManager em;
@@ -164,6 +170,11 @@ public class JpaNetworkServer {
                         }
                     }, BACKUP_PERIOD, BACKUP_PERIOD, TimeUnit.HOURS);
 
+                    // the server engine caches attachments like a client, so the server store is collected here
+                    backupExecutor.scheduleWithFixedDelay(() ->
+                            attachmentTransferServer.collectGarbage(engine.getAttachmentReferences()),
+                            ATTACHMENT_GC_PERIOD, ATTACHMENT_GC_PERIOD, TimeUnit.HOURS);
+
                     final LocalServerListener listener = event -> {
 
                         // look for a remote request to stop the server
@@ -177,6 +188,8 @@ public class JpaNetworkServer {
 
                     messageBusServer.addLocalListener(listener);
 
+                    StartupTimeline.finish();   // the server is accepting clients
+
                     // if a callback has been registered, call it
                     if (callback != null) {
                         callback.run();
@@ -326,8 +339,12 @@ public class JpaNetworkServer {
     }
 
     private static void exportXML(final Engine engine, final String fileName) {
-        ArrayList<StoredObject> list = new ArrayList<>(engine.getStoredObjects());
+        try {
+            ArrayList<StoredObject> list = new ArrayList<>(engine.getStoredObjects());
 
-        EngineFactory.exportCompressedXML(fileName, list);
+            EngineFactory.exportCompressedXML(fileName, list);
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, "Transactions could not be loaded, the backup was not created", e);
+        }
     }
 }
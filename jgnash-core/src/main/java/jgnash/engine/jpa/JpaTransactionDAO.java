@@ -18,8 +18,10 @@
 package jgnash.engine.jpa;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -27,13 +29,17 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
+import jgnash.engine.Account;
 import jgnash.engine.Transaction;
+import jgnash.engine.TransactionEntry;
 import jgnash.engine.dao.TransactionDAO;
 
 /**
  * Transaction DAO.
+ * <p>
+ * Transaction queries are read concurrently and fetch the transaction entries along with the transactions.  The
+ * results are detached copies, changes are always made through the managed transactions.
  *
  * @author Craig Cavanaugh
  */
@@ -41,39 +47,98 @@ class JpaTransactionDAO extends AbstractJpaDAO implements TransactionDAO {
 
     private static final Logger logger = Logger.getLogger(JpaTransactionDAO.class.getName());
 
-    JpaTransactionDAO(final EntityManager entityManager, final boolean isRemote) {
+    private static final String SELECT_TRANSACTIONS
+            = "SELECT DISTINCT t FROM Transaction t LEFT JOIN FETCH t.transactionEntries";
+
+    private final boolean lazy;
+
+    JpaTransactionDAO(final EntityManager entityManager, final boolean isRemote, final boolean lazy) {
         super(entityManager, isRemote);
+        this.lazy = lazy;
         logger.setLevel(Level.ALL);
     }
 
+    /**
+     * Reads all transactions and their entries and attaches them to the accounts with two queries.  This is much
+     * faster than initializing each collection separately and leaves the entity manager in the same state an eager
+     * mapping would.
+     */
+    void initializeTransactions() {
+        try {
+            final Future<Void> future = executorService.submit(() -> {
+                emLock.lock();
+
+                try {
+                    em.createQuery("SELECT DISTINCT t FROM Transaction t LEFT JOIN FETCH t.transactionEntries",
+                            Transaction.class).setHint(PASS_DISTINCT_THROUGH, false).getResultList();
+
+                    em.createQuery("SELECT DISTINCT a FROM Account a LEFT JOIN FETCH a.transactions",
+                            Account.class).setHint(PASS_DISTINCT_THROUGH, false).getResultList();
+
+                    return null;
+                } finally {
+                    emLock.unlock();
+                }
+            });
+
+            future.get();   // block
+        } catch (final InterruptedException | ExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
+
     /*
-     * @see jgnash.engine.dao.TransactionDAO#getTransactions()
+     * @see jgnash.engine.dao.TransactionDAO#initializeTransactions(jgnash.engine.Account)
      */
     @Override
-    public List<Transaction> getTransactions() {
-        List<Transaction> transactionList = Collections.emptyList();
+    public void initializeTransactions(final Account account) {
+        if (!lazy) {
+            return; // initialized when the database was opened
+        }
 
         try {
-            final Future<List<Transaction>> future = executorService.submit(() -> {
+            final Future<Void> future = executorService.submit(() -> {
                 emLock.lock();
 
                 try {
-                    final TypedQuery<Transaction> q = em
-                            .createQuery("SELECT t FROM Transaction t WHERE t.markedForRemoval = false",
-                                    Transaction.class);
+                    if (!em.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(account, "transactions")) {
+                        fetchTransactions(account);
+                    }
 
-                    return new ArrayList<>(q.getResultList());
+                    return null;
                 } finally {
                     emLock.unlock();
                 }
             });
 
-            transactionList = future.get(); // block and return
+            future.get();   // block
         } catch (final InterruptedException | ExecutionException e) {
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
+    }
+
+    /**
+     * Reads the transactions of an account and their entries with two queries.  The caller must hold the entity
+     * manager lock on the executor thread.
+     *
+     * @param account account to initialize
+     */
+    void fetchTransactions(final Account account) {
+        em.createQuery("SELECT DISTINCT t FROM Account a JOIN a.transactions t LEFT JOIN FETCH t.transactionEntries"
+                + " WHERE a.uuid = :account", Transaction.class).setParameter("account", account.getUuid())
+                .setHint(PASS_DISTINCT_THROUGH, false).getResultList();
+
+        em.createQuery("SELECT DISTINCT a FROM Account a LEFT JOIN FETCH a.transactions WHERE a.uuid = :account",
+                Account.class).setParameter("account", account.getUuid())
+                .setHint(PASS_DISTINCT_THROUGH, false).getResultList();
+    }
 
-        return transactionList;
+    /*
+     * @see jgnash.engine.dao.TransactionDAO#getTransactions()
+     */
+    @Override
+    public List<Transaction> getTransactions() {
+        return readTransactions(SELECT_TRANSACTIONS + " WHERE t.markedForRemoval = false");
     }
 
     /*
@@ -90,8 +155,44 @@ class JpaTransactionDAO extends AbstractJpaDAO implements TransactionDAO {
                 try {
                     em.getTransaction().begin();
 
+                    // the managed accounts are updated by dirty checking, persisting them again would cascade
+                    // through every transaction of each account
                     em.persist(transaction);
-                    transaction.getAccounts().forEach(em::persist);
+
+                    em.getTransaction().commit();
+
+                    return true;
+                } finally {
+                    emLock.unlock();
+                }
+            });
+
+            result = future.get();  // block and return
+        } catch (final InterruptedException | ExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        return result;
+    }
+
+    /*
+     * @see jgnash.engine.TransactionDAO#addTransactions(java.util.Collection)
+     */
+    @Override
+    public synchronized boolean addTransactions(final Collection<Transaction> transactions) {
+        boolean result = false;
+
+        try {
+            final Future<Boolean> future = executorService.submit(() -> {
+                emLock.lock();
+
+                try {
+                    em.getTransaction().begin();
+
+                    // inserts are sent in JDBC batches when the transaction commits
+                    for (final Transaction transaction : transactions) {
+                        em.persist(transaction);
+                    }
 
                     em.getTransaction().commit();
 
@@ -148,30 +249,98 @@ class JpaTransactionDAO extends AbstractJpaDAO implements TransactionDAO {
         return result;
     }
 
+    /*
+     * @see jgnash.engine.TransactionDAO#updateReconciledStates(java.util.Collection)
+     */
     @Override
-    public List<Transaction> getTransactionsWithAttachments() {
-        List<Transaction> transactionList = Collections.emptyList();
+    public synchronized boolean updateReconciledStates(final Collection<TransactionEntry> entries) {
+        boolean result = false;
 
         try {
-            final Future<List<Transaction>> future = executorService.submit(() -> {
+            final Future<Boolean> future = executorService.submit(() -> {
                 emLock.lock();
 
                 try {
-                    final TypedQuery<Transaction> q = em
-                            .createQuery("SELECT t FROM Transaction t WHERE t.markedForRemoval = false AND t.attachment is not null",
-                                    Transaction.class);
+                    em.getTransaction().begin();
+
+                    // only the entries are updated, the transactions and accounts are unchanged
+                    for (final TransactionEntry entry : entries) {
+                        em.persist(entry);
+                    }
+
+                    em.getTransaction().commit();
 
-                    return new ArrayList<>(q.getResultList());
+                    return true;
                 } finally {
                     emLock.unlock();
                 }
             });
 
-            transactionList = future.get(); // block and return
+            result = future.get();  // block and return
         } catch (final InterruptedException | ExecutionException e) {
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         }
 
-        return transactionList;
+        return result;
+    }
+
+    @Override
+    public List<Transaction> getTransactionsWithAttachments() {
+        return readTransactions(SELECT_TRANSACTIONS + " WHERE t.markedForRemoval = false AND t.attachment is not null");
+    }
+
+    /**
+     * Reads transactions and their entries concurrently on a read only entity manager.  The transactions are detached
+     * when returned, so the accounts of their entries are replaced with the managed accounts.  A transaction from the
+     * list may then be cloned into a new transaction, but must be looked up again before it is modified or removed.
+     *
+     * @param query JPQL transaction query using the alias {@code t}
+     * @return detached transactions
+     */
+    private List<Transaction> readTransactions(final String query) {
+        final List<Transaction> transactions = read(entityManager -> new ArrayList<>(entityManager
+                .createQuery(query, Transaction.class).setHint(PASS_DISTINCT_THROUGH, false).getResultList()),
+                new ArrayList<>());
+
+        final Map<UUID, Account> accounts = new HashMap<>();
+
+        for (final Transaction transaction : transactions) {
+            for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+                accounts.put(entry.getCreditAccount().getUuid(), null);
+                accounts.put(entry.getDebitAccount().getUuid(), null);
+            }
+        }
+
+        if (accounts.isEmpty()) {
+            return transactions;
+        }
+
+        try {
+            final Future<Void> future = executorService.submit(() -> {
+                emLock.lock();
+
+                try {
+                    // accounts are always managed, so this does not reach the database
+                    accounts.replaceAll((uuid, account) -> em.find(Account.class, uuid));
+                    return null;
+                } finally {
+                    emLock.unlock();
+                }
+            });
+
+            future.get();   // block
+        } catch (final InterruptedException | ExecutionException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            return new ArrayList<>();
+        }
+
+        for (final Transaction transaction : transactions) {
+            for (final TransactionEntry entry : transaction.getTransactionEntries()) {
+                entry.setCreditAccount(accounts.get(entry.getCreditAccount().getUuid()));
+                entry.setDebitAccount(accounts.get(entry.getDebitAccount().getUuid()));
+            }
+        }
+
+        return transactions;
     }
 }
@@ -17,26 +17,16 @@
  */
 package jgnash.engine.message;
 
-import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
-import com.thoughtworks.xstream.io.xml.StaxDriver;
-
-import jgnash.engine.xstream.XStreamJVM9;
-
 /**
- * Utility class to generate an XStream instance.
+ * A {@code MessageListener} that accepts batches of messages.
+ * <p>
+ * Messages fired in quick succession, or within an explicit batch scope, are delivered with a single call to
+ * {@link #messagesPosted(MessageBatch)}.  The batch only contains messages for channels the listener is registered
+ * with.  A lone message is still delivered with {@link #messagePosted(Message)}.
  *
  * @author Craig Cavanaugh
+ * @see MessageBus#openBatch()
  */
-class XStreamFactory {
-    private XStreamFactory() {}
-
-    static XStream getInstance() {
-    	
-        final XStream xstream = new XStreamJVM9(new PureJavaReflectionProvider(), new StaxDriver());
-        xstream.alias("Message", Message.class);
-        xstream.alias("MessageProperty", MessageProperty.class);
-
-        return xstream;
-    }
+public interface BatchMessageListener extends MessageListener {
+    void messagesPosted(MessageBatch batch);
 }
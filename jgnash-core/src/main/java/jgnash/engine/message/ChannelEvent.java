@@ -80,11 +80,13 @@ public enum ChannelEvent {
     TRANSACTION_ADD_FAILED,
     TRANSACTION_REMOVE,
     TRANSACTION_REMOVE_FAILED,
+    TRANSACTION_RECONCILED, // reconciled state of an account's transactions changed in place
     FILE_CLOSING,
     FILE_NOT_FOUND,
     FILE_IO_ERROR,
     FILE_LOAD_FAILED,
     FILE_LOAD_SUCCESS,
+    TRANSACTIONS_LOADED, // transactions loaded in the background after a progressive boot are all available
     UI_RESTARTED, // UI has restarted
     UI_RESTARTING // UI will restart
 }
@@ -17,16 +17,29 @@
  */
 package jgnash.engine.message;
 
+import jgnash.engine.Account;
+import jgnash.engine.CommodityNode;
+import jgnash.engine.Config;
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.engine.ExchangeRate;
 import jgnash.engine.StoredObject;
+import jgnash.engine.Transaction;
+import jgnash.engine.TrashObject;
+import jgnash.engine.budget.Budget;
+import jgnash.engine.recurring.Reminder;
 import jgnash.util.NotNull;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -37,6 +50,14 @@ import java.util.UUID;
  */
 public class Message implements Serializable, Cloneable {
 
+    /**
+     * Property value types.  Values are encoded as an index into this table and resolved by uuid against the engine,
+     * so class names are never read from the stream.  New types must only be appended.
+     */
+    private static final List<Class<? extends StoredObject>> PROPERTY_TYPES = Arrays.asList(Account.class,
+            Budget.class, CommodityNode.class, Config.class, ExchangeRate.class, Reminder.class, Transaction.class,
+            TrashObject.class);
+
     private ChannelEvent event;
 
     private MessageChannel channel;
@@ -117,8 +138,8 @@ public class Message implements Serializable, Cloneable {
      *
      * @param s stream
      * @throws IOException io exception
-     * @serialData Write serializable fields, if any exist. Write out the integer count of properties. Write out key and
-     * value of each property
+     * @serialData Write serializable fields, if any exist. Write out the integer count of properties. Write out key,
+     * value type index and value uuid of each property
      */
     @SuppressWarnings("unused")
     private void writeObject(final ObjectOutputStream s) throws IOException {
@@ -132,7 +153,7 @@ public class Message implements Serializable, Cloneable {
 
         for (int i = 0; i < properties.size(); i++) {
             s.writeObject(keys[i]);
-            s.writeUTF(values[i].getClass().getName());
+            s.writeByte(getPropertyType(values[i]));
             s.writeUTF(values[i].getUuid().toString());
         }
     }
@@ -143,10 +164,10 @@ public class Message implements Serializable, Cloneable {
      * @param s input stream
      * @throws java.io.IOException    io exception
      * @throws ClassNotFoundException thrown is class is not found
-     * @serialData Read serializable fields, if any exist. Read the integer count of properties. Read the key and value
-     * of each property
+     * @serialData Read serializable fields, if any exist. Read the integer count of properties. Read the key, value type
+     * index and value uuid of each property
      */
-    @SuppressWarnings({"unchecked", "unused"})
+    @SuppressWarnings("unused")
     private void readObject(final ObjectInputStream s) throws IOException, ClassNotFoundException {
         s.defaultReadObject();
 
@@ -159,12 +180,83 @@ public class Message implements Serializable, Cloneable {
 
         for (int i = 0; i < size; i++) {
             MessageProperty key = (MessageProperty) s.readObject();
-            Class<? extends StoredObject> clazz = (Class<? extends StoredObject>) Class.forName(s.readUTF());
+            Class<? extends StoredObject> clazz = getPropertyType(s.readUnsignedByte());
             StoredObject value = engine.getStoredObjectByUuid(clazz, UUID.fromString(s.readUTF()));
             properties.put(key, value);
         }
     }
 
+    /**
+     * Writes the message in the compact binary form used by the remote message bus.
+     *
+     * @param out output
+     * @throws IOException io exception
+     * @serialData Write the channel and event ordinals and the source uuid. Write the property count, then the key
+     * ordinal, value type index, and uuid of each property
+     * @see MessageCodec
+     */
+    void writeBinary(final DataOutput out) throws IOException {
+        out.writeByte(channel.ordinal());
+        out.writeShort(event.ordinal());
+        MessageCodec.writeUuid(out, UUID.fromString(source));
+
+        out.writeByte(properties.size());
+
+        for (final Map.Entry<MessageProperty, StoredObject> entry : properties.entrySet()) {
+            out.writeByte(entry.getKey().ordinal());
+            out.writeByte(getPropertyType(entry.getValue()));
+            MessageCodec.writeUuid(out, entry.getValue().getUuid());
+        }
+    }
+
+    /**
+     * Reads a message written by {@link #writeBinary(DataOutput)}.  Property values are resolved against the
+     * supplied engine.
+     *
+     * @param in     input
+     * @param engine engine used to resolve property values
+     * @return the message
+     * @throws IOException io exception or an unknown property value type
+     */
+    static Message readBinary(final DataInput in, final Engine engine) throws IOException {
+        final MessageChannel channel = MessageChannel.values()[in.readUnsignedByte()];
+        final ChannelEvent event = ChannelEvent.values()[in.readUnsignedShort()];
+
+        final Message message = new Message(channel, event, MessageCodec.readUuid(in).toString());
+
+        final int size = in.readUnsignedByte();
+
+        for (int i = 0; i < size; i++) {
+            final MessageProperty key = MessageProperty.values()[in.readUnsignedByte()];
+            final Class<? extends StoredObject> clazz = getPropertyType(in.readUnsignedByte());
+            final StoredObject value = engine.getStoredObjectByUuid(clazz, MessageCodec.readUuid(in));
+
+            if (value != null) {
+                message.properties.put(key, value);
+            }
+        }
+
+        return message;
+    }
+
+    private static int getPropertyType(final StoredObject value) throws IOException {
+        for (int i = 0; i < PROPERTY_TYPES.size(); i++) {
+            if (PROPERTY_TYPES.get(i).isInstance(value)) {
+                return i;
+            }
+        }
+
+        throw new IOException("Unsupported message property type: " + value.getClass().getName());
+    }
+
+    private static Class<? extends StoredObject> getPropertyType(final int index) throws IOException {
+        if (index >= PROPERTY_TYPES.size()) {
+            throw new IOException("Unknown message property type: " + index);
+        }
+
+        return PROPERTY_TYPES.get(index);
+    }
+
     @Override
     public Message clone() throws CloneNotSupportedException {
         final Message m = (Message) super.clone();
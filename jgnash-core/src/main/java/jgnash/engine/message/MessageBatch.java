@@ -0,0 +1,92 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jgnash.util.NotNull;
+
+/**
+ * An ordered group of messages delivered to a {@link BatchMessageListener} in a single call.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class MessageBatch implements Iterable<Message> {
+
+    private final List<Message> messages;
+
+    MessageBatch(final List<Message> messages) {
+        this.messages = Collections.unmodifiableList(new ArrayList<>(messages));
+    }
+
+    /**
+     * Returns the messages in the order they were fired.
+     *
+     * @return unmodifiable list of messages
+     */
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Returns the messages for a specific channel in the order they were fired.
+     *
+     * @param channel channel to filter by
+     * @return list of messages
+     */
+    public List<Message> getMessages(final MessageChannel channel) {
+        return messages.stream().filter(message -> message.getChannel() == channel).collect(Collectors.toList());
+    }
+
+    /**
+     * Determines if the batch contains a message for any of the supplied events.
+     *
+     * @param events events to look for
+     * @return {@code true} if a matching message is found
+     */
+    public boolean containsEvent(final ChannelEvent... events) {
+        for (final Message message : messages) {
+            for (final ChannelEvent event : events) {
+                if (message.getEvent() == event) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    @NotNull
+    @Override
+    public Iterator<Message> iterator() {
+        return messages.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MessageBatch [size=%d]", messages.size());
+    }
+}
@@ -20,22 +20,38 @@ package jgnash.engine.message;
 import java.lang.ref.WeakReference;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jgnash.engine.DataStoreType;
+import jgnash.engine.metrics.Metrics;
 import jgnash.util.DefaultDaemonThreadFactory;
 
 /**
  * Thread safe Message Bus.
+ * <p>
+ * Messages fired within a short window of each other, or while a batch scope is open, are coalesced.  Plain
+ * {@code MessageListener}s still receive each message individually while a {@code BatchMessageListener} receives
+ * the coalesced messages as a single {@code MessageBatch}.
+ * <p>
+ * Delivery is performed by a {@code MessageDispatcher} so each listener receives messages in order while different
+ * listeners are serviced concurrently.
  *
  * @author Craig Cavanaugh
  */
@@ -53,11 +69,31 @@ public class MessageBus {
      */
     private static final long MAX_LATENCY = 5L * 1000L;
 
+    /**
+     * Period in milliseconds messages are collected before being delivered as a batch.
+     */
+    private static final long BATCH_WINDOW = 20L;
+
     private static final Logger logger = Logger.getLogger(MessageBus.class.getName());
 
     private final ConcurrentMap<MessageChannel, Set<WeakReference<MessageListener>>> map = new ConcurrentHashMap<>();
 
-    private final ExecutorService pool = Executors.newSingleThreadExecutor(new DefaultDaemonThreadFactory());
+    private final ScheduledExecutorService pool
+            = Executors.newSingleThreadScheduledExecutor(new DefaultDaemonThreadFactory());
+
+    private final MessageDispatcher dispatcher = new MessageDispatcher(MessageDispatcher.getDefaultThreadCount());
+
+    /**
+     * Messages waiting for delivery.
+     */
+    private final Queue<Message> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Batch scope opened by the calling thread, if any.  Only messages fired by the thread holding the scope are held.
+     */
+    private final ThreadLocal<Batch> batch = new ThreadLocal<>();
 
     private MessageBusClient messageBusClient = null;
 
@@ -70,6 +106,10 @@ public class MessageBus {
 
     private MessageBus(final String busName) {
         this.busName = busName;
+
+        Metrics.gauge("messageBus." + busName + ".queueDepth", dispatcher::getQueueDepth);
+        Metrics.gauge("messageBus." + busName + ".pending", pending::size);
+        Metrics.gauge("messageBus." + busName + ".slowListeners", dispatcher::getSlowListenerCount);
     }
 
     /**
@@ -228,28 +268,170 @@ public class MessageBus {
     }
 
     public void fireEvent(final Message message) {
+        final Batch current = batch.get();
+
+        if (current != null) {
+            current.messages.add(message);
+        } else {
+            pending.add(message);
+            scheduleFlush(BATCH_WINDOW);
+        }
+    }
+
+    /**
+     * Fires a group of messages that will be delivered together.
+     *
+     * @param messages messages to fire
+     */
+    void fireEvents(final Collection<Message> messages) {
+        final Batch current = batch.get();
 
-        pool.execute(() -> {
-            // Look for and post to local listeners
+        if (current != null) {
+            current.messages.addAll(messages);
+        } else {
+            pending.addAll(messages);
+            scheduleFlush(0);
+        }
+    }
+
+    /**
+     * Returns the dispatcher used to deliver messages.  Useful for monitoring queue depth and dispatch latency.
+     *
+     * @return the message dispatcher
+     */
+    public MessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Opens a batch scope for the calling thread.  Messages fired by the calling thread before the scope is closed are
+     * held and then delivered as a single batch; messages fired by other threads are not affected.  Scopes may be
+     * nested, delivery occurs when the outermost scope is closed.
+     *
+     * @return the batch scope to close
+     */
+    public BatchScope openBatch() {
+        Batch current = batch.get();
+
+        if (current == null) {
+            current = new Batch();
+            batch.set(current);
+        }
+
+        current.depth++;
+
+        return new BatchScope(current);
+    }
+
+    private void scheduleFlush(final long delay) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            pool.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        final List<Message> messages = new ArrayList<>();
+
+        for (Message message = pending.poll(); message != null; message = pending.poll()) {
+            messages.add(message);
+        }
+
+        if (!messages.isEmpty()) {
+            deliver(messages);
+        }
+    }
+
+    private void deliver(final List<Message> messages) {
+        final Map<BatchMessageListener, List<Message>> batches = new LinkedHashMap<>();
+
+        // Look for and post to local listeners
+        for (final Message message : messages) {
             final Set<WeakReference<MessageListener>> set = map.get(message.getChannel());
 
             if (set != null) {
                 for (WeakReference<MessageListener> ref : set) {
                     MessageListener l = ref.get();
-                    if (l != null) {
-                        l.messagePosted(message);
+                    if (l instanceof BatchMessageListener) {
+                        batches.computeIfAbsent((BatchMessageListener) l, k -> new ArrayList<>()).add(message);
+                    } else if (l != null) {
+                        dispatcher.dispatch(l, () -> l.messagePosted(message));
                     }
                 }
             }
+        }
 
-            /* Post a remote message if configured to do so and filter system events.
-             *
-             * Do not re-post a remote message otherwise it will just loop through the
-             * remote message system
-             * */
-            if (!message.isRemote() && messageBusClient != null && message.getChannel() != MessageChannel.SYSTEM) {
-                messageBusClient.sendRemoteMessage(message);
+        batches.forEach((listener, list) -> {
+            if (list.size() == 1) {
+                dispatcher.dispatch(listener, () -> listener.messagePosted(list.get(0)));
+            } else {
+                final MessageBatch batch = new MessageBatch(list);
+                dispatcher.dispatch(listener, () -> listener.messagesPosted(batch));
             }
         });
+
+        /* Post remote messages if configured to do so and filter system events.
+         *
+         * Do not re-post a remote message otherwise it will just loop through the
+         * remote message system
+         * */
+        final MessageBusClient client = messageBusClient;
+
+        if (client != null) {
+            final List<Message> remoteMessages = new ArrayList<>();
+
+            for (final Message message : messages) {
+                if (!message.isRemote() && message.getChannel() != MessageChannel.SYSTEM) {
+                    remoteMessages.add(message);
+                }
+            }
+
+            // remote sends share a lane so the order is preserved
+            if (remoteMessages.size() == 1) {
+                dispatcher.dispatch(client, () -> client.sendRemoteMessage(remoteMessages.get(0)));
+            } else if (!remoteMessages.isEmpty()) {
+                dispatcher.dispatch(client, () -> client.sendRemoteMessages(remoteMessages));
+            }
+        }
+    }
+
+    /**
+     * A batch scope returned by {@link #openBatch()}.  Intended for use with try-with-resources.
+     */
+    public class BatchScope implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final Batch owner;
+
+        private BatchScope(final Batch owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true) && --owner.depth == 0) {
+                if (batch.get() == owner) {
+                    batch.remove();
+                }
+
+                if (!owner.messages.isEmpty()) {
+                    pending.addAll(owner.messages);
+                    owner.messages.clear();
+                    scheduleFlush(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Messages held by the batch scopes of a single thread.
+     */
+    private static class Batch {
+
+        private final List<Message> messages = new ArrayList<>();
+
+        private int depth;
     }
 }
@@ -18,6 +18,7 @@
 package jgnash.engine.message;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -28,14 +29,11 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 
-import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -57,9 +55,6 @@ import jgnash.engine.recurring.Reminder;
 import jgnash.net.ConnectionFactory;
 import jgnash.util.EncryptionManager;
 
-import com.thoughtworks.xstream.XStream;
-import com.thoughtworks.xstream.io.xml.CompactWriter;
-
 /**
  * Message bus client for remote connections.
  *
@@ -72,13 +67,11 @@ class MessageBusClient {
 
     private static final Logger logger = Logger.getLogger(MessageBusClient.class.getName());
 
-    private final XStream xstream;
-
     private String dataBasePath;
 
     private DataStoreType dataBaseType;
 
-    private EncryptionManager encryptionManager = null;
+    private MessageCodec codec = new MessageCodec(null);
 
     private NioEventLoopGroup eventLoopGroup;
 
@@ -96,8 +89,6 @@ class MessageBusClient {
         this.host = host;
         this.port = port;
         this.name = name;
-
-        xstream = XStreamFactory.getInstance();
     }
 
     String getDataBasePath() {
@@ -117,7 +108,7 @@ class MessageBusClient {
 
         // If a password has been specified, create an EncryptionManager
         if (password != null && password.length > 0) {
-            encryptionManager = new EncryptionManager(password);
+            codec = new MessageCodec(new EncryptionManager(password));
         }
 
         eventLoopGroup = new NioEventLoopGroup();
@@ -154,10 +145,8 @@ class MessageBusClient {
         public void initChannel(final SocketChannel ch) {
             ChannelPipeline pipeline = ch.pipeline();
 
-            // Add the text line codec combination first,
-            pipeline.addLast("framer", new DelimiterBasedFrameDecoder(8192, true, Delimiters.lineDelimiter()));
-            pipeline.addLast("decoder", new StringDecoder(CharsetUtil.UTF_8));
-            pipeline.addLast("encoder", new StringEncoder(CharsetUtil.UTF_8));
+            // Add the length field framing first,
+            MessageCodec.addFraming(pipeline);
 
             // and then business logic.
             pipeline.addLast("handler", new MessageBusClientHandler());
@@ -172,51 +161,78 @@ class MessageBusClient {
 
         private final ExecutorService executorService = Executors.newSingleThreadExecutor();
 
-        private String decrypt(final Object object) {
-            String plainMessage;
-
-            if (encryptionManager != null) {
-                plainMessage = encryptionManager.decrypt(object.toString());
-            } else {
-                plainMessage = object.toString();
-            }
-
-            return plainMessage;
-        }
-
         @Override
         public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
 
             try {
-                final String plainMessage = decrypt(msg);
-
-                logger.log(Level.FINE, "messageReceived: {0}", plainMessage);
-
-                if (plainMessage.startsWith("<Message")) {
-                    executorService.submit(() -> {
-                        final Message message = (Message) xstream.fromXML(plainMessage);
-
-                        final Engine engine = EngineFactory.getEngine(name);
-                        Objects.requireNonNull(engine);
-
-                        // ignore our own messages
-                        if (!engine.getUuid().equals(message.getSource())) {
-                            processRemoteMessage(message);
-                        }
-                    });
-                } else if (plainMessage.startsWith(MessageBusServer.PATH_PREFIX)) {
-                    dataBasePath = plainMessage.substring(MessageBusServer.PATH_PREFIX.length());
-                    logger.log(Level.FINE, "Remote data path is: {0}", dataBasePath);
-                } else if (plainMessage.startsWith(MessageBusServer.DATA_STORE_TYPE_PREFIX)) {
-                    dataBaseType = DataStoreType.valueOf(plainMessage.substring(MessageBusServer.DATA_STORE_TYPE_PREFIX.length()));
-                    logger.log(Level.FINE, "Remote dataBaseType type is: {0}", dataBaseType.name());
-                } else if (plainMessage.startsWith(EncryptionManager.DECRYPTION_ERROR_TAG)) {    // decryption has failed, shut down the engine
+                final ByteBuf frame = (ByteBuf) msg;
+                final byte frameType = MessageCodec.getFrameType(frame);
+                final byte[] body = codec.getBody(frame);
+
+                if (body == null) {    // decryption has failed
                     logger.log(Level.SEVERE, "Unable to decrypt the remote message");
-                } else if (plainMessage.startsWith(JpaNetworkServer.STOP_SERVER_MESSAGE)) {
-                    logger.info("Server is shutting down");
-                    EngineFactory.closeEngine(name);
-                } else {
-                    logger.log(Level.SEVERE, "Unknown message: {0}", plainMessage);
+                    return;
+                }
+
+                switch (frameType) {
+                    case MessageCodec.MESSAGE_FRAME:
+                        executorService.submit(() -> {
+                            final Engine engine = EngineFactory.getEngine(name);
+                            Objects.requireNonNull(engine);
+
+                            try {
+                                final Message message = MessageCodec.decodeMessage(body, engine);
+
+                                logger.log(Level.FINE, "messageReceived: {0}", message);
+
+                                // ignore our own messages
+                                if (!engine.getUuid().equals(message.getSource())) {
+                                    processRemoteMessage(message);
+                                }
+                            } catch (final IOException e) {
+                                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                            }
+                        });
+                        break;
+                    case MessageCodec.BATCH_FRAME:
+                        executorService.submit(() -> {
+                            final Engine engine = EngineFactory.getEngine(name);
+                            Objects.requireNonNull(engine);
+
+                            try {
+                                final List<Message> messages = new ArrayList<>();
+
+                                for (final Message message : MessageCodec.decodeMessages(body, engine)) {
+                                    if (!engine.getUuid().equals(message.getSource())) { // ignore our own messages
+                                        refreshRemoteMessage(message);
+                                        messages.add(message);
+                                    }
+                                }
+
+                                logger.log(Level.FINE, "batch received: {0}", messages.size());
+
+                                if (!messages.isEmpty()) {
+                                    MessageBus.getInstance(name).fireEvents(messages);
+                                }
+                            } catch (final IOException e) {
+                                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                            }
+                        });
+                        break;
+                    case MessageCodec.PATH_FRAME:
+                        dataBasePath = MessageCodec.decodeString(body);
+                        logger.log(Level.FINE, "Remote data path is: {0}", dataBasePath);
+                        break;
+                    case MessageCodec.DATA_STORE_TYPE_FRAME:
+                        dataBaseType = DataStoreType.valueOf(MessageCodec.decodeString(body));
+                        logger.log(Level.FINE, "Remote dataBaseType type is: {0}", dataBaseType.name());
+                        break;
+                    case MessageCodec.STOP_SERVER_FRAME:
+                        logger.info("Server is shutting down");
+                        EngineFactory.closeEngine(name);
+                        break;
+                    default:
+                        logger.log(Level.SEVERE, "Unknown frame type: {0}", frameType);
                 }
             } finally {
                 ReferenceCountUtil.release(msg);
@@ -252,27 +268,34 @@ class MessageBusClient {
     }
 
     synchronized void sendRemoteMessage(final Message message) {
-        CharArrayWriter writer = new CharArrayWriter();
-        xstream.marshal(message, new CompactWriter(writer));
+        try {
+            sendFrame(codec.encodeMessage(message));
+
+            logger.log(Level.FINE, "sent: {0}", message);
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+    }
 
-        sendRemoteMessage(writer.toString());
+    synchronized void sendRemoteMessages(final List<Message> messages) {
+        try {
+            sendFrame(codec.encodeMessages(messages));
 
-        logger.log(Level.FINE, "sent: {0}", writer);
+            logger.log(Level.FINE, "sent batch: {0}", messages.size());
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
     }
 
     void sendRemoteShutdownRequest() {
-        sendRemoteMessage(JpaNetworkServer.STOP_SERVER_MESSAGE);
+        sendFrame(codec.encodeString(MessageCodec.STOP_SERVER_FRAME, JpaNetworkServer.STOP_SERVER_MESSAGE));
     }
 
-    private void sendRemoteMessage(final String message) {
+    private void sendFrame(final ByteBuf frame) {
         channelLock.lock();
 
         try {
-            if (encryptionManager != null) {
-                channel.writeAndFlush(encryptionManager.encrypt(message) + MessageBusServer.EOL_DELIMITER).sync();
-            } else {
-                channel.writeAndFlush(message + MessageBusServer.EOL_DELIMITER).sync();
-            }
+            channel.writeAndFlush(frame).sync();
         } catch (final InterruptedException e) {
             logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
         } catch (final NullPointerException e) {
@@ -280,7 +303,8 @@ class MessageBusClient {
                 logger.info("Channel was null");
             }
 
-            logger.log(Level.INFO, "Tried to send message: {0} through a null channel", message);
+            ReferenceCountUtil.release(frame);
+            logger.log(Level.INFO, "Tried to send a message through a null channel");
         } finally {
             channelLock.unlock();
         }
@@ -293,6 +317,18 @@ class MessageBusClient {
      * @param message Message to process and send
      */
     private void processRemoteMessage(final Message message) {
+        refreshRemoteMessage(message);
+
+        logger.fine("fire remote message");
+        MessageBus.getInstance(name).fireEvent(message);
+    }
+
+    /**
+     * Forces remote updates of the objects referenced by a remote message and flags the message as remote.
+     *
+     * @param message Message to process
+     */
+    private void refreshRemoteMessage(final Message message) {
         logger.fine("processing a remote message");
 
         final Engine engine = EngineFactory.getEngine(name);
@@ -393,6 +429,12 @@ class MessageBusClient {
                     engine.refresh(account);
                     message.setObject(MessageProperty.ACCOUNT, engine.getAccountByUuid(account.getUuid()));
                     break;
+                case TRANSACTION_RECONCILED:
+                    // refreshing the account cascades to its transactions and their entries
+                    final Account reconciledAccount = message.getObject(MessageProperty.ACCOUNT);
+                    engine.refresh(reconciledAccount);
+                    message.setObject(MessageProperty.ACCOUNT, engine.getAccountByUuid(reconciledAccount.getUuid()));
+                    break;
                 default:
                     break;
             }
@@ -400,8 +442,5 @@ class MessageBusClient {
 
         /* Flag the message as remote */
         message.setRemote();
-
-        logger.fine("fire remote message");
-        MessageBus.getInstance(name).fireEvent(message);
     }
 }
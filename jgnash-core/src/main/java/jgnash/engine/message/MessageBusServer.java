@@ -18,6 +18,7 @@
 package jgnash.engine.message;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -30,11 +31,6 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.DelimiterBasedFrameDecoder;
-import io.netty.handler.codec.Delimiters;
-import io.netty.handler.codec.string.StringDecoder;
-import io.netty.handler.codec.string.StringEncoder;
-import io.netty.util.CharsetUtil;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.GlobalEventExecutor;
 
@@ -52,6 +48,9 @@ import jgnash.util.EncryptionManager;
 
 /**
  * Message bus server for remote connections.
+ * <p>
+ * Frames received from a client are validated and then broadcast to all clients as received.  Encrypted frames are
+ * forwarded without being encrypted again.
  *
  * @author Craig Cavanaugh
  */
@@ -59,12 +58,6 @@ public class MessageBusServer {
 
     private static final Logger logger = Logger.getLogger(MessageBusServer.class.getName());
 
-    static final String PATH_PREFIX = "<PATH>";
-
-    static final String DATA_STORE_TYPE_PREFIX = "<TYPE>";
-
-    static final String EOL_DELIMITER = "\r\n";
-
     private int port;
 
     private String dataBasePath = "";
@@ -79,7 +72,7 @@ public class MessageBusServer {
 
     private final ChannelGroup channelGroup = new DefaultChannelGroup("all-connected", GlobalEventExecutor.INSTANCE);
 
-    private EncryptionManager encryptionManager;
+    private MessageCodec codec;
 
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
 
@@ -101,7 +94,9 @@ public class MessageBusServer {
 
         // If a password has been specified, create an EncryptionManager
         if (password != null && password.length > 0) {
-            encryptionManager = new EncryptionManager(password);
+            codec = new MessageCodec(new EncryptionManager(password));
+        } else {
+            codec = new MessageCodec(null);
         }
 
         eventLoopGroup = new NioEventLoopGroup();
@@ -172,43 +167,14 @@ public class MessageBusServer {
         }
     }
 
-    /**
-     * Utility method to encrypt a message.
-     *
-     * @param message message to encrypt
-     * @return encrypted message
-     */
-    private String encrypt(final String message) {
-        if (encryptionManager != null) {
-            return encryptionManager.encrypt(message);
-        }
-        return message;
-    }
-
-    private String decrypt(final String message) {
-        String plainMessage;
-
-        if (encryptionManager != null) {
-            plainMessage = encryptionManager.decrypt(message);
-        } else {
-            plainMessage = message;
-        }
-
-        return plainMessage;
-    }
-
     private class MessageBusRemoteInitializer extends ChannelInitializer<SocketChannel> {
 
         @Override
         public void initChannel(final SocketChannel ch) {
             ChannelPipeline pipeline = ch.pipeline();
 
-            // Add the text line codec combination first,
-            pipeline.addLast("framer", new DelimiterBasedFrameDecoder(8192, true, Delimiters.lineDelimiter()));
-
-            // the encoder and decoder are static as these are sharable
-            pipeline.addLast("decoder", new StringDecoder(CharsetUtil.UTF_8));
-            pipeline.addLast("encoder", new StringEncoder(CharsetUtil.UTF_8));
+            // Add the length field framing first,
+            MessageCodec.addFraming(pipeline);
 
             // and then business logic.
             pipeline.addLast("handler", new MessageBusServerHandler());
@@ -225,8 +191,8 @@ public class MessageBusServer {
             logger.log(Level.INFO, "Remote connection from: {0}", ctx.channel().remoteAddress().toString());
 
             // Inform the client what they are talking with so they can establish a correct database url
-            ctx.writeAndFlush(encrypt(PATH_PREFIX + dataBasePath) + EOL_DELIMITER);
-            ctx.writeAndFlush(encrypt(DATA_STORE_TYPE_PREFIX + dataStoreType) + EOL_DELIMITER);
+            ctx.write(codec.encodeString(MessageCodec.PATH_FRAME, dataBasePath));
+            ctx.writeAndFlush(codec.encodeString(MessageCodec.DATA_STORE_TYPE_FRAME, dataStoreType));
         }
 
         @Override
@@ -237,20 +203,26 @@ public class MessageBusServer {
 
         @Override
         public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
-            executorService.submit(() -> {
-                processMessage(msg.toString());
-
-                ReferenceCountUtil.release(msg);
-            });
+            executorService.submit(() -> processFrame((ByteBuf) msg));
         }
 
-        private void processMessage(final String message) {
-            final String plainMessage = decrypt(message);
+        private void processFrame(final ByteBuf frame) {
+            final byte frameType = MessageCodec.getFrameType(frame);
+            final byte[] body = codec.getBody(frame);
+
+            if (body == null) { // decryption failed, do not forward to other clients
+                logger.log(Level.SEVERE, "Unable to decrypt a remote message");
+                ReferenceCountUtil.release(frame);
+                return;
+            }
 
             rwl.readLock().lock();
 
             try {
-                channelGroup.writeAndFlush(encrypt(plainMessage) + EOL_DELIMITER).sync();
+                // the channel group takes ownership of the frame and releases it when written
+                channelGroup.writeAndFlush(frame);
+
+                final String plainMessage = MessageCodec.describe(frameType, body);
 
                 // Local listeners do not receive encrypted messages
                 for (LocalServerListener listener : listeners) {
@@ -258,8 +230,6 @@ public class MessageBusServer {
                 }
 
                 logger.log(Level.FINE, "Broadcast: {0}", plainMessage);
-            } catch (InterruptedException e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
             } finally {
                 rwl.readLock().unlock();
             }
@@ -0,0 +1,211 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import jgnash.engine.Engine;
+import jgnash.util.EncryptionManager;
+import jgnash.util.Nullable;
+
+/**
+ * Binary framing for the remote message bus.
+ * <p>
+ * Each frame is prefixed with its length, followed by a single frame type byte and the frame body.  The frame type
+ * is always sent in the clear so the server can route frames without parsing them.  If an {@code EncryptionManager}
+ * is used, the body is encrypted as a single block.
+ * <p>
+ * Message bodies use the compact form written by {@link Message#writeBinary(java.io.DataOutput)} where enums are
+ * encoded as ordinals and uuids as two longs.  A batch of messages is sent as a single frame holding the message count
+ * followed by each message.  Both ends of the connection must run the same version.
+ *
+ * @author Craig Cavanaugh
+ */
+class MessageCodec {
+
+    /**
+     * Largest accepted frame.  Messages only carry object references, so this is generous.
+     */
+    static final int MAX_FRAME_LENGTH = 1024 * 1024;
+
+    private static final int LENGTH_FIELD_LENGTH = 4;
+
+    static final byte MESSAGE_FRAME = 1;
+
+    static final byte PATH_FRAME = 2;
+
+    static final byte DATA_STORE_TYPE_FRAME = 3;
+
+    static final byte STOP_SERVER_FRAME = 4;
+
+    static final byte BATCH_FRAME = 5;
+
+    private final EncryptionManager encryptionManager;
+
+    MessageCodec(@Nullable final EncryptionManager encryptionManager) {
+        this.encryptionManager = encryptionManager;
+    }
+
+    /**
+     * Adds the length field framing handlers to a pipeline.
+     *
+     * @param pipeline pipeline to configure
+     */
+    static void addFraming(final ChannelPipeline pipeline) {
+        pipeline.addLast("framer", new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, LENGTH_FIELD_LENGTH, 0,
+                LENGTH_FIELD_LENGTH));
+        pipeline.addLast("prepender", new LengthFieldPrepender(LENGTH_FIELD_LENGTH));
+    }
+
+    ByteBuf encodeMessage(final Message message) throws IOException {
+        final ByteBuf buffer = Unpooled.buffer(64);
+
+        try (final ByteBufOutputStream out = new ByteBufOutputStream(buffer)) {
+            message.writeBinary(out);
+        }
+
+        final byte[] body = new byte[buffer.readableBytes()];
+        buffer.readBytes(body);
+
+        return encodeFrame(MESSAGE_FRAME, body);
+    }
+
+    ByteBuf encodeMessages(final List<Message> messages) throws IOException {
+        final ByteBuf buffer = Unpooled.buffer(64 * messages.size());
+
+        try (final ByteBufOutputStream out = new ByteBufOutputStream(buffer)) {
+            out.writeInt(messages.size());
+
+            for (final Message message : messages) {
+                message.writeBinary(out);
+            }
+        }
+
+        final byte[] body = new byte[buffer.readableBytes()];
+        buffer.readBytes(body);
+
+        return encodeFrame(BATCH_FRAME, body);
+    }
+
+    ByteBuf encodeString(final byte frameType, final String value) {
+        return encodeFrame(frameType, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ByteBuf encodeFrame(final byte frameType, final byte[] body) {
+        final byte[] payload = encryptionManager != null ? encryptionManager.encrypt(body) : body;
+
+        return Unpooled.wrappedBuffer(new byte[]{frameType}, payload);
+    }
+
+    /**
+     * Returns the type of a frame without consuming it.
+     *
+     * @param frame frame
+     * @return frame type
+     */
+    static byte getFrameType(final ByteBuf frame) {
+        return frame.getByte(frame.readerIndex());
+    }
+
+    /**
+     * Returns the decrypted body of a frame without consuming it.
+     *
+     * @param frame frame
+     * @return the frame body, {@code null} if decryption failed
+     */
+    @Nullable
+    byte[] getBody(final ByteBuf frame) {
+        final byte[] payload = new byte[frame.readableBytes() - 1];
+        frame.getBytes(frame.readerIndex() + 1, payload);
+
+        return encryptionManager != null ? encryptionManager.decrypt(payload) : payload;
+    }
+
+    static String decodeString(final byte[] body) {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    static Message decodeMessage(final byte[] body, final Engine engine) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new ByteBufInputStream(Unpooled.wrappedBuffer(body)))) {
+            return Message.readBinary(in, engine);
+        }
+    }
+
+    static List<Message> decodeMessages(final byte[] body, final Engine engine) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new ByteBufInputStream(Unpooled.wrappedBuffer(body)))) {
+            final int size = in.readInt();
+            final List<Message> messages = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                messages.add(Message.readBinary(in, engine));
+            }
+
+            return messages;
+        }
+    }
+
+    /**
+     * Returns a human readable description of a frame body.  Message properties are not resolved.
+     *
+     * @param frameType frame type
+     * @param body      decrypted frame body
+     * @return description
+     */
+    static String describe(final byte frameType, final byte[] body) {
+        if (frameType == MESSAGE_FRAME) {
+            try (final DataInputStream in = new DataInputStream(new ByteBufInputStream(Unpooled.wrappedBuffer(body)))) {
+                final MessageChannel channel = MessageChannel.values()[in.readUnsignedByte()];
+                final ChannelEvent event = ChannelEvent.values()[in.readUnsignedShort()];
+
+                return String.format("Message [event=%s, channel=%s, source=%s]", event, channel, readUuid(in));
+            } catch (final IOException | ArrayIndexOutOfBoundsException e) {
+                return "Message [malformed]";
+            }
+        }
+
+        if (frameType == BATCH_FRAME) {
+            return String.format("MessageBatch [size=%d]", Unpooled.wrappedBuffer(body).getInt(0));
+        }
+
+        return decodeString(body);
+    }
+
+    static void writeUuid(final DataOutput out, final UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(final DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
+import jgnash.util.DefaultDaemonThreadFactory;
+
+/**
+ * Dispatches message deliveries on a bounded thread pool.
+ * <p>
+ * Each listener is assigned a lane.  Tasks within a lane run in the order they were dispatched, one at a time,
+ * while different lanes run concurrently.  A lane only holds a pool thread for a limited number of tasks before
+ * yielding so busy listeners can not starve the others.
+ * <p>
+ * A listener that takes longer than {@link #SLOW_THRESHOLD} to process a message is flagged as slow and its lane is
+ * moved to a separate small pool so it can not stall the delivery of messages to the rest of the application.
+ *
+ * @author Craig Cavanaugh
+ */
+public class MessageDispatcher {
+
+    private static final Logger logger = Logger.getLogger(MessageDispatcher.class.getName());
+
+    /**
+     * Processing time in nanoseconds after which a listener is considered to be slow.
+     */
+    private static final long SLOW_THRESHOLD = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * Maximum number of tasks a lane runs before yielding the pool thread.
+     */
+    private static final int BURST_LIMIT = 32;
+
+    private static final int SLOW_POOL_THREADS = 2;
+
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    private static final LatencyHistogram dispatchLatency = Metrics.histogram("messageBus.dispatchLatency");
+
+    private static final LatencyHistogram listenerTime = Metrics.histogram("messageBus.listenerTime");
+
+    private final ThreadPoolExecutor pool;
+
+    private final ThreadPoolExecutor slowPool;
+
+    /**
+     * Lanes are weakly keyed by listener identity so a lane is released when its listener is garbage collected and
+     * listeners that are equal still get a lane of their own.  Guarded by itself.
+     */
+    private final Map<LaneKey, Lane> lanes = new HashMap<>();
+
+    /**
+     * Keys of garbage collected listeners.
+     */
+    private final ReferenceQueue<Object> staleKeys = new ReferenceQueue<>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final AtomicInteger slowListenerCount = new AtomicInteger();
+
+    private final LongAdder dispatchCount = new LongAdder();
+
+    private final LongAdder totalLatency = new LongAdder();
+
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param threads maximum number of threads used for dispatch
+     */
+    MessageDispatcher(final int threads) {
+        pool = createPool(threads);
+        slowPool = createPool(SLOW_POOL_THREADS);
+    }
+
+    private static ThreadPoolExecutor createPool(final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DefaultDaemonThreadFactory());
+
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Returns a reasonable default number of dispatch threads for this machine.
+     *
+     * @return number of threads
+     */
+    static int getDefaultThreadCount() {
+        return Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Queues a task in the lane for the supplied key.
+     *
+     * @param key  lane key, typically the listener
+     * @param task task to run
+     */
+    void dispatch(final Object key, final Runnable task) {
+        final Lane lane;
+
+        synchronized (lanes) {
+            for (Reference<?> stale = staleKeys.poll(); stale != null; stale = staleKeys.poll()) {
+                lanes.remove(stale);
+            }
+
+            lane = lanes.computeIfAbsent(new LaneKey(key, staleKeys), k -> new Lane(key.getClass().getName()));
+        }
+
+        queueDepth.incrementAndGet();
+
+        lane.add(new Task(task));
+    }
+
+    /**
+     * Returns the number of tasks waiting to be run.
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the number of tasks that have been run.
+     *
+     * @return dispatch count
+     */
+    public long getDispatchCount() {
+        return dispatchCount.sum();
+    }
+
+    /**
+     * Returns the average time a task waited before being run.
+     *
+     * @param unit time unit of the result
+     * @return average dispatch latency
+     */
+    public long getAverageLatency(final TimeUnit unit) {
+        final long count = dispatchCount.sum();
+
+        return count > 0 ? unit.convert(totalLatency.sum() / count, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Returns the longest time a task waited before being run.
+     *
+     * @param unit time unit of the result
+     * @return maximum dispatch latency
+     */
+    public long getMaxLatency(final TimeUnit unit) {
+        return unit.convert(maxLatency.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of listeners that have been isolated because they were slow to process messages.
+     *
+     * @return number of slow listeners
+     */
+    public int getSlowListenerCount() {
+        return slowListenerCount.get();
+    }
+
+    private void recordLatency(final long latency) {
+        dispatchLatency.record(latency);
+
+        dispatchCount.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Weak reference to a lane key that is compared by identity.
+     */
+    private static class LaneKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        LaneKey(final Object key, final ReferenceQueue<Object> queue) {
+            super(key, queue);
+            hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof LaneKey)) {
+                return false;
+            }
+
+            final Object key = get();
+
+            return key != null && key == ((LaneKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Task {
+        final Runnable runnable;
+
+        final long queuedTime = System.nanoTime();
+
+        Task(final Runnable runnable) {
+            this.runnable = runnable;
+        }
+    }
+
+    /**
+     * Runs tasks serially on the pool.
+     */
+    private class Lane implements Runnable {
+
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final String name;
+
+        private volatile boolean slow;
+
+        Lane(final String name) {
+            this.name = name;
+        }
+
+        void add(final Task task) {
+            tasks.add(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                (slow ? slowPool : pool).execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < BURST_LIMIT; i++) {
+                    final Task task = tasks.poll();
+
+                    if (task == null) {
+                        break;
+                    }
+
+                    queueDepth.decrementAndGet();
+
+                    final long start = System.nanoTime();
+
+                    recordLatency(start - task.queuedTime);
+
+                    try {
+                        task.runnable.run();
+                    } catch (final RuntimeException e) {
+                        logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+                    }
+
+                    final long elapsed = System.nanoTime() - start;
+
+                    listenerTime.record(elapsed);
+
+                    if (!slow && elapsed > SLOW_THRESHOLD) {
+                        slow = true;
+                        slowListenerCount.incrementAndGet();
+
+                        logger.log(Level.WARNING, "Slow message listener isolated: {0}", name);
+
+                        break;  // reschedule remaining tasks on the slow pool
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                schedule();
+            }
+        }
+    }
+}
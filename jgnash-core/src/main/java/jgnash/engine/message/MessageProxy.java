@@ -21,8 +21,6 @@ import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -46,9 +44,19 @@ public class MessageProxy {
     private final ReentrantLock lock = new ReentrantLock();
 
     /**
-     * Shared thread pool for all instances of MessageProxy.
+     * Shared dispatcher for all instances of MessageProxy.
      */
-    private static final ExecutorService THREAD_POOL = Executors.newCachedThreadPool();
+    private static final MessageDispatcher DISPATCHER
+            = new MessageDispatcher(MessageDispatcher.getDefaultThreadCount());
+
+    /**
+     * Returns the dispatcher shared by all instances of MessageProxy.
+     *
+     * @return the message dispatcher
+     */
+    public static MessageDispatcher getDispatcher() {
+        return DISPATCHER;
+    }
 
     /**
      * Register a listener.
@@ -101,22 +109,50 @@ public class MessageProxy {
         lock.lock();
 
         try {
+            Iterator<WeakReference<MessageListener>> iterator = messageListeners.iterator();
+
+            while (iterator.hasNext()) {
+                WeakReference<MessageListener> reference = iterator.next();
+
+                final MessageListener actionListener = reference.get();
+
+                if (actionListener != null) {
+                    DISPATCHER.dispatch(actionListener, () -> actionListener.messagePosted(message));
+                } else {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            THREAD_POOL.submit(() -> {
-                Iterator<WeakReference<MessageListener>> iterator = messageListeners.iterator();
+    /**
+     * Forwards a batch of messages to listeners.  Listeners that do not accept batches receive each message.
+     *
+     * @param batch batch to forward
+     */
+    public final void forwardBatch(final MessageBatch batch) {
 
-                while (iterator.hasNext()) {
-                    WeakReference<MessageListener> reference = iterator.next();
+        lock.lock();
 
-                    final MessageListener actionListener = reference.get();
+        try {
+            Iterator<WeakReference<MessageListener>> iterator = messageListeners.iterator();
+
+            while (iterator.hasNext()) {
+                WeakReference<MessageListener> reference = iterator.next();
 
-                    if (actionListener != null) {
-                        THREAD_POOL.submit(() -> actionListener.messagePosted(message));
-                    } else {
-                        iterator.remove();
-                    }
+                final MessageListener actionListener = reference.get();
+
+                if (actionListener instanceof BatchMessageListener) {
+                    DISPATCHER.dispatch(actionListener,
+                            () -> ((BatchMessageListener) actionListener).messagesPosted(batch));
+                } else if (actionListener != null) {
+                    DISPATCHER.dispatch(actionListener, () -> batch.forEach(actionListener::messagePosted));
+                } else {
+                    iterator.remove();
                 }
-            });
+            }
         } finally {
             lock.unlock();
         }
@@ -0,0 +1,68 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count of events.  Nothing is counted while metrics are disabled.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class Counter implements Metric, CounterMXBean {
+
+    private final String name;
+
+    private final LongAdder count = new LongAdder();
+
+    Counter(final String name) {
+        this.name = name;
+    }
+
+    public void increment() {
+        if (Metrics.enabled) {
+            count.increment();
+        }
+    }
+
+    public void add(final long value) {
+        if (Metrics.enabled) {
+            count.add(value);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getCount();
+    }
+}
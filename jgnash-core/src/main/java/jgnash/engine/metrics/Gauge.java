@@ -0,0 +1,78 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A value that is sampled when it is read, a queue depth for example.  A gauge costs nothing until it is read.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class Gauge implements Metric, GaugeMXBean {
+
+    private static final DoubleSupplier NONE = () -> 0;
+
+    private final String name;
+
+    private volatile DoubleSupplier supplier = NONE;
+
+    Gauge(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the source of the value.  Replaces the previous source, used when the measured object is recreated.
+     *
+     * @param supplier source of the value
+     */
+    void setSupplier(final DoubleSupplier supplier) {
+        this.supplier = Objects.requireNonNull(supplier);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public double getValue() {
+        return supplier.getAsDouble();
+    }
+
+    /**
+     * A gauge has no recorded values, the call is ignored.
+     */
+    @Override
+    public void reset() {
+        // nothing to reset
+    }
+
+    @Override
+    public String toString() {
+        final double value = getValue();
+
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return name + ": " + (long) value;
+        }
+
+        return String.format(Locale.ROOT, "%s: %.3f", name, value);
+    }
+}
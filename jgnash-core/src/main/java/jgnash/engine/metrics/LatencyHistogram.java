@@ -0,0 +1,235 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies recorded in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets in the manner of an HDR histogram: each power of two is divided into
+ * {@link #SUB_BUCKET_COUNT} linear buckets, so percentiles are reported to within about 3% of the recorded value
+ * regardless of magnitude while recording remains a single atomic increment.  The maximum is tracked exactly.
+ * Nothing is recorded while metrics are disabled.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class LatencyHistogram implements Metric, LatencyHistogramMXBean {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest tracked power of two, about 4.9 hours in nanoseconds.  Longer values are counted in the last bucket.
+     */
+    private static final int MAX_EXPONENT = 44;
+
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final double NANOS_PER_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder total = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        if (Metrics.enabled) {
+            final long value = Math.max(0, nanos);
+
+            buckets.incrementAndGet(bucketIndex(value));
+            count.increment();
+            total.add(value);
+
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Records the time elapsed since a start time.
+     *
+     * @param startNanos start time returned by {@link Metrics#startTime()}
+     */
+    public void recordSince(final long startNanos) {
+        if (startNanos != Metrics.DISABLED) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+
+        final int shift = exponent - SUB_BUCKET_BITS;
+
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Returns the largest value that is counted in a bucket.
+     *
+     * @param index bucket index
+     * @return highest equivalent value
+     */
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        final long subBucket = SUB_BUCKET_COUNT + (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return value in nanoseconds, 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] counts = new long[BUCKET_COUNT];
+        long recorded = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            recorded += counts[i];
+        }
+
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * recorded));
+        final long maxValue = max.get();
+
+        long running = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            running += counts[i];
+
+            if (running >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+
+        return maxValue;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return mean in nanoseconds
+     */
+    public long getMeanNanos() {
+        final long recorded = count.sum();
+
+        return recorded > 0 ? total.sum() / recorded : 0;
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        return getMeanNanos() / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double get50thPercentile() {
+        return getValueAtPercentile(50) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double get95thPercentile() {
+        return getValueAtPercentile(95) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double get99thPercentile() {
+        return getValueAtPercentile(99) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double get999thPercentile() {
+        return getValueAtPercentile(99.9) / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public double getMax() {
+        return getMaxNanos() / NANOS_PER_MILLISECOND;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s: count=%d, mean=%.3f ms, p50=%.3f ms, p95=%.3f ms, p99=%.3f ms, "
+                        + "max=%.3f ms", name, getCount(), getMean(), get50thPercentile(), get95thPercentile(),
+                get99thPercentile(), getMax());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+/**
+ * Management interface of a {@link LatencyHistogram}.  Times are reported in milliseconds.
+ *
+ * @author Craig Cavanaugh
+ */
+public interface LatencyHistogramMXBean {
+
+    String getName();
+
+    long getCount();
+
+    double getMean();
+
+    double get50thPercentile();
+
+    double get95thPercentile();
+
+    double get99thPercentile();
+
+    double get999thPercentile();
+
+    double getMax();
+
+    void reset();
+}
@@ -0,0 +1,299 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jgnash.util.DefaultDaemonThreadFactory;
+
+/**
+ * Registry of the engine metrics.
+ * <p>
+ * Instrumented classes obtain their counters, gauges and latency histograms once, typically as static fields, and
+ * record into them on every operation.  Metrics are disabled by default; recording is then reduced to a single read of
+ * a volatile flag, and a gauge is never sampled.  Timings follow this pattern:
+ * <pre>
+ * final long start = Metrics.startTime();
+ * ...
+ * histogram.recordSince(start);
+ * </pre>
+ * When enabled, every metric is published as an MXBean in the {@value #DOMAIN} domain of the platform MBean server
+ * where it may be inspected with JConsole or VisualVM.  The metrics may also be written to the log periodically.
+ * <p>
+ * Metrics are enabled at startup with the {@value #ENABLED_PROPERTY} system property, and the log interval in seconds
+ * is set with the {@value #LOG_INTERVAL_PROPERTY} system property.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class Metrics {
+
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    public static final String ENABLED_PROPERTY = "jgnash.metrics";
+
+    public static final String LOG_INTERVAL_PROPERTY = "jgnash.metrics.logInterval";
+
+    /**
+     * JMX domain the metrics are published in.
+     */
+    public static final String DOMAIN = "jgnash.metrics";
+
+    /**
+     * Start time returned while metrics are disabled.
+     */
+    static final long DISABLED = Long.MIN_VALUE;
+
+    /**
+     * Metrics by name, guarded by the class lock.
+     */
+    private static final Map<String, Metric> metrics = new TreeMap<>();
+
+    static volatile boolean enabled;
+
+    private static ScheduledExecutorService logExecutor;
+
+    private static ScheduledFuture<?> logTask;
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            setEnabled(true);
+
+            final long interval = Long.getLong(LOG_INTERVAL_PROPERTY, 0);
+
+            if (interval > 0) {
+                setLogInterval(interval, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private Metrics() {
+        // utility class
+    }
+
+    /**
+     * Returns a counter, creating it if required.
+     *
+     * @param name name of the counter
+     * @return the counter
+     */
+    public static Counter counter(final String name) {
+        return register(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Returns a latency histogram, creating it if required.
+     *
+     * @param name name of the histogram
+     * @return the histogram
+     */
+    public static LatencyHistogram histogram(final String name) {
+        return register(name, LatencyHistogram.class, LatencyHistogram::new);
+    }
+
+    /**
+     * Returns a gauge, creating it if required.  The supplier replaces any previous supplier of the gauge so the
+     * gauge follows the most recently created instance of the measured object.
+     *
+     * @param name     name of the gauge
+     * @param supplier source of the value
+     * @return the gauge
+     */
+    public static Gauge gauge(final String name, final DoubleSupplier supplier) {
+        final Gauge gauge = register(name, Gauge.class, Gauge::new);
+        gauge.setSupplier(supplier);
+
+        return gauge;
+    }
+
+    /**
+     * Returns a gauge of the ratio of cache hits to cache requests.
+     *
+     * @param name   name of the gauge
+     * @param hits   counter of cache hits
+     * @param misses counter of cache misses
+     * @return the gauge
+     */
+    public static Gauge hitRatio(final String name, final Counter hits, final Counter misses) {
+        return gauge(name, () -> {
+            final long hitCount = hits.getCount();
+            final long requests = hitCount + misses.getCount();
+
+            return requests == 0 ? 0 : (double) hitCount / requests;
+        });
+    }
+
+    private static synchronized <T extends Metric> T register(final String name, final Class<T> type,
+                                                              final Function<String, T> factory) {
+        Metric metric = metrics.get(name);
+
+        if (metric == null) {
+            metric = factory.apply(name);
+            metrics.put(name, metric);
+
+            if (enabled) {
+                publish(metric);
+            }
+        }
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(name + " is already registered as a "
+                    + metric.getClass().getSimpleName());
+        }
+
+        return type.cast(metric);
+    }
+
+    /**
+     * Returns the start time of an operation to be passed to {@link LatencyHistogram#recordSince(long)}.
+     *
+     * @return the current time in nanoseconds, or a marker that is ignored if metrics are disabled
+     */
+    public static long startTime() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording.  Metrics are published over JMX while enabled.  Values recorded before metrics
+     * were disabled are retained.
+     *
+     * @param enable {@code true} to enable recording
+     */
+    public static synchronized void setEnabled(final boolean enable) {
+        if (enable == enabled) {
+            return;
+        }
+
+        enabled = enable;
+
+        for (final Metric metric : metrics.values()) {
+            if (enable) {
+                publish(metric);
+            } else {
+                unpublish(metric);
+            }
+        }
+    }
+
+    /**
+     * Sets the interval the metrics are written to the log.
+     *
+     * @param interval interval between log entries, 0 to stop logging
+     * @param unit     time unit of the interval
+     */
+    public static synchronized void setLogInterval(final long interval, final TimeUnit unit) {
+        if (logTask != null) {
+            logTask.cancel(false);
+            logTask = null;
+        }
+
+        if (interval > 0) {
+            if (logExecutor == null) {
+                logExecutor = Executors.newSingleThreadScheduledExecutor(new DefaultDaemonThreadFactory());
+            }
+
+            logTask = logExecutor.scheduleAtFixedRate(Metrics::log, interval, interval, unit);
+        }
+    }
+
+    private static void log() {
+        if (enabled) {
+            logger.info(getReport());
+        }
+    }
+
+    /**
+     * Returns a snapshot of the registered metrics ordered by name.
+     *
+     * @return list of metrics
+     */
+    public static synchronized List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    /**
+     * Returns a report of the current values, one line per metric.
+     *
+     * @return the report
+     */
+    public static String getReport() {
+        final StringBuilder builder = new StringBuilder("Engine metrics");
+
+        for (final Metric metric : getMetrics()) {
+            builder.append(System.lineSeparator()).append("  ").append(metric);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Clears the recorded values of all metrics.
+     */
+    public static void reset() {
+        getMetrics().forEach(Metric::reset);
+    }
+
+    static ObjectName getObjectName(final Metric metric) throws JMException {
+        return ObjectName.getInstance(DOMAIN + ":type=" + metric.getClass().getSimpleName() + ",name="
+                + ObjectName.quote(metric.getName()));
+    }
+
+    private static void publish(final Metric metric) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            final ObjectName objectName = getObjectName(metric);
+
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(metric, objectName);
+            }
+        } catch (final JMException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+
+    private static void unpublish(final Metric metric) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(getObjectName(metric));
+        } catch (final InstanceNotFoundException ignored) {
+            // never published
+        } catch (final JMException e) {
+            logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+        }
+    }
+}
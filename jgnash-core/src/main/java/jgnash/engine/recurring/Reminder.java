@@ -265,11 +265,11 @@ public abstract class Reminder extends StoredObject implements Comparable<Remind
     }
 
     /**
-     * Sets the last date fired to the next iterator date in the series.
+     * Sets the last date fired.
      *
      * @param lastDate The lastDate to set.
      */
-    private void setLastDate(final @NotNull LocalDate lastDate) {
+    void setLastDate(final @NotNull LocalDate lastDate) {
         this.lastDate = lastDate;
     }
 
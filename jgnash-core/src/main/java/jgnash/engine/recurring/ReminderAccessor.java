@@ -0,0 +1,46 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.recurring;
+
+import java.time.LocalDate;
+
+import jgnash.util.NotNull;
+
+/**
+ * Gives file format readers access to {@code Reminder} state that is not part of its public API.
+ * <p>
+ * Not intended for application use.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class ReminderAccessor {
+
+    private ReminderAccessor() {
+        // Utility class
+    }
+
+    /**
+     * Restores the last date a reminder fired.
+     *
+     * @param reminder reminder being read
+     * @param lastDate the last date fired
+     */
+    public static void setLastDate(final Reminder reminder, final @NotNull LocalDate lastDate) {
+        reminder.setLastDate(lastDate);
+    }
+}
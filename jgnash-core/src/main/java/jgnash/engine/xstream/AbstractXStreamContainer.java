@@ -59,6 +59,7 @@ import jgnash.engine.TransactionEntrySellX;
 import jgnash.engine.TransactionEntrySplitX;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.dao.TransactionHydrator;
 import jgnash.time.Period;
 import jgnash.util.FileLocker;
 import jgnash.util.FileUtils;
@@ -236,6 +237,15 @@ abstract class AbstractXStreamContainer {
 
     abstract void commit();
 
+    /**
+     * Returns the hydrator for transactions that have not been loaded yet.
+     *
+     * @return {@code null} unless the container was read progressively
+     */
+    TransactionHydrator getTransactionHydrator() {
+        return null;
+    }
+
     boolean set(final StoredObject object) {
 
         boolean result = false;
@@ -25,6 +25,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import jgnash.engine.StoredObject;
 import jgnash.engine.dao.AbstractDAO;
 import jgnash.engine.dao.DAO;
+import jgnash.engine.metrics.LatencyHistogram;
+import jgnash.engine.metrics.Metrics;
 import jgnash.util.NotNull;
 
 /**
@@ -47,6 +49,8 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
 
     private static final int MAX_COMMIT_COUNT = 250;
 
+    private static final LatencyHistogram commitTime = Metrics.histogram("xstream.commit");
+
     AbstractXStreamDAO(@NotNull final AbstractXStreamContainer container) {
         Objects.requireNonNull(container);
 
@@ -79,8 +83,12 @@ abstract class AbstractXStreamDAO extends AbstractDAO implements DAO {
         commitLock.lock();
 
         try {
+            final long start = Metrics.startTime();
+
             commitCount.set(0);
             container.commit();
+
+            commitTime.recordSince(start);
         } finally {
             commitLock.unlock();
         }
@@ -42,6 +42,7 @@ import jgnash.engine.StoredObjectComparator;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.recurring.Reminder;
 import jgnash.util.NotNull;
+import jgnash.util.StartupTimeline;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
@@ -144,7 +145,8 @@ class BinaryContainer extends AbstractXStreamContainer {
             final XStream xstream = configureXStream(new XStreamJVM9(new StoredObjectReflectionProvider(objects),
                     new BinaryStreamDriver()));
 
-            try (final ObjectInputStream in = xstream.createObjectInputStream(fis)) {
+            try (final ObjectInputStream in = xstream.createObjectInputStream(fis);
+                 final StartupTimeline.Phase ignored = StartupTimeline.begin("Read binary XStream file")) {
                 in.readObject();
             }
 
@@ -30,7 +30,7 @@ import jgnash.engine.DataStoreType;
 import jgnash.engine.Engine;
 import jgnash.engine.StoredObject;
 import jgnash.engine.attachment.LocalAttachmentManager;
-import jgnash.engine.concurrent.LocalLockManager;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.util.NotNull;
 import jgnash.resource.util.ResourceUtils;
 
@@ -76,7 +76,7 @@ public class BinaryXStreamDataStore implements DataStore {
             container.readBinary();
         }
 
-        Engine engine = new Engine(new XStreamEngineDAO(container), new LocalLockManager(),
+        Engine engine = new Engine(new XStreamEngineDAO(container), LockDiagnostics.createLocalLockManager(),
                 new LocalAttachmentManager(), engineName);
 
         logger.info("Created local Binary container and engine");
@@ -0,0 +1,218 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.xstream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.engine.CompactBinaryCodec;
+import jgnash.engine.StoredObject;
+import jgnash.engine.Transaction;
+import jgnash.engine.dao.TransactionHydrator;
+import jgnash.util.NotNull;
+import jgnash.util.StartupTimeline;
+
+/**
+ * Simple object container for StoredObjects that reads and writes a file using the compact binary codec.
+ * <p>
+ * The in memory handling is shared with the XStream containers, only the encoding differs.
+ *
+ * @author Craig Cavanaugh
+ * @see CompactBinaryCodec
+ */
+class CompactBinaryContainer extends AbstractXStreamContainer {
+
+    /**
+     * Number of years, including the current one, with transactions that are decoded before the file is opened when
+     * loading progressively.
+     */
+    private static final int RESIDENT_YEARS = 2;
+
+    /**
+     * Transactions that have not been decoded yet, {@code null} if everything was loaded up front.
+     */
+    private volatile Hydrator hydrator;
+
+    CompactBinaryContainer(final Path path) {
+        super(path);
+    }
+
+    @Override
+    void commit() {
+        final Hydrator pending = hydrator;
+
+        // never write a file with part of the transactions missing
+        if (pending != null) {
+            try {
+                pending.hydrateRemaining();
+            } catch (final IOException e) {
+                Logger.getLogger(CompactBinaryContainer.class.getName()).log(Level.SEVERE,
+                        "Transactions could not be loaded, the file was not written", e);
+                return;
+            }
+        }
+
+        writeCompactBinary();
+    }
+
+    @Override
+    TransactionHydrator getTransactionHydrator() {
+        return hydrator;
+    }
+
+    private synchronized void writeCompactBinary() {
+        readWriteLock.readLock().lock();
+
+        try {
+            releaseFileLock();
+            writeCompactBinary(objects, path);
+        } finally {
+            if (!acquireFileLock()) { // lock the file on open
+                Logger.getLogger(CompactBinaryContainer.class.getName()).severe("Could not acquire the file lock");
+            }
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes a compact binary file given a collection of StoredObjects. TrashObjects and objects marked for removal
+     * are not written. If the file already exists, it will be overwritten.
+     *
+     * @param objects Collection of StoredObjects to write
+     * @param path    file to write
+     */
+    static synchronized void writeCompactBinary(@NotNull final Collection<StoredObject> objects,
+                                                @NotNull final Path path) {
+        final Logger logger = Logger.getLogger(CompactBinaryContainer.class.getName());
+
+        if (!Files.exists(path.getParent())) {
+            try {
+                Files.createDirectories(path.getParent());
+                logger.info("Created missing directories");
+            } catch (final IOException e) {
+                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+            }
+        }
+
+        createBackup(path);
+
+        logger.info("Writing compact binary file");
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CompactBinaryCodec.write(objects, channel);
+            channel.force(false);   // help older windows systems write correctly
+        } catch (final IOException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        logger.info("Writing compact binary file complete");
+    }
+
+    /**
+     * Reads the file.
+     *
+     * @param progressive {@code true} to defer decoding transactions older than the resident years
+     */
+    void readCompactBinary(final boolean progressive) {
+
+        // A file lock will be held on Windows OS when reading
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readWriteLock.writeLock().lock();
+
+            final int firstYear = progressive ? LocalDate.now().getYear() - RESIDENT_YEARS + 1 : Integer.MIN_VALUE;
+            final CompactBinaryCodec.ProgressiveRead read;
+
+            try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Read compact binary file")) {
+                read = CompactBinaryCodec.readProgressively(channel, firstYear);
+            }
+
+            objects.addAll(read.getObjects());
+
+            if (read.hasPending()) {
+                hydrator = new Hydrator(read);
+            }
+        } catch (final IOException e) {
+            Logger.getLogger(CompactBinaryContainer.class.getName()).log(Level.SEVERE, null, e);
+        } finally {
+            if (!acquireFileLock()) { // lock the file on open
+                Logger.getLogger(CompactBinaryContainer.class.getName()).severe("Could not acquire the file lock");
+            }
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the deferred transactions one year at a time and adds them to the container.
+     * <p>
+     * Lock order is the hydrator, the container and then the accounts.  The engine lock is never taken here.
+     */
+    private final class Hydrator implements TransactionHydrator {
+
+        private final CompactBinaryCodec.ProgressiveRead read;
+
+        Hydrator(final CompactBinaryCodec.ProgressiveRead read) {
+            this.read = read;
+        }
+
+        @Override
+        public LocalDate getHydratedFrom() {
+            return read.getLoadedFrom();
+        }
+
+        @Override
+        public synchronized boolean hydrateNext() throws IOException {
+            if (!read.hasPending()) {
+                return false;
+            }
+
+            // decode outside the container lock, readers of the loaded objects are not blocked
+            final List<Transaction> transactions = read.decodeNext();
+
+            readWriteLock.writeLock().lock();
+
+            try {
+                objects.addAll(transactions);
+                read.attach(transactions);
+            } finally {
+                readWriteLock.writeLock().unlock();
+            }
+
+            if (!read.hasPending()) {
+                hydrator = null;
+                return false;
+            }
+
+            return true;
+        }
+
+        synchronized void hydrateRemaining() throws IOException {
+            while (read.hasPending()) {
+                hydrateNext();
+            }
+        }
+    }
+}
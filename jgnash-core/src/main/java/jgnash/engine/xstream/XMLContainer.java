@@ -40,6 +40,7 @@ import jgnash.engine.StoredObject;
 import jgnash.engine.StoredObjectComparator;
 import jgnash.engine.budget.Budget;
 import jgnash.engine.recurring.Reminder;
+import jgnash.util.StartupTimeline;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
@@ -79,6 +80,26 @@ class XMLContainer extends AbstractXStreamContainer {
 
         createBackup(path);
 
+        logger.info("Writing XML file");
+
+        try (final Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeXML(objects, writer);
+        } catch (final IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        }
+
+        logger.info("Writing XML file complete");
+    }
+
+    /**
+     * Writes the XML representation of a collection of StoredObjects. TrashObjects and objects marked for removal
+     * are not written.  The writer is closed when complete.
+     *
+     * @param objects Collection of StoredObjects to write
+     * @param writer  destination {@code Writer}
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeXML(final Collection<StoredObject> objects, final Writer writer) throws IOException {
         List<StoredObject> list = new ArrayList<>();
 
         list.addAll(query(objects, Budget.class));
@@ -94,25 +115,15 @@ class XMLContainer extends AbstractXStreamContainer {
         // sort the list
         list.sort(new StoredObjectComparator());
 
-        logger.info("Writing XML file");
-
-        try (final Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
-            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-            writer.write("<?fileFormat " + Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION + "?>\n");
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<?fileFormat " + Engine.CURRENT_MAJOR_VERSION + "." + Engine.CURRENT_MINOR_VERSION + "?>\n");
 
-            final XStream xstream = configureXStream(new XStreamOut(new PureJavaReflectionProvider(), new StaxDriver()));
+        final XStream xstream = configureXStream(new XStreamOut(new PureJavaReflectionProvider(), new StaxDriver()));
 
-            try (final ObjectOutputStream out = xstream.createObjectOutputStream(new PrettyPrintWriter(writer))) {
-                out.writeObject(list);
-                out.flush();     // forcibly flush before letting go of the resources to help older windows systems write correctly
-            } catch (final Exception e) {
-                logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-            }
-        } catch (final IOException e) {
-            logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
+        try (final ObjectOutputStream out = xstream.createObjectOutputStream(new PrettyPrintWriter(writer))) {
+            out.writeObject(list);
+            out.flush();     // forcibly flush before letting go of the resources to help older windows systems write correctly
         }
-
-        logger.info("Writing XML file complete");
     }
 
     @Override
@@ -143,7 +154,8 @@ class XMLContainer extends AbstractXStreamContainer {
             final XStream xstream = configureXStream(new XStreamJVM9(new StoredObjectReflectionProvider(objects),
                     new StaxDriver()));
 
-            try (final ObjectInputStream in = xstream.createObjectInputStream(reader)) {
+            try (final ObjectInputStream in = xstream.createObjectInputStream(reader);
+                 final StartupTimeline.Phase ignored = StartupTimeline.begin("Read XML XStream file")) {
                 in.readObject();
             }
 
@@ -17,12 +17,18 @@
  */
 package jgnash.engine.xstream;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
 
 import jgnash.engine.Config;
 import jgnash.engine.DataStore;
@@ -30,8 +36,9 @@ import jgnash.engine.DataStoreType;
 import jgnash.engine.Engine;
 import jgnash.engine.StoredObject;
 import jgnash.engine.attachment.LocalAttachmentManager;
-import jgnash.engine.concurrent.LocalLockManager;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.util.NotNull;
+import jgnash.util.ParallelZipOutputStream;
 import jgnash.resource.util.ResourceUtils;
 
 /**
@@ -76,7 +83,7 @@ public class XMLDataStore implements DataStore {
             container.readXML();
         }
 
-        Engine engine = new Engine(new XStreamEngineDAO(container), new LocalLockManager(),
+        Engine engine = new Engine(new XStreamEngineDAO(container), LockDiagnostics.createLocalLockManager(),
                 new LocalAttachmentManager(), engineName);
 
         logger.info("Created local XML container and engine");
@@ -148,6 +155,27 @@ public class XMLDataStore implements DataStore {
         XMLContainer.writeXML(objects, path);
     }
 
+    /**
+     * Saves a collection of objects as a zip file containing a single XML file.  The XML is compressed in parallel
+     * blocks as it is generated, so an intermediate XML file is never written.
+     *
+     * @param zipFile   zip file to create, an existing file is overwritten
+     * @param entryName name of the XML file within the zip file
+     * @param objects   objects to save
+     * @throws IOException if an I/O error occurs
+     */
+    public static void saveAsCompressed(final Path zipFile, final String entryName,
+                                        final Collection<StoredObject> objects) throws IOException {
+        if (zipFile.getParent() != null) {
+            Files.createDirectories(zipFile.getParent());
+        }
+
+        try (final Writer writer = new BufferedWriter(new OutputStreamWriter(new ParallelZipOutputStream(
+                Files.newOutputStream(zipFile), entryName, Deflater.BEST_COMPRESSION), StandardCharsets.UTF_8))) {
+            XMLContainer.writeXML(objects, writer);
+        }
+    }
+
     /**
      * Opens the file in readonly mode and reads the version of the file format.
      *
@@ -34,6 +34,7 @@ import jgnash.engine.dao.ConfigDAO;
 import jgnash.engine.dao.EngineDAO;
 import jgnash.engine.dao.RecurringDAO;
 import jgnash.engine.dao.TransactionDAO;
+import jgnash.engine.dao.TransactionHydrator;
 import jgnash.engine.dao.TrashDAO;
 
 /**
@@ -154,6 +155,11 @@ class XStreamEngineDAO extends AbstractXStreamDAO implements EngineDAO {
         return trashDAO;
     }
 
+    @Override
+    public TransactionHydrator getTransactionHydrator() {
+        return container.getTransactionHydrator();
+    }
+
     @Override
     public List<StoredObject> getStoredObjects() {
         return container.asList();
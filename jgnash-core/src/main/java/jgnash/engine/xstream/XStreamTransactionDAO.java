@@ -17,11 +17,14 @@
  */
 package jgnash.engine.xstream;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import jgnash.engine.Account;
 import jgnash.engine.Transaction;
+import jgnash.engine.TransactionEntry;
 import jgnash.engine.dao.TransactionDAO;
 
 /**
@@ -48,17 +51,38 @@ class XStreamTransactionDAO extends AbstractXStreamDAO implements TransactionDAO
         return true;
     }
 
+    @Override
+    public boolean addTransactions(final Collection<Transaction> transactions) {
+        for (final Transaction transaction : transactions) {
+            container.set(transaction);
+        }
+        commit();
+
+        return true;
+    }
+
     @Override
     public Transaction getTransactionByUuid(final UUID uuid) {
         return getObjectByUuid(Transaction.class, uuid);
     }
 
+    @Override
+    public void initializeTransactions(final Account account) {
+        // transactions are always resident
+    }
+
     @Override
     public boolean removeTransaction(final Transaction transaction) {
         commit();
         return true;
     }
 
+    @Override
+    public boolean updateReconciledStates(final Collection<TransactionEntry> entries) {
+        commit();
+        return true;
+    }
+
     @Override
     public List<Transaction> getTransactionsWithAttachments() {
         return container.query(Transaction.class).parallelStream()
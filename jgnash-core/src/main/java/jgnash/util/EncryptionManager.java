@@ -19,6 +19,7 @@
 package jgnash.util;
 
 import java.nio.charset.StandardCharsets;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.MessageDigest;
@@ -31,10 +32,14 @@ import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
  * A Simple encryption class based on a supplied user and password.
+ * <p>
+ * {@code Cipher} instances are expensive to create and are not thread safe, so initialized instances are pooled per
+ * thread and reused for each call.
  *
  * @author Craig Cavanaugh
  */
@@ -42,10 +47,21 @@ public class EncryptionManager {
 
     private final Key key;
 
+    private final ThreadLocal<Cipher> encryptCipher = ThreadLocal.withInitial(() -> createCipher(Cipher.ENCRYPT_MODE));
+
+    private final ThreadLocal<Cipher> decryptCipher = ThreadLocal.withInitial(() -> createCipher(Cipher.DECRYPT_MODE));
+
     //public static final String ENCRYPTION_FLAG = "encrypt";
 
     private static final String ENCRYPTION_ALGORITHM = "AES";
 
+    private static final String STREAM_TRANSFORMATION = "AES/CTR/NoPadding";
+
+    /**
+     * Length of the initialization vector required by {@link #createStreamCipher(int, byte[])}.
+     */
+    public static final int STREAM_IV_LENGTH = 16;
+
     public static final String DECRYPTION_ERROR_TAG = "<DecryptError>";
 
     private static final Logger logger = Logger.getLogger(EncryptionManager.class.getName());
@@ -69,6 +85,42 @@ public class EncryptionManager {
         key = new SecretKeySpec(encryptionKey, ENCRYPTION_ALGORITHM);
     }
 
+    private Cipher createCipher(final int mode) {
+        try {
+            final Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGORITHM);
+            cipher.init(mode, key);
+
+            return cipher;
+        } catch (final InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException e) {
+            logger.log(Level.SEVERE, e.getMessage(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a cipher for encrypting or decrypting a stream of bytes.
+     * <p>
+     * The cipher operates in counter mode so the encrypted stream has the same length as the plain stream and data
+     * may be processed in chunks of any size.  A new random IV must be used for every stream.
+     *
+     * @param mode {@code Cipher.ENCRYPT_MODE} or {@code Cipher.DECRYPT_MODE}
+     * @param iv   initialization vector of {@code STREAM_IV_LENGTH} bytes
+     * @return an initialized cipher
+     * @see #STREAM_IV_LENGTH
+     */
+    public Cipher createStreamCipher(final int mode, final byte[] iv) {
+        try {
+            final Cipher cipher = Cipher.getInstance(STREAM_TRANSFORMATION);
+            cipher.init(mode, key, new IvParameterSpec(iv));
+
+            return cipher;
+        } catch (final InvalidKeyException | InvalidAlgorithmParameterException | NoSuchAlgorithmException
+                | NoSuchPaddingException e) {
+            logger.log(Level.SEVERE, e.getMessage(), e);
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Encrypts the supplied string.
      *
@@ -76,16 +128,25 @@ public class EncryptionManager {
      * @return the encrypted string
      */
     public String encrypt(final String plain) {
+        final byte[] encrypted = encrypt(plain.getBytes(StandardCharsets.UTF_8));
 
-        try {
-            final Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGORITHM);
-
-            cipher.init(Cipher.ENCRYPT_MODE, key);
+        if (encrypted != null) {
+            return Base64.getEncoder().encodeToString(encrypted);
+        }
 
-            return Base64.getEncoder().encodeToString(cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8)));
+        return null;
+    }
 
-        } catch (final InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException
-                | IllegalBlockSizeException e) {
+    /**
+     * Encrypts the supplied bytes.
+     *
+     * @param plain bytes to encrypt
+     * @return the encrypted bytes or {@code null} if encryption failed
+     */
+    public byte[] encrypt(final byte[] plain) {
+        try {
+            return encryptCipher.get().doFinal(plain);
+        } catch (final BadPaddingException | IllegalBlockSizeException e) {
             logger.log(Level.SEVERE, e.getMessage(), e);
         }
 
@@ -100,17 +161,32 @@ public class EncryptionManager {
      * @see #DECRYPTION_ERROR_TAG
      */
     public String decrypt(final String encrypted) {
-
         try {
-            final Cipher cipher = Cipher.getInstance(ENCRYPTION_ALGORITHM);
+            final byte[] plain = decrypt(Base64.getDecoder().decode(encrypted));
+
+            if (plain != null) {
+                return new String(plain, StandardCharsets.UTF_8);
+            }
+        } catch (final IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Invalid password");
+        }
 
-            cipher.init(Cipher.DECRYPT_MODE, key);
+        return DECRYPTION_ERROR_TAG;
+    }
 
-            return new String(cipher.doFinal(Base64.getDecoder().decode(encrypted)), StandardCharsets.UTF_8);
-        } catch (final InvalidKeyException | NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException
-                | IllegalBlockSizeException e) {
+    /**
+     * Decrypts the supplied bytes.
+     *
+     * @param encrypted bytes to decrypt
+     * @return The decrypted bytes or {@code null} if decryption fails
+     */
+    public byte[] decrypt(final byte[] encrypted) {
+        try {
+            return decryptCipher.get().doFinal(encrypted);
+        } catch (final BadPaddingException | IllegalBlockSizeException e) {
             logger.log(Level.SEVERE, "Invalid password");
-            return DECRYPTION_ERROR_TAG;
         }
+
+        return null;
     }
 }
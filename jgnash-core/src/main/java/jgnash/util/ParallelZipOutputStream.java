@@ -0,0 +1,367 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a zip file containing a single entry while compressing blocks of the entry in parallel.
+ * <p>
+ * Each block is deflated independently on the common fork/join pool using the tail of the previous block as a preset
+ * dictionary, so the compression ratio stays close to that of a single {@code Deflater}.  The compressed blocks are
+ * joined into one deflate stream and written in order.  Only a bounded number of blocks are buffered, and Zip64
+ * records are written when the entry exceeds the limits of the original zip format.
+ *
+ * @author Craig Cavanaugh
+ */
+public class ParallelZipOutputStream extends OutputStream {
+
+    static final int BLOCK_SIZE = 128 * 1024;
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int MAX_PENDING_BLOCKS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int DATA_DESCRIPTOR_SIGNATURE = 0x08074b50;
+
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    /**
+     * Sizes follow in a data descriptor, the entry name is UTF-8.
+     */
+    private static final int FLAGS = 0x0808;
+
+    private static final int DEFLATED = 8;
+
+    private static final int VERSION = 20;
+
+    private static final int VERSION_ZIP64 = 45;
+
+    private final OutputStream out;
+
+    private final byte[] name;
+
+    private final int level;
+
+    private final int dosTime;
+
+    private final CRC32 crc = new CRC32();
+
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block = new byte[BLOCK_SIZE];
+
+    private int blockLength;
+
+    private byte[] previousBlock;
+
+    private int previousBlockLength;
+
+    private long size;
+
+    private long compressedSize;
+
+    /**
+     * Number of bytes written to the underlying stream.
+     */
+    private long written;
+
+    private boolean closed;
+
+    /**
+     * Creates the zip file and writes the header of its single entry.
+     *
+     * @param out       destination stream, closed when this stream is closed
+     * @param entryName name of the zip entry
+     * @param level     compression level, see {@link Deflater}
+     * @throws IOException if an I/O error occurs
+     */
+    public ParallelZipOutputStream(final OutputStream out, final String entryName, final int level)
+            throws IOException {
+        this.out = out;
+        this.level = level;
+
+        name = entryName.getBytes(StandardCharsets.UTF_8);
+        dosTime = toDosTime(LocalDateTime.now());
+
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(VERSION);
+        writeShort(FLAGS);
+        writeShort(DEFLATED);
+        writeInt(dosTime);
+        writeInt(0);    // crc and sizes are written to the data descriptor
+        writeInt(0);
+        writeInt(0);
+        writeShort(name.length);
+        writeShort(0);
+        writeBytes(name, name.length);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        crc.update(b, off, len);
+        size += len;
+
+        int offset = off;
+        int remaining = len;
+
+        while (remaining > 0) {
+            final int count = Math.min(remaining, BLOCK_SIZE - blockLength);
+
+            System.arraycopy(b, offset, block, blockLength, count);
+
+            blockLength += count;
+            offset += count;
+            remaining -= count;
+
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Completes the entry and the zip file and closes the underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            submitBlock(true);
+
+            while (!pending.isEmpty()) {
+                writeBlock();
+            }
+
+            writeTrailer();
+            out.flush();
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            out.close();
+        }
+    }
+
+    private void submitBlock(final boolean last) throws IOException {
+        if (pending.size() >= MAX_PENDING_BLOCKS) {
+            writeBlock();
+        }
+
+        final byte[] input = block;
+        final int inputLength = blockLength;
+        final byte[] dictionary = previousBlock;
+        final int dictionaryLength = previousBlockLength;
+
+        pending.addLast(CompletableFuture.supplyAsync(() ->
+                deflate(input, inputLength, dictionary, dictionaryLength, last)));
+
+        // the submitted block is read by the task, continue with a new buffer
+        previousBlock = input;
+        previousBlockLength = inputLength;
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+    }
+
+    private void writeBlock() throws IOException {
+        try {
+            final byte[] compressed = pending.removeFirst().join();
+
+            writeBytes(compressed, compressed.length);
+            compressedSize += compressed.length;
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Deflates a block.  All but the last block end on a byte boundary with a sync flush so the blocks can be
+     * concatenated into a single deflate stream.
+     */
+    private byte[] deflate(final byte[] input, final int length, final byte[] dictionary, final int dictionaryLength,
+                           final boolean last) {
+        final Deflater deflater = new Deflater(level, true);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(length / 2 + 64);
+        final byte[] buffer = new byte[8192];
+
+        try {
+            if (dictionary != null) {
+                final int dictionarySize = Math.min(DICTIONARY_SIZE, dictionaryLength);
+                deflater.setDictionary(dictionary, dictionaryLength - dictionarySize, dictionarySize);
+            }
+
+            deflater.setInput(input, 0, length);
+
+            if (last) {
+                deflater.finish();
+
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                int count;
+
+                do {
+                    count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    output.write(buffer, 0, count);
+                } while (count == buffer.length);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return output.toByteArray();
+    }
+
+    private void writeTrailer() throws IOException {
+        final boolean zip64Sizes = size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC;
+
+        writeInt(DATA_DESCRIPTOR_SIGNATURE);
+        writeInt(crc.getValue());
+
+        if (zip64Sizes) {
+            writeLong(compressedSize);
+            writeLong(size);
+        } else {
+            writeInt(compressedSize);
+            writeInt(size);
+        }
+
+        final long centralOffset = written;
+
+        writeInt(CENTRAL_HEADER_SIGNATURE);
+        writeShort(zip64Sizes ? VERSION_ZIP64 : VERSION);
+        writeShort(zip64Sizes ? VERSION_ZIP64 : VERSION);
+        writeShort(FLAGS);
+        writeShort(DEFLATED);
+        writeInt(dosTime);
+        writeInt(crc.getValue());
+        writeInt(zip64Sizes ? ZIP64_MAGIC : compressedSize);
+        writeInt(zip64Sizes ? ZIP64_MAGIC : size);
+        writeShort(name.length);
+        writeShort(zip64Sizes ? 20 : 0);
+        writeShort(0);  // comment
+        writeShort(0);  // disk
+        writeShort(0);  // internal attributes
+        writeInt(0);    // external attributes
+        writeInt(0);    // offset of the local header
+        writeBytes(name, name.length);
+
+        if (zip64Sizes) {
+            writeShort(0x0001);
+            writeShort(16);
+            writeLong(size);
+            writeLong(compressedSize);
+        }
+
+        final long centralSize = written - centralOffset;
+        final boolean zip64End = zip64Sizes || centralOffset >= ZIP64_MAGIC;
+
+        if (zip64End) {
+            final long zip64EndOffset = written;
+
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);  // size of the remaining record
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(1);
+            writeLong(1);
+            writeLong(centralSize);
+            writeLong(centralOffset);
+
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(1);
+        writeShort(1);
+        writeInt(centralSize);
+        writeInt(centralOffset >= ZIP64_MAGIC ? ZIP64_MAGIC : centralOffset);
+        writeShort(0);
+    }
+
+    private static int toDosTime(final LocalDateTime time) {
+        return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+    }
+
+    private void writeShort(final int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        written += 2;
+    }
+
+    private void writeInt(final long value) throws IOException {
+        writeShort((int) (value & 0xffff));
+        writeShort((int) ((value >>> 16) & 0xffff));
+    }
+
+    private void writeLong(final long value) throws IOException {
+        writeInt(value & ZIP64_MAGIC);
+        writeInt(value >>> 32);
+    }
+
+    private void writeBytes(final byte[] bytes, final int length) throws IOException {
+        out.write(bytes, 0, length);
+        written += length;
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the timeline of application startup.
+ * <p>
+ * Startup is divided into named phases.  Each phase records its wall clock time, the CPU time and the bytes allocated
+ * by its thread as reported by the {@code ThreadMXBean}.  Work that runs many times, once per account for example, is
+ * accumulated into a single total instead.
+ * <p>
+ * Recording stops when {@link #finish()} is called once the application is usable, or at the latest after a fixed
+ * startup window for entry points that never call it.  The timeline is then written to
+ * the log, one line per phase, and optionally exported in the Chrome trace event format which can be opened with
+ * {@code chrome://tracing} or https://ui.perfetto.dev.
+ *
+ * @author Craig Cavanaugh
+ */
+public final class StartupTimeline {
+
+    private static final Logger logger = Logger.getLogger(StartupTimeline.class.getName());
+
+    /**
+     * Upper bound of recorded phases, protects against a missing call to {@link #finish()}.
+     */
+    private static final int MAX_PHASES = 10_000;
+
+    /**
+     * Recording stops after this period if {@link #finish()} has not been called.
+     */
+    private static final long MAX_RECORDING_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Time origin of the timeline.
+     */
+    private static final long originNanos = System.nanoTime();
+
+    /**
+     * Time between the start of the JVM and the start of the timeline.
+     */
+    private static final long jvmStartupNanos =
+            TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+
+    private static final Queue<PhaseRecord> phases = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger phaseCount = new AtomicInteger();
+
+    private static final Map<String, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    private static final Phase NO_OP = () -> { };
+
+    private static volatile boolean recording = true;
+
+    private static volatile Path traceFile;
+
+    private StartupTimeline() {
+        // utility class
+    }
+
+    /**
+     * Starts a phase.  The phase ends when it is closed, use with try-with-resources.
+     *
+     * @param name name of the phase
+     * @return the running phase
+     */
+    public static Phase begin(final String name) {
+        if (!checkRecording()) {
+            return NO_OP;
+        }
+
+        return new RunningPhase(name);
+    }
+
+    /**
+     * Starts a measurement that is added to the named total.  Only the wall clock time is measured to keep the
+     * overhead low for work that runs many times.
+     *
+     * @param name name of the total
+     * @return the running measurement
+     */
+    public static Phase accumulate(final String name) {
+        if (!checkRecording()) {
+            return NO_OP;
+        }
+
+        final long start = System.nanoTime();
+
+        return () -> accumulators.computeIfAbsent(name, key -> new Accumulator()).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Sets the file the Chrome trace is written to when the timeline is finished.
+     *
+     * @param path trace file, {@code null} to not write a trace
+     */
+    public static void setTraceFile(final Path path) {
+        traceFile = path;
+    }
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Returns {@code true} if recording is active, finishing the timeline once the startup window has passed.
+     */
+    private static boolean checkRecording() {
+        if (!recording) {
+            return false;
+        }
+
+        if (System.nanoTime() - originNanos > MAX_RECORDING_NANOS) {
+            finish();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Stops recording, logs the timeline and writes the trace file if one has been set.  Only the first call has
+     * an effect.
+     */
+    public static synchronized void finish() {
+        if (!recording) {
+            return;
+        }
+
+        recording = false;
+
+        final long totalNanos = jvmStartupNanos + System.nanoTime() - originNanos;
+
+        logger.log(Level.INFO, "startup total={0}ms jvm={1}ms",
+                new Object[]{toMillis(totalNanos), toMillis(jvmStartupNanos)});
+
+        for (final PhaseRecord phase : getPhases()) {
+            logger.log(Level.INFO, "startup phase=\"{0}\" thread=\"{1}\" start={2}ms duration={3}ms cpu={4}ms "
+                            + "allocated={5}KiB",
+                    new Object[]{phase.name, phase.thread, toMillis(phase.startNanos), toMillis(phase.durationNanos),
+                            toMillis(phase.cpuNanos), Long.toString(phase.allocatedBytes / 1024)});
+        }
+
+        getTotals().forEach((name, accumulator) -> logger.log(Level.INFO,
+                "startup total=\"{0}\" count={1} duration={2}ms",
+                new Object[]{name, accumulator.count.toString(), toMillis(accumulator.nanos.sum())}));
+
+        final Path path = traceFile;
+
+        if (path != null) {
+            try {
+                writeChromeTrace(path);
+                logger.log(Level.INFO, "Startup trace written to {0}", path);
+            } catch (final IOException e) {
+                logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns the completed phases ordered by their start.
+     *
+     * @return list of phases
+     */
+    public static List<PhaseRecord> getPhases() {
+        final List<PhaseRecord> list = new ArrayList<>(phases);
+        list.sort((o1, o2) -> Long.compare(o1.startNanos, o2.startNanos));
+
+        return list;
+    }
+
+    static Map<String, Accumulator> getTotals() {
+        return Collections.unmodifiableMap(new TreeMap<>(accumulators));
+    }
+
+    /**
+     * Writes the timeline in the Chrome trace event format.
+     *
+     * @param path file to write
+     * @throws IOException if the file could not be written
+     */
+    public static void writeChromeTrace(final Path path) throws IOException {
+        try (final Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeChromeTrace(writer);
+        }
+    }
+
+    static void writeChromeTrace(final Writer writer) throws IOException {
+        final long pid = getProcessId();
+
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+
+        // the JVM startup is shown in front of the timeline, timestamps are relative to the JVM start
+        writeEvent(writer, "JVM startup", "jvm", pid, "main", 0, jvmStartupNanos, null);
+
+        for (final PhaseRecord phase : getPhases()) {
+            writer.write(",\n");
+            writeEvent(writer, phase.name, "startup", pid, phase.thread, jvmStartupNanos + phase.startNanos,
+                    phase.durationNanos, "{\"cpuMs\":" + toMillis(phase.cpuNanos) + ",\"allocatedBytes\":"
+                            + phase.allocatedBytes + "}");
+        }
+
+        // totals have no single position in time, they are placed at the end of the timeline
+        final long end = jvmStartupNanos + System.nanoTime() - originNanos;
+
+        for (final Map.Entry<String, Accumulator> entry : getTotals().entrySet()) {
+            writer.write(",\n");
+            writeEvent(writer, entry.getKey(), "total", pid, "totals", end, entry.getValue().nanos.sum(),
+                    "{\"count\":" + entry.getValue().count.sum() + "}");
+        }
+
+        writer.write("\n]}\n");
+    }
+
+    private static void writeEvent(final Writer writer, final String name, final String category, final long pid,
+                                   final String thread, final long startNanos, final long durationNanos,
+                                   final String args) throws IOException {
+        writer.write("{\"name\":\"" + escape(name) + "\",\"cat\":\"" + category + "\",\"ph\":\"X\",\"pid\":" + pid
+                + ",\"tid\":\"" + escape(thread) + "\",\"ts\":" + TimeUnit.NANOSECONDS.toMicros(startNanos)
+                + ",\"dur\":" + TimeUnit.NANOSECONDS.toMicros(durationNanos));
+
+        if (args != null) {
+            writer.write(",\"args\":" + args);
+        }
+
+        writer.write("}");
+    }
+
+    static String escape(final String string) {
+        final StringBuilder builder = new StringBuilder(string.length());
+
+        for (final char c : string.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static String toMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Process id for the trace, the JVM name is "pid@host" on common JVMs.
+     */
+    private static long getProcessId() {
+        final String name = ManagementFactory.getRuntimeMXBean().getName();
+
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        } catch (final NumberFormatException | IndexOutOfBoundsException e) {
+            return 1;
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return 0;
+    }
+
+    private static long getCpuNanos() {
+        if (threadMXBean.isCurrentThreadCpuTimeSupported() && threadMXBean.isThreadCpuTimeEnabled()) {
+            return threadMXBean.getCurrentThreadCpuTime();
+        }
+
+        return 0;
+    }
+
+    /**
+     * A running phase or measurement.
+     */
+    @FunctionalInterface
+    public interface Phase extends AutoCloseable {
+
+        /**
+         * Ends the phase.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * A completed phase.  Times are relative to the start of the timeline.
+     */
+    public static final class PhaseRecord {
+
+        private final String name;
+
+        private final String thread;
+
+        private final long startNanos;
+
+        private final long durationNanos;
+
+        private final long cpuNanos;
+
+        private final long allocatedBytes;
+
+        PhaseRecord(final String name, final String thread, final long startNanos, final long durationNanos,
+                    final long cpuNanos, final long allocatedBytes) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    static final class Accumulator {
+
+        final LongAdder nanos = new LongAdder();
+
+        final LongAdder count = new LongAdder();
+
+        void add(final long duration) {
+            nanos.add(duration);
+            count.increment();
+        }
+    }
+
+    private static final class RunningPhase implements Phase {
+
+        private final String name;
+
+        private final long start = System.nanoTime();
+
+        private final long cpuStart = getCpuNanos();
+
+        private final long allocatedStart = getAllocatedBytes();
+
+        RunningPhase(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            final long end = System.nanoTime();
+
+            if (phaseCount.incrementAndGet() <= MAX_PHASES) {
+                phases.add(new PhaseRecord(name, Thread.currentThread().getName(), start - originNanos, end - start,
+                        getCpuNanos() - cpuStart, getAllocatedBytes() - allocatedStart));
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jgnash.util.FileMagic;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Engine test for the compact binary file.
+ *
+ * @author Craig Cavanaugh
+ */
+public class CompactBinaryEngineTest extends EngineTest {
+
+    private static String tempFile;
+
+    @Override
+    public Engine createEngine() {
+        try {
+            testFile = Files.createTempFile("jgnash-", DataStoreType.COMPACT_BINARY.getDataStore().getFileExt())
+                    .toString();
+
+            tempFile = testFile;
+
+        } catch (final IOException e1) {
+            Logger.getLogger(CompactBinaryEngineTest.class.getName()).log(Level.SEVERE, e1.getLocalizedMessage(), e1);
+        }
+
+        EngineFactory.deleteDatabase(testFile);
+
+        return EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.COMPACT_BINARY);
+    }
+
+    @Test
+    void testTransactionStorage() {
+        Engine e = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        assertNotNull(e);
+
+        final CurrencyNode currencyNode = e.getDefaultCurrency();
+
+        final Account bankAccount = new Account(AccountType.BANK, currencyNode);
+        bankAccount.setName("Bank");
+        bankAccount.setAccountNumber("1234");
+        bankAccount.setExcludedFromBudget(true);
+
+        final Account expenseAccount = new Account(AccountType.EXPENSE, currencyNode);
+        expenseAccount.setName("Expense");
+
+        assertTrue(e.addAccount(e.getRootAccount(), bankAccount));
+        assertTrue(e.addAccount(e.getRootAccount(), expenseAccount));
+
+        final Transaction transaction = TransactionFactory.generateDoubleEntryTransaction(expenseAccount,
+                bankAccount, new BigDecimal("123.45"), LocalDate.of(2018, 3, 14), "memo", "payee", "101");
+
+        assertTrue(e.addTransaction(transaction));
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        assertEquals(FileMagic.FileType.CompactBinary, FileMagic.magic(Paths.get(testFile)));
+
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        final Account bank = e.getAccountByUuid(bankAccount.getUuid());
+        final Account expense = e.getAccountByUuid(expenseAccount.getUuid());
+
+        assertEquals("1234", bank.getAccountNumber());
+        assertTrue(bank.isExcludedFromBudget());
+        assertEquals(e.getRootAccount(), bank.getParent());
+
+        assertEquals(new BigDecimal("-123.45"), bank.getBalance());
+        assertEquals(new BigDecimal("123.45"), expense.getBalance());
+
+        final Transaction loaded = bank.getTransactionAt(0);
+
+        assertEquals(transaction, loaded);
+        assertEquals(LocalDate.of(2018, 3, 14), loaded.getLocalDate());
+        assertEquals("memo", loaded.getMemo());
+        assertEquals("payee", loaded.getPayee());
+        assertEquals("101", loaded.getNumber());
+        assertEquals(transaction.getTimestamp(), loaded.getTimestamp());
+    }
+
+    @Test
+    void testTransactionsOverSeveralYears() {
+        Engine e = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        assertNotNull(e);
+
+        final Account bankAccount = new Account(AccountType.BANK, e.getDefaultCurrency());
+        bankAccount.setName("Bank");
+
+        final Account incomeAccount = new Account(AccountType.INCOME, e.getDefaultCurrency());
+        incomeAccount.setName("Income");
+
+        assertTrue(e.addAccount(e.getRootAccount(), bankAccount));
+        assertTrue(e.addAccount(e.getRootAccount(), incomeAccount));
+
+        // each year is stored in its own segment
+        for (int year = 2010; year < 2018; year++) {
+            for (int month = 1; month <= 12; month++) {
+                assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                        incomeAccount, BigDecimal.TEN, LocalDate.of(year, month, 1), "memo", "payee", "")));
+            }
+        }
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        final Account bank = e.getAccountByUuid(bankAccount.getUuid());
+
+        assertEquals(96, bank.getTransactionCount());
+        assertEquals(0, new BigDecimal("960").compareTo(bank.getBalance()));
+        assertEquals(96, e.getAccountByUuid(incomeAccount.getUuid()).getTransactionCount());
+    }
+
+    @Test
+    void testProgressiveBoot() throws IOException {
+        Engine e = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        assertNotNull(e);
+
+        final Account bankAccount = new Account(AccountType.BANK, e.getDefaultCurrency());
+        bankAccount.setName("Bank");
+
+        final Account incomeAccount = new Account(AccountType.INCOME, e.getDefaultCurrency());
+        incomeAccount.setName("Income");
+
+        assertTrue(e.addAccount(e.getRootAccount(), bankAccount));
+        assertTrue(e.addAccount(e.getRootAccount(), incomeAccount));
+
+        final LocalDate today = LocalDate.now();
+
+        for (int year = 2010; year < 2018; year++) {
+            for (int month = 1; month <= 12; month++) {
+                assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                        incomeAccount, BigDecimal.TEN, LocalDate.of(year, month, 1), "memo", "payee", "")));
+            }
+        }
+
+        assertTrue(e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(bankAccount,
+                incomeAccount, BigDecimal.ONE, today, "memo", "payee", "")));
+
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        final boolean progressiveBoot = EngineFactory.isProgressiveBoot();
+
+        try {
+            EngineFactory.setProgressiveBoot(true);
+            EngineFactory.setProgressiveBootSupported(true);
+
+            e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+            assertNotNull(e);
+
+            final Account bank = e.getAccountByUuid(bankAccount.getUuid());
+
+            // the recent transaction is available right away
+            e.awaitTransactions(today);
+            assertTrue(bank.getTransactionCount() >= 1);
+            assertTrue(e.whenTransactionsLoaded(today).isDone());
+
+            e.awaitTransactions(LocalDate.MIN);
+
+            assertTrue(e.isTransactionHistoryLoaded());
+            assertEquals(LocalDate.MIN, e.getTransactionHistoryStartDate());
+            assertEquals(97, bank.getTransactionCount());
+            assertEquals(0, new BigDecimal("961").compareTo(bank.getBalance()));
+
+            // a file written after a progressive boot must still hold every transaction
+            EngineFactory.closeEngine(EngineFactory.DEFAULT);
+            EngineFactory.setProgressiveBoot(false);
+
+            e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+            assertNotNull(e);
+
+            assertEquals(97, e.getAccountByUuid(bankAccount.getUuid()).getTransactionCount());
+        } finally {
+            EngineFactory.setProgressiveBoot(progressiveBoot);
+            EngineFactory.setProgressiveBootSupported(false);
+        }
+    }
+
+    @AfterAll
+    static void cleanup() throws IOException {
+        Files.deleteIfExists(Paths.get(tempFile));
+    }
+}
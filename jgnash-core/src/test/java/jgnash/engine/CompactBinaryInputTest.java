@@ -0,0 +1,107 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the bounds checks of the compact binary reader.
+ *
+ * @author Craig Cavanaugh
+ */
+class CompactBinaryInputTest {
+
+    private static final int COUNT = 3;
+
+    @Test
+    void testCountWithinSegment() throws IOException {
+        final CompactBinaryInput in = new CompactBinaryInput(encode(COUNT, COUNT));
+
+        assertEquals(COUNT, in.readCount());
+    }
+
+    @Test
+    void testCountExceedsSegment() throws IOException {
+        final CompactBinaryInput in = new CompactBinaryInput(encode(Integer.MAX_VALUE - 8, COUNT));
+
+        assertThrows(StreamCorruptedException.class, in::readCount);
+    }
+
+    @Test
+    void testCountExceedsChannel() throws IOException {
+        final Path path = Files.createTempFile("compact", ".bin");
+
+        try {
+            Files.write(path, encode(1_000_000, COUNT));
+
+            try (final SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+                final CompactBinaryInput in = new CompactBinaryInput(channel, 16);
+
+                assertThrows(StreamCorruptedException.class, in::readCount);
+            }
+
+            // the same count is accepted once enough data follows
+            Files.write(path, encode(1_000_000, 1_000_000));
+
+            try (final SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+                final CompactBinaryInput in = new CompactBinaryInput(channel, 16);
+
+                assertEquals(1_000_000, in.readCount());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testCountWithUnknownLength() throws IOException {
+        final CompactBinaryInput in = new CompactBinaryInput(Channels.newChannel(
+                new ByteArrayInputStream(encode(1_000_000, COUNT))));
+
+        // nothing is known about the remaining data, only the limit applies
+        assertEquals(1_000_000, in.readCount());
+    }
+
+    /**
+     * Encodes a count followed by the given number of data bytes.
+     */
+    private static byte[] encode(final int count, final int dataLength) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        try (final CompactBinaryOutput out = new CompactBinaryOutput(Channels.newChannel(stream))) {
+            out.writeVarInt(count);
+        }
+
+        stream.write(new byte[dataLength]);
+
+        return stream.toByteArray();
+    }
+}
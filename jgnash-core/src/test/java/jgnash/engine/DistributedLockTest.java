@@ -19,18 +19,29 @@ package jgnash.engine;
 
 import jgnash.engine.concurrent.DistributedLockManager;
 import jgnash.engine.concurrent.DistributedLockServer;
+import jgnash.engine.concurrent.LocalLockManager;
+import jgnash.engine.concurrent.LockGroup;
+import jgnash.engine.concurrent.LockManager;
+import jgnash.engine.concurrent.LockMode;
 
 import io.netty.util.ResourceLeakDetector;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -278,4 +289,209 @@ public class DistributedLockTest {
 
         Thread.sleep(1000);
     }
+
+    @Test
+    void leaseRevokedForWriter() throws InterruptedException {
+        final ReadWriteLock lock = manager.getLock("lease");
+
+        // the first read acquires a lease that is retained after the unlock
+        lock.readLock().lock();
+        lock.readLock().lock();
+        lock.readLock().unlock();
+        lock.readLock().unlock();
+
+        // the server must revoke the idle lease before the writer can be granted
+        final Thread writer = new Thread(() -> {
+            lock.writeLock().lock();
+            lock.writeLock().unlock();
+        });
+
+        writer.start();
+        writer.join(10000);
+
+        assertFalse(writer.isAlive());
+
+        // and a fresh lease is acquired
+        lock.readLock().lock();
+        lock.readLock().unlock();
+    }
+
+    @Test
+    void lockGroupTest() throws InterruptedException {
+        final Map<String, LockMode> first = new HashMap<>();
+        first.put("group-a", LockMode.WRITE);
+        first.put("group-b", LockMode.READ);
+        first.put("group-c", LockMode.WRITE);
+
+        final Map<String, LockMode> second = new HashMap<>();
+        second.put("group-c", LockMode.WRITE);
+        second.put("group-b", LockMode.WRITE);
+        second.put("group-a", LockMode.READ);
+
+        class LockGroupThread extends Thread {
+            private final Map<String, LockMode> locks;
+
+            private LockGroupThread(final Map<String, LockMode> locks) {
+                this.locks = locks;
+            }
+
+            @Override
+            public void run() {
+                for (int i = 0; i < 20; i++) {
+                    try (final LockGroup ignored = manager.lockAll(locks)) {
+                        Thread.yield();
+                    }
+                }
+            }
+        }
+
+        final Thread thread1 = new LockGroupThread(first);
+        final Thread thread2 = new LockGroupThread(second);
+
+        thread1.start();
+        thread2.start();
+
+        thread1.join(30000);
+        thread2.join(30000);
+
+        assertFalse(thread1.isAlive());
+        assertFalse(thread2.isAlive());
+
+        // all locks must have been released
+        final ReadWriteLock lock = manager.getLock("group-b");
+        lock.writeLock().lock();
+        lock.writeLock().unlock();
+    }
+
+    @Test
+    void nestedReadLockInLockGroup() throws InterruptedException {
+        final DistributedLockManager otherManager = new DistributedLockManager(EngineFactory.LOCALHOST, PORT);
+        otherManager.connectToServer(EngineFactory.EMPTY_PASSWORD);
+
+        final Map<String, LockMode> locks = new HashMap<>();
+        locks.put("nested-a", LockMode.READ);
+        locks.put("nested-b", LockMode.WRITE);
+
+        final ReadWriteLock lock = manager.getLock("nested-a");
+
+        final Thread writer = new Thread(() -> {
+            final ReadWriteLock otherLock = otherManager.getLock("nested-a");
+
+            otherLock.writeLock().lock();
+            otherLock.writeLock().unlock();
+        });
+
+        try {
+            try (final LockGroup ignored = manager.lockAll(locks)) {
+                writer.start();
+
+                // wait for the other client's writer to be queued behind the group
+                awaitWaitingCount(1);
+
+                // the nested read lock must be granted as reentrant instead of queueing behind the writer
+                lock.readLock().lock();
+                lock.readLock().unlock();
+
+                assertTrue(writer.isAlive());
+            }
+
+            writer.join(10000);
+
+            assertFalse(writer.isAlive());
+        } finally {
+            otherManager.disconnectFromServer();
+        }
+    }
+
+    @Test
+    void lockGroupClosedTwice() {
+        final Map<String, LockMode> locks = new HashMap<>();
+        locks.put("close-a", LockMode.WRITE);
+        locks.put("close-b", LockMode.READ);
+
+        for (final LockManager lockManager : Arrays.asList(manager, new LocalLockManager())) {
+            final LockGroup group = lockManager.lockAll(locks);
+
+            assertTrue(lockManager.getLock("close-a").isWriteLockedByCurrentThread());
+
+            group.close();
+            group.close();  // must not unlock a second time
+
+            assertFalse(lockManager.getLock("close-a").isWriteLocked());
+            assertEquals(0, lockManager.getLock("close-b").getReadLockCount());
+
+            // the locks can be acquired again
+            try (final LockGroup ignored = lockManager.lockAll(locks)) {
+                assertTrue(lockManager.getLock("close-a").isWriteLockedByCurrentThread());
+            }
+        }
+    }
+
+    @Test
+    void queuedRequestsGrantedInOrder() throws InterruptedException {
+        final DistributedLockManager writerManager = new DistributedLockManager(EngineFactory.LOCALHOST, PORT);
+        final DistributedLockManager readerManager = new DistributedLockManager(EngineFactory.LOCALHOST, PORT);
+
+        assertTrue(writerManager.connectToServer(EngineFactory.EMPTY_PASSWORD));
+        assertTrue(readerManager.connectToServer(EngineFactory.EMPTY_PASSWORD));
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        final Thread writer = new Thread(() -> {
+            final ReadWriteLock lock = writerManager.getLock("fifo");
+
+            lock.writeLock().lock();
+            order.add("write");
+            lock.writeLock().unlock();
+        });
+
+        final Thread reader = new Thread(() -> {
+            final ReadWriteLock lock = readerManager.getLock("fifo");
+
+            lock.readLock().lock();
+            order.add("read");
+            lock.readLock().unlock();
+        });
+
+        try {
+            final ReadWriteLock lock = manager.getLock("fifo");
+
+            lock.readLock().lock();
+
+            try {
+                // the writer queues behind the held read lock
+                writer.start();
+                awaitWaitingCount(1);
+
+                // a later reader queues behind the writer instead of sharing the read lock
+                reader.start();
+                awaitWaitingCount(2);
+
+                assertTrue(order.isEmpty());
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            // queued requests are acknowledged when the read lock is released
+            writer.join(10000);
+            reader.join(10000);
+
+            assertFalse(writer.isAlive());
+            assertFalse(reader.isAlive());
+
+            assertEquals(Arrays.asList("write", "read"), order);
+            assertEquals(0, server.getWaitingCount());
+        } finally {
+            writerManager.disconnectFromServer();
+            readerManager.disconnectFromServer();
+        }
+    }
+
+    private void awaitWaitingCount(final int count) throws InterruptedException {
+        for (int i = 0; i < 100 && server.getWaitingCount() < count; i++) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(count, server.getWaitingCount());
+    }
 }
@@ -25,15 +25,30 @@ import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jgnash.engine.budget.Budget;
 import jgnash.engine.budget.BudgetGoal;
+import jgnash.engine.message.BatchMessageListener;
+import jgnash.engine.message.ChannelEvent;
+import jgnash.engine.message.Message;
+import jgnash.engine.message.MessageBatch;
+import jgnash.engine.message.MessageBus;
+import jgnash.engine.message.MessageChannel;
 import jgnash.time.Period;
 import jgnash.engine.recurring.DailyReminder;
+import jgnash.engine.recurring.PendingReminder;
 import jgnash.engine.recurring.Reminder;
 import jgnash.util.FileUtils;
 
@@ -172,7 +187,7 @@ public abstract class EngineTest {
     }
 
     @Test
-    void testGetStoredObjects() {
+    void testGetStoredObjects() throws IOException {
         assertTrue(!e.getStoredObjects().isEmpty());
     }
 
@@ -801,6 +816,300 @@ public abstract class EngineTest {
         assertEquals(0, a.getTransactionCount());
     }
 
+    @Test
+    void testReconcileTransactionsInPlace() {
+        final String ACCOUNT_NAME = "testAccount";
+
+        CurrencyNode node = e.getDefaultCurrency();
+
+        Account a = new Account(AccountType.BANK, node);
+        a.setName(ACCOUNT_NAME);
+
+        e.addAccount(e.getRootAccount(), a);
+
+        final Map<Transaction, ReconciledState> states = new HashMap<>();
+
+        for (int i = 0; i < 5; i++) {
+            final Transaction transaction = TransactionFactory.generateSingleEntryTransaction(a, BigDecimal.TEN,
+                    LocalDate.now(), "memo", "payee", Integer.toString(i));
+
+            assertTrue(e.addTransaction(transaction));
+            states.put(transaction, ReconciledState.RECONCILED);
+        }
+
+        assertEquals(BigDecimal.ZERO.compareTo(a.getReconciledBalance()), 0);
+
+        assertEquals(5, e.setTransactionsReconciled(a, states));
+
+        // the transactions are changed in place
+        for (final Transaction transaction : states.keySet()) {
+            assertEquals(ReconciledState.RECONCILED, transaction.getReconciled(a));
+            assertTrue(a.contains(transaction));
+        }
+
+        assertEquals(5, a.getTransactionCount());
+        assertEquals(new BigDecimal("50").compareTo(a.getReconciledBalance()), 0);
+
+        // nothing changes the second time
+        assertEquals(0, e.setTransactionsReconciled(a, states));
+
+        // close and reopen to force check for persistence
+        closeEngine();
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        a = e.getAccountByName(ACCOUNT_NAME);
+
+        assertEquals(5, a.getTransactionCount());
+
+        for (final Transaction transaction : a.getSortedTransactionList()) {
+            assertEquals(ReconciledState.RECONCILED, transaction.getReconciled(a));
+        }
+    }
+
+    @Test
+    void testAddTransactions() throws InterruptedException {
+        final String ACCOUNT_NAME = "testAccount";
+        final int COUNT = 5;
+
+        CurrencyNode node = e.getDefaultCurrency();
+
+        Account a = new Account(AccountType.BANK, node);
+        a.setName(ACCOUNT_NAME);
+        e.addAccount(e.getRootAccount(), a);
+
+        final Account lockedAccount = new Account(AccountType.BANK, node);
+        lockedAccount.setName("lockedAccount");
+        lockedAccount.setLocked(true);
+        e.addAccount(e.getRootAccount(), lockedAccount);
+
+        final CountDownLatch batchLatch = new CountDownLatch(1);
+        final AtomicInteger batchCount = new AtomicInteger();
+        final AtomicInteger addCount = new AtomicInteger();
+        final AtomicInteger failedCount = new AtomicInteger();
+
+        final BatchMessageListener listener = new BatchMessageListener() {
+            @Override
+            public void messagesPosted(final MessageBatch batch) {
+                for (final Message message : batch.getMessages(MessageChannel.TRANSACTION)) {
+                    if (message.getEvent() == ChannelEvent.TRANSACTION_ADD) {
+                        addCount.incrementAndGet();
+                    } else if (message.getEvent() == ChannelEvent.TRANSACTION_ADD_FAILED) {
+                        failedCount.incrementAndGet();
+                    }
+                }
+                batchCount.incrementAndGet();
+                batchLatch.countDown();
+            }
+
+            @Override
+            public void messagePosted(final Message message) {
+                batchCount.incrementAndGet();
+            }
+        };
+
+        final MessageBus messageBus = MessageBus.getInstance(EngineFactory.DEFAULT);
+        messageBus.registerListener(listener, MessageChannel.TRANSACTION);
+
+        final List<Transaction> transactions = new ArrayList<>();
+
+        // added newest first so the account has to sort them
+        for (int i = 0; i < COUNT; i++) {
+            transactions.add(TransactionFactory.generateSingleEntryTransaction(a, BigDecimal.TEN,
+                    LocalDate.now().minusDays(i), "memo", "payee", Integer.toString(i)));
+        }
+
+        // a locked account must be rejected without affecting the rest of the batch
+        transactions.add(TransactionFactory.generateSingleEntryTransaction(lockedAccount, BigDecimal.TEN,
+                LocalDate.now(), "memo", "payee", ""));
+
+        assertEquals(COUNT, e.addTransactions(transactions));
+
+        assertTrue(batchLatch.await(5, TimeUnit.SECONDS));
+        messageBus.unregisterListener(listener, MessageChannel.TRANSACTION);
+
+        assertEquals(1, batchCount.get());
+        assertEquals(COUNT, addCount.get());
+        assertEquals(1, failedCount.get());
+
+        assertEquals(COUNT, a.getTransactionCount());
+        assertEquals(0, new BigDecimal("50").compareTo(a.getBalance()));
+        assertEquals(0, lockedAccount.getTransactionCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(lockedAccount.getBalance()));
+
+        List<Transaction> sorted = a.getSortedTransactionList();
+
+        for (int i = 1; i < sorted.size(); i++) {
+            assertFalse(sorted.get(i).getLocalDate().isBefore(sorted.get(i - 1).getLocalDate()));
+        }
+
+        // close and reopen to force check for persistence
+        closeEngine();
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        a = e.getAccountByName(ACCOUNT_NAME);
+
+        assertEquals(COUNT, a.getTransactionCount());
+        assertEquals(0, new BigDecimal("50").compareTo(a.getBalance()));
+        assertEquals(LocalDate.now().minusDays(COUNT - 1), a.getSortedTransactionList().get(0).getLocalDate());
+    }
+
+    @Test
+    void testAddManyTransactions() {
+        final int COUNT = 2000;
+
+        final CurrencyNode node = e.getDefaultCurrency();
+
+        Account checking = new Account(AccountType.BANK, node);
+        checking.setName("checking");
+        e.addAccount(e.getRootAccount(), checking);
+
+        Account savings = new Account(AccountType.BANK, node);
+        savings.setName("savings");
+        e.addAccount(e.getRootAccount(), savings);
+
+        final List<Transaction> transactions = new ArrayList<>();
+
+        // alternate single entry deposits and transfers across several years
+        for (int i = 0; i < COUNT; i++) {
+            final LocalDate date = LocalDate.now().minusDays(i);
+
+            if (i % 2 == 0) {
+                transactions.add(TransactionFactory.generateSingleEntryTransaction(checking, BigDecimal.TEN, date,
+                        "deposit", "payee", Integer.toString(i)));
+            } else {
+                transactions.add(TransactionFactory.generateDoubleEntryTransaction(savings, checking, BigDecimal.ONE,
+                        date, "transfer", "payee", Integer.toString(i)));
+            }
+        }
+
+        assertEquals(COUNT, e.addTransactions(transactions));
+
+        // 1000 deposits of 10 less 1000 transfers of 1
+        assertEquals(COUNT, checking.getTransactionCount());
+        assertEquals(COUNT / 2, savings.getTransactionCount());
+        assertEquals(0, new BigDecimal("9000").compareTo(checking.getBalance()));
+        assertEquals(0, new BigDecimal("1000").compareTo(savings.getBalance()));
+        assertEquals(COUNT, e.getTransactions().size());
+
+        // close and reopen to force check for persistence
+        closeEngine();
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        checking = e.getAccountByName("checking");
+        savings = e.getAccountByName("savings");
+
+        assertEquals(COUNT, checking.getTransactionCount());
+        assertEquals(COUNT / 2, savings.getTransactionCount());
+        assertEquals(0, new BigDecimal("9000").compareTo(checking.getBalance()));
+        assertEquals(0, new BigDecimal("1000").compareTo(savings.getBalance()));
+        assertEquals(LocalDate.now().minusDays(COUNT - 1), checking.getSortedTransactionList().get(0).getLocalDate());
+    }
+
+    @Test
+    void testProcessPendingReminders() {
+        final int DAYS = 10;
+
+        final CurrencyNode node = e.getDefaultCurrency();
+
+        Account checking = new Account(AccountType.BANK, node);
+        checking.setName("checking");
+        e.addAccount(e.getRootAccount(), checking);
+
+        Account savings = new Account(AccountType.BANK, node);
+        savings.setName("savings");
+        e.addAccount(e.getRootAccount(), savings);
+
+        final Reminder reminder = new DailyReminder();
+        reminder.setIncrement(1);
+        reminder.setEndDate(null);
+        reminder.setStartDate(LocalDate.now().minusDays(DAYS));
+        reminder.setTransaction(TransactionFactory.generateDoubleEntryTransaction(savings, checking, BigDecimal.TEN,
+                LocalDate.now(), "reminder", "payee", ""));
+
+        assertTrue(e.addReminder(reminder));
+
+        // one pending reminder for each day before today
+        final List<PendingReminder> pendingReminders = e.getPendingReminders();
+        assertEquals(DAYS, pendingReminders.size());
+
+        pendingReminders.forEach(pending -> pending.setApproved(true));
+
+        e.processPendingReminders(pendingReminders);
+
+        assertEquals(0, e.getPendingReminders().size());
+        assertEquals(LocalDate.now().minusDays(1), e.getReminders().get(0).getLastDate());
+
+        assertEquals(DAYS, checking.getTransactionCount());
+        assertEquals(DAYS, savings.getTransactionCount());
+        assertEquals(0, new BigDecimal("-100").compareTo(checking.getBalance()));
+        assertEquals(0, new BigDecimal("100").compareTo(savings.getBalance()));
+
+        // each transaction is entered at its commit date
+        for (int i = 0; i < DAYS; i++) {
+            assertEquals(LocalDate.now().minusDays(DAYS - i), checking.getTransactionAt(i).getLocalDate());
+        }
+
+        // close and reopen to force check for persistence
+        closeEngine();
+        e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+        assertNotNull(e);
+
+        checking = e.getAccountByName("checking");
+        savings = e.getAccountByName("savings");
+
+        assertEquals(DAYS, checking.getTransactionCount());
+        assertEquals(DAYS, savings.getTransactionCount());
+        assertEquals(0, new BigDecimal("-100").compareTo(checking.getBalance()));
+        assertEquals(0, new BigDecimal("100").compareTo(savings.getBalance()));
+        assertEquals(0, e.getPendingReminders().size());
+    }
+
+    @Test
+    void testAwaitTransactionsWithProgressiveBoot() throws IOException {
+        final String ACCOUNT_NAME = "testAccount";
+
+        Account a = new Account(AccountType.BANK, e.getDefaultCurrency());
+        a.setName(ACCOUNT_NAME);
+        e.addAccount(e.getRootAccount(), a);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(e.addTransaction(TransactionFactory.generateSingleEntryTransaction(a, BigDecimal.TEN,
+                    LocalDate.now().minusYears(i), "memo", "payee", Integer.toString(i))));
+        }
+
+        closeEngine();
+
+        final boolean progressiveBoot = EngineFactory.isProgressiveBoot();
+
+        try {
+            EngineFactory.setProgressiveBoot(true);
+            EngineFactory.setProgressiveBootSupported(true);
+
+            // stores that cannot load progressively must open with the complete history
+            e = EngineFactory.bootLocalEngine(testFile, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD);
+            assertNotNull(e);
+
+            e.awaitTransactions(LocalDate.MIN);
+
+            assertTrue(e.isTransactionHistoryLoaded());
+            assertFalse(e.isTransactionHistoryLoading());
+            assertEquals(LocalDate.MIN, e.getTransactionHistoryStartDate());
+            assertTrue(e.whenTransactionsLoaded(LocalDate.MIN).isDone());
+
+            a = e.getAccountByName(ACCOUNT_NAME);
+
+            assertEquals(10, a.getTransactionCount());
+            assertEquals(0, new BigDecimal("100").compareTo(a.getBalance()));
+            assertTrue(e.getStoredObjects().containsAll(a.getSortedTransactionList()));
+        } finally {
+            EngineFactory.setProgressiveBoot(progressiveBoot);
+            EngineFactory.setProgressiveBootSupported(false);
+        }
+    }
+
     @Test
     void testGetTransactionsWithAttachments() {
         final String ACCOUNT_NAME = "testAccount";
@@ -832,6 +1141,123 @@ public abstract class EngineTest {
         assertEquals(1, e.getTransactionsWithAttachments().size());
     }
 
+    @Test
+    void testConcurrentTransactionReads() throws Exception {
+        final int COUNT = 50;
+        final int ADDED = 20;
+        final int READERS = 8;
+
+        final Account a = new Account(AccountType.BANK, e.getDefaultCurrency());
+        a.setName("testAccount");
+        e.addAccount(e.getRootAccount(), a);
+
+        for (int i = 0; i < COUNT; i++) {
+            final Transaction transaction = TransactionFactory.generateSingleEntryTransaction(a, BigDecimal.TEN,
+                    LocalDate.now(), "memo", "payee", Integer.toString(i));
+
+            if (i % 5 == 0) {
+                transaction.setAttachment("external link " + i);
+            }
+
+            assertTrue(e.addTransaction(transaction));
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(READERS + 1);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < READERS; i++) {
+                futures.add(executorService.submit(() -> {
+                    startLatch.await();
+
+                    for (int j = 0; j < 10; j++) {
+                        final List<Transaction> transactions = e.getTransactions();
+
+                        assertTrue(transactions.size() >= COUNT && transactions.size() <= COUNT + ADDED);
+
+                        for (final Transaction transaction : transactions) {
+                            assertEquals(1, transaction.getTransactionEntries().size());
+
+                            // the entries must refer to the engine's accounts, not copies
+                            assertSame(a, transaction.getTransactionEntries().get(0).getCreditAccount());
+                        }
+
+                        assertEquals(COUNT / 5, e.getTransactionsWithAttachments().size());
+                    }
+                    return null;
+                }));
+            }
+
+            // a writer runs while the reads are in progress
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+
+                for (int i = 0; i < ADDED; i++) {
+                    assertTrue(e.addTransaction(TransactionFactory.generateSingleEntryTransaction(a, BigDecimal.ONE,
+                            LocalDate.now(), "memo", "payee", "")));
+                }
+                return null;
+            }));
+
+            startLatch.countDown();
+
+            for (final Future<Void> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(COUNT + ADDED, e.getTransactions().size());
+        assertEquals(COUNT + ADDED, a.getTransactionCount());
+    }
+
+    @Test
+    void testGetBalances() {
+        final Account bank = new Account(AccountType.BANK, e.getDefaultCurrency());
+        bank.setName("bank");
+        e.addAccount(e.getRootAccount(), bank);
+
+        final Account expense = new Account(AccountType.EXPENSE, e.getDefaultCurrency());
+        expense.setName("expense");
+        e.addAccount(e.getRootAccount(), expense);
+
+        final LocalDate startDate = LocalDate.of(2018, 1, 1);
+
+        for (int i = 0; i < 60; i++) {
+            e.addTransaction(TransactionFactory.generateDoubleEntryTransaction(expense, bank, BigDecimal.TEN,
+                    startDate.plusDays(i), "memo", "payee", Integer.toString(i)));
+        }
+
+        e.addTransaction(TransactionFactory.generateSingleEntryTransaction(bank, new BigDecimal("100.00"),
+                startDate.plusDays(5), "memo", "payee", "deposit"));
+
+        final List<LocalDate> startDates = new ArrayList<>();
+        final List<LocalDate> endDates = new ArrayList<>();
+
+        startDates.add(startDate);
+        endDates.add(startDate.plusDays(29));
+        startDates.add(startDate.plusDays(30));
+        endDates.add(startDate.plusDays(89));
+
+        final List<Account> accounts = new ArrayList<>();
+        accounts.add(bank);
+        accounts.add(expense);
+
+        final Map<Account, List<BigDecimal>> balances = e.getBalances(accounts, startDates, endDates);
+
+        for (final Account account : accounts) {
+            for (int i = 0; i < startDates.size(); i++) {
+                assertEquals(0, account.getBalance(startDates.get(i), endDates.get(i))
+                        .compareTo(balances.get(account).get(i)));
+            }
+        }
+
+        assertEquals(0, new BigDecimal("-200.00").compareTo(balances.get(bank).get(0)));
+        assertEquals(0, new BigDecimal("300.00").compareTo(balances.get(expense).get(1)));
+    }
+
     @Test
     void testGetUuid() {
         assertNotNull(e.getUuid());
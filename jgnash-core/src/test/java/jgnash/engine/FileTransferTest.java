@@ -18,11 +18,11 @@
 package jgnash.engine;
 
 import io.netty.util.ResourceLeakDetector;
+import jgnash.engine.attachment.AttachmentStore;
 import jgnash.engine.jpa.JpaH2DataStore;
 import jgnash.engine.jpa.JpaHsqlDataStore;
 import jgnash.engine.jpa.JpaNetworkServer;
 import jgnash.engine.jpa.SqlUtils;
-import jgnash.util.FileUtils;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedWriter;
@@ -31,6 +31,8 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -113,10 +115,11 @@ class FileTransferTest {
             Path tempAttachment = Paths.get(FileTransferTest.class.getResource("/jgnash-logo.png").toURI());
             assertTrue(Files.exists(tempAttachment));
 
-            assertTrue(e.addAttachment(tempAttachment, true));  // push a copy of the attachment
+            final String reference = e.addAttachment(tempAttachment, true);  // push a copy of the attachment
+            assertNotNull(reference);
 
-            Path newPath = Paths.get(AttachmentUtils.getAttachmentDirectory(Paths.get(testFile))
-                    + FileUtils.SEPARATOR + tempAttachment.getFileName());
+            Path newPath = new AttachmentStore(AttachmentUtils.getAttachmentDirectory(Paths.get(testFile)))
+                    .getPath(reference);
 
             newPath.toFile().deleteOnExit();
 
@@ -216,10 +219,11 @@ class FileTransferTest {
             Path tempAttachment = Paths.get(FileTransferTest.class.getResource("/jgnash-logo.png").toURI());
             assertTrue(Files.exists(tempAttachment));
 
-            assertTrue(e.addAttachment(tempAttachment, true));  // push a copy of the attachment
+            final String reference = e.addAttachment(tempAttachment, true);  // push a copy of the attachment
+            assertNotNull(reference);
 
-            final Path newPath = Paths.get(AttachmentUtils.getAttachmentDirectory(Paths.get(testFile))
-                    + FileUtils.SEPARATOR + tempAttachment.getFileName());
+            final Path newPath = new AttachmentStore(AttachmentUtils.getAttachmentDirectory(Paths.get(testFile)))
+                    .getPath(reference);
 
             // wait for transfer to finish
             await().atMost(10, TimeUnit.SECONDS).until(() -> Files.exists(newPath));
@@ -237,9 +241,13 @@ class FileTransferTest {
             	 bw.write("This is the temporary file content 3.");
             }
                                  
-            assertTrue(e.addAttachment(moveFile, false));
+            final String moveReference = e.addAttachment(moveFile, false);
+            assertNotNull(moveReference);
             assertFalse(Files.exists(moveFile));
 
+            // identical content is stored once under the same reference
+            assertEquals(reference, e.addAttachment(tempAttachment, true));
+
             final Path attachmentPath = AttachmentUtils.getAttachmentDirectory(Paths.get(testFile));
             assertNotNull(attachmentPath);
 
@@ -259,7 +267,7 @@ class FileTransferTest {
             assertNotEquals(remoteTemp.toString(), tempAttachment.toString());
 
             // test attachment removal
-            assertTrue(e.removeAttachment(moveFile.getFileName().toString()));
+            assertTrue(e.removeAttachment(moveReference));
             assertFalse(Files.exists(moveFile));
 
             EngineFactory.closeEngine(EngineFactory.DEFAULT);
@@ -270,6 +278,140 @@ class FileTransferTest {
 
     }
 
+    @Test
+    void resumedPartialUpload() throws Exception {
+        final int port = JpaNetworkServer.DEFAULT_PORT + 200;
+
+        final Path testFile = startNetworkServer(port, EngineFactory.EMPTY_PASSWORD);
+
+        final Path source = Files.createTempFile("jgnash-partial", ".bin");
+        source.toFile().deleteOnExit();
+
+        final byte[] content = createContent();
+        Files.write(source, content);
+
+        final String reference = AttachmentStore.getReference(source);
+
+        final Path serverPath = new AttachmentStore(AttachmentUtils.getAttachmentDirectory(testFile))
+                .getPath(reference);
+        final Path partPath = serverPath.resolveSibling(reference + ".part");
+
+        Files.createDirectories(partPath.getParent());
+
+        try {
+            final Engine e = EngineFactory.bootClientEngine(EngineFactory.LOCALHOST, port,
+                    EngineFactory.EMPTY_PASSWORD, EngineFactory.DEFAULT);
+
+            // a resumed transfer keeps the partial content, so a corrupt partial file fails verification
+            final byte[] corrupt = Arrays.copyOf(content, content.length / 3);
+            corrupt[0] = (byte) ~corrupt[0];
+            Files.write(partPath, corrupt);
+
+            assertNull(e.addAttachment(source, true));
+            assertFalse(Files.exists(partPath));
+            assertFalse(Files.exists(serverPath));
+
+            // a valid partial file is completed from where it ended
+            Files.write(partPath, Arrays.copyOf(content, content.length / 3));
+
+            assertEquals(reference, e.addAttachment(source, true));
+
+            serverPath.toFile().deleteOnExit();
+
+            assertArrayEquals(content, Files.readAllBytes(serverPath));
+            assertFalse(Files.exists(partPath));
+        } finally {
+            EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        }
+    }
+
+    @Test
+    void encryptedRoundTrip() throws Exception {
+        final int port = JpaNetworkServer.DEFAULT_PORT + 300;
+        final char[] password = new char[]{'p','a','s','s','w','o','r','d'};
+
+        final Path testFile = startNetworkServer(port, password);
+
+        final byte[] content = createContent();
+
+        final Path source = Files.createTempFile("jgnash-encrypted", ".bin");
+        source.toFile().deleteOnExit();
+        Files.write(source, content);
+
+        final Path attachmentPath = AttachmentUtils.getAttachmentDirectory(testFile);
+
+        // content held only by the server must be downloaded
+        Files.createDirectories(attachmentPath);
+
+        final Path serverOnly = Files.createTempFile(attachmentPath, "encrypted-", ".bin");
+        serverOnly.toFile().deleteOnExit();
+        Files.write(serverOnly, content);
+
+        try {
+            final Engine e = EngineFactory.bootClientEngine(EngineFactory.LOCALHOST, port, password,
+                    EngineFactory.DEFAULT);
+
+            // upload
+            final String reference = e.addAttachment(source, true);
+            assertNotNull(reference);
+
+            final Path serverPath = new AttachmentStore(attachmentPath).getPath(reference);
+            serverPath.toFile().deleteOnExit();
+
+            assertArrayEquals(content, Files.readAllBytes(serverPath));
+
+            // download
+            final Path downloaded = e.getAttachment(serverOnly.getFileName().toString()).get(10, TimeUnit.SECONDS);
+
+            assertNotEquals(serverOnly, downloaded);
+            assertArrayEquals(content, Files.readAllBytes(downloaded));
+        } finally {
+            EngineFactory.closeEngine(EngineFactory.DEFAULT);
+        }
+    }
+
+    /**
+     * Creates random content spanning several transfer buffers.
+     */
+    private static byte[] createContent() {
+        final byte[] content = new byte[300 * 1024];
+
+        new Random(42).nextBytes(content);
+
+        return content;
+    }
+
+    /**
+     * Creates a new H2 database and starts a network server for it.
+     *
+     * @return the database file
+     */
+    private static Path startNetworkServer(final int port, final char[] password) throws IOException {
+        final Path temp = Files.createTempFile("jpa-test-t", JpaH2DataStore.FILE_EXT);
+        Files.delete(temp);
+
+        temp.toFile().deleteOnExit();
+
+        // Start an engine and close so we have a populated file
+        EngineFactory.bootLocalEngine(temp.toString(), EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.H2_DATABASE);
+        EngineFactory.closeEngine(EngineFactory.DEFAULT);
+
+        if (password.length > 0) {
+            SqlUtils.changePassword(temp.toString(), EngineFactory.EMPTY_PASSWORD, password);
+        }
+
+        final StartServerThread startServerThread = new StartServerThread(new JpaNetworkServer(), temp.toString(),
+                port, password);
+
+        startServerThread.start();
+
+        // wait until the server is up and running
+        await().atMost(20, TimeUnit.SECONDS).untilTrue(startServerThread.running);
+
+        return temp;
+    }
+
     private static class StartServerThread extends Thread {
 
         private final JpaNetworkServer networkServer;
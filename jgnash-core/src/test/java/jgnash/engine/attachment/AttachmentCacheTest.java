@@ -0,0 +1,160 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.attachment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import jgnash.engine.metrics.Metrics;
+import jgnash.util.FileUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AttachmentCache test.
+ *
+ * @author Craig Cavanaugh
+ */
+class AttachmentCacheTest {
+
+    private static final int ENTRY_SIZE = 1000;
+
+    private Path directory;
+
+    private Path sourceDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("jgnash-cache");
+        sourceDirectory = Files.createTempDirectory("jgnash-source");
+
+        Metrics.setEnabled(true);
+        Metrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+
+        FileUtils.deletePathAndContents(directory);
+        FileUtils.deletePathAndContents(sourceDirectory);
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() throws IOException {
+        final AttachmentCache cache = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        final String first = add(cache, 'a');
+        final String second = add(cache, 'b');
+
+        assertNotNull(cache.get(first));    // first is now the most recently used
+
+        final String third = add(cache, 'c');
+
+        assertTrue(cache.contains(first));
+        assertFalse(cache.contains(second));
+        assertTrue(cache.contains(third));
+        assertEquals(1, Metrics.counter("attachmentCache.evictions").getCount());
+        assertEquals(ENTRY_SIZE * 2, cache.getSize());
+
+        assertNull(cache.get(second));
+        assertEquals(1, Metrics.counter("attachmentCache.hits").getCount());
+        assertEquals(1, Metrics.counter("attachmentCache.misses").getCount());
+    }
+
+    @Test
+    void testEvictedFileIsMiss() throws IOException {
+        final AttachmentCache cache = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        final String reference = add(cache, 'a');
+
+        assertNotNull(cache.get(reference));
+
+        // the file is removed after the entry was validated, as a concurrent eviction would
+        Files.delete(cache.getStore().getPath(reference));
+
+        assertNull(cache.get(reference));
+        assertEquals(1, Metrics.counter("attachmentCache.misses").getCount());
+    }
+
+    @Test
+    void testPersistence() throws IOException {
+        final AttachmentCache cache = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        final String first = add(cache, 'a');
+        final String second = add(cache, 'b');
+
+        // make the first entry the most recently used
+        Files.setLastModifiedTime(cache.getStore().getPath(second), FileTime.from(Instant.now().minusSeconds(60)));
+
+        final AttachmentCache reopened = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        assertEquals(ENTRY_SIZE * 2, reopened.getSize());
+
+        final String third = add(reopened, 'c');
+
+        assertTrue(reopened.contains(first));
+        assertFalse(reopened.contains(second));
+        assertTrue(reopened.contains(third));
+    }
+
+    @Test
+    void testValidation() throws IOException {
+        final AttachmentCache cache = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        final String reference = add(cache, 'a');
+
+        // corrupt the cached content between sessions
+        Files.write(cache.getStore().getPath(reference), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        final AttachmentCache reopened = new AttachmentCache(directory, ENTRY_SIZE * 2);
+
+        assertNull(reopened.get(reference));
+        assertFalse(Files.exists(reopened.getStore().getPath(reference)));
+        assertEquals(0, reopened.getSize());
+    }
+
+    private String add(final AttachmentCache cache, final char fill) throws IOException {
+        final StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < ENTRY_SIZE; i++) {
+            builder.append(fill);
+        }
+
+        final Path path = Files.write(sourceDirectory.resolve(fill + ".png"),
+                builder.toString().getBytes(StandardCharsets.UTF_8));
+
+        final String reference = cache.getStore().add(path, true);
+        cache.put(reference);
+
+        return reference;
+    }
+}
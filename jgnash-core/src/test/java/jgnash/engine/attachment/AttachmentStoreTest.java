@@ -0,0 +1,113 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.attachment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+
+import jgnash.util.FileUtils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AttachmentStore test.
+ *
+ * @author Craig Cavanaugh
+ */
+class AttachmentStoreTest {
+
+    private Path baseDirectory;
+
+    private AttachmentStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        baseDirectory = Files.createTempDirectory("jgnash-store");
+        store = new AttachmentStore(baseDirectory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.deletePathAndContents(baseDirectory);
+    }
+
+    @Test
+    void testDeduplication() throws IOException {
+        final Path first = createFile("receipt.PDF", "identical content");
+        final Path second = createFile("statement.pdf", "identical content");
+        final Path third = createFile("other.pdf", "different content");
+
+        final String reference = store.add(first, false);
+
+        assertTrue(AttachmentStore.isReference(reference));
+        assertTrue(reference.endsWith(".pdf"));
+        assertEquals(reference, store.add(second, true));
+        assertFalse(Files.exists(second));
+        assertTrue(Files.exists(first));
+
+        assertNotEquals(reference, store.add(third, false));
+
+        // sharded by the leading digest characters
+        final Path path = store.getPath(reference);
+        assertEquals(baseDirectory.resolve(reference.substring(0, 2)).resolve(reference.substring(2, 4)),
+                path.getParent());
+        assertEquals("identical content", new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+
+        assertTrue(store.contains(reference));
+        assertFalse(store.contains("receipt.pdf"));
+        assertEquals(baseDirectory.resolve("receipt.pdf"), store.getPath("receipt.pdf"));
+    }
+
+    @Test
+    void testCollectGarbage() throws IOException {
+        final String kept = store.add(createFile("kept.png", "kept"), true);
+        final String recent = store.add(createFile("recent.png", "recent"), true);
+        final String expired = store.add(createFile("expired.png", "expired"), true);
+        final Path legacy = createFile("legacy.png", "legacy");
+
+        final FileTime old = FileTime.from(Instant.now().minus(Duration.ofDays(2)));
+
+        Files.setLastModifiedTime(store.getPath(kept), old);
+        Files.setLastModifiedTime(store.getPath(expired), old);
+        Files.setLastModifiedTime(legacy, old);
+
+        assertEquals(1, store.collectGarbage(Collections.singleton(kept)));
+
+        assertTrue(store.contains(kept));
+        assertTrue(store.contains(recent));     // within the grace period
+        assertFalse(store.contains(expired));
+        assertTrue(Files.exists(legacy));       // legacy attachments are never collected
+    }
+
+    private Path createFile(final String name, final String content) throws IOException {
+        return Files.write(baseDirectory.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
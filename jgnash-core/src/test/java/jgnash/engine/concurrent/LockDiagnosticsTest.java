@@ -0,0 +1,111 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.concurrent;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lock diagnostics test.
+ *
+ * @author Craig Cavanaugh
+ */
+class LockDiagnosticsTest {
+
+    @AfterEach
+    void tearDown() {
+        LockDiagnostics.setEnabled(false);
+        LockDiagnostics.reset();
+    }
+
+    @Test
+    void testDisabled() {
+        LockDiagnostics.setEnabled(false);
+
+        assertFalse(LockDiagnostics.createLock(() -> "plain", true) instanceof InstrumentedReadWriteLock);
+        assertTrue(LockDiagnostics.createLocalLockManager() instanceof LocalLockManager);
+        assertFalse(LockDiagnostics.createLocalLockManager() instanceof InstrumentedLockManager);
+    }
+
+    @Test
+    void testContention() throws InterruptedException {
+        LockDiagnostics.setEnabled(true);
+
+        final ReentrantReadWriteLock lock = LockDiagnostics.createLock(() -> "Test lock", true);
+        final CountDownLatch locked = new CountDownLatch(1);
+
+        lock.writeLock().lock();
+
+        try {
+            lock.writeLock().lock();    // reentrant
+            lock.writeLock().unlock();
+
+            final Thread reader = new Thread(() -> {
+                locked.countDown();
+                lock.readLock().lock();
+                lock.readLock().unlock();
+            }, "Test reader");
+
+            reader.start();
+            locked.await();
+
+            while (lock.getQueueLength() == 0) {
+                Thread.sleep(1);
+            }
+
+            final List<String> held = LockDiagnostics.getHeldLocks();
+
+            assertTrue(held.stream().anyMatch(line -> line.startsWith("Test lock write lock held by "
+                    + Thread.currentThread().getName())));
+
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(LockDiagnostics.LONG_HOLD_THRESHOLD) + 10);
+
+            lock.writeLock().unlock();
+            reader.join();
+        } finally {
+            if (lock.isWriteLockedByCurrentThread()) {
+                lock.writeLock().unlock();
+            }
+        }
+
+        final List<LockStatistics> contended = LockDiagnostics.getTopContendedLocks(10);
+
+        assertEquals("Test lock", contended.get(0).getName());
+        assertEquals(3, contended.get(0).getAcquisitions());
+        assertEquals(1, contended.get(0).getContendedAcquisitions());
+        assertTrue(contended.get(0).getMaxWait(TimeUnit.NANOSECONDS) > 0);
+
+        final List<LongHold> longHolds = LockDiagnostics.getLongHolds();
+
+        assertEquals(1, longHolds.size());
+        assertEquals("write", longHolds.get(0).getMode());
+        assertEquals(LockDiagnosticsTest.class.getName(), longHolds.get(0).getCallSite().getClassName());
+
+        assertTrue(LockDiagnostics.getHeldLocks().isEmpty());
+        assertTrue(LockDiagnostics.getReport().contains("Test lock write lock held"));
+    }
+}
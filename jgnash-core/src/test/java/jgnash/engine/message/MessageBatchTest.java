@@ -0,0 +1,149 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Message batching tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class MessageBatchTest extends AbstractEngineTest {
+
+    private static final int COUNT = 25;
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("messageBatchTest.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+    }
+
+    @Test
+    void testBatchScope() throws InterruptedException {
+        final CountDownLatch batchLatch = new CountDownLatch(1);
+        final CountDownLatch messageLatch = new CountDownLatch(COUNT);
+
+        final AtomicInteger batchSize = new AtomicInteger();
+        final AtomicInteger batchCount = new AtomicInteger();
+
+        final BatchMessageListener batchListener = new BatchMessageListener() {
+            @Override
+            public void messagesPosted(final MessageBatch batch) {
+                batchCount.incrementAndGet();
+                batchSize.set(batch.getMessages(MessageChannel.TRANSACTION).size());
+                batchLatch.countDown();
+            }
+
+            @Override
+            public void messagePosted(final Message message) {
+                batchCount.incrementAndGet();
+            }
+        };
+
+        final MessageListener listener = message -> {
+            if (message.getEvent() == ChannelEvent.TRANSACTION_ADD) {
+                messageLatch.countDown();
+            }
+        };
+
+        final MessageBus messageBus = MessageBus.getInstance(EngineFactory.DEFAULT);
+
+        messageBus.registerListener(batchListener, MessageChannel.TRANSACTION);
+        messageBus.registerListener(listener, MessageChannel.TRANSACTION);
+
+        final List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 0; i < COUNT; i++) {
+            transactions.add(TransactionFactory.generateSingleEntryTransaction(usdBankAccount, BigDecimal.ONE,
+                    LocalDate.now(), "Memo " + i, "Payee", ""));
+        }
+
+        assertEquals(COUNT, e.addTransactions(transactions));
+
+        // existing listeners still receive each message
+        assertTrue(messageLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(batchLatch.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, batchCount.get());
+        assertEquals(COUNT, batchSize.get());
+
+        messageBus.unregisterListener(batchListener, MessageChannel.TRANSACTION);
+        messageBus.unregisterListener(listener, MessageChannel.TRANSACTION);
+    }
+
+    @Test
+    void testBatchScopeIsPerThread() throws InterruptedException {
+        final CountDownLatch otherLatch = new CountDownLatch(1);
+        final CountDownLatch ownLatch = new CountDownLatch(1);
+
+        final MessageListener listener = message -> {
+            if (message.getEvent() == ChannelEvent.CURRENCY_ADD) {
+                otherLatch.countDown();
+            } else if (message.getEvent() == ChannelEvent.CURRENCY_MODIFY) {
+                ownLatch.countDown();
+            }
+        };
+
+        final MessageBus messageBus = MessageBus.getInstance(EngineFactory.DEFAULT);
+
+        messageBus.registerListener(listener, MessageChannel.COMMODITY);
+
+        try (final MessageBus.BatchScope ignored = messageBus.openBatch()) {
+            messageBus.fireEvent(new Message(MessageChannel.COMMODITY, ChannelEvent.CURRENCY_MODIFY, e));
+
+            final Thread thread = new Thread(() ->
+                    messageBus.fireEvent(new Message(MessageChannel.COMMODITY, ChannelEvent.CURRENCY_ADD, e)));
+            thread.start();
+            thread.join();
+
+            // another thread's event is not held back by this thread's scope
+            assertTrue(otherLatch.await(5, TimeUnit.SECONDS));
+
+            // this thread's event is held until the scope closes
+            assertFalse(ownLatch.await(100, TimeUnit.MILLISECONDS));
+        }
+
+        assertTrue(ownLatch.await(5, TimeUnit.SECONDS));
+
+        messageBus.unregisterListener(listener, MessageChannel.COMMODITY);
+    }
+}
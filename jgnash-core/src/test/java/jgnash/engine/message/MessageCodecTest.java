@@ -0,0 +1,217 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import jgnash.engine.AbstractEngineTest;
+import jgnash.engine.DataStoreType;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.engine.Transaction;
+import jgnash.engine.TransactionFactory;
+import jgnash.util.EncryptionManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Remote message bus framing tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class MessageCodecTest extends AbstractEngineTest {
+
+    @Override
+    protected Engine createEngine() throws IOException {
+        database = testFolder.createFile("messageCodecTest.xml").getAbsolutePath();
+
+        EngineFactory.deleteDatabase(database);
+
+        return EngineFactory.bootLocalEngine(database, EngineFactory.DEFAULT, EngineFactory.EMPTY_PASSWORD,
+                DataStoreType.XML);
+    }
+
+    @Test
+    void testPlainFrame() throws IOException {
+        final MessageCodec codec = new MessageCodec(null);
+        final Message message = createAccountMessage();
+
+        final ByteBuf frame = codec.encodeMessage(message);
+
+        assertEquals(MessageCodec.MESSAGE_FRAME, MessageCodec.getFrameType(frame));
+
+        final byte[] body = codec.getBody(frame);
+        assertNotNull(body);
+
+        // the unencrypted body follows the frame type byte
+        final byte[] payload = new byte[frame.readableBytes() - 1];
+        frame.getBytes(frame.readerIndex() + 1, payload);
+        assertArrayEquals(payload, body);
+
+        assertMessageEquals(message, MessageCodec.decodeMessage(body, e));
+    }
+
+    @Test
+    void testEncryptedFrame() throws IOException {
+        final MessageCodec plainCodec = new MessageCodec(null);
+        final MessageCodec codec = new MessageCodec(new EncryptionManager("secret".toCharArray()));
+        final Message message = createAccountMessage();
+
+        final ByteBuf plainFrame = plainCodec.encodeMessage(message);
+        final ByteBuf frame = codec.encodeMessage(message);
+
+        // the frame type is sent in the clear for routing
+        assertEquals(MessageCodec.MESSAGE_FRAME, MessageCodec.getFrameType(frame));
+
+        // while the body is encrypted
+        final byte[] payload = new byte[frame.readableBytes() - 1];
+        frame.getBytes(frame.readerIndex() + 1, payload);
+        assertFalse(Arrays.equals(plainCodec.getBody(plainFrame), payload));
+
+        final byte[] body = codec.getBody(frame);
+        assertArrayEquals(plainCodec.getBody(plainFrame), body);
+
+        assertMessageEquals(message, MessageCodec.decodeMessage(body, e));
+    }
+
+    @Test
+    void testLengthField() throws IOException {
+        final MessageCodec codec = new MessageCodec(new EncryptionManager("secret".toCharArray()));
+        final Message message = createAccountMessage();
+
+        final EmbeddedChannel channel = new EmbeddedChannel();
+        MessageCodec.addFraming(channel.pipeline());
+
+        final ByteBuf frame = codec.encodeMessage(message);
+        final int frameLength = frame.readableBytes();
+
+        channel.writeOutbound(frame);
+
+        // the prepender writes the frame length ahead of the frame
+        final ByteBuf wire = readAll(channel);
+        assertEquals(frameLength + 4, wire.readableBytes());
+        assertEquals(frameLength, wire.getInt(wire.readerIndex()));
+
+        // and the framer strips it again, even when the frame arrives in pieces
+        channel.writeInbound(wire.readRetainedSlice(3));
+        channel.writeInbound(wire.readRetainedSlice(wire.readableBytes()));
+        wire.release();
+
+        final ByteBuf received = channel.readInbound();
+        assertNotNull(received);
+        assertEquals(frameLength, received.readableBytes());
+        assertEquals(MessageCodec.MESSAGE_FRAME, MessageCodec.getFrameType(received));
+
+        assertMessageEquals(message, MessageCodec.decodeMessage(codec.getBody(received), e));
+
+        received.release();
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void testBatchFrame() throws IOException {
+        final MessageCodec codec = new MessageCodec(new EncryptionManager("secret".toCharArray()));
+
+        final Transaction transaction = TransactionFactory.generateSingleEntryTransaction(usdBankAccount,
+                BigDecimal.ONE, LocalDate.now(), "Memo", "Payee", "");
+        e.addTransaction(transaction);
+
+        final Message transactionMessage = new Message(MessageChannel.TRANSACTION, ChannelEvent.TRANSACTION_ADD, e);
+        transactionMessage.setObject(MessageProperty.ACCOUNT, usdBankAccount);
+        transactionMessage.setObject(MessageProperty.TRANSACTION, transaction);
+
+        final Message commodityMessage = new Message(MessageChannel.COMMODITY, ChannelEvent.CURRENCY_MODIFY, e);
+        commodityMessage.setObject(MessageProperty.COMMODITY, e.getDefaultCurrency());
+
+        final List<Message> messages = Arrays.asList(createAccountMessage(), transactionMessage, commodityMessage);
+
+        final ByteBuf frame = codec.encodeMessages(messages);
+
+        assertEquals(MessageCodec.BATCH_FRAME, MessageCodec.getFrameType(frame));
+
+        final byte[] body = codec.getBody(frame);
+        assertEquals("MessageBatch [size=3]", MessageCodec.describe(MessageCodec.BATCH_FRAME, body));
+
+        final List<Message> decoded = MessageCodec.decodeMessages(body, e);
+        assertEquals(messages.size(), decoded.size());
+
+        for (int i = 0; i < messages.size(); i++) {
+            assertMessageEquals(messages.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void testUnknownPropertyType() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MessageChannel.ACCOUNT.ordinal());
+            out.writeShort(ChannelEvent.ACCOUNT_MODIFY.ordinal());
+            MessageCodec.writeUuid(out, UUID.fromString(e.getUuid()));
+            out.writeByte(1);
+            out.writeByte(MessageProperty.ACCOUNT.ordinal());
+            out.writeByte(Byte.MAX_VALUE);
+            MessageCodec.writeUuid(out, usdBankAccount.getUuid());
+        }
+
+        assertThrows(IOException.class, () -> MessageCodec.decodeMessage(bytes.toByteArray(), e));
+    }
+
+    private Message createAccountMessage() {
+        final Message message = new Message(MessageChannel.ACCOUNT, ChannelEvent.ACCOUNT_MODIFY, e);
+        message.setObject(MessageProperty.ACCOUNT, usdBankAccount);
+
+        return message;
+    }
+
+    private static void assertMessageEquals(final Message expected, final Message actual) {
+        assertEquals(expected.getChannel(), actual.getChannel());
+        assertEquals(expected.getEvent(), actual.getEvent());
+        assertEquals(expected.getSource(), actual.getSource());
+
+        for (final MessageProperty property : MessageProperty.values()) {
+            assertSame(expected.getObject(property), actual.getObject(property));
+        }
+    }
+
+    private static ByteBuf readAll(final EmbeddedChannel channel) {
+        final ByteBuf wire = channel.alloc().buffer();
+
+        for (ByteBuf buffer = channel.readOutbound(); buffer != null; buffer = channel.readOutbound()) {
+            wire.writeBytes(buffer);
+            buffer.release();
+        }
+
+        return wire;
+    }
+}
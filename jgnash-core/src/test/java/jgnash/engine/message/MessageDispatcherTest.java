@@ -0,0 +1,140 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.message;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MessageDispatcher tests.
+ *
+ * @author Craig Cavanaugh
+ */
+class MessageDispatcherTest {
+
+    private static final int COUNT = 1000;
+
+    @Test
+    void testLaneOrdering() throws InterruptedException {
+        final MessageDispatcher dispatcher = new MessageDispatcher(4);
+
+        final Object first = new Object();
+        final Object second = new Object();
+
+        final List<Integer> firstList = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> secondList = Collections.synchronizedList(new ArrayList<>());
+
+        final CountDownLatch latch = new CountDownLatch(COUNT * 2);
+
+        for (int i = 0; i < COUNT; i++) {
+            final int value = i;
+
+            dispatcher.dispatch(first, () -> {
+                firstList.add(value);
+                latch.countDown();
+            });
+
+            dispatcher.dispatch(second, () -> {
+                secondList.add(value);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(i, firstList.get(i).intValue());
+            assertEquals(i, secondList.get(i).intValue());
+        }
+
+        assertEquals(COUNT * 2, dispatcher.getDispatchCount());
+        assertEquals(0, dispatcher.getQueueDepth());
+    }
+
+    @Test
+    void testEqualListenersUseSeparateLanes() throws InterruptedException {
+        final MessageDispatcher dispatcher = new MessageDispatcher(4);
+
+        // distinct listeners that are equal must not share a lane
+        final List<String> first = new ArrayList<>();
+        final List<String> second = new ArrayList<>();
+
+        assertEquals(first, second);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch secondLatch = new CountDownLatch(1);
+
+        dispatcher.dispatch(first, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        dispatcher.dispatch(second, secondLatch::countDown);
+
+        assertTrue(secondLatch.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+    }
+
+    @Test
+    void testSlowListenerIsolation() throws InterruptedException {
+        final MessageDispatcher dispatcher = new MessageDispatcher(1);
+
+        final Object slow = new Object();
+        final Object fast = new Object();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch fastLatch = new CountDownLatch(1);
+
+        // the first task runs long enough to flag the lane as slow
+        dispatcher.dispatch(slow, () -> {
+            try {
+                Thread.sleep(300);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // the slow lane is now blocked on the separate pool
+        dispatcher.dispatch(slow, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        dispatcher.dispatch(fast, fastLatch::countDown);
+
+        assertTrue(fastLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, dispatcher.getSlowListenerCount());
+
+        release.countDown();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.engine.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Metrics registry test.
+ *
+ * @author Craig Cavanaugh
+ */
+class MetricsTest {
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    @Test
+    void testDisabled() {
+        Metrics.setEnabled(false);
+
+        final Counter counter = Metrics.counter("test.disabled.counter");
+        final LatencyHistogram histogram = Metrics.histogram("test.disabled.histogram");
+
+        counter.increment();
+        histogram.record(1000);
+        histogram.recordSince(Metrics.startTime());
+
+        assertEquals(Metrics.DISABLED, Metrics.startTime());
+        assertEquals(0, counter.getCount());
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void testRegistry() {
+        final Counter counter = Metrics.counter("test.registry");
+
+        assertSame(counter, Metrics.counter("test.registry"));
+        assertThrows(IllegalArgumentException.class, () -> Metrics.histogram("test.registry"));
+
+        Metrics.setEnabled(true);
+
+        final Counter hits = Metrics.counter("test.cache.hits");
+        final Counter misses = Metrics.counter("test.cache.misses");
+        final Gauge ratio = Metrics.hitRatio("test.cache.hitRatio", hits, misses);
+
+        assertEquals(0, ratio.getValue());
+
+        hits.add(3);
+        misses.increment();
+
+        assertEquals(0.75, ratio.getValue(), 0);
+        assertTrue(Metrics.getReport().contains("test.cache.hitRatio: 0.750"));
+        assertTrue(Metrics.getReport().contains("test.cache.hits: 3"));
+    }
+
+    @Test
+    void testHistogram() {
+        Metrics.setEnabled(true);
+
+        final LatencyHistogram histogram = Metrics.histogram("test.histogram");
+
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(10_000), histogram.getMaxNanos());
+        assertEquals(5000.5, histogram.getMeanNanos() / 1000.0, 0.5);
+
+        assertEquals(5000, histogram.getValueAtPercentile(50) / 1000.0, 5000 * 0.04);
+        assertEquals(9900, histogram.getValueAtPercentile(99) / 1000.0, 9900 * 0.04);
+        assertEquals(10, histogram.getMax(), 0);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void testBuckets() {
+        long previous = -1;
+
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            final long highest = LatencyHistogram.highestEquivalentValue(i);
+
+            assertTrue(highest > previous);
+            assertEquals(i, LatencyHistogram.bucketIndex(highest));
+            assertEquals(i, LatencyHistogram.bucketIndex(previous + 1));
+
+            previous = highest;
+        }
+
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testJmx() throws JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final LatencyHistogram histogram = Metrics.histogram("test.jmx");
+
+        assertFalse(server.isRegistered(Metrics.getObjectName(histogram)));
+
+        Metrics.setEnabled(true);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+
+        assertTrue(server.isRegistered(Metrics.getObjectName(histogram)));
+        assertEquals(1L, server.getAttribute(Metrics.getObjectName(histogram), "Count"));
+
+        final Counter counter = Metrics.counter("test.jmx.late");
+
+        assertTrue(server.isRegistered(Metrics.getObjectName(counter)));
+
+        Metrics.setEnabled(false);
+
+        assertFalse(server.isRegistered(Metrics.getObjectName(histogram)));
+    }
+}
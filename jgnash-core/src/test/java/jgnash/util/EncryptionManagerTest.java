@@ -20,6 +20,12 @@ package jgnash.util;
 import org.apache.commons.text.RandomStringGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -47,4 +53,39 @@ class EncryptionManagerTest {
             assertEquals(testString, decrypted);
         }
     }
+
+    @Test
+    void testBytes() {
+        final EncryptionManager encryptionManager = new EncryptionManager(PASSWORD.toCharArray());
+
+        for (int i = 1; i < 8192; i += 7) {
+            final byte[] plain = generator.generate(i).getBytes(StandardCharsets.UTF_8);
+
+            assertArrayEquals(plain, encryptionManager.decrypt(encryptionManager.encrypt(plain)));
+        }
+    }
+
+    @Test
+    void testStream() {
+        final EncryptionManager encryptionManager = new EncryptionManager(PASSWORD.toCharArray());
+
+        final byte[] iv = new byte[EncryptionManager.STREAM_IV_LENGTH];
+        new SecureRandom().nextBytes(iv);
+
+        final byte[] plain = generator.generate(8191).getBytes(StandardCharsets.UTF_8);
+
+        final byte[] encrypted = encryptionManager.createStreamCipher(Cipher.ENCRYPT_MODE, iv).update(plain);
+        assertEquals(plain.length, encrypted.length);
+
+        // decrypt in uneven chunks as a network transfer would
+        final Cipher cipher = encryptionManager.createStreamCipher(Cipher.DECRYPT_MODE, iv);
+        final byte[] decrypted = new byte[encrypted.length];
+
+        for (int i = 0; i < encrypted.length; i += 1000) {
+            final int length = Math.min(1000, encrypted.length - i);
+            System.arraycopy(cipher.update(encrypted, i, length), 0, decrypted, i, length);
+        }
+
+        assertArrayEquals(plain, decrypted);
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ParallelZipOutputStream test.
+ *
+ * @author Craig Cavanaugh
+ */
+class ParallelZipOutputStreamTest {
+
+    private static final String ENTRY_NAME = "test-20180101-1200.xml";
+
+    /**
+     * Generates compressible, XML like test data.
+     */
+    private static byte[] generate(final int length) {
+        final Random random = new Random(length);
+        final StringBuilder builder = new StringBuilder(length + 64);
+
+        while (builder.length() < length) {
+            builder.append("<transaction uuid=\"").append(random.nextInt(1000)).append("\" amount=\"")
+                    .append(random.nextInt()).append("\"/>\n");
+        }
+
+        return builder.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readEntry(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int count;
+
+        while ((count = in.read(buffer)) > 0) {
+            out.write(buffer, 0, count);
+        }
+
+        return out.toByteArray();
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final int[] lengths = {0, 1, ParallelZipOutputStream.BLOCK_SIZE, ParallelZipOutputStream.BLOCK_SIZE * 5 + 17};
+
+        for (final int length : lengths) {
+            final byte[] data = generate(length);
+            final Path zipFile = Files.createTempFile("test", ".zip");
+
+            try {
+                try (final OutputStream out = new ParallelZipOutputStream(Files.newOutputStream(zipFile), ENTRY_NAME,
+                        Deflater.BEST_COMPRESSION)) {
+
+                    // uneven writes to cross block boundaries
+                    for (int i = 0; i < data.length; i += 1000) {
+                        out.write(data, i, Math.min(1000, data.length - i));
+                    }
+                }
+
+                // read using the central directory
+                try (final ZipFile zip = new ZipFile(zipFile.toFile())) {
+                    final ZipEntry entry = zip.getEntry(ENTRY_NAME);
+
+                    assertNotNull(entry);
+                    assertEquals(length, entry.getSize());
+                    assertArrayEquals(data, readEntry(zip.getInputStream(entry)));
+                }
+
+                // read as a stream using the data descriptor
+                try (final ZipInputStream in = new ZipInputStream(Files.newInputStream(zipFile))) {
+                    assertEquals(ENTRY_NAME, in.getNextEntry().getName());
+                    assertArrayEquals(data, readEntry(in));
+                    assertNull(in.getNextEntry());
+                }
+            } finally {
+                Files.delete(zipFile);
+            }
+        }
+    }
+
+    @Test
+    void testCompressionRatio() throws IOException {
+        final byte[] data = generate(ParallelZipOutputStream.BLOCK_SIZE * 8);
+
+        final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+        try (final OutputStream out = new ParallelZipOutputStream(parallel, ENTRY_NAME, Deflater.BEST_COMPRESSION)) {
+            out.write(data);
+        }
+
+        final ByteArrayOutputStream serial = new ByteArrayOutputStream();
+
+        try (final ZipOutputStream out = new ZipOutputStream(serial)) {
+            out.setLevel(Deflater.BEST_COMPRESSION);
+            out.putNextEntry(new ZipEntry(ENTRY_NAME));
+            out.write(data);
+        }
+
+        // the shared dictionaries keep the result within a few percent of a single deflater
+        assertTrue(parallel.size() < serial.size() * 1.05);
+    }
+}
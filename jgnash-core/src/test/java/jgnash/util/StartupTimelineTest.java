@@ -0,0 +1,79 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package jgnash.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * StartupTimeline test.
+ *
+ * @author Craig Cavanaugh
+ */
+class StartupTimelineTest {
+
+    @Test
+    void testTimeline() throws IOException {
+        assertTrue(StartupTimeline.isRecording());
+
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Test \"phase\"")) {
+            for (int i = 0; i < 3; i++) {
+                try (final StartupTimeline.Phase ignored2 = StartupTimeline.accumulate("Test total")) {
+                    assertTrue(StartupTimeline.isRecording());
+                }
+            }
+        }
+
+        assertTrue(StartupTimeline.getPhases().stream().anyMatch(phase -> phase.getName().equals("Test \"phase\"")
+                && phase.getDurationNanos() >= 0));
+
+        assertEquals(3, StartupTimeline.getTotals().get("Test total").count.sum());
+
+        final StringWriter writer = new StringWriter();
+        StartupTimeline.writeChromeTrace(writer);
+
+        final String trace = writer.toString();
+
+        assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(trace.contains("\"name\":\"Test \\\"phase\\\"\",\"cat\":\"startup\",\"ph\":\"X\""));
+        assertTrue(trace.contains("\"name\":\"Test total\",\"cat\":\"total\""));
+
+        StartupTimeline.finish();
+
+        assertFalse(StartupTimeline.isRecording());
+
+        final int phaseCount = StartupTimeline.getPhases().size();
+
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("After finish")) {
+            assertFalse(StartupTimeline.isRecording());
+        }
+
+        assertEquals(phaseCount, StartupTimeline.getPhases().size());
+    }
+
+    @Test
+    void testEscape() {
+        assertEquals("a\\\\b\\\"c\\u000a", StartupTimeline.escape("a\\b\"c\n"));
+    }
+}
@@ -20,11 +20,14 @@ import javafx.application.Application;
 import javafx.stage.Stage;
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.engine.jpa.JpaNetworkServer;
+import jgnash.engine.metrics.Metrics;
 import jgnash.uifx.StaticUIMethods;
 import jgnash.uifx.net.NetworkAuthenticator;
 import jgnash.uifx.views.main.MainView;
 import jgnash.util.FileUtils;
+import jgnash.util.StartupTimeline;
 import jgnash.resource.util.OS;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.util.prefs.PortablePreferences;
@@ -38,6 +41,7 @@ import java.net.Authenticator;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -71,6 +75,9 @@ public class jGnashFx extends Application {
     private static final String HOST_OPTION = "host";
     private static final String PASSWORD_OPTION = "password";
     private static final String SERVER_OPTION = "server";
+    private static final String STARTUP_TRACE_OPTION = "startupTrace";
+    private static final String METRICS_OPTION = "metrics";
+    private static final String LOCK_DIAGNOSTICS_OPTION = "lockDiagnostics";
 
     private static File dataFile = null;
     private static File serverFile = null;
@@ -160,6 +167,22 @@ public class jGnashFx extends Application {
                 }
             }
 
+            if (options.has(STARTUP_TRACE_OPTION)) {
+                StartupTimeline.setTraceFile(((File) options.valueOf(STARTUP_TRACE_OPTION)).toPath());
+            }
+
+            if (options.has(LOCK_DIAGNOSTICS_OPTION)) {
+                LockDiagnostics.setEnabled(true);
+            }
+
+            if (options.has(METRICS_OPTION)) {
+                Metrics.setEnabled(true);
+
+                if (options.hasArgument(METRICS_OPTION)) {
+                    Metrics.setLogInterval((Integer) options.valueOf(METRICS_OPTION), TimeUnit.SECONDS);
+                }
+            }
+
             if (options.has(HOST_OPTION)) {
                 host = (String) options.valueOf(HOST_OPTION);
             }
@@ -177,6 +200,10 @@ public class jGnashFx extends Application {
             } else {
                 parser = null;  // not needed anymore, trigger GC
                 setupNetworking();
+
+                // registers, balances and reports wait for older transactions loaded in the background
+                EngineFactory.setProgressiveBootSupported(true);
+
                 launch(args);
             }
         } catch (final Exception exception) {
@@ -259,6 +286,11 @@ public class jGnashFx extends Application {
                 accepts(HOST_OPTION, "Server host name or address").requiredIf(PORT_OPTION).withRequiredArg();
                 accepts(SERVER_OPTION, "Runs as a server using the specified file")
                         .withRequiredArg().ofType(File.class);
+                accepts(STARTUP_TRACE_OPTION, "Writes a Chrome trace of the startup timeline to the specified file")
+                        .withRequiredArg().ofType(File.class);
+                accepts(METRICS_OPTION, "Publishes engine metrics over JMX and optionally logs them every n seconds")
+                        .withOptionalArg().ofType(Integer.class);
+                accepts(LOCK_DIAGNOSTICS_OPTION, "Records lock contention, reported in the console dialog");
             }
         };
 
@@ -117,6 +117,7 @@ public class AutoCompleteFactory {
                     load(t);
                     return;
                 case FILE_LOAD_SUCCESS:
+                case TRANSACTIONS_LOADED:
                     reload();
                     return;
                 case FILE_CLOSING:
@@ -210,6 +211,7 @@ public class AutoCompleteFactory {
                     }
                     return;
                 case FILE_LOAD_SUCCESS:
+                case TRANSACTIONS_LOADED:
                     reload();
                     return;
                 case TRANSACTION_REMOVE:
@@ -56,6 +56,9 @@ public class StartupShutdownTabController {
     @FXML
     private CheckBox checkForUpdatesCheckBox;
 
+    @FXML
+    private CheckBox progressiveLoadingCheckBox;
+
     @FXML
     private void initialize() {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
@@ -94,5 +97,10 @@ public class StartupShutdownTabController {
         openLastCheckBox.selectedProperty().bindBidirectional(Options.openLastProperty());
 
         checkForUpdatesCheckBox.selectedProperty().bindBidirectional(Options.checkForUpdatesProperty());
+
+        progressiveLoadingCheckBox.setSelected(EngineFactory.isProgressiveBoot());
+
+        progressiveLoadingCheckBox.selectedProperty().addListener((observable, oldValue, newValue)
+                -> EngineFactory.setProgressiveBoot(newValue));
     }
 }
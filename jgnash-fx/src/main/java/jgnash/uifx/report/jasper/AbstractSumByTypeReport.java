@@ -101,6 +101,11 @@ public abstract class AbstractSumByTypeReport extends DynamicJasperReport {
 
     protected abstract List<AccountGroup> getAccountGroups();
 
+    @Override
+    protected LocalDate getTransactionHistoryStartDate() {
+        return getTransactionHistoryStartDate(getAccountGroups(), startDatePicker.getValue());
+    }
+
     protected ReportModel createReportModel(final LocalDate startDate, final LocalDate endDate) {
 
         logger.info(rb.getString("Message.CollectingReportData"));
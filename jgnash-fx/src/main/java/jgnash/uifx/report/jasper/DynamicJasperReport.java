@@ -17,8 +17,12 @@
  */
 package jgnash.uifx.report.jasper;
 
+import java.time.LocalDate;
+import java.util.Collection;
+
 import javafx.beans.property.SimpleObjectProperty;
 
+import jgnash.engine.AccountGroup;
 import jgnash.report.ui.jasper.BaseDynamicJasperReport;
 import jgnash.uifx.StaticUIMethods;
 
@@ -35,6 +39,35 @@ public abstract class DynamicJasperReport extends BaseDynamicJasperReport{
         return refreshCallBack;
     }
 
+    /**
+     * Returns the earliest date of the transactions this report depends on.  Used to wait for older transactions
+     * that are still being loaded in the background.
+     *
+     * @return the earliest required date, {@link LocalDate#MIN} if the complete history is needed
+     */
+    protected LocalDate getTransactionHistoryStartDate() {
+        return LocalDate.MIN;
+    }
+
+    /**
+     * Income and expense amounts only depend on the transactions within the reported period, every other balance
+     * depends on the complete history.
+     *
+     * @param accountGroups account groups included in the report
+     * @param startDate     start date of the report
+     * @return the earliest required date
+     */
+    protected static LocalDate getTransactionHistoryStartDate(final Collection<AccountGroup> accountGroups,
+                                                              final LocalDate startDate) {
+        for (final AccountGroup group : accountGroups) {
+            if (group != AccountGroup.INCOME && group != AccountGroup.EXPENSE) {
+                return LocalDate.MIN;
+            }
+        }
+
+        return startDate;
+    }
+
     @Override
     protected void displayError(final String message) {
         StaticUIMethods.displayError(message);
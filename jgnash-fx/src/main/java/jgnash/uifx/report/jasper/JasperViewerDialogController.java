@@ -68,6 +68,8 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Screen;
 
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
 import jgnash.uifx.StaticUIMethods;
 import jgnash.uifx.control.BusyPane;
 import jgnash.uifx.report.PortfolioReportController;
@@ -256,7 +258,14 @@ public final class JasperViewerDialogController {
 
         report.addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
-                jasperPrint.set(newValue.createJasperPrint(false));
+                final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+                // do not block the application thread while older transactions are still loading
+                if (engine == null || engine.isTransactionHistoryLoaded()) {
+                    jasperPrint.set(newValue.createJasperPrint(false));
+                } else {
+                    createJasperPrint(newValue);
+                }
 
                 fontSizeSpinner.valueFactoryProperty().get().setValue(newValue.getBaseFontSize());
 
@@ -350,9 +359,23 @@ public final class JasperViewerDialogController {
                 final Task<Void> task = new Task<Void>() {
                     @Override
                     protected Void call() {
-                        updateMessage(resources.getString("Message.CompilingReport"));
+                        final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
                         updateProgress(-1, Long.MAX_VALUE);
 
+                        if (engine != null && !engine.isTransactionHistoryLoaded()) {
+                            updateMessage(resources.getString("Message.LoadingTransactions"));
+
+                            try {
+                                engine.awaitTransactions(dynamicJasperReport.getTransactionHistoryStartDate());
+                            } catch (final IOException e) {
+                                StaticUIMethods.displayException(e);  // do not compile with an incomplete history
+                                return null;
+                            }
+                        }
+
+                        updateMessage(resources.getString("Message.CompilingReport"));
+
                         jasperPrint.set(dynamicJasperReport.createJasperPrint(false));
                         return null;
                     }
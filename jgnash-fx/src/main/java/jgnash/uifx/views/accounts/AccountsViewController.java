@@ -18,6 +18,7 @@
 package jgnash.uifx.views.accounts;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.prefs.Preferences;
@@ -148,13 +149,15 @@ public class AccountsViewController implements MessageListener {
         entriesColumn.setCellValueFactory(param -> new SimpleIntegerProperty(param.getValue().getValue().getTransactionCount()).asObject());
 
         final TreeTableColumn<Account, BigDecimal> balanceColumn = new TreeTableColumn<>(resources.getString("Column.Balance"));
-        balanceColumn.setCellValueFactory(param -> new SimpleObjectProperty<>(AccountBalanceDisplayManager.
+        balanceColumn.setCellValueFactory(param -> isTransactionHistoryLoading() ? new SimpleObjectProperty<>()
+                : new SimpleObjectProperty<>(AccountBalanceDisplayManager.
                 convertToSelectedBalanceMode(param.getValue().getValue().getAccountType(),
                         param.getValue().getValue().getTreeBalance())));
         balanceColumn.setCellFactory(cell -> new AccountCommodityFormatTreeTableCell());
 
         final TreeTableColumn<Account, BigDecimal> reconciledBalanceColumn = new TreeTableColumn<>(resources.getString("Column.ReconciledBalance"));
-        reconciledBalanceColumn.setCellValueFactory(param -> new SimpleObjectProperty<>(AccountBalanceDisplayManager.
+        reconciledBalanceColumn.setCellValueFactory(param -> isTransactionHistoryLoading() ? new SimpleObjectProperty<>()
+                : new SimpleObjectProperty<>(AccountBalanceDisplayManager.
                 convertToSelectedBalanceMode(param.getValue().getValue().getAccountType(),
                         param.getValue().getValue().getReconciledTreeBalance())));
         reconciledBalanceColumn.setCellFactory(cell -> new AccountCommodityFormatTreeTableCell());
@@ -342,11 +345,23 @@ public class AccountsViewController implements MessageListener {
 
             treeTableView.setRoot(root);
             loadChildren(root);
+
+            // balances are left blank until older transactions have been loaded
+            if (engine.isTransactionHistoryLoading()) {
+                engine.whenTransactionsLoaded(LocalDate.MIN).whenComplete((result, throwable)
+                        -> JavaFXUtils.runLater(treeTableView::refresh));
+            }
         } else {
             treeTableView.setRoot(null);
         }
     }
 
+    private static boolean isTransactionHistoryLoading() {
+        final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+        return engine != null && engine.isTransactionHistoryLoading();
+    }
+
     private synchronized void loadChildren(final TreeItem<Account> parentItem) {
         parentItem.getValue().getChildren(Comparators.getAccountByCode()).stream().filter(typeFilter::isAccountVisible).forEach(child -> {
             TreeItem<Account> childItem = new TreeItem<>(child);
@@ -376,6 +391,7 @@ public class AccountsViewController implements MessageListener {
                 break;
             case TRANSACTION_ADD:
             case TRANSACTION_REMOVE:
+            case TRANSACTION_RECONCILED:
                 JavaFXUtils.runLater(() -> treeTableView.refresh());
                 break;
             case FILE_CLOSING:
@@ -48,6 +48,7 @@ import javafx.stage.WindowEvent;
 import javafx.util.Duration;
 
 import jgnash.engine.Engine;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.uifx.util.FXMLUtils;
 import jgnash.uifx.util.InjectFXML;
 import jgnash.uifx.util.JavaFXUtils;
@@ -179,6 +180,11 @@ public class ConsoleDialogController {
         System.gc();
     }
 
+    @FXML
+    private void handleLockReport() {
+        consoleArea.appendText(LockDiagnostics.getReport());
+    }
+
     @FXML
     private void handleCopyToClipboard() {
         final ClipboardContent content = new ClipboardContent();
@@ -61,6 +61,7 @@ import jgnash.uifx.views.register.RegisterViewController;
 import jgnash.util.DefaultDaemonThreadFactory;
 import jgnash.util.NotNull;
 import jgnash.util.Nullable;
+import jgnash.util.StartupTimeline;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.resource.util.Version;
 
@@ -160,6 +161,8 @@ public class MainView implements MessageListener {
 
     public void start(final Stage stage, @Nullable final File dataFile, final char[] password,
                       @Nullable final String host, final int port) throws Exception {
+        final StartupTimeline.Phase mainWindowPhase = StartupTimeline.begin("Main window");
+
         ThemeManager.restoreLastUsedTheme();
 
         primaryStage = stage;
@@ -217,6 +220,8 @@ public class MainView implements MessageListener {
         stage.toFront();
         stage.requestFocus();
 
+        mainWindowPhase.close();
+
         if (host != null) { // connect to a remote server instead of loading a local file
             new Thread(() -> {
                 try {
@@ -251,7 +256,14 @@ public class MainView implements MessageListener {
             }).start();
         }
 
-        loadPlugins();
+        try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Load plugins")) {
+            loadPlugins();
+        }
+
+        // nothing else is loaded at startup, the application is usable now
+        if (host == null && dataFile == null && !Options.openLastProperty().get()) {
+            StartupTimeline.finish();
+        }
 
         checkForLatestRelease();
     }
@@ -275,21 +287,33 @@ public class MainView implements MessageListener {
     }
 
     private void addViews() {
-        backgroundExecutor.execute(() -> Platform.runLater(() -> tabViewPane.addTab(
-                FXMLUtils.load(AccountsViewController.class.getResource("AccountsView.fxml"), resources),
-                resources.getString("Tab.Accounts"))));
+        backgroundExecutor.execute(() -> Platform.runLater(() -> {
+            try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Accounts view")) {
+                tabViewPane.addTab(FXMLUtils.load(AccountsViewController.class.getResource("AccountsView.fxml"), resources),
+                        resources.getString("Tab.Accounts"));
+            }
+        }));
 
-        backgroundExecutor.execute(() -> Platform.runLater(() -> tabViewPane.addTab(
-                FXMLUtils.load(RegisterViewController.class.getResource("RegisterView.fxml"), resources),
-                resources.getString("Tab.Register"))));
+        backgroundExecutor.execute(() -> Platform.runLater(() -> {
+            try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Register view")) {
+                tabViewPane.addTab(FXMLUtils.load(RegisterViewController.class.getResource("RegisterView.fxml"), resources),
+                        resources.getString("Tab.Register"));
+            }
+        }));
 
-        backgroundExecutor.execute(() -> Platform.runLater(() -> tabViewPane.addTab(
-                FXMLUtils.load(RecurringViewController.class.getResource("RecurringView.fxml"), resources),
-                resources.getString("Tab.Reminders"))));
+        backgroundExecutor.execute(() -> Platform.runLater(() -> {
+            try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Reminders view")) {
+                tabViewPane.addTab(FXMLUtils.load(RecurringViewController.class.getResource("RecurringView.fxml"), resources),
+                        resources.getString("Tab.Reminders"));
+            }
+        }));
 
-        backgroundExecutor.execute(() -> Platform.runLater(() -> tabViewPane.addTab(
-                FXMLUtils.load(BudgetViewController.class.getResource("BudgetView.fxml"), resources),
-                resources.getString("Tab.Budgeting"))));
+        backgroundExecutor.execute(() -> Platform.runLater(() -> {
+            try (final StartupTimeline.Phase ignored = StartupTimeline.begin("Budgeting view")) {
+                tabViewPane.addTab(FXMLUtils.load(BudgetViewController.class.getResource("BudgetView.fxml"), resources),
+                        resources.getString("Tab.Budgeting"));
+            }
+        }));
 
         backgroundExecutor.execute(() ->
                 Platform.runLater(() -> {
@@ -303,6 +327,8 @@ public class MainView implements MessageListener {
 
                     tabViewPane.getSelectionModel()
                             .selectedIndexProperty().addListener(new WeakChangeListener<>(tabListener));
+
+                    StartupTimeline.finish();   // the views of the first file are in place
                 }));
     }
 
@@ -386,6 +412,7 @@ public class MainView implements MessageListener {
                 StaticUIMethods.displayError(resources.getString("Message.Error.IOError"));
                 break;
             case FILE_LOAD_FAILED:
+                StartupTimeline.finish();
                 logger.warning(resources.getString("Message.Error.LoadingFile"));
                 StaticUIMethods.displayError(resources.getString("Message.Error.LoadingFile"));
                 break;
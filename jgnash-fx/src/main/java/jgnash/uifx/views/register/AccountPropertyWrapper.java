@@ -19,6 +19,7 @@ package jgnash.uifx.views.register;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -30,6 +31,8 @@ import javafx.concurrent.Task;
 
 import jgnash.engine.Account;
 import jgnash.engine.AccountGroup;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
 import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
@@ -88,6 +91,7 @@ class AccountPropertyWrapper implements MessageListener {
             case ACCOUNT_MODIFY:
             case TRANSACTION_ADD:
             case TRANSACTION_REMOVE:
+            case TRANSACTION_RECONCILED:
                 if (event.getObject(MessageProperty.ACCOUNT).equals(account.get())) {
                     updateProperties();
                 }
@@ -103,6 +107,21 @@ class AccountPropertyWrapper implements MessageListener {
             JavaFXUtils.runLater(() -> accountName.set(""));
         }
 
+        final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+        // balances depend on the complete history, wait for older transactions still being loaded
+        if (engine != null && engine.isTransactionHistoryLoading()) {
+            JavaFXUtils.runLater(() -> {
+                accountBalance.set("");
+                reconciledAmount.set("");
+                cashBalance.set("");
+                marketValue.set("");
+            });
+
+            engine.whenTransactionsLoaded(LocalDate.MIN).whenComplete((result, throwable) -> updateProperties());
+            return;
+        }
+
         executorService.submit(new Task<Void>() {
             @Override
             protected Void call() {
@@ -146,8 +146,10 @@ public class AttachmentPane extends GridPane {
             final Path path = attachment.get().getFileName();
 
             if (moveAttachment) {
-                if (moveAttachment() && path != null) {
-                    transaction.setAttachment(path.toString());
+                final String reference = moveAttachment();
+
+                if (reference != null) {
+                    transaction.setAttachment(reference);
                 } else if (path!= null) {
                     transaction.setAttachment(null);
 
@@ -163,7 +165,7 @@ public class AttachmentPane extends GridPane {
         return transaction;
     }
 
-    private boolean moveAttachment() {
+    private String moveAttachment() {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
         Objects.requireNonNull(engine);
 
@@ -19,9 +19,11 @@ package jgnash.uifx.views.register;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -32,6 +34,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.IntegerProperty;
@@ -60,6 +63,7 @@ import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.util.Callback;
+import javafx.util.Duration;
 
 import jgnash.engine.Account;
 import jgnash.engine.Engine;
@@ -98,6 +102,11 @@ abstract class RegisterTableController {
 
 	private static final String PREF_NODE_USER_ROOT = "/jgnash/uifx/views/register";
 
+	/**
+	 * Delay in milliseconds before attachments of the visible rows are prefetched.
+	 */
+	private static final int PREFETCH_DELAY = 250;
+
 	/**
 	 * Active account for the pane.
 	 */
@@ -131,6 +140,11 @@ abstract class RegisterTableController {
 	// Used for selection summary tooltip
 	private final Tooltip selectionSummaryTooltip = new Tooltip();
 
+	// Attachments of visible rows waiting to be prefetched, only accessed from the application thread
+	private final Set<String> prefetchAttachments = new HashSet<>();
+
+	private final PauseTransition prefetchPause = new PauseTransition(Duration.millis(PREFETCH_DELAY));
+
     /**
      * Listens for changes to the font scale
      */
@@ -184,6 +198,8 @@ abstract class RegisterTableController {
 		// table view displays the sorted list of data. The comparator property must be
 		// bound
 		tableView.setItems(sortedList);
+
+		prefetchPause.setOnFinished(event -> prefetchAttachments());
 		sortedList.comparatorProperty().bind(tableView.comparatorProperty());
 
 		// Bind the account property
@@ -363,6 +379,19 @@ abstract class RegisterTableController {
 	private void loadTable() {
 		observableTransactions.clear();
 
+		final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+		// running balances depend on the complete history, wait for older transactions still being loaded
+		if (engine != null && engine.isTransactionHistoryLoading()) {
+			tableView.setPlaceholder(new Label(resources.getString("Message.LoadingTransactions")));
+
+			engine.whenTransactionsLoaded(LocalDate.MIN).whenComplete((result, throwable)
+					-> JavaFXUtils.runLater(this::loadTable));
+			return;
+		}
+
+		tableView.setPlaceholder(null);
+
 		if (account.get() != null) {
 			observableTransactions.addAll(account.get().getSortedTransactionList());
 
@@ -504,6 +533,26 @@ abstract class RegisterTableController {
 		}
 	}
 
+	/**
+	 * Collects the attachments of rows as they become visible and requests them once scrolling pauses.
+	 *
+	 * @param attachment attachment reference
+	 */
+	private void queueAttachmentPrefetch(final String attachment) {
+		prefetchAttachments.add(attachment);
+		prefetchPause.playFromStart();
+	}
+
+	private void prefetchAttachments() {
+		final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+		if (engine != null && !prefetchAttachments.isEmpty()) {
+			engine.prefetchAttachments(new ArrayList<>(prefetchAttachments));
+		}
+
+		prefetchAttachments.clear();
+	}
+
 	private class TransactionRowFactory implements Callback<TableView<Transaction>, TableRow<Transaction>> {
 
 		@Override
@@ -546,6 +595,13 @@ abstract class RegisterTableController {
 			row.contextMenuProperty().bind(
 					Bindings.when(Bindings.isNotNull(row.itemProperty())).then(rowMenu).otherwise((ContextMenu) null));
 
+			// rows are only created for the visible part of the table, prefetch their attachments
+			row.itemProperty().addListener((observable, oldValue, newValue) -> {
+				if (newValue != null && newValue.getAttachment() != null) {
+					queueAttachmentPrefetch(newValue.getAttachment());
+				}
+			});
+
 			// only display the tooltip if the selection size is greater than one
 			row.tooltipProperty().bind(Bindings.when(Bindings.greaterThan(selectionSize, 1))
 					.then(selectionSummaryTooltip).otherwise((Tooltip) null));
@@ -619,6 +675,9 @@ abstract class RegisterTableController {
 						refreshTable();
 					});
 
+					break;
+				case TRANSACTION_RECONCILED:
+					refreshTable();
 					break;
 				default:
 				}
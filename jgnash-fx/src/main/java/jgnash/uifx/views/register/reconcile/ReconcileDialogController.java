@@ -54,6 +54,7 @@ import jgnash.engine.RecTransaction;
 import jgnash.engine.ReconcileManager;
 import jgnash.engine.ReconciledState;
 import jgnash.engine.Transaction;
+import jgnash.engine.message.ChannelEvent;
 import jgnash.engine.message.Message;
 import jgnash.engine.message.MessageBus;
 import jgnash.engine.message.MessageChannel;
@@ -425,6 +426,11 @@ public class ReconcileDialogController implements MessageListener {
     @Override
     public void messagePosted(final Message message) {
         if (account != null && account.equals(message.getObject(MessageProperty.ACCOUNT))) {
+            if (message.getEvent() == ChannelEvent.TRANSACTION_RECONCILED) {
+                JavaFXUtils.runLater(this::refreshReconciledStates);
+                return;
+            }
+
             final Transaction transaction = message.getObject(MessageProperty.TRANSACTION);
 
             if (transaction != null) {
@@ -461,6 +467,25 @@ public class ReconcileDialogController implements MessageListener {
         }
     }
 
+    private void refreshReconciledStates() {
+        boolean changed = false;
+
+        readWriteLock.readLock().lock();
+        try {
+            for (final RecTransaction recTransaction : transactions) {
+                changed |= recTransaction.refreshReconciledState(account);
+            }
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+
+        if (changed) {
+            increaseTableView.refresh();
+            decreaseTableView.refresh();
+            updateCalculatedValues();
+        }
+    }
+
     private static class NumberChangeListener implements ChangeListener<Number> {
         private final TableViewManager<RecTransaction> tableViewManager;
         private final TableView<RecTransaction> tableView;
@@ -19,6 +19,7 @@ package jgnash;
 
 import jgnash.engine.Engine;
 import jgnash.engine.EngineFactory;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.engine.jpa.JpaNetworkServer;
 import jgnash.engine.message.MessageBus;
 import jgnash.ui.MainFrame;
@@ -224,6 +225,9 @@ public final class Main {
 
             if (options.has(HANG_DETECT_OPTION)) {
                 hangDetect = true;
+
+                // report the locks held when the EDT hangs
+                LockDiagnostics.setEnabled(true);
             }
 
             /*if (options.has(ENCRYPT_OPTION)) {
@@ -358,7 +362,7 @@ public final class Main {
 
                 accepts(XRENDER_OPTION, "Enable the XRender-based Java 2D rendering pipeline");
                 accepts(OPEN_GL_OPTION, "Enable OpenGL acceleration");
-                accepts(HANG_DETECT_OPTION, "Enable hang detection on the EDT");
+                accepts(HANG_DETECT_OPTION, "Enable hang detection on the EDT and lock diagnostics");
                 accepts(SHUTDOWN_OPTION, "Issues a shutdown request to a server");
                 accepts(EDT_OPTION, "Check for EDT violations");
                 accepts(ENCRYPT_OPTION, "Enable encryption for network communication");
@@ -42,6 +42,7 @@ import javax.swing.WindowConstants;
 import javax.swing.border.EmptyBorder;
 
 import jgnash.engine.Engine;
+import jgnash.engine.concurrent.LockDiagnostics;
 import jgnash.ui.components.MemoryMonitor;
 import jgnash.ui.util.DialogUtils;
 import jgnash.util.NotNull;
@@ -149,6 +150,16 @@ public class ConsoleDialog {
             JButton gcButton = new JButton(rb.getString("Button.ForceGC"));
 
             gcButton.addActionListener(e -> System.gc());
+
+            JButton lockButton = new JButton(rb.getString("Button.LockReport"));
+
+            lockButton.addActionListener(e -> {
+                synchronized (consoleLock) {
+                    if (console != null) {
+                        console.append(LockDiagnostics.getReport());
+                    }
+                }
+            });
            
             dialog = new JDialog(UIApplication.getFrame(), Dialog.ModalityType.MODELESS);
 
@@ -182,7 +193,7 @@ public class ConsoleDialog {
             panel.add(new MemoryMonitor(), BorderLayout.NORTH);
             panel.add(new JScrollPane(console), BorderLayout.CENTER);
 
-            JPanel buttonPanel = StaticUIMethods.buildRightAlignedBar(gcButton, copyButton);
+            JPanel buttonPanel = StaticUIMethods.buildRightAlignedBar(gcButton, lockButton, copyButton);
             buttonPanel.setBorder(new EmptyBorder(10, 0, 10, 0));
 
             panel.add(buttonPanel, BorderLayout.SOUTH);
@@ -45,6 +45,7 @@ import jgnash.ui.util.IconUtils;
 import jgnash.ui.util.builder.ActionParser;
 import jgnash.resource.util.ResourceUtils;
 import jgnash.resource.util.Version;
+import jgnash.util.StartupTimeline;
 import org.jdesktop.swingx.JXBusyLabel;
 import org.jdesktop.swingx.JXStatusBar;
 
@@ -555,11 +556,13 @@ public class MainFrame extends JFrame implements MessageListener, ActionListener
                     removeViews();
                     break;
                 case FILE_NOT_FOUND:
+                    StartupTimeline.finish();
                     break; // ignore for now
                 case FILE_IO_ERROR:
                     //StaticUIMethods.displayError(event.description);
                     break;
                 case FILE_LOAD_FAILED:
+                    StartupTimeline.finish();
                     break; // ignore for now
                 case ACCOUNT_REMOVE_FAILED:
                     StaticUIMethods.displayError(rb.getString("Message.Error.AccountRemove"));
@@ -568,6 +571,7 @@ public class MainFrame extends JFrame implements MessageListener, ActionListener
                     setOpenState(true);
                     addViews();
                     updateTitle();
+                    StartupTimeline.finish();   // the views of the first file are in place
                     break;
                 case BACKGROUND_PROCESS_STARTED:
                     setNetworkBusy(true);
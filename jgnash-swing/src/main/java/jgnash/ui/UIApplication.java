@@ -34,6 +34,7 @@ import jgnash.engine.message.MessageChannel;
 import jgnash.ui.components.ExceptionDialog;
 import jgnash.ui.splash.AboutDialog;
 import jgnash.resource.util.ResourceUtils;
+import jgnash.util.StartupTimeline;
 
 /**
  * GUI version of the jGnash program. This Class creates and provides access to the MainFrame.
@@ -61,6 +62,8 @@ public class UIApplication implements Thread.UncaughtExceptionHandler {
                         MainFrame.loadFile(file, password);
                     } else if (EngineFactory.openLastOnStartup()) {
                         MainFrame.loadLast();
+                    } else {
+                        StartupTimeline.finish();   // nothing is loaded at startup, the application is usable now
                     }
                 });
             } catch (final InterruptedException | InvocationTargetException e) {
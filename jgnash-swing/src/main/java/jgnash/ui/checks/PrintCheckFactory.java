@@ -116,12 +116,19 @@ public class PrintCheckFactory {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
         Objects.requireNonNull(engine);
 
+        // the listed transaction may be a detached copy, change the stored transaction
+        final Transaction stored = engine.getTransactionByUuid(transaction.getUuid());
+
+        if (stored == null) {
+            return transaction;
+        }
+
         try {
-            Transaction clone = (Transaction) transaction.clone();
+            Transaction clone = (Transaction) stored.clone();
 
-            clone.setNumber(getNextTransactionNum(transaction));
+            clone.setNumber(getNextTransactionNum(stored));
 
-            if (engine.removeTransaction(transaction)) {
+            if (engine.removeTransaction(stored)) {
                 engine.addTransaction(clone);
                 return clone;
             }
@@ -26,6 +26,8 @@ import java.util.LinkedList;
 import java.util.Timer;
 import java.util.TimerTask;
 
+import jgnash.engine.concurrent.LockDiagnostics;
+
 /**
  * Monitors the AWT event dispatch thread for events that take longer than a
  * certain time to be dispatched.
@@ -136,6 +138,7 @@ public final class EventDispatchThreadHangMonitor extends EventQueue {
             String stackTrace = stackTraceToString(currentStack);
             lastReportedStack = currentStack;
             Log.warn("(hang #" + hangNumber + ") event dispatch thread stuck processing event for " + timeSoFar() + " ms:" + stackTrace);
+            reportHeldLocks(hangNumber);
             checkForDeadlock();
         }
 
@@ -263,6 +266,20 @@ public final class EventDispatchThreadHangMonitor extends EventQueue {
         debug("post");
     }
 
+    /**
+     * Reports the engine and account locks that are held when lock diagnostics are enabled.  A hung event dispatch
+     * thread is often waiting for a lock held by a background thread.
+     *
+     * @param hangNumber number of the hang being reported
+     */
+    private static void reportHeldLocks(final int hangNumber) {
+        if (LockDiagnostics.isEnabled()) {
+            for (final String heldLock : LockDiagnostics.getHeldLocks()) {
+                Log.warn("(hang #" + hangNumber + ") " + heldLock);
+            }
+        }
+    }
+
     private static void checkForDeadlock() {
         ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
         long[] threadIds = threadBean.findMonitorDeadlockedThreads();
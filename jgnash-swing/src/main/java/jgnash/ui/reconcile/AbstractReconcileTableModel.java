@@ -212,6 +212,13 @@ abstract class AbstractReconcileTableModel extends AbstractTableModel implements
                                 }
                             }
                             break;
+                        case TRANSACTION_RECONCILED:
+                            for (int i = 0; i < list.size(); i++) {
+                                if (list.get(i).refreshReconciledState(account)) {
+                                    fireTableRowsUpdated(i, i);
+                                }
+                            }
+                            break;
                         default:
                             break;
                     }
@@ -182,6 +182,17 @@ public class ReconcileDialog extends JDialog implements MessageListener, ActionL
         updateDebitStatus();
         updateStatus();
 
+        // transactions may be reconciled from another dialog or client while this one is open
+        creditModel.addTableModelListener(e -> {
+            updateCreditStatus();
+            updateStatus();
+        });
+
+        debitModel.addTableModelListener(e -> {
+            updateDebitStatus();
+            updateStatus();
+        });
+
         finishButton.addActionListener(this);
         finishLaterButton.addActionListener(this);
         cancelButton.addActionListener(this);
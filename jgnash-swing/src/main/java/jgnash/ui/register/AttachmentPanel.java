@@ -143,8 +143,10 @@ class AttachmentPanel extends JPanel implements ActionListener {
             final Path path = attachment.getFileName();
 
             if (moveAttachment) {   // move the attachment first
-                if (moveAttachment()) {
-                    transaction.setAttachment(path.toString());
+                final String reference = moveAttachment();
+
+                if (reference != null) {
+                    transaction.setAttachment(reference);
                 } else {
                     transaction.setAttachment(null);
 
@@ -162,7 +164,7 @@ class AttachmentPanel extends JPanel implements ActionListener {
         return transaction;
     }
 
-    private boolean moveAttachment() {
+    private String moveAttachment() {
         final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
         Objects.requireNonNull(engine);
 
@@ -274,6 +274,9 @@ public abstract class AbstractRegisterTableModel extends AbstractTableModel impl
                         balanceCache.clear();
                         fireTableDataChanged();
                         break;
+                    case TRANSACTION_RECONCILED:
+                        fireTableDataChanged();
+                        break;
                     default:
                         break;
 
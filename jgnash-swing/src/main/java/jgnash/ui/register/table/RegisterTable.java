@@ -19,24 +19,34 @@ package jgnash.ui.register.table;
 
 import javax.swing.JLabel;
 import javax.swing.JTable;
+import javax.swing.JViewport;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 import javax.swing.ToolTipManager;
+import javax.swing.event.ChangeListener;
 import javax.swing.table.TableCellRenderer;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Container;
 import java.awt.Font;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
+import java.util.HashSet;
+import java.util.Set;
 
 import jgnash.engine.Account;
 import jgnash.engine.CommodityNode;
 import jgnash.engine.CurrencyNode;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
 import jgnash.engine.InvestmentTransaction;
 import jgnash.engine.Transaction;
 import jgnash.text.CommodityFormat;
@@ -59,6 +69,15 @@ public class RegisterTable extends FormattedJTable {
 
     private final DateTimeFormatter dateFormatter = DateUtils.getShortDateFormatter();
 
+    /**
+     * Delay in milliseconds before attachments of the visible rows are prefetched.  Restarted while scrolling.
+     */
+    private static final int PREFETCH_DELAY = 250;
+
+    private final Timer prefetchTimer = new Timer(PREFETCH_DELAY, e -> prefetchVisibleAttachments());
+
+    private final ChangeListener viewportListener = e -> prefetchTimer.restart();
+
     public RegisterTable(final AccountTableModel dm) {
         super(dm);
         init();
@@ -81,6 +100,66 @@ public class RegisterTable extends FormattedJTable {
 
         // disable tool tips to improve speed   
         ToolTipManager.sharedInstance().unregisterComponent(getTableHeader());
+
+        prefetchTimer.setRepeats(false);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+
+        final Container parent = getParent();
+
+        if (parent instanceof JViewport) {
+            ((JViewport) parent).addChangeListener(viewportListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        final Container parent = getParent();
+
+        if (parent instanceof JViewport) {
+            ((JViewport) parent).removeChangeListener(viewportListener);
+        }
+
+        prefetchTimer.stop();
+
+        super.removeNotify();
+    }
+
+    /**
+     * Requests the attachments of the visible transactions so they are available when the transaction is selected.
+     */
+    private void prefetchVisibleAttachments() {
+        final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+
+        if (engine == null || !(getModel() instanceof AbstractRegisterTableModel) || getRowCount() == 0) {
+            return;
+        }
+
+        final Rectangle visible = getVisibleRect();
+
+        final int first = Math.max(0, rowAtPoint(visible.getLocation()));
+        int last = rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+
+        if (last < 0) {
+            last = getRowCount() - 1;
+        }
+
+        final Set<String> attachments = new HashSet<>();
+
+        for (int row = first; row <= last; row++) {
+            final String attachment = ((AbstractRegisterTableModel) getModel()).getTransactionAt(row).getAttachment();
+
+            if (attachment != null) {
+                attachments.add(attachment);
+            }
+        }
+
+        if (!attachments.isEmpty()) {
+            engine.prefetchAttachments(attachments);
+        }
     }
 
     /**
@@ -270,6 +270,9 @@ public class RegisterTableWithSplitEntriesModel extends RegisterTableModel {
                         updateData();
                         fireTableDataChanged();
                         break;
+                    case TRANSACTION_RECONCILED:
+                        fireTableDataChanged();
+                        break;
                     default:
                         break;
                 }
@@ -211,6 +211,9 @@ public class SortedTableModel extends RegisterTableModel implements SortableTabl
                 case TRANSACTION_REMOVE:
                     EventQueue.invokeLater(() -> removeTransaction(event.getObject(MessageProperty.TRANSACTION)));
                     return;
+                case TRANSACTION_RECONCILED:
+                    EventQueue.invokeLater(this::fireTableDataChanged);
+                    return;
                 default: // ignore any other messages that don't belong to us
                     break;
             }
@@ -268,6 +268,10 @@ abstract class AbstractCrosstabReport extends DynamicJasperReport {
 
         updateResolution();
 
+        // sum all periods at once, the data store may be able to compute the sums without reading the transactions
+        final Map<Account, List<BigDecimal>> balances = EngineFactory.getEngine(EngineFactory.DEFAULT)
+                .getBalances(accounts, startDates, endDates, baseCurrency);
+
         // remove any account that will report a zero balance for all periods
         if (hideZeroBalanceAccounts.isSelected()) {
             Iterator<Account> i = accounts.iterator();
@@ -276,7 +280,7 @@ abstract class AbstractCrosstabReport extends DynamicJasperReport {
                 boolean remove = true;
 
                 for (int j = 0; j < endDates.size(); j++) {
-                    if (account.getBalance(startDates.get(j), endDates.get(j)).compareTo(BigDecimal.ZERO) != 0) {
+                    if (balances.get(account).get(j).compareTo(BigDecimal.ZERO) != 0) {
                         remove = false;
                         break;
                     }
@@ -301,7 +305,7 @@ abstract class AbstractCrosstabReport extends DynamicJasperReport {
         columnsList.add(ci);
 
         for (int i = 0; i < dateLabels.size(); ++i) {
-            ci = new DateRangeBalanceColumnInfo(accounts, startDates.get(i), endDates.get(i), baseCurrency);
+            ci = new DateRangeBalanceColumnInfo(accounts, balances, i);
             ci.columnName = dateLabels.get(i);
             ci.headerStyle = ColumnHeaderStyle.RIGHT;
             ci.columnClass = BigDecimal.class;
@@ -553,23 +557,19 @@ abstract class AbstractCrosstabReport extends DynamicJasperReport {
 
         private final List<Account> accountList;
 
-        private final LocalDate startDate;
-
-        private final LocalDate endDate;
+        private final Map<Account, List<BigDecimal>> balances;
 
-        private final CurrencyNode currency;
+        private final int period;
 
-        DateRangeBalanceColumnInfo(List<Account> accountList, LocalDate startDate, LocalDate endDate, CurrencyNode currency) {
+        DateRangeBalanceColumnInfo(List<Account> accountList, Map<Account, List<BigDecimal>> balances, int period) {
             this.accountList = accountList;
-            this.startDate = startDate;
-            this.endDate = endDate;
-            this.currency = currency;
+            this.balances = balances;
+            this.period = period;
         }
 
         @Override
         public Object getValue(int rowIndex) {
-            Account a = accountList.get(rowIndex);
-            return a.getBalance(startDate, endDate, currency).negate();
+            return balances.get(accountList.get(rowIndex)).get(period).negate();
         }
     }
 
@@ -24,13 +24,17 @@ import java.io.File;
 import java.io.LineNumberReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import javax.swing.Action;
 import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
 import javax.swing.SwingWorker;
 
 import jgnash.convert.importat.GenericImport;
@@ -74,12 +78,41 @@ class ImportMt940Action extends AbstractEnabledAction {
 
         // Choose the file to be imported
         final JFileChooser chooser = new JFileChooser();
-        chooser.setMultiSelectionEnabled(false);
+        chooser.setMultiSelectionEnabled(true);
 
         if (chooser.showOpenDialog(UIApplication.getFrame()) == JFileChooser.APPROVE_OPTION) {
-            File file = chooser.getSelectedFile();
-            if (file.exists()) {
-                new ImportMt940(file.getAbsolutePath()).execute();
+            final File[] files = chooser.getSelectedFiles();
+
+            if (files.length > 1) {     // multiple statements are imported in batch mode without the wizard
+                final List<Path> paths = Arrays.stream(files).filter(File::exists).map(File::toPath)
+                        .collect(Collectors.toList());
+
+                new ImportMt940Batch(paths).execute();
+            } else if (files.length == 1 && files[0].exists()) {
+                new ImportMt940(files[0].getAbsolutePath()).execute();
+            }
+        }
+    }
+
+    final static class ImportMt940Batch extends SwingWorker<Mt940BatchImport.Result, Void> {
+        private final List<Path> files;
+
+        ImportMt940Batch(final List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected Mt940BatchImport.Result doInBackground() throws Exception {
+            return Mt940BatchImport.importFiles(files);
+        }
+
+        @Override
+        protected void done() {
+            try {
+                StaticUIMethods.displayMessage(get().getSummary(), ResourceUtils.getString("Title.Information"),
+                        JOptionPane.INFORMATION_MESSAGE);
+            } catch (final InterruptedException | ExecutionException e) {
+                StaticUIMethods.displayError(e.getLocalizedMessage());
             }
         }
     }
@@ -21,9 +21,11 @@ import java.io.File;
 import java.io.LineNumberReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.prefs.Preferences;
+import java.util.stream.Collectors;
 
 import javafx.concurrent.Task;
 import javafx.stage.FileChooser;
@@ -69,13 +71,22 @@ class ImportMt940FxAction {
         final FileChooser fileChooser = configureFileChooser();
         fileChooser.setTitle(resources.getString("Title.SelFile"));
       
-		final File file = fileChooser.showOpenDialog(MainView.getPrimaryStage());
+        final List<File> files = fileChooser.showOpenMultipleDialog(MainView.getPrimaryStage());
 
-        if (file != null) {
+        if (files != null && !files.isEmpty()) {
             Preferences pref = Preferences.userNodeForPackage(ImportMt940FxAction.class);
-            pref.put(LAST_DIR, file.getParentFile().getAbsolutePath());
+            pref.put(LAST_DIR, files.get(0).getParentFile().getAbsolutePath());
 
-            new Thread(new ImportTask(file)).start();
+            if (files.size() > 1) { // multiple statements are imported in batch mode without the wizard
+                final BatchImportTask batchImportTask
+                        = new BatchImportTask(files.stream().map(File::toPath).collect(Collectors.toList()));
+
+                new Thread(batchImportTask).start();
+
+                StaticUIMethods.displayTaskProgress(batchImportTask);
+            } else {
+                new Thread(new ImportTask(files.get(0))).start();
+            }
         }
     }
 
@@ -141,6 +152,26 @@ class ImportMt940FxAction {
         }
     }
 
+    private static class BatchImportTask extends Task<Mt940BatchImport.Result> {
+
+        private final List<Path> files;
+
+        BatchImportTask(final List<Path> files) {
+            this.files = files;
+
+            setOnSucceeded(event -> StaticUIMethods.displayMessage(getValue().getSummary()));
+            setOnFailed(event -> StaticUIMethods.displayException(getException()));
+        }
+
+        @Override
+        protected Mt940BatchImport.Result call() throws Exception {
+            updateMessage(ResourceUtils.getString("Message.PleaseWait"));
+            updateProgress(-1, Long.MAX_VALUE);
+
+            return Mt940BatchImport.importFiles(files);
+        }
+    }
+
     private static class ImportTransactionsTask extends Task<Void> {
 
         private final Account account;
@@ -0,0 +1,317 @@
+/*
+ * jGnash, a personal finance application
+ * Copyright (C) 2001-2018 Craig Cavanaugh
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.bzzt.swift.mt940;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import jgnash.convert.importat.BayesImportClassifier;
+import jgnash.convert.importat.GenericImport;
+import jgnash.convert.importat.ImportTransaction;
+import jgnash.convert.importat.ImportUtils;
+import jgnash.engine.Account;
+import jgnash.engine.Engine;
+import jgnash.engine.EngineFactory;
+import jgnash.resource.util.ResourceUtils;
+import jgnash.util.NotNull;
+
+import net.bzzt.swift.mt940.exporter.Mt940Exporter;
+import net.bzzt.swift.mt940.parser.Mt940Parser;
+
+/**
+ * Batch import of multiple MT940 files.
+ * <p>
+ * Files are parsed in parallel and entries from overlapping statements are removed using a hash of the entry
+ * contents.  The hash is assigned as the FITID of the resulting transactions so entries imported by a prior batch
+ * are matched and skipped as well.  The remaining entries are grouped by statement account and imported with a single
+ * engine operation per account.
+ *
+ * @author Craig Cavanaugh
+ */
+public class Mt940BatchImport {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final String FITID_PREFIX = "MT940:";
+
+    private Mt940BatchImport() {
+        // Utility class
+    }
+
+    /**
+     * Parses, de-duplicates and imports a collection of MT940 files.  Statement accounts are matched against the
+     * account number of existing accounts.
+     *
+     * @param files files to import
+     * @return summary of the import
+     * @throws IOException if a file could not be read
+     */
+    public static Result importFiles(@NotNull final Collection<Path> files) throws IOException {
+        final Engine engine = EngineFactory.getEngine(EngineFactory.DEFAULT);
+        Objects.requireNonNull(engine);
+
+        final Result result = new Result();
+
+        final Map<String, Map<String, Mt940Entry>> statements = deduplicate(parseFiles(files), result);
+
+        for (final Map.Entry<String, Map<String, Mt940Entry>> statement : statements.entrySet()) {
+            final Account account = findAccount(engine, statement.getKey());
+
+            if (account == null) {
+                result.unmatchedAccounts.add(statement.getKey());
+                continue;
+            }
+
+            final List<String> hashes = new ArrayList<>(statement.getValue().keySet());
+            final List<ImportTransaction> transactions
+                    = Mt940Exporter.convertEntries(new ArrayList<>(statement.getValue().values()));
+
+            for (int i = 0; i < transactions.size(); i++) {
+                transactions.get(i).setFITID(hashes.get(i));
+                transactions.get(i).setAccount(account);
+            }
+
+            result.importCount.merge(account, importTransactions(transactions, account), Integer::sum);
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses a collection of files in parallel.
+     *
+     * @param files files to parse
+     * @return list of entries for each file in the same order as the supplied collection
+     * @throws IOException if a file could not be read
+     */
+    static List<List<Mt940Entry>> parseFiles(final Collection<Path> files) throws IOException {
+        try {
+            return files.parallelStream().map(Mt940BatchImport::parseFile).collect(Collectors.toList());
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<Mt940Entry> parseFile(final Path path) {
+        final Mt940Parser parser = new Mt940Parser();
+
+        try (final LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(path,
+                StandardCharsets.ISO_8859_1))) {
+            return parser.parse(reader).getEntries();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes entries duplicated by overlapping statements and groups the remaining entries by statement account.
+     * <p>
+     * Identical entries within a single file are legitimate (two equal purchases on the same day), so the n-th
+     * occurrence of an entry within a file is hashed separately.  An entry is then only dropped when another file
+     * already contributed the same occurrence.
+     *
+     * @param parsedFiles entries for each parsed file
+     * @param result      result to record entry and duplicate counts
+     * @return entries keyed by hash, grouped by statement account
+     */
+    static Map<String, Map<String, Mt940Entry>> deduplicate(final List<List<Mt940Entry>> parsedFiles,
+                                                            final Result result) {
+        final Map<String, Map<String, Mt940Entry>> statements = new LinkedHashMap<>();
+
+        for (final List<Mt940Entry> entries : parsedFiles) {
+            final Map<String, Integer> occurrences = new HashMap<>();
+
+            for (final Mt940Entry entry : entries) {
+                final String content = entryContent(entry);
+                final int occurrence = occurrences.merge(content, 1, Integer::sum);
+                final String hash = hash(content + '#' + occurrence);
+
+                result.entryCount++;
+
+                final Map<String, Mt940Entry> statement = statements.computeIfAbsent(accountKey(entry),
+                        k -> new LinkedHashMap<>());
+
+                if (statement.putIfAbsent(hash, entry) != null) {
+                    result.duplicateCount++;
+                }
+            }
+        }
+
+        return statements;
+    }
+
+    /**
+     * Matches a MT940 account identifier to an account using the account number.  German banks report the
+     * account as {@code BLZ/Account}, so a match on the trailing account number is accepted as well.
+     *
+     * @param engine           engine to search
+     * @param kontobezeichnung MT940 account identifier
+     * @return matching account, {@code null} if not found
+     */
+    static Account findAccount(final Engine engine, final String kontobezeichnung) {
+        if (kontobezeichnung.isEmpty()) {
+            return null;
+        }
+
+        for (final Account account : engine.getAccountList()) {
+            final String number = account.getAccountNumber();
+
+            if (number != null && !number.isEmpty() && !account.isPlaceHolder() && !account.isLocked()) {
+                if (kontobezeichnung.equals(number) || kontobezeichnung.endsWith("/" + number)) {
+                    return account;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static int importTransactions(final List<ImportTransaction> transactions, final Account account) {
+
+        // skip entries that have already been imported or entered by hand
+        GenericImport.matchTransactions(transactions, account);
+
+        BayesImportClassifier.classifyTransactions(transactions, account.getSortedTransactionList(), account);
+
+        // override the classifier if an account has been specified already
+        for (final ImportTransaction importTransaction : transactions) {
+            final Account match = ImportUtils.matchAccount(importTransaction);
+
+            if (match != null) {
+                importTransaction.setAccount(match);
+            }
+        }
+
+        return GenericImport.importTransactions(transactions, account);
+    }
+
+    private static String accountKey(final Mt940Entry entry) {
+        return entry.getKontobezeichnung() != null ? entry.getKontobezeichnung().trim() : "";
+    }
+
+    private static String entryContent(final Mt940Entry entry) {
+        final BigDecimal amount = entry.getBetrag() != null ? entry.getBetrag().stripTrailingZeros() : BigDecimal.ZERO;
+
+        return accountKey(entry) + '|' + entry.getValutaDatum() + '|' + entry.getSollHabenKennung() + '|'
+                + amount.toPlainString() + '|' + entry.getMehrzweckfeld();
+    }
+
+    private static String hash(final String content) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            final byte[] bytes = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+
+            final StringBuilder builder = new StringBuilder(FITID_PREFIX);
+
+            for (final byte b : bytes) {
+                builder.append(String.format("%02x", b));
+            }
+
+            return builder.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Summary of a batch import.
+     */
+    public static class Result {
+
+        private int entryCount;
+
+        private int duplicateCount;
+
+        private final Map<Account, Integer> importCount = new HashMap<>();
+
+        private final Set<String> unmatchedAccounts = new TreeSet<>();
+
+        /**
+         * Returns the total number of entries parsed from all files.
+         *
+         * @return number of parsed entries
+         */
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * Returns the number of entries dropped because an overlapping statement already contained them.
+         *
+         * @return number of duplicate entries
+         */
+        public int getDuplicateCount() {
+            return duplicateCount;
+        }
+
+        /**
+         * Returns the number of transactions imported into each account.
+         *
+         * @return map of account to number of imported transactions
+         */
+        public Map<Account, Integer> getImportCount() {
+            return Collections.unmodifiableMap(importCount);
+        }
+
+        /**
+         * Returns the statement account identifiers that could not be matched to an account.
+         *
+         * @return unmatched MT940 account identifiers
+         */
+        public Set<String> getUnmatchedAccounts() {
+            return Collections.unmodifiableSet(unmatchedAccounts);
+        }
+
+        /**
+         * Returns a localized summary of the import suitable for display.
+         *
+         * @return summary message
+         */
+        public String getSummary() {
+            final int imported = importCount.values().stream().mapToInt(Integer::intValue).sum();
+
+            final StringBuilder builder = new StringBuilder(ResourceUtils.getString("Message.ImportMt940Batch",
+                    imported, entryCount, duplicateCount));
+
+            if (!unmatchedAccounts.isEmpty()) {
+                builder.append(System.lineSeparator()).append(ResourceUtils.getString("Message.ImportMt940Unmatched",
+                        String.join(", ", unmatchedAccounts)));
+            }
+
+            return builder.toString();
+        }
+    }
+}
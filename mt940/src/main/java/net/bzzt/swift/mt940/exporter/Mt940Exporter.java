@@ -62,6 +62,16 @@ public class Mt940Exporter {
         return retVal;
     }
 
+    /**
+     * Convert a list of Mt940 entries to import transactions
+     *
+     * @param entries entries to convert
+     * @return list of import transactions
+     */
+    public static List<ImportTransaction> convertEntries(final List<Mt940Entry> entries) {
+        return entries.stream().map(Mt940Exporter::convert).collect(Collectors.toList());
+    }
+
     /**
      * Convert a single Mt940-entry to a jGnash-Transaction
      *
@@ -27,7 +27,11 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -150,4 +154,27 @@ class Mt940Test {
 			assertEquals(nTransactions, bank.getTransactions().size());
 		}
 	}
+
+	/**
+	 * Test that overlapping statements are parsed in batch and duplicate entries are removed
+	 *
+	 * @throws Exception throws assert exception
+	 */
+	@Test
+	void testMt940BatchDeduplicate() throws Exception {
+		int nTransactions = 18;
+
+		Path path = Paths.get(this.getClass().getResource("/bank1.STA").toURI());
+
+		List<List<Mt940Entry>> parsedFiles = Mt940BatchImport.parseFiles(Arrays.asList(path, path));
+		assertEquals(2, parsedFiles.size());
+
+		Mt940BatchImport.Result result = new Mt940BatchImport.Result();
+		Map<String, Map<String, Mt940Entry>> statements = Mt940BatchImport.deduplicate(parsedFiles, result);
+
+		assertEquals(nTransactions * 2, result.getEntryCount());
+		assertEquals(nTransactions, result.getDuplicateCount());
+		assertEquals(1, statements.size());
+		assertEquals(nTransactions, statements.get("531848396").size());
+	}
 }